@@ -0,0 +1,13 @@
+-- ==========================================
+-- Maintained active-loan counter per member
+-- Required: the member DAO reads active_loans
+-- ==========================================
+
+ALTER TABLE members
+    ADD COLUMN active_loans INT NOT NULL DEFAULT 0;
+
+-- Initialize from the current loans
+UPDATE members m
+SET active_loans = (SELECT COUNT(*) FROM loans l WHERE l.id_member = m.id_member AND l.status = 'ACTIVE');
+
+CREATE INDEX idx_loans_member_status ON loans (id_member, status);
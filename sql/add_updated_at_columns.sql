@@ -0,0 +1,13 @@
+-- ==========================================
+-- Last-modified tracking (incremental exports)
+-- Required: the book and loan DAOs read updated_at
+-- ==========================================
+
+ALTER TABLE books
+    ADD COLUMN updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP;
+
+ALTER TABLE loans
+    ADD COLUMN updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP;
+
+CREATE INDEX idx_books_updated_at ON books (updated_at);
+CREATE INDEX idx_loans_updated_at ON loans (updated_at);
@@ -0,0 +1,10 @@
+-- ==========================================
+-- Row versions for optimistic concurrency
+-- Required: the book and member DAOs read version
+-- ==========================================
+
+ALTER TABLE books
+    ADD COLUMN version INT NOT NULL DEFAULT 0;
+
+ALTER TABLE members
+    ADD COLUMN version INT NOT NULL DEFAULT 0;
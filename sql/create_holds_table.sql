@@ -0,0 +1,23 @@
+-- ==========================================
+-- Hold (reservation) queue per book
+-- ==========================================
+
+CREATE TABLE holds (
+    id_hold INT AUTO_INCREMENT PRIMARY KEY,
+    isbn VARCHAR(20) NOT NULL,
+    id_member INT NOT NULL,
+    status ENUM('WAITING', 'READY', 'FULFILLED', 'EXPIRED', 'CANCELLED') NOT NULL DEFAULT 'WAITING',
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    ready_at TIMESTAMP NULL,
+    expires_at TIMESTAMP NULL,
+    -- Set only while the hold is open, so a member can have one open hold per book
+    open_member INT AS (CASE WHEN status IN ('WAITING', 'READY') THEN id_member END) STORED,
+    UNIQUE KEY uq_holds_open (isbn, open_member),
+    FOREIGN KEY (isbn) REFERENCES books(isbn),
+    FOREIGN KEY (id_member) REFERENCES members(id_member)
+);
+
+-- FIFO order per book and the ready-for-pickup expiry sweep
+CREATE INDEX idx_holds_isbn_status ON holds (isbn, status, id_hold);
+CREATE INDEX idx_holds_status_expires ON holds (status, expires_at);
+CREATE INDEX idx_holds_member ON holds (id_member, status);
@@ -0,0 +1,18 @@
+@echo off
+rem LibroNova launcher (built with: mvn -P runtime-image package)
+rem Runs the bundled runtime with the class-data-sharing archive from the build's
+rem training run. If app.jsa is missing, this run recreates it.
+
+setlocal
+cd /d "%~dp0.."
+
+set "JAVA=runtime\bin\javaw.exe"
+if not exist "%JAVA%" set "JAVA=javaw"
+
+if exist app.jsa (
+    set "CDS=-XX:SharedArchiveFile=app.jsa -Xshare:auto"
+) else (
+    set "CDS=-XX:ArchiveClassesAtExit=app.jsa"
+)
+
+start "" "%JAVA%" %CDS% %JAVA_OPTS% -jar lib\libronova.jar %*
@@ -1,10 +1,26 @@
 package app;
 
-import controllers.*;
+import audit.LoanJournal;
+import config.ConfigLoader;
+import config.DatabaseConnection;
+import config.LoggerConfig;
+import models.Book;
+import models.Loan;
+import models.Member;
 import models.User;
+import server.ApiServer;
+import services.LoanService;
+import services.SchedulerService;
+import utils.InputValidator;
+import utils.TableFormatter;
 import views.*;
 
 import javax.swing.*;
+import java.awt.GraphicsEnvironment;
+import java.awt.GridLayout;
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+import java.util.List;
 
 /**
  * Clase principal de la aplicación de gestión de biblioteca
@@ -14,50 +30,189 @@ public class App {
 
     public static void main(String[] args) {
 
+        if (args.length > 0 && "--warmup".equals(args[0])) {
+            warmUp();
+            return;
+        }
+
+        ConfigLoader.getInstance().startWatching();
+
+        if (args.length > 0 && "--server".equals(args[0])) {
+            startServer();
+            return;
+        }
+
+        prewarmInBackground();
+
         try {
             UIManager.setLookAndFeel(UIManager.getSystemLookAndFeelClassName());
         } catch (Exception ignored) {}
 
+        SchedulerService scheduler = startScheduler();
+        if (scheduler != null) {
+            Runtime.getRuntime().addShutdownHook(new Thread(scheduler::shutdown, "scheduler-shutdown"));
+        }
+        rebuildIndexesInBackground();
+
+        LoanJournal journal = LoanJournal.start();
+        if (journal != null) {
+            Runtime.getRuntime().addShutdownHook(new Thread(journal::close, "audit-journal-close"));
+        }
+
         new App().start();
     }
 
-    private final AuthController authController;
-    private final BookController bookController;
-    private final MemberController memberController;
-    private final LoanController loanController;
-    private final ExportController exportController;
+    /**
+     * Headless mode: serve the JSON API instead of the Swing dialogs
+     */
+    private static void startServer() {
+        LoggerConfig.initialize();
+        SchedulerService scheduler = startScheduler();
+        rebuildIndexesInBackground();
+        LoanJournal journal = LoanJournal.start();
+
+        ApiServer server = new ApiServer();
+        try {
+            server.start();
+        } catch (Exception e) {
+            LoggerConfig.logError("Could not start API server", e);
+            System.err.println("Could not start API server: " + e.getMessage());
+            System.exit(1);
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            if (scheduler != null) {
+                scheduler.shutdown();
+            }
+            server.stop(5);
+            // After the last request, so every checkout and return it made is journaled
+            if (journal != null) {
+                journal.close();
+            }
+        }, "api-shutdown"));
+    }
 
-    private final AuthView authView;
-    private final BookView bookView;
-    private final MemberView memberView;
-    private final LoanView loanView;
-    private final ExportView exportView;
+    /**
+     * Training run for the class-data-sharing archive (runtime-image profile): load the
+     * classes a normal session needs up to the main menu, without a database or user input
+     */
+    private static void warmUp() {
+        try {
+            UIManager.setLookAndFeel(UIManager.getSystemLookAndFeelClassName());
+        } catch (Exception ignored) {}
 
-    public App() {
+        ComponentRegistry components = ComponentRegistry.getInstance();
+        components.getAuthView();
+        components.getBookView();
+        components.getMemberView();
+        components.getLoanView();
+        components.getExportView();
 
-        this.authController = new AuthController();
-        this.bookController = new BookController();
-        this.memberController = new MemberController();
-        this.loanController = new LoanController();
-        this.exportController = new ExportController();
+        Book book = new Book("9780306406157", "Warm-up", "LibroNova", "General", 1, 10.0);
+        Member member = new Member("Warm-up", "warmup@libronova.local", "3000000000", "-");
+        Loan loan = new Loan(book.getIsbn(), 1, LocalDate.now().plusDays(ConfigLoader.getInstance().getLoanDays()));
+        InputValidator.validateBook(book);
+        InputValidator.validateMember(member);
+        TableFormatter.formatBooksTable(List.of(book));
+        TableFormatter.formatMembersTable(List.of(member));
+        TableFormatter.formatLoansTable(List.of(loan));
 
+        // Build (but never show) the dialogs used at startup; there is no display on build servers
+        if (!GraphicsEnvironment.isHeadless()) {
+            JPanel panel = new JPanel(new GridLayout(0, 1));
+            panel.add(new JLabel("Usuario:"));
+            panel.add(new JTextField());
+            panel.add(new JPasswordField());
+            JDialog dialog = new JOptionPane(panel, JOptionPane.PLAIN_MESSAGE).createDialog("LibroNova");
+            dialog.pack();
+            dialog.dispose();
+        }
+
+        System.exit(0);
+    }
+
+    /**
+     * Start background jobs when enabled in config.properties
+     * @return The running scheduler, or null when disabled
+     */
+    private static SchedulerService startScheduler() {
+        if (!Boolean.parseBoolean(ConfigLoader.getInstance().getProperty("scheduler.enabled", "false"))) {
+            return null;
+        }
+        ComponentRegistry components = ComponentRegistry.getInstance();
+        SchedulerService scheduler = SchedulerService.getInstance();
+        scheduler.registerConfiguredExports(components.getBookService(), components.getLoanService());
+        scheduler.registerFineAssessment(components.getFineAssessmentService());
+        scheduler.registerHoldExpiry(components.getHoldService());
+        scheduler.registerLoanCounterReconciliation(components.getLoanService());
+        scheduler.start();
+        return scheduler;
+    }
+
+    /**
+     * Load in-memory indexes while the user is logging in
+     */
+    private static void rebuildIndexesInBackground() {
+        Thread thread = new Thread(() -> {
+            try {
+                LoanService loanService = ComponentRegistry.getInstance().getLoanService();
+                loanService.rebuildDueDateIndex();
+                loanService.rebuildActiveLoanCounters();
+            } catch (Exception e) {
+                // The index is loaded lazily on first use if this fails
+            }
+        }, "index-rebuild");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Do the slow one-time work (log files, JDBC driver, first connection, login screen)
+     * while the welcome dialog is on screen instead of before it
+     */
+    private static void prewarmInBackground() {
+        Thread thread = new Thread(() -> {
+            LoggerConfig.initialize();
+            try {
+                // Opening one connection loads the driver classes and resolves the server
+                DatabaseConnection.getInstance().getNewConnection().close();
+            } catch (Exception e) {
+                // Reported again, with a message, when the login needs the database
+            }
+            ComponentRegistry.getInstance().getAuthView();
+        }, "startup-prewarm");
+        thread.setDaemon(true);
+        thread.start();
+    }
 
-        this.authView = new AuthView(authController);
-        this.bookView = new BookView(bookController);
-        this.memberView = new MemberView(memberController);
-        this.loanView = new LoanView(loanController);
-        this.exportView = new ExportView(exportController);
+    private final ComponentRegistry components;
+    private boolean startupLogged;
+
+    public App() {
+        this(ComponentRegistry.getInstance());
+    }
+
+    public App(ComponentRegistry components) {
+        this.components = components;
     }
 
     /**
      * Inicia la aplicación: muestra login y luego menú principal
      */
     public void start() {
+        if (!startupLogged) {
+            startupLogged = true;
+            LoggerConfig.logInfo("Startup: welcome dialog after "
+                    + ManagementFactory.getRuntimeMXBean().getUptime() + " ms");
+        }
+
         JOptionPane.showMessageDialog(null,
                 " Bienvenido al Sistema de Gestión de Biblioteca",
                 "Biblioteca - Inicio", JOptionPane.INFORMATION_MESSAGE);
 
         // Login
+        AuthView authView = components.getAuthView();
+        LoggerConfig.logInfo("Startup: login prompt after "
+                + ManagementFactory.getRuntimeMXBean().getUptime() + " ms");
         User loggedUser = authView.showLogin();
         if (loggedUser == null) {
             JOptionPane.showMessageDialog(null, "Aplicación finalizada.");
@@ -95,12 +250,12 @@ public class App {
             if (option == null) break;
 
             switch (option) {
-                case "1" -> bookView.showMenu();
-                case "2" -> memberView.showMenu();
-                case "3" -> loanView.showMenu();
-                case "4" -> exportView.showMenu();
+                case "1" -> components.getBookView().showMenu();
+                case "2" -> components.getMemberView().showMenu();
+                case "3" -> components.getLoanView().showMenu();
+                case "4" -> components.getExportView().showMenu();
                 case "9" -> {
-                    authView.logout();
+                    components.getAuthView().logout();
                     start();
                     return;
                 }
@@ -0,0 +1,148 @@
+package app;
+
+import controllers.AuthController;
+import controllers.BookController;
+import controllers.ExportController;
+import controllers.LoanController;
+import controllers.MemberController;
+import services.BookService;
+import services.FineAssessmentService;
+import services.HoldService;
+import services.IncrementalExportService;
+import services.LoanService;
+import services.MemberService;
+import services.StatisticsService;
+import services.UserService;
+import utils.Lazy;
+import views.AuthView;
+import views.BookView;
+import views.ExportView;
+import views.LoanView;
+import views.MemberView;
+
+/**
+ * Shared services, controllers and views of the desktop application.
+ * Each component is built on first use (only the login screen is needed at startup)
+ * and then shared, so every controller works with the same service instances.
+ */
+public class ComponentRegistry {
+
+    private static ComponentRegistry instance;
+
+    // Services
+    private final Lazy<UserService> userService = new Lazy<>(UserService::new);
+    private final Lazy<BookService> bookService = new Lazy<>(BookService::new);
+    private final Lazy<MemberService> memberService = new Lazy<>(MemberService::new);
+    private final Lazy<LoanService> loanService = new Lazy<>(LoanService::new);
+    private final Lazy<HoldService> holdService = new Lazy<>(HoldService::new);
+    private final Lazy<FineAssessmentService> fineAssessmentService = new Lazy<>(FineAssessmentService::new);
+    private final Lazy<StatisticsService> statisticsService = new Lazy<>(StatisticsService::new);
+    private final Lazy<IncrementalExportService> incrementalExportService = new Lazy<>(IncrementalExportService::new);
+
+    // Controllers
+    private final Lazy<AuthController> authController =
+            new Lazy<>(() -> new AuthController(getUserService()));
+    private final Lazy<BookController> bookController =
+            new Lazy<>(() -> new BookController(getBookService()));
+    private final Lazy<MemberController> memberController =
+            new Lazy<>(() -> new MemberController(getMemberService()));
+    private final Lazy<LoanController> loanController =
+            new Lazy<>(() -> new LoanController(getLoanService(), getFineAssessmentService(),
+                    getStatisticsService(), getHoldService()));
+    private final Lazy<ExportController> exportController =
+            new Lazy<>(() -> new ExportController(getBookController(), getLoanController(),
+                    getIncrementalExportService()));
+
+    // Views
+    private final Lazy<AuthView> authView = new Lazy<>(() -> new AuthView(getAuthController()));
+    private final Lazy<BookView> bookView = new Lazy<>(() -> new BookView(getBookController()));
+    private final Lazy<MemberView> memberView = new Lazy<>(() -> new MemberView(getMemberController()));
+    private final Lazy<LoanView> loanView = new Lazy<>(() -> new LoanView(getLoanController()));
+    private final Lazy<ExportView> exportView = new Lazy<>(() -> new ExportView(getExportController()));
+
+    private ComponentRegistry() {
+    }
+
+    public static ComponentRegistry getInstance() {
+        if (instance == null) {
+            synchronized (ComponentRegistry.class) {
+                if (instance == null) {
+                    instance = new ComponentRegistry();
+                }
+            }
+        }
+        return instance;
+    }
+
+    public UserService getUserService() {
+        return userService.get();
+    }
+
+    public BookService getBookService() {
+        return bookService.get();
+    }
+
+    public MemberService getMemberService() {
+        return memberService.get();
+    }
+
+    public LoanService getLoanService() {
+        return loanService.get();
+    }
+
+    public HoldService getHoldService() {
+        return holdService.get();
+    }
+
+    public FineAssessmentService getFineAssessmentService() {
+        return fineAssessmentService.get();
+    }
+
+    public StatisticsService getStatisticsService() {
+        return statisticsService.get();
+    }
+
+    public IncrementalExportService getIncrementalExportService() {
+        return incrementalExportService.get();
+    }
+
+    public AuthController getAuthController() {
+        return authController.get();
+    }
+
+    public BookController getBookController() {
+        return bookController.get();
+    }
+
+    public MemberController getMemberController() {
+        return memberController.get();
+    }
+
+    public LoanController getLoanController() {
+        return loanController.get();
+    }
+
+    public ExportController getExportController() {
+        return exportController.get();
+    }
+
+    public AuthView getAuthView() {
+        return authView.get();
+    }
+
+    public BookView getBookView() {
+        return bookView.get();
+    }
+
+    public MemberView getMemberView() {
+        return memberView.get();
+    }
+
+    public LoanView getLoanView() {
+        return loanView.get();
+    }
+
+    public ExportView getExportView() {
+        return exportView.get();
+    }
+}
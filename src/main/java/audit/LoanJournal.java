@@ -0,0 +1,322 @@
+package audit;
+
+import audit.LoanJournalFormat.EventType;
+import config.ConfigLoader;
+import config.LoggerConfig;
+import events.EventBus;
+import events.LoanCreated;
+import events.LoanEvent;
+import events.LoanReturned;
+import models.Loan;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+import static audit.LoanJournalFormat.*;
+
+/**
+ * Append-only binary audit journal of checkouts and returns.
+ *
+ * Records have a fixed width (see {@link LoanJournalFormat}) and are written straight into
+ * a memory-mapped segment file; when a segment is full the next one is created. The
+ * journal subscribes to the LoanCreated and LoanReturned events on a dedicated thread
+ * that blocks publishers rather than lose an event, and forces each batch to disk.
+ * One process writes a journal directory at a time (journal.lock); on startup the last
+ * segment is checked and a record torn by a crash is overwritten.
+ */
+public class LoanJournal implements AutoCloseable {
+
+    private static LoanJournal instance;
+
+    private final Path directory;
+    private final int segmentRecords;
+    private final FileChannel lockChannel;
+    private final FileLock lock;
+    private final CRC32C crc = new CRC32C();
+
+    private FileChannel channel;
+    private MappedByteBuffer segment;
+    private long segmentIndex;
+    private long baseSequence;
+    private int capacity; // of the current segment, which may predate a change of audit.segmentRecords
+    private int position; // records written to the current segment
+    private long lastTimestamp;
+    private EventBus.Subscription subscription;
+
+    /**
+     * Open (or create) the journal in a directory, resuming after its last valid record
+     */
+    public LoanJournal(Path directory, int segmentRecords) throws IOException {
+        if (segmentRecords < 1 || segmentRecords > (Integer.MAX_VALUE - HEADER_SIZE) / RECORD_SIZE) {
+            throw new IllegalArgumentException("segmentRecords out of range: " + segmentRecords);
+        }
+        this.directory = directory;
+        this.segmentRecords = segmentRecords;
+        Files.createDirectories(directory);
+
+        this.lockChannel = FileChannel.open(directory.resolve("journal.lock"),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        FileLock acquired;
+        try {
+            acquired = lockChannel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            acquired = null; // already open in this process
+        }
+        this.lock = acquired;
+        if (lock == null) {
+            lockChannel.close();
+            throw new IOException("Audit journal " + directory + " is in use by another process");
+        }
+
+        try {
+            List<Path> segments = LoanJournalReader.listSegments(directory);
+            if (segments.isEmpty()) {
+                openSegment(1, 0);
+            } else {
+                recover(segments.get(segments.size() - 1));
+            }
+        } catch (IOException | RuntimeException e) {
+            release();
+            throw e;
+        }
+    }
+
+    /**
+     * Open the journal configured in config.properties (audit.*) and subscribe it to loan events.
+     * Failures are logged: the application keeps working without a journal.
+     * @return The running journal, or null when disabled or it could not be opened
+     */
+    public static synchronized LoanJournal start() {
+        if (instance != null) {
+            return instance;
+        }
+        ConfigLoader config = ConfigLoader.getInstance();
+        if (!Boolean.parseBoolean(config.getProperty("audit.enabled", "true"))) {
+            return null;
+        }
+
+        Path directory = Path.of(config.getProperty("audit.dir", "audit"));
+        try {
+            LoanJournal journal = new LoanJournal(directory,
+                    Math.max(1, config.getIntProperty("audit.segmentRecords", 262_144)));
+            journal.subscription = EventBus.getInstance().subscribeAsync("loan-journal", LoanEvent.class,
+                    journal::appendBatch, Math.max(1, config.getIntProperty("audit.queueCapacity", 8192)), 512,
+                    EventBus.Backpressure.BLOCK);
+            instance = journal;
+            LoggerConfig.logInfo("Loan audit journal open: " + directory.toAbsolutePath()
+                    + " (next record " + journal.getNextSequence() + ")");
+            return journal;
+        } catch (IOException e) {
+            LoggerConfig.logError("Could not open the loan audit journal, loan events are not journaled", e);
+            return null;
+        }
+    }
+
+    /**
+     * The journal opened by start(), or null
+     */
+    public static synchronized LoanJournal getInstance() {
+        return instance;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Sequence number the next record will get (= records written so far)
+     */
+    public synchronized long getNextSequence() {
+        return baseSequence + position;
+    }
+
+    /**
+     * Append the events of one bus batch and force them to disk
+     */
+    private void appendBatch(List<LoanEvent> events) {
+        try {
+            synchronized (this) {
+                for (LoanEvent event : events) {
+                    append(event);
+                }
+                segment.force();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write the loan audit journal", e);
+        }
+    }
+
+    /**
+     * Append one checkout or return (not forced to disk)
+     */
+    public synchronized void append(LoanEvent event) throws IOException {
+        Loan loan = event.getLoan();
+        long isbn = packIsbn(loan.getIsbn());
+        if (isbn == 0) {
+            LoggerConfig.logWarning("Audit journal: loan " + loan.getIdLoan() + " has a non-ISBN book code '"
+                    + loan.getIsbn() + "', journaled without it");
+        }
+        Integer branchId = event.getBranchId();
+
+        if (event instanceof LoanReturned returned) {
+            append(event.getOccurredAt().toEpochMilli(), EventType.RETURN, loan.getIdLoan(), isbn, loan.getIdMember(),
+                    Math.round(returned.getFineAmount() * 100), branchId != null ? branchId : 0, 0);
+        } else if (event instanceof LoanCreated created) {
+            append(event.getOccurredAt().toEpochMilli(), EventType.CHECKOUT, loan.getIdLoan(), isbn, loan.getIdMember(),
+                    0, branchId != null ? branchId : 0, created.isHeldCopy() ? FLAG_HELD_COPY : 0);
+        }
+    }
+
+    /**
+     * Append one raw record (not forced to disk). Timestamps are kept non-decreasing, so a
+     * clock set back never reorders the journal.
+     */
+    public synchronized void append(long timestampMillis, EventType type, int loanId, long packedIsbn, int memberId,
+                                    long fineCents, int branchId, int flags) throws IOException {
+        if (channel == null) {
+            throw new IOException("Audit journal is closed");
+        }
+        if (position == capacity) {
+            roll();
+        }
+
+        long timestamp = Math.max(timestampMillis, lastTimestamp);
+        int offset = HEADER_SIZE + position * RECORD_SIZE;
+        segment.putLong(offset + OFFSET_TIMESTAMP, timestamp);
+        segment.putLong(offset + OFFSET_ISBN, packedIsbn);
+        segment.putLong(offset + OFFSET_FINE, fineCents);
+        segment.putInt(offset + OFFSET_LOAN_ID, loanId);
+        segment.putInt(offset + OFFSET_MEMBER_ID, memberId);
+        segment.putShort(offset + OFFSET_BRANCH_ID, (short) branchId);
+        segment.put(offset + OFFSET_TYPE, type.code);
+        segment.put(offset + OFFSET_FLAGS, (byte) flags);
+        segment.putInt(offset + OFFSET_CRC, checksum(segment, offset, crc));
+
+        lastTimestamp = timestamp;
+        position++;
+    }
+
+    /**
+     * Flush written records to disk
+     */
+    public synchronized void force() {
+        if (segment != null) {
+            segment.force();
+        }
+    }
+
+    /**
+     * Stop listening (after the queued events are written), flush and release the directory
+     */
+    @Override
+    public void close() {
+        EventBus.Subscription current;
+        synchronized (this) {
+            current = subscription;
+            subscription = null;
+        }
+        if (current != null) {
+            EventBus.getInstance().unsubscribe(current);
+        }
+
+        synchronized (this) {
+            if (lockChannel.isOpen()) {
+                force();
+                release();
+                segment = null;
+            }
+        }
+        synchronized (LoanJournal.class) {
+            if (instance == this) {
+                instance = null;
+            }
+        }
+    }
+
+    private void roll() throws IOException {
+        segment.force();
+        channel.close();
+        openSegment(segmentIndex + 1, baseSequence + position);
+    }
+
+    private void openSegment(long index, long firstSequence) throws IOException {
+        Path file = directory.resolve(segmentName(index));
+        channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) segmentRecords * RECORD_SIZE);
+
+        segment.putInt(0, MAGIC);
+        segment.putShort(4, VERSION);
+        segment.putShort(6, (short) RECORD_SIZE);
+        segment.putInt(8, segmentRecords);
+        segment.putLong(16, firstSequence);
+        segment.putLong(24, System.currentTimeMillis());
+        segment.force();
+
+        segmentIndex = index;
+        baseSequence = firstSequence;
+        capacity = segmentRecords;
+        position = 0;
+    }
+
+    /**
+     * Reopen the last segment after its last valid record, clearing anything a crash left behind it
+     */
+    private void recover(Path file) throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        LoanJournalReader.Segment existing = LoanJournalReader.Segment.map(file, channel, FileChannel.MapMode.READ_WRITE);
+        segment = existing.buffer;
+        segmentIndex = existing.index;
+        baseSequence = existing.baseSequence;
+        capacity = existing.capacity;
+        position = existing.count;
+
+        int cleared = 0;
+        for (int slot = position; slot < capacity; slot++) {
+            int offset = HEADER_SIZE + slot * RECORD_SIZE;
+            if (segment.get(offset + OFFSET_TYPE) != 0 || segment.getInt(offset + OFFSET_CRC) != 0) {
+                for (int i = 0; i < RECORD_SIZE; i += 8) {
+                    segment.putLong(offset + i, 0L);
+                }
+                cleared++;
+            }
+        }
+        if (cleared > 0) {
+            segment.force();
+            LoggerConfig.logWarning("Audit journal: " + cleared + " incomplete record(s) after sequence "
+                    + (baseSequence + position) + " cleared in " + file.getFileName());
+        }
+        if (position > 0) {
+            lastTimestamp = segment.getLong(HEADER_SIZE + (position - 1) * RECORD_SIZE + OFFSET_TIMESTAMP);
+        }
+        if (position == capacity) {
+            roll();
+        }
+    }
+
+    private void release() {
+        try {
+            if (channel != null) {
+                channel.close();
+                channel = null;
+            }
+        } catch (IOException e) {
+            LoggerConfig.logWarning("Error closing audit journal segment: " + e.getMessage());
+        }
+        try {
+            lock.release();
+            lockChannel.close();
+        } catch (IOException e) {
+            LoggerConfig.logWarning("Error releasing audit journal lock: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package audit;
+
+import utils.InputValidator;
+
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32C;
+
+/**
+ * Shared layout definitions for the loan audit journal (.ljn segment files)
+ *
+ * Segment layout (big-endian), a 64-byte header followed by fixed-width records:
+ * <pre>
+ * header  int   magic ("LNJL")
+ *         short version
+ *         short record size (40)
+ *         int   capacity (records in the segment)
+ *         int   reserved
+ *         long  sequence number of the first record
+ *         long  creation time (epoch millis)
+ *         ...   zero up to 64 bytes
+ * record  long  timestamp (epoch millis, never decreasing)
+ *         long  ISBN packed into a long (0 if it is not a valid ISBN)
+ *         long  fine, hundredths of the currency unit
+ *         int   loan ID
+ *         int   member ID
+ *         short branch ID (0 = single database)
+ *         byte  type (0 = slot not written yet)
+ *         byte  flags
+ *         int   CRC32C of the 36 bytes above
+ * </pre>
+ * Files are created at full size, so unwritten slots read as zeros. The journal ends at
+ * the first slot that is empty or fails its checksum (a write torn by a crash).
+ */
+public final class LoanJournalFormat {
+
+    static final int MAGIC = 0x4C4E4A4C;
+    static final short VERSION = 1;
+    static final int HEADER_SIZE = 64;
+    static final int RECORD_SIZE = 40;
+    static final String SEGMENT_SUFFIX = ".ljn";
+
+    static final int OFFSET_TIMESTAMP = 0;
+    static final int OFFSET_ISBN = 8;
+    static final int OFFSET_FINE = 16;
+    static final int OFFSET_LOAN_ID = 24;
+    static final int OFFSET_MEMBER_ID = 28;
+    static final int OFFSET_BRANCH_ID = 32;
+    static final int OFFSET_TYPE = 34;
+    static final int OFFSET_FLAGS = 35;
+    static final int OFFSET_CRC = 36;
+
+    /** Flag: the checkout used a copy reserved by the member's ready hold */
+    public static final int FLAG_HELD_COPY = 1;
+
+    private LoanJournalFormat() {
+    }
+
+    /**
+     * Kind of journal record
+     */
+    public enum EventType {
+        CHECKOUT(1),
+        RETURN(2);
+
+        final byte code;
+
+        EventType(int code) {
+            this.code = (byte) code;
+        }
+
+        static EventType of(byte code) {
+            return code == 1 ? CHECKOUT : code == 2 ? RETURN : null;
+        }
+    }
+
+    static String segmentName(long index) {
+        return String.format("loans-%06d%s", index, SEGMENT_SUFFIX);
+    }
+
+    /**
+     * ISBN-13 as its 13-digit number shifted left by one; ISBN-10 as its first nine digits
+     * times 11 plus the check digit (X = 10), shifted left with the low bit set.
+     * Hyphens and spaces are ignored; 0 when the text is not an ISBN.
+     */
+    public static long packIsbn(String isbn) {
+        String normalized = InputValidator.normalizeISBN(isbn);
+        if (normalized == null) {
+            return 0;
+        }
+
+        int digits = normalized.length() == 13 ? 13 : 9;
+        long value = 0;
+        for (int i = 0; i < digits; i++) {
+            char c = normalized.charAt(i);
+            if (c < '0' || c > '9') {
+                return 0;
+            }
+            value = value * 10 + (c - '0');
+        }
+        if (digits == 13) {
+            return value << 1;
+        }
+
+        char check = normalized.charAt(9);
+        value = value * 11 + (check == 'X' ? 10 : check - '0');
+        return (value << 1) | 1;
+    }
+
+    /**
+     * Normalized ISBN (no hyphens) from packIsbn, null for 0
+     */
+    public static String unpackIsbn(long packed) {
+        if (packed == 0) {
+            return null;
+        }
+        long value = packed >>> 1;
+        if ((packed & 1) == 0) {
+            return String.format("%013d", value);
+        }
+        int check = (int) (value % 11);
+        return String.format("%09d", value / 11) + (check == 10 ? 'X' : (char) ('0' + check));
+    }
+
+    /**
+     * True when the record at the offset was completely written
+     */
+    static boolean isValid(ByteBuffer buffer, int offset, CRC32C crc) {
+        return buffer.get(offset + OFFSET_TYPE) != 0 && buffer.getInt(offset + OFFSET_CRC) == checksum(buffer, offset, crc);
+    }
+
+    static int checksum(ByteBuffer buffer, int offset, CRC32C crc) {
+        crc.reset();
+        crc.update(buffer.slice(offset, OFFSET_CRC));
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,412 @@
+package audit;
+
+import audit.LoanJournalFormat.EventType;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+import static audit.LoanJournalFormat.*;
+
+/**
+ * Reads the loan audit journal written by {@link LoanJournal}.
+ *
+ * Every segment is memory-mapped and checked once when the reader is opened; records
+ * appended afterwards are not seen (open a new reader). Scans run over the mapped bytes
+ * without creating objects: a {@link Filter} compares primitive fields, and because
+ * timestamps never decrease a time range skips whole segments and starts with a binary
+ * search. Only matching records are copied into {@link Entry} objects.
+ */
+public class LoanJournalReader {
+
+    /**
+     * Receives the records of a scan. The record is a view that moves on after the call:
+     * copy what has to be kept (see {@link Record#toEntry()}).
+     */
+    @FunctionalInterface
+    public interface Visitor {
+        void visit(Record record);
+    }
+
+    /**
+     * View of the record under the scan cursor
+     */
+    public static final class Record {
+        private MappedByteBuffer buffer;
+        private int offset;
+        private long sequence;
+
+        public long getSequence() {
+            return sequence;
+        }
+
+        public long getTimestampMillis() {
+            return buffer.getLong(offset + OFFSET_TIMESTAMP);
+        }
+
+        public EventType getType() {
+            return EventType.of(buffer.get(offset + OFFSET_TYPE));
+        }
+
+        public int getLoanId() {
+            return buffer.getInt(offset + OFFSET_LOAN_ID);
+        }
+
+        public long getPackedIsbn() {
+            return buffer.getLong(offset + OFFSET_ISBN);
+        }
+
+        public int getMemberId() {
+            return buffer.getInt(offset + OFFSET_MEMBER_ID);
+        }
+
+        public long getFineCents() {
+            return buffer.getLong(offset + OFFSET_FINE);
+        }
+
+        public int getBranchId() {
+            return buffer.getShort(offset + OFFSET_BRANCH_ID);
+        }
+
+        public int getFlags() {
+            return buffer.get(offset + OFFSET_FLAGS);
+        }
+
+        public Entry toEntry() {
+            return new Entry(sequence, Instant.ofEpochMilli(getTimestampMillis()), getType(), getLoanId(),
+                    unpackIsbn(getPackedIsbn()), getMemberId(), getFineCents() / 100.0, getBranchId(),
+                    (getFlags() & FLAG_HELD_COPY) != 0);
+        }
+    }
+
+    /**
+     * One journal record
+     */
+    public static final class Entry {
+        private final long sequence;
+        private final Instant timestamp;
+        private final EventType type;
+        private final int loanId;
+        private final String isbn;
+        private final int memberId;
+        private final double fineAmount;
+        private final int branchId;
+        private final boolean heldCopy;
+
+        Entry(long sequence, Instant timestamp, EventType type, int loanId, String isbn, int memberId,
+              double fineAmount, int branchId, boolean heldCopy) {
+            this.sequence = sequence;
+            this.timestamp = timestamp;
+            this.type = type;
+            this.loanId = loanId;
+            this.isbn = isbn;
+            this.memberId = memberId;
+            this.fineAmount = fineAmount;
+            this.branchId = branchId;
+            this.heldCopy = heldCopy;
+        }
+
+        public long getSequence() {
+            return sequence;
+        }
+
+        public Instant getTimestamp() {
+            return timestamp;
+        }
+
+        public EventType getType() {
+            return type;
+        }
+
+        public int getLoanId() {
+            return loanId;
+        }
+
+        /** Normalized ISBN, null if the book code was not an ISBN */
+        public String getIsbn() {
+            return isbn;
+        }
+
+        public int getMemberId() {
+            return memberId;
+        }
+
+        public double getFineAmount() {
+            return fineAmount;
+        }
+
+        /** 0 when the library has a single database */
+        public int getBranchId() {
+            return branchId;
+        }
+
+        public boolean isHeldCopy() {
+            return heldCopy;
+        }
+    }
+
+    /**
+     * Which records a scan returns; criteria left unset match every record
+     */
+    public static final class Filter {
+        private boolean byLoan;
+        private int loanId;
+        private boolean byMember;
+        private int memberId;
+        private boolean byIsbn;
+        private long packedIsbn;
+        private byte type;
+        private long fromMillis = Long.MIN_VALUE;
+        private long untilMillis = Long.MAX_VALUE;
+
+        public Filter loan(int loanId) {
+            this.byLoan = true;
+            this.loanId = loanId;
+            return this;
+        }
+
+        public Filter member(int memberId) {
+            this.byMember = true;
+            this.memberId = memberId;
+            return this;
+        }
+
+        /**
+         * Records of a book (hyphens ignored); a text that is not an ISBN matches nothing
+         */
+        public Filter isbn(String isbn) {
+            this.byIsbn = true;
+            long packed = packIsbn(isbn);
+            this.packedIsbn = packed != 0 ? packed : -1;
+            return this;
+        }
+
+        public Filter type(EventType type) {
+            this.type = type.code;
+            return this;
+        }
+
+        /** Records at or after this instant */
+        public Filter from(Instant from) {
+            this.fromMillis = from.toEpochMilli();
+            return this;
+        }
+
+        /** Records before this instant */
+        public Filter until(Instant until) {
+            this.untilMillis = until.toEpochMilli();
+            return this;
+        }
+
+        boolean matches(MappedByteBuffer buffer, int offset) {
+            return (!byLoan || buffer.getInt(offset + OFFSET_LOAN_ID) == loanId)
+                    && (!byMember || buffer.getInt(offset + OFFSET_MEMBER_ID) == memberId)
+                    && (!byIsbn || buffer.getLong(offset + OFFSET_ISBN) == packedIsbn)
+                    && (type == 0 || buffer.get(offset + OFFSET_TYPE) == type);
+        }
+    }
+
+    /**
+     * A mapped segment file and its valid records
+     */
+    static final class Segment {
+        final long index;
+        final long baseSequence;
+        final int capacity;
+        final int count;
+        final MappedByteBuffer buffer;
+
+        private Segment(long index, long baseSequence, int capacity, int count, MappedByteBuffer buffer) {
+            this.index = index;
+            this.baseSequence = baseSequence;
+            this.capacity = capacity;
+            this.count = count;
+            this.buffer = buffer;
+        }
+
+        static Segment map(Path file, FileChannel channel, FileChannel.MapMode mode) throws IOException {
+            long size = channel.size();
+            if (size < HEADER_SIZE) {
+                throw new IOException("Not an audit journal segment (too short): " + file);
+            }
+            MappedByteBuffer buffer = channel.map(mode, 0, size);
+            if (buffer.getInt(0) != MAGIC) {
+                throw new IOException("Not an audit journal segment: " + file);
+            }
+            if (buffer.getShort(4) != VERSION || buffer.getShort(6) != RECORD_SIZE) {
+                throw new IOException("Unsupported audit journal version " + buffer.getShort(4) + ": " + file);
+            }
+            int capacity = buffer.getInt(8);
+            if (capacity < 1 || HEADER_SIZE + (long) capacity * RECORD_SIZE > size) {
+                throw new IOException("Audit journal segment is truncated: " + file);
+            }
+
+            // The journal ends at the first empty or torn slot
+            CRC32C crc = new CRC32C();
+            int count = 0;
+            while (count < capacity && isValid(buffer, HEADER_SIZE + count * RECORD_SIZE, crc)) {
+                count++;
+            }
+            return new Segment(indexOf(file), buffer.getLong(16), capacity, count, buffer);
+        }
+
+        long timestamp(int slot) {
+            return buffer.getLong(HEADER_SIZE + slot * RECORD_SIZE + OFFSET_TIMESTAMP);
+        }
+
+        /**
+         * First slot whose timestamp is at or after the given one (count if none)
+         */
+        int firstAtOrAfter(long millis) {
+            int low = 0;
+            int high = count;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (timestamp(mid) < millis) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+
+    private final List<Segment> segments;
+    private final long size;
+
+    private LoanJournalReader(List<Segment> segments) {
+        this.segments = segments;
+        long total = 0;
+        for (Segment segment : segments) {
+            total += segment.count;
+        }
+        this.size = total;
+    }
+
+    /**
+     * Map and check every segment of a journal directory
+     */
+    public static LoanJournalReader open(Path directory) throws IOException {
+        List<Segment> segments = new ArrayList<>();
+        for (Path file : listSegments(directory)) {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                Segment segment = Segment.map(file, channel, FileChannel.MapMode.READ_ONLY);
+                if (segment.count > 0) {
+                    segments.add(segment);
+                }
+            }
+        }
+        return new LoanJournalReader(Collections.unmodifiableList(segments));
+    }
+
+    /**
+     * Segment files of a journal directory in write order
+     */
+    static List<Path> listSegments(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().matches("loans-\\d+\\" + SEGMENT_SUFFIX))
+                    .sorted((a, b) -> Long.compare(indexOf(a), indexOf(b)))
+                    .toList();
+        }
+    }
+
+    private static long indexOf(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring("loans-".length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    /**
+     * Number of records in the journal
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Visit every record in write order
+     */
+    public void scan(Visitor visitor) {
+        scan(new Filter(), visitor);
+    }
+
+    /**
+     * Visit the matching records in write order
+     */
+    public void scan(Filter filter, Visitor visitor) {
+        Record record = new Record();
+        for (Segment segment : segments) {
+            if (segment.timestamp(segment.count - 1) < filter.fromMillis) {
+                continue;
+            }
+            if (segment.timestamp(0) >= filter.untilMillis) {
+                return;
+            }
+
+            record.buffer = segment.buffer;
+            int first = filter.fromMillis == Long.MIN_VALUE ? 0 : segment.firstAtOrAfter(filter.fromMillis);
+            for (int slot = first; slot < segment.count; slot++) {
+                int offset = HEADER_SIZE + slot * RECORD_SIZE;
+                if (segment.buffer.getLong(offset + OFFSET_TIMESTAMP) >= filter.untilMillis) {
+                    return;
+                }
+                if (filter.matches(segment.buffer, offset)) {
+                    record.offset = offset;
+                    record.sequence = segment.baseSequence + slot;
+                    visitor.visit(record);
+                }
+            }
+        }
+    }
+
+    /**
+     * Number of matching records
+     */
+    public long count(Filter filter) {
+        long[] count = {0};
+        scan(filter, record -> count[0]++);
+        return count[0];
+    }
+
+    /**
+     * Up to limit matching records, oldest first
+     */
+    public List<Entry> find(Filter filter, int limit) {
+        List<Entry> entries = new ArrayList<>();
+        if (limit <= 0) {
+            return entries;
+        }
+        try {
+            scan(filter, record -> {
+                entries.add(record.toEntry());
+                if (entries.size() == limit) {
+                    throw StopScan.INSTANCE;
+                }
+            });
+        } catch (StopScan e) {
+            // limit reached
+        }
+        return entries;
+    }
+
+    // Ends a scan early without a flag check per record
+    private static final class StopScan extends RuntimeException {
+        static final StopScan INSTANCE = new StopScan();
+
+        private StopScan() {
+            super(null, null, false, false);
+        }
+    }
+}
@@ -0,0 +1,261 @@
+package config;
+
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Routes database traffic to the branch it belongs to (singleton).
+ *
+ * Each library branch listed in {@code branch.ids} has its own LibroNova database (shard)
+ * holding that branch's books, members, loans and holds, so every transaction stays on
+ * one shard. This client works on its home branch ({@code branch.id}); other branches are
+ * reached with {@link #inBranch}, and network-wide reads run on every shard at once with
+ * {@link #scatter} and are merged by the caller. Without {@code branch.ids} there is a
+ * single database (db.url) and no branch.
+ */
+public class BranchRouter {
+
+    /**
+     * A branch and the connection settings of its shard
+     */
+    public static class Branch {
+        private final int id;
+        private final String name;
+        private final String url;
+        private final String user;
+        private final String password;
+
+        Branch(int id, String name, String url, String user, String password) {
+            this.id = id;
+            this.name = name;
+            this.url = url;
+            this.user = user;
+            this.password = password;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        String getUrl() {
+            return url;
+        }
+
+        String getUser() {
+            return user;
+        }
+
+        String getPassword() {
+            return password;
+        }
+    }
+
+    private static BranchRouter instance;
+
+    private final Map<Integer, Branch> branches;
+    private final Integer homeBranchId;
+    private final ThreadLocal<Integer> currentBranch = new ThreadLocal<>();
+    private final int scatterThreads;
+    private final long scatterTimeoutSeconds;
+    private ExecutorService scatterPool;
+
+    private BranchRouter() {
+        ConfigLoader config = ConfigLoader.getInstance();
+        Map<Integer, Branch> configured = new LinkedHashMap<>();
+        Map<String, Integer> urls = new LinkedHashMap<>();
+
+        for (String value : config.getProperty("branch.ids", "").split(",")) {
+            if (value.isBlank()) {
+                continue;
+            }
+            int id;
+            try {
+                id = Integer.parseInt(value.trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalStateException("Invalid branch id in branch.ids: " + value);
+            }
+
+            String prefix = "branch." + id + ".";
+            Branch branch = new Branch(id,
+                    config.getProperty(prefix + "name", "Sede " + id),
+                    config.getProperty(prefix + "db.url", config.getProperty("db.url")),
+                    config.getProperty(prefix + "db.user", config.getProperty("db.user")),
+                    config.getProperty(prefix + "db.password", config.getProperty("db.password")));
+
+            // Two branches in one database would see (and scatter would return) each other's rows
+            Integer sharing = urls.putIfAbsent(branch.getUrl(), id);
+            if (sharing != null) {
+                throw new IllegalStateException("Branches " + sharing + " and " + id + " use the same database");
+            }
+            configured.put(id, branch);
+        }
+
+        this.branches = Collections.unmodifiableMap(configured);
+        if (branches.isEmpty()) {
+            this.homeBranchId = null;
+        } else {
+            int home = config.getIntProperty("branch.id", branches.keySet().iterator().next());
+            if (!branches.containsKey(home)) {
+                throw new IllegalStateException("branch.id " + home + " is not listed in branch.ids");
+            }
+            this.homeBranchId = home;
+        }
+        this.scatterThreads = Math.max(1, config.getIntProperty("branch.scatterThreads", 4));
+        this.scatterTimeoutSeconds = Math.max(1, config.getIntProperty("branch.scatterTimeoutSeconds", 30));
+    }
+
+    public static BranchRouter getInstance() {
+        if (instance == null) {
+            synchronized (BranchRouter.class) {
+                if (instance == null) {
+                    instance = new BranchRouter();
+                }
+            }
+        }
+        return instance;
+    }
+
+    public boolean isPartitioned() {
+        return !branches.isEmpty();
+    }
+
+    public Collection<Branch> getBranches() {
+        return branches.values();
+    }
+
+    public Integer getHomeBranchId() {
+        return homeBranchId;
+    }
+
+    /**
+     * Branch the calling thread is working on (the home branch unless inside inBranch),
+     * null when the database is not partitioned
+     */
+    public Integer getCurrentBranchId() {
+        Integer current = currentBranch.get();
+        return current != null ? current : homeBranchId;
+    }
+
+    /**
+     * Shard of the current branch, null for the single database
+     */
+    Branch getCurrentBranch() {
+        Integer id = getCurrentBranchId();
+        return id != null ? branches.get(id) : null;
+    }
+
+    /**
+     * Run a call against another branch's database
+     */
+    public <T> T inBranch(int branchId, DatabaseResilience.SqlCall<T> call) throws SQLException {
+        if (!branches.containsKey(branchId)) {
+            throw new IllegalArgumentException("Unknown branch: " + branchId);
+        }
+
+        Integer previous = currentBranch.get();
+        currentBranch.set(branchId);
+        try {
+            return call.call();
+        } finally {
+            if (previous == null) {
+                currentBranch.remove();
+            } else {
+                currentBranch.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Run the same read on every branch in parallel.
+     * @return Result per branch id in branch.ids order (a single entry with key 0 when the
+     *         database is not partitioned)
+     * @throws SQLException if any branch fails or does not answer within branch.scatterTimeoutSeconds
+     */
+    public <T> Map<Integer, T> scatter(DatabaseResilience.SqlCall<T> call) throws SQLException {
+        Map<Integer, T> results = new LinkedHashMap<>();
+        if (branches.isEmpty()) {
+            results.put(0, call.call());
+            return results;
+        }
+
+        Map<Integer, Future<T>> futures = new LinkedHashMap<>();
+        for (Branch branch : branches.values()) {
+            futures.put(branch.getId(), pool().submit(() -> {
+                try {
+                    return inBranch(branch.getId(), call);
+                } finally {
+                    // Pool threads move between shards; do not keep a connection per thread
+                    DatabaseConnection.getInstance().releaseConnection();
+                }
+            }));
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(scatterTimeoutSeconds);
+        List<SQLException> failures = new ArrayList<>();
+        for (Map.Entry<Integer, Future<T>> entry : futures.entrySet()) {
+            try {
+                results.put(entry.getKey(), entry.getValue().get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS));
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException) {
+                    cancelAll(futures);
+                    throw (RuntimeException) cause;
+                }
+                failures.add(cause instanceof SQLException ? (SQLException) cause
+                        : new SQLException("Branch " + entry.getKey() + " failed", cause));
+            } catch (TimeoutException e) {
+                failures.add(new SQLTimeoutException("Branch " + entry.getKey() + " did not answer within "
+                        + scatterTimeoutSeconds + " s"));
+                entry.getValue().cancel(true);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                cancelAll(futures);
+                throw new SQLException("Interrupted while querying branches", e);
+            }
+        }
+
+        if (!failures.isEmpty()) {
+            SQLException first = failures.get(0);
+            for (int i = 1; i < failures.size(); i++) {
+                first.addSuppressed(failures.get(i));
+            }
+            throw first;
+        }
+        return results;
+    }
+
+    private static void cancelAll(Map<Integer, ? extends Future<?>> futures) {
+        for (Future<?> future : futures.values()) {
+            future.cancel(true);
+        }
+    }
+
+    private synchronized ExecutorService pool() {
+        if (scatterPool == null) {
+            AtomicInteger counter = new AtomicInteger(1);
+            scatterPool = Executors.newFixedThreadPool(Math.min(scatterThreads, branches.size()), runnable -> {
+                Thread thread = new Thread(runnable, "branch-scatter-" + counter.getAndIncrement());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return scatterPool;
+    }
+}
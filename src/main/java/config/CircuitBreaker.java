@@ -0,0 +1,124 @@
+package config;
+
+import java.sql.SQLTransientConnectionException;
+
+/**
+ * Circuit breaker for the database. After {@code failureThreshold} consecutive transient
+ * failures it opens and calls fail fast for {@code openMillis}; then one trial call is let
+ * through (half-open) and its outcome closes or re-opens the circuit.
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    /**
+     * Thrown instead of calling the database while the circuit is open
+     */
+    public static class OpenCircuitException extends SQLTransientConnectionException {
+        public OpenCircuitException(long retryInMillis) {
+            super("Database unavailable, retrying in " + Math.max(1, retryInMillis / 1000) + " s", "08000");
+        }
+    }
+
+    private final String name;
+    private final int failureThreshold;
+    private final long openNanos;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean trialInFlight;
+    private long stateChangedAtMillis = System.currentTimeMillis();
+    private long timesOpened;
+
+    /**
+     * @param name Database the circuit protects, for the log
+     */
+    public CircuitBreaker(String name, int failureThreshold, long openMillis) {
+        this.name = name;
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openNanos = Math.max(0, openMillis) * 1_000_000L;
+    }
+
+    /**
+     * Reserve a call, or throw if the circuit is open (or half-open with a trial running)
+     */
+    public synchronized void acquirePermission() throws OpenCircuitException {
+        if (state == State.OPEN) {
+            long waited = System.nanoTime() - openedAt;
+            if (waited < openNanos) {
+                throw new OpenCircuitException((openNanos - waited) / 1_000_000L);
+            }
+            transition(State.HALF_OPEN);
+        }
+        if (state == State.HALF_OPEN) {
+            if (trialInFlight) {
+                throw new OpenCircuitException(0);
+            }
+            trialInFlight = true;
+        }
+    }
+
+    /**
+     * The call reached the database (including calls that failed for non-transient reasons)
+     */
+    public synchronized void onSuccess() {
+        consecutiveFailures = 0;
+        trialInFlight = false;
+        if (state != State.CLOSED) {
+            transition(State.CLOSED);
+        }
+    }
+
+    /**
+     * The call ended without telling whether the database is reachable (e.g. it threw a
+     * RuntimeException): free the half-open trial slot for the next call
+     */
+    public synchronized void releasePermission() {
+        trialInFlight = false;
+    }
+
+    /**
+     * The call failed because the database could not be reached or timed out
+     */
+    public synchronized void onFailure() {
+        consecutiveFailures++;
+        trialInFlight = false;
+        if (state == State.HALF_OPEN || (state == State.CLOSED && consecutiveFailures >= failureThreshold)) {
+            openedAt = System.nanoTime();
+            timesOpened++;
+            transition(State.OPEN);
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public synchronized int getConsecutiveFailures() {
+        return consecutiveFailures;
+    }
+
+    public synchronized long getStateChangedAtMillis() {
+        return stateChangedAtMillis;
+    }
+
+    public synchronized long getTimesOpened() {
+        return timesOpened;
+    }
+
+    private void transition(State next) {
+        State previous = state;
+        state = next;
+        stateChangedAtMillis = System.currentTimeMillis();
+
+        if (next == State.OPEN) {
+            LoggerConfig.logWarning("Database circuit (" + name + ") " + previous + " -> OPEN after " + consecutiveFailures
+                    + " consecutive failures, failing fast for " + openNanos / 1_000_000_000L + " s");
+        } else {
+            LoggerConfig.logInfo("Database circuit (" + name + ") " + previous + " -> " + next);
+        }
+    }
+}
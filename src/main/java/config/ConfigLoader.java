@@ -3,23 +3,39 @@ package config;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
 import java.util.Properties;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
  * Singleton class to load and manage application configuration from config.properties
+ *
+ * The parsed configuration is an immutable {@link ConfigSnapshot} published through a
+ * volatile field, so reads are a plain field access. When watching is enabled a changed
+ * config.properties is parsed into a new snapshot and swapped in as a whole; a file with
+ * invalid values is rejected and the previous snapshot stays in effect.
  */
 public class ConfigLoader {
     private static final Logger LOGGER = Logger.getLogger(ConfigLoader.class.getName());
     private static ConfigLoader instance;
-    private final Properties properties;
+    private volatile ConfigSnapshot snapshot;
+    private Thread watcher;
 
     private static final String CONFIG_FILE = "config.properties";
 
+    // Editors often write a file in several steps; wait for them to settle before reloading
+    private static final long RELOAD_SETTLE_MILLIS = 250;
+
     private ConfigLoader() {
-        properties = new Properties();
-        loadProperties();
+        snapshot = loadInitialSnapshot();
     }
 
     public static ConfigLoader getInstance() {
@@ -33,17 +49,32 @@ public class ConfigLoader {
         return instance;
     }
 
-    private void loadProperties() {
-        try (InputStream input = new FileInputStream(CONFIG_FILE)) {
-            properties.load(input);
+    private ConfigSnapshot loadInitialSnapshot() {
+        Properties properties = new Properties();
+        try {
+            properties = readFile();
             LOGGER.info("✓ Configuration loaded successfully from " + CONFIG_FILE);
         } catch (IOException e) {
             LOGGER.log(Level.WARNING, "⚠ Configuration file not found, loading defaults", e);
-            loadDefaultProperties();
+            loadDefaultProperties(properties);
+        }
+
+        ConfigSnapshot loaded = new ConfigSnapshot(properties);
+        if (!loaded.getInvalidKeys().isEmpty()) {
+            LOGGER.warning("Invalid configuration values, using defaults for: " + loaded.getInvalidKeys());
         }
+        return loaded;
     }
 
-    private void loadDefaultProperties() {
+    private Properties readFile() throws IOException {
+        Properties properties = new Properties();
+        try (InputStream input = new FileInputStream(CONFIG_FILE)) {
+            properties.load(input);
+        }
+        return properties;
+    }
+
+    private void loadDefaultProperties(Properties properties) {
         properties.setProperty("db.url", "jdbc:mysql://localhost:3306/LibroNova");
         properties.setProperty("db.user", "root");
         properties.setProperty("db.password", "");
@@ -53,39 +84,121 @@ public class ConfigLoader {
         properties.setProperty("log.file", "app.log");
     }
 
+    /**
+     * Current configuration. Callers that read several values for one operation should
+     * take the snapshot once so they all come from the same version of the file.
+     */
+    public ConfigSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Re-read config.properties and publish it if it parses cleanly
+     * @return true if a new snapshot was published
+     */
+    public boolean reload() {
+        ConfigSnapshot loaded;
+        try {
+            loaded = new ConfigSnapshot(readFile());
+        } catch (IOException | IllegalArgumentException e) {
+            LOGGER.log(Level.WARNING, "Could not reload " + CONFIG_FILE + ", keeping current configuration", e);
+            return false;
+        }
+
+        if (!loaded.getInvalidKeys().isEmpty()) {
+            LOGGER.warning("Rejected " + CONFIG_FILE + " reload, invalid values for: " + loaded.getInvalidKeys());
+            return false;
+        }
+        if (loaded.sameValues(snapshot)) {
+            return false;
+        }
+
+        snapshot = loaded;
+        LOGGER.info("✓ Configuration reloaded from " + CONFIG_FILE);
+        return true;
+    }
+
+    /**
+     * Watch config.properties and reload it when it changes (daemon thread, started once).
+     * Settings read only at startup (database, server, scheduler) still need a restart.
+     */
+    public synchronized void startWatching() {
+        if (watcher != null) {
+            return;
+        }
+
+        Path file = Path.of(CONFIG_FILE).toAbsolutePath();
+        WatchService watchService;
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+            // Watch the directory: editors that save by renaming replace the file itself
+            file.getParent().register(watchService,
+                    StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Could not watch " + CONFIG_FILE + " for changes", e);
+            return;
+        }
+
+        watcher = new Thread(() -> watch(watchService, file.getFileName()), "config-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+    }
+
+    private void watch(WatchService watchService, Path fileName) {
+        try (watchService) {
+            while (true) {
+                WatchKey key = watchService.take();
+                boolean changed = containsFile(key, fileName);
+
+                // Collapse the burst of events from a single save into one reload
+                WatchKey next;
+                while ((next = watchService.poll(RELOAD_SETTLE_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+                    changed |= containsFile(next, fileName);
+                }
+
+                if (changed) {
+                    reload();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException | IOException e) {
+            LOGGER.log(Level.WARNING, "Stopped watching " + CONFIG_FILE, e);
+        }
+    }
+
+    private static boolean containsFile(WatchKey key, Path fileName) {
+        boolean found = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (fileName.equals(event.context())) {
+                found = true;
+            }
+        }
+        key.reset();
+        return found;
+    }
+
     public String getProperty(String key) {
-        return properties.getProperty(key);
+        return snapshot.get(key);
     }
 
     public String getProperty(String key, String defaultValue) {
-        return properties.getProperty(key, defaultValue);
+        return snapshot.get(key, defaultValue);
     }
 
     public int getIntProperty(String key, int defaultValue) {
-        try {
-            String value = properties.getProperty(key);
-            return value != null ? Integer.parseInt(value) : defaultValue;
-        } catch (NumberFormatException e) {
-            LOGGER.log(Level.WARNING, "Invalid integer property: " + key, e);
-            return defaultValue;
-        }
+        return snapshot.getInt(key, defaultValue);
     }
 
     public double getDoubleProperty(String key, double defaultValue) {
-        try {
-            String value = properties.getProperty(key);
-            return value != null ? Double.parseDouble(value) : defaultValue;
-        } catch (NumberFormatException e) {
-            LOGGER.log(Level.WARNING, "Invalid double property: " + key, e);
-            return defaultValue;
-        }
+        return snapshot.getDouble(key, defaultValue);
     }
 
     public int getLoanDays() {
-        return getIntProperty("diasPrestamo", 7);
+        return snapshot.getLoanDays();
     }
 
     public double getFinePerDay() {
-        return getDoubleProperty("multaPorDia", 1500.0);
+        return snapshot.getFinePerDay();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,145 @@
+package config;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Immutable view of config.properties at one point in time.
+ * Settings read on hot paths (loans, fines, holds, stats) are parsed once into typed
+ * fields; any other key is still available as a string.
+ */
+public final class ConfigSnapshot {
+
+    private final Map<String, String> values;
+    private final List<String> invalidKeys = new ArrayList<>();
+
+    private final int loanDays;
+    private final double finePerDay;
+    private final int maxActiveLoansPerMember;
+    private final int holdPickupDays;
+    private final int holdSweepBatchSize;
+    private final int holdSweepMaxBatches;
+    private final int statsTopN;
+
+    public ConfigSnapshot(Properties properties) {
+        Map<String, String> copy = new HashMap<>();
+        for (String key : properties.stringPropertyNames()) {
+            copy.put(key, properties.getProperty(key).trim());
+        }
+        this.values = Collections.unmodifiableMap(copy);
+
+        this.loanDays = parseInt("diasPrestamo", 7);
+        this.finePerDay = parseDouble("multaPorDia", 1500.0);
+        this.maxActiveLoansPerMember = parseInt("loan.maxActivePerMember", 5);
+        this.holdPickupDays = Math.max(1, parseInt("hold.pickupDays", 3));
+        this.holdSweepBatchSize = Math.max(1, parseInt("hold.sweepBatchSize", 100));
+        this.holdSweepMaxBatches = Math.max(1, parseInt("hold.sweepMaxBatches", 10));
+        this.statsTopN = Math.max(1, parseInt("stats.topN", 10));
+    }
+
+    public int getLoanDays() {
+        return loanDays;
+    }
+
+    public double getFinePerDay() {
+        return finePerDay;
+    }
+
+    /**
+     * Borrowing limit (loan.maxActivePerMember), 0 = unlimited
+     */
+    public int getMaxActiveLoansPerMember() {
+        return maxActiveLoansPerMember;
+    }
+
+    public int getHoldPickupDays() {
+        return holdPickupDays;
+    }
+
+    public int getHoldSweepBatchSize() {
+        return holdSweepBatchSize;
+    }
+
+    public int getHoldSweepMaxBatches() {
+        return holdSweepMaxBatches;
+    }
+
+    public int getStatsTopN() {
+        return statsTopN;
+    }
+
+    public String get(String key) {
+        return values.get(key);
+    }
+
+    public String get(String key, String defaultValue) {
+        return values.getOrDefault(key, defaultValue);
+    }
+
+    public int getInt(String key, int defaultValue) {
+        String value = values.get(key);
+        try {
+            return value != null ? Integer.parseInt(value) : defaultValue;
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    public double getDouble(String key, double defaultValue) {
+        String value = values.get(key);
+        try {
+            return value != null ? Double.parseDouble(value) : defaultValue;
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Typed keys whose value could not be parsed (their default was used)
+     */
+    public List<String> getInvalidKeys() {
+        return Collections.unmodifiableList(invalidKeys);
+    }
+
+    /**
+     * True when both snapshots were built from the same key/value pairs
+     */
+    public boolean sameValues(ConfigSnapshot other) {
+        return other != null && values.equals(other.values);
+    }
+
+    private int parseInt(String key, int defaultValue) {
+        String value = values.get(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            invalidKeys.add(key);
+            return defaultValue;
+        }
+    }
+
+    private double parseDouble(String key, double defaultValue) {
+        String value = values.get(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            double parsed = Double.parseDouble(value);
+            if (Double.isNaN(parsed) || Double.isInfinite(parsed)) {
+                invalidKeys.add(key);
+                return defaultValue;
+            }
+            return parsed;
+        } catch (NumberFormatException e) {
+            invalidKeys.add(key);
+            return defaultValue;
+        }
+    }
+}
@@ -2,27 +2,75 @@ package config;
 
 import java.sql.Connection;
 import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
  * Singleton class to manage database connections
+ * Connections are opened through {@link DatabaseResilience}, so a refused connection is
+ * retried with backoff and calls fail fast while the database is known to be down.
+ *
+ * When read replicas are configured (db.replica.urls), read-only DAO calls made through
+ * {@link #readOnly} get a replica connection, as long as the replica is keeping up and the
+ * calling thread has not written recently (so it always reads its own writes).
+ * Transactions ({@link #getNewConnection}) and writes always use the primary.
+ *
+ * When the library runs several branches (branch.ids), every connection is opened on the
+ * database of the calling thread's current branch (see {@link BranchRouter}); the replicas
+ * only serve the branch whose database is db.url.
  */
 public class DatabaseConnection {
     private static final Logger LOGGER = Logger.getLogger(DatabaseConnection.class.getName());
     private static DatabaseConnection instance;
-    private Connection connection;
+
+    // One reusable connection per thread, so background jobs never share (or close) the desk's connection
+    private final ThreadLocal<Connection> connection = new ThreadLocal<>();
+    // URL the thread's shared connection was opened on, to reopen it when the thread switches branch
+    private final ThreadLocal<String> connectionUrl = new ThreadLocal<>();
 
     private final String URL;
     private final String USER;
     private final String PASSWORD;
+    private final BranchRouter branches;
+
+    // Read replicas (null when none are configured)
+    private final ReplicaMonitor replicas;
+    private final String REPLICA_USER;
+    private final String REPLICA_PASSWORD;
+    private final long readYourWritesNanos;
+    private final ThreadLocal<Connection> replicaConnection = new ThreadLocal<>();
+    private final ThreadLocal<ReplicaMonitor.Replica> replicaInUse = new ThreadLocal<>();
+    // TRUE inside readOnly() (replica allowed), FALSE inside onPrimary() (wins over readOnly)
+    private final ThreadLocal<Boolean> replicaAllowed = new ThreadLocal<>();
+    private final ThreadLocal<Long> lastWriteNanos = new ThreadLocal<>();
 
     private DatabaseConnection() {
         ConfigLoader config = ConfigLoader.getInstance();
         this.URL = config.getProperty("db.url");
         this.USER = config.getProperty("db.user");
         this.PASSWORD = config.getProperty("db.password");
+        this.branches = BranchRouter.getInstance();
+        this.REPLICA_USER = config.getProperty("db.replica.user", USER);
+        this.REPLICA_PASSWORD = config.getProperty("db.replica.password", PASSWORD);
+
+        List<String> replicaUrls = new ArrayList<>();
+        for (String url : config.getProperty("db.replica.urls", "").split(",")) {
+            if (!url.isBlank()) {
+                replicaUrls.add(url.trim());
+            }
+        }
+        long maxLagSeconds = Math.max(0, config.getIntProperty("db.replica.maxLagSeconds", 5));
+        long checkSeconds = Math.max(1, config.getIntProperty("db.replica.lagCheckSeconds", 10));
+        // Lag may grow for up to one check interval before the monitor notices
+        this.readYourWritesNanos = (maxLagSeconds + checkSeconds) * 1_000_000_000L;
+        this.replicas = replicaUrls.isEmpty() ? null
+                : new ReplicaMonitor(replicaUrls, REPLICA_USER, REPLICA_PASSWORD, maxLagSeconds);
 
         try {
             Class.forName("com.mysql.cj.jdbc.Driver");
@@ -31,6 +79,15 @@ public class DatabaseConnection {
             LOGGER.log(Level.SEVERE, "✗ MySQL Driver not found", e);
             throw new RuntimeException("Database driver not found", e);
         }
+
+        if (replicas != null) {
+            replicas.start(checkSeconds);
+            LOGGER.info("✓ " + replicaUrls.size() + " read replica(s) configured");
+        }
+        if (branches.isPartitioned()) {
+            LOGGER.info("✓ " + branches.getBranches().size() + " branch database(s) configured, home branch "
+                    + branches.getHomeBranchId());
+        }
     }
 
     public static DatabaseConnection getInstance() {
@@ -45,23 +102,177 @@ public class DatabaseConnection {
     }
 
     /**
-     * Get a shared connection (reuses the same connection)
+     * Get a shared connection (reuses the same connection within the calling thread)
      */
     public Connection getConnection() throws SQLException {
-        if (connection == null || connection.isClosed()) {
-            connection = DriverManager.getConnection(URL, USER, PASSWORD);
+        BranchRouter.Branch shard = branches.getCurrentBranch();
+        String url = shard != null ? shard.getUrl() : URL;
+
+        if (replicas != null && url.equals(URL) && Boolean.TRUE.equals(replicaAllowed.get()) && !wroteRecently()) {
+            Connection replica = getReplicaConnection();
+            if (replica != null) {
+                return replica;
+            }
+        }
+
+        Connection current = connection.get();
+        if (current != null && !url.equals(connectionUrl.get())) {
+            connection.remove();
+            closeQuietly(current);
+            current = null;
+        }
+        if (current == null || current.isClosed()) {
+            current = open(shard);
+            connection.set(current);
+            connectionUrl.set(url);
             LOGGER.info("✓ Database connection established");
         }
-        return connection;
+        return current;
+    }
+
+    /**
+     * Close and forget the calling thread's shared connection, if any. Threads that are
+     * not reused (e.g. one virtual thread per API request) must call this when done.
+     */
+    public void releaseConnection() {
+        Connection current = connection.get();
+        connection.remove();
+        connectionUrl.remove();
+        closeQuietly(current);
+
+        Connection replica = replicaConnection.get();
+        replicaConnection.remove();
+        replicaInUse.remove();
+        closeQuietly(replica);
+    }
+
+    /**
+     * Run a read-only call; DAO connections it asks for may come from a replica
+     */
+    public <T> T readOnly(DatabaseResilience.SqlCall<T> call) throws SQLException {
+        if (replicaAllowed.get() != null) {
+            return call.call();
+        }
+        replicaAllowed.set(Boolean.TRUE);
+        try {
+            return call.call();
+        } finally {
+            replicaAllowed.remove();
+        }
+    }
+
+    /**
+     * Run reads that must see every committed write on the primary, e.g. the loads that
+     * seed in-memory indexes which are then kept up to date by later writes
+     */
+    public <T> T onPrimary(DatabaseResilience.SqlCall<T> call) throws SQLException {
+        Boolean previous = replicaAllowed.get();
+        replicaAllowed.set(Boolean.FALSE);
+        try {
+            return call.call();
+        } finally {
+            if (previous == null) {
+                replicaAllowed.remove();
+            } else {
+                replicaAllowed.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Note that the calling thread wrote to the primary: its reads stay on the primary until
+     * the replicas are guaranteed to have caught up (read-your-writes)
+     */
+    public void recordWrite() {
+        if (replicas != null) {
+            lastWriteNanos.set(System.nanoTime());
+        }
+    }
+
+    /**
+     * Current time on the database server, the clock updated_at columns are written with
+     */
+    public LocalDateTime currentTimestamp() throws SQLException {
+        try (PreparedStatement stmt = getConnection().prepareStatement("SELECT NOW()");
+             ResultSet rs = stmt.executeQuery()) {
+            rs.next();
+            return rs.getTimestamp(1).toLocalDateTime();
+        }
+    }
+
+    /**
+     * Replica monitor with the replicas' health and lag, or null when none are configured
+     */
+    public ReplicaMonitor getReplicaMonitor() {
+        return replicas;
+    }
+
+    private boolean wroteRecently() {
+        Long wroteAt = lastWriteNanos.get();
+        return wroteAt != null && System.nanoTime() - wroteAt < readYourWritesNanos;
+    }
+
+    /**
+     * The thread's replica connection, opened on a healthy replica if needed;
+     * null when no replica can serve the read
+     */
+    private Connection getReplicaConnection() throws SQLException {
+        Connection current = replicaConnection.get();
+        ReplicaMonitor.Replica replica = replicaInUse.get();
+        if (current != null && !current.isClosed() && replica != null && replica.isHealthy()) {
+            return current;
+        }
+
+        replicaConnection.remove();
+        replicaInUse.remove();
+        closeQuietly(current);
+
+        replica = replicas.pick();
+        if (replica == null) {
+            return null;
+        }
+        try {
+            current = DriverManager.getConnection(replica.getUrl(), REPLICA_USER, REPLICA_PASSWORD);
+            current.setReadOnly(true);
+        } catch (SQLException e) {
+            replicas.markUnavailable(replica, e);
+            return null;
+        }
+
+        replicaConnection.set(current);
+        replicaInUse.set(replica);
+        return current;
+    }
+
+    private static void closeQuietly(Connection conn) {
+        if (conn != null) {
+            try {
+                conn.close();
+            } catch (SQLException e) {
+                LOGGER.log(Level.WARNING, "Error closing database connection", e);
+            }
+        }
     }
 
     /**
      * Get a new independent connection (for transactions)
      */
     public Connection getNewConnection() throws SQLException {
-        Connection conn = DriverManager.getConnection(URL, USER, PASSWORD);
+        recordWrite();
+        Connection conn = open(branches.getCurrentBranch());
         LOGGER.fine("✓ New database connection created");
         return conn;
     }
 
+    /**
+     * Open a connection on a branch's database, or on db.url when shard is null
+     */
+    private Connection open(BranchRouter.Branch shard) throws SQLException {
+        if (shard == null) {
+            return DatabaseResilience.getInstance().connect(() -> DriverManager.getConnection(URL, USER, PASSWORD));
+        }
+        return DatabaseResilience.getInstance().connect(
+                () -> DriverManager.getConnection(shard.getUrl(), shard.getUser(), shard.getPassword()));
+    }
+
 }
\ No newline at end of file
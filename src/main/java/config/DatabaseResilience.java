@@ -0,0 +1,314 @@
+package config;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.SQLTransientException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Retry and circuit breaking for database calls (singleton).
+ *
+ * Only transient failures are retried: lost or refused connections (SQLState class 08),
+ * timeouts, deadlocks and lock wait timeouts. Only connection failures count toward
+ * opening the circuit; contention on a healthy database does not. Reads may be retried at any point; writes
+ * are retried only when the connection could not be opened, since nothing was sent yet.
+ * Retries wait a random time up to an exponentially growing cap ("full jitter") so
+ * clients that failed together do not retry together.
+ *
+ * Each database has its own circuit: when the library runs several branches, a call
+ * goes through the breaker of the shard the calling thread is working on, so a branch
+ * that is down does not stop calls to the others.
+ */
+public class DatabaseResilience {
+
+    /**
+     * A database call
+     */
+    @FunctionalInterface
+    public interface SqlCall<T> {
+        T call() throws SQLException;
+    }
+
+    /**
+     * Point-in-time copy of the counters
+     */
+    public static class Metrics {
+        private final CircuitBreaker.State state;
+        private final int consecutiveFailures;
+        private final long stateChangedAtMillis;
+        private final long timesOpened;
+        private final long calls;
+        private final long retries;
+        private final long recovered;
+        private final long failed;
+        private final long rejected;
+
+        Metrics(CircuitBreaker breaker, long calls, long retries, long recovered, long failed, long rejected) {
+            this.state = breaker.getState();
+            this.consecutiveFailures = breaker.getConsecutiveFailures();
+            this.stateChangedAtMillis = breaker.getStateChangedAtMillis();
+            this.timesOpened = breaker.getTimesOpened();
+            this.calls = calls;
+            this.retries = retries;
+            this.recovered = recovered;
+            this.failed = failed;
+            this.rejected = rejected;
+        }
+
+        public CircuitBreaker.State getState() {
+            return state;
+        }
+
+        public int getConsecutiveFailures() {
+            return consecutiveFailures;
+        }
+
+        public long getStateChangedAtMillis() {
+            return stateChangedAtMillis;
+        }
+
+        public long getTimesOpened() {
+            return timesOpened;
+        }
+
+        /** Calls made through the resilience layer */
+        public long getCalls() {
+            return calls;
+        }
+
+        /** Extra attempts after a transient failure */
+        public long getRetries() {
+            return retries;
+        }
+
+        /** Calls that failed at least once and then succeeded */
+        public long getRecovered() {
+            return recovered;
+        }
+
+        /** Calls that ended with a transient failure */
+        public long getFailed() {
+            return failed;
+        }
+
+        /** Calls refused without contacting the database (circuit open) */
+        public long getRejected() {
+            return rejected;
+        }
+
+        @Override
+        public String toString() {
+            return "circuit=" + state + ", calls=" + calls + ", retries=" + retries + ", recovered=" + recovered
+                    + ", failed=" + failed + ", rejected=" + rejected + ", opened=" + timesOpened;
+        }
+    }
+
+    private static DatabaseResilience instance;
+
+    // Set while a call is running, so connect() leaves retrying to the enclosing call
+    private final ThreadLocal<CallState> currentCall = new ThreadLocal<>();
+
+    private static class CallState {
+        private boolean connectFailed;
+    }
+
+    // Circuit per database URL ("" for db.url when the library is not partitioned)
+    private final Map<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+    private final int failureThreshold;
+    private final long openMillis;
+    private final int maxAttempts;
+    private final long baseDelayMillis;
+    private final long maxDelayMillis;
+
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder recovered = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    private DatabaseResilience() {
+        ConfigLoader config = ConfigLoader.getInstance();
+        this.maxAttempts = Math.max(1, config.getIntProperty("db.retry.maxAttempts", 3));
+        this.baseDelayMillis = Math.max(1, config.getIntProperty("db.retry.baseDelayMs", 100));
+        this.maxDelayMillis = Math.max(baseDelayMillis, config.getIntProperty("db.retry.maxDelayMs", 2000));
+        this.failureThreshold = config.getIntProperty("db.breaker.failureThreshold", 5);
+        this.openMillis = config.getIntProperty("db.breaker.openSeconds", 15) * 1000L;
+    }
+
+    public static DatabaseResilience getInstance() {
+        if (instance == null) {
+            synchronized (DatabaseResilience.class) {
+                if (instance == null) {
+                    instance = new DatabaseResilience();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Run a database call, retrying transient failures if the call is idempotent
+     * (or, for any call, if the failure was opening the connection)
+     */
+    public <T> T execute(boolean idempotent, SqlCall<T> call) throws SQLException {
+        CallState enclosing = currentCall.get();
+        if (enclosing != null) {
+            // Nested call (e.g. a DAO using another DAO): the outermost call decides on retries
+            return call.call();
+        }
+
+        CircuitBreaker breaker = currentBreaker();
+        CallState state = new CallState();
+        currentCall.set(state);
+        calls.increment();
+        try {
+            for (int attempt = 1; ; attempt++) {
+                state.connectFailed = false;
+                try {
+                    acquirePermission(breaker);
+                    T result = call.call();
+                    breaker.onSuccess();
+                    if (attempt > 1) {
+                        recovered.increment();
+                    }
+                    return result;
+                } catch (CircuitBreaker.OpenCircuitException e) {
+                    throw e;
+                } catch (SQLException e) {
+                    if (!isTransient(e)) {
+                        // The database answered, so it is reachable
+                        breaker.onSuccess();
+                        throw e;
+                    }
+                    if (isUnreachable(e)) {
+                        breaker.onFailure();
+                    } else {
+                        breaker.onSuccess(); // contention (deadlock, lock wait): the database answered
+                    }
+                    if (attempt >= maxAttempts || !(idempotent || state.connectFailed)) {
+                        failed.increment();
+                        throw e;
+                    }
+                    discardConnection(e);
+                    backoff(attempt, e);
+                    retries.increment();
+                } catch (RuntimeException | Error e) {
+                    breaker.releasePermission();
+                    throw e;
+                }
+            }
+        } finally {
+            currentCall.remove();
+        }
+    }
+
+    /**
+     * Open a connection through the circuit breaker. Opening is always safe to retry, so
+     * outside {@link #execute} it gets its own retries; inside, the enclosing call retries it.
+     */
+    public Connection connect(SqlCall<Connection> opener) throws SQLException {
+        CallState state = currentCall.get();
+        if (state == null) {
+            return execute(true, () -> connect(opener));
+        }
+
+        try {
+            return opener.call();
+        } catch (SQLException e) {
+            if (isTransient(e)) {
+                state.connectFailed = true;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Counters, with the circuit of the calling thread's current database
+     */
+    public Metrics getMetrics() {
+        return new Metrics(currentBreaker(), calls.sum(), retries.sum(), recovered.sum(), failed.sum(), rejected.sum());
+    }
+
+    /**
+     * True for failures worth retrying: the same statement may succeed a moment later
+     */
+    public static boolean isTransient(SQLException e) {
+        if (e instanceof CircuitBreaker.OpenCircuitException) {
+            return false;
+        }
+        if (e instanceof SQLTransientException || e instanceof SQLRecoverableException) {
+            return true;
+        }
+
+        String sqlState = e.getSQLState();
+        if (sqlState != null) {
+            if (sqlState.startsWith("08")) {
+                return true; // connection exception
+            }
+            if (sqlState.equals("40001") || sqlState.equals("HYT00") || sqlState.equals("HYT01")) {
+                return true; // serialization failure / deadlock, timeouts
+            }
+        }
+
+        // MySQL: lock wait timeout, deadlock, too many connections
+        int code = e.getErrorCode();
+        return code == 1205 || code == 1213 || code == 1040;
+    }
+
+    /**
+     * True for failures that mean the database could not be reached; only these count
+     * toward opening the circuit
+     */
+    static boolean isUnreachable(SQLException e) {
+        if (e instanceof SQLRecoverableException || e instanceof SQLTransientConnectionException) {
+            return true;
+        }
+        String sqlState = e.getSQLState();
+        return (sqlState != null && sqlState.startsWith("08")) || e.getErrorCode() == 1040;
+    }
+
+    /**
+     * Breaker of the database the calling thread's connections go to
+     */
+    private CircuitBreaker currentBreaker() {
+        BranchRouter.Branch shard = BranchRouter.getInstance().getCurrentBranch();
+        String key = shard != null ? shard.getUrl() : "";
+        return breakers.computeIfAbsent(key, k -> new CircuitBreaker(
+                shard != null ? "branch " + shard.getName() : "db.url", failureThreshold, openMillis));
+    }
+
+    private void acquirePermission(CircuitBreaker breaker) throws CircuitBreaker.OpenCircuitException {
+        try {
+            breaker.acquirePermission();
+        } catch (CircuitBreaker.OpenCircuitException e) {
+            rejected.increment();
+            throw e;
+        }
+    }
+
+    /**
+     * A connection-level failure leaves the thread's cached connection unusable
+     */
+    private static void discardConnection(SQLException e) {
+        String sqlState = e.getSQLState();
+        if (e instanceof SQLRecoverableException || (sqlState != null && sqlState.startsWith("08"))) {
+            DatabaseConnection.getInstance().releaseConnection();
+        }
+    }
+
+    private void backoff(int attempt, SQLException cause) throws SQLException {
+        long cap = Math.min(maxDelayMillis, baseDelayMillis << Math.min(attempt - 1, 20));
+        long delay = ThreadLocalRandom.current().nextLong(cap + 1);
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw cause;
+        }
+    }
+}
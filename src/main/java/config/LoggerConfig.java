@@ -13,7 +13,7 @@ public class LoggerConfig {
     private static final Logger HTTP_LOGGER = Logger.getLogger("HttpLogger");
     private static boolean initialized = false;
 
-    public static void initialize() {
+    public static synchronized void initialize() {
         if (initialized) {
             return;
         }
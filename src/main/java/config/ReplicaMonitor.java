@@ -0,0 +1,183 @@
+package config;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tracks the read replicas and how far behind the primary each one is.
+ *
+ * A background thread asks every replica for its replication delay every
+ * {@code db.replica.lagCheckSeconds}. A replica is used for reads only while replication
+ * is running and at most {@code db.replica.maxLagSeconds} behind; otherwise (or when it
+ * cannot be reached) reads go to the primary until a later check finds it healthy again.
+ */
+public class ReplicaMonitor {
+
+    /**
+     * One replica and its last known state
+     */
+    public static class Replica {
+        private final String url;
+        private volatile boolean healthy;
+        private volatile long lagSeconds = -1;
+        private volatile long checkedAtMillis;
+
+        Replica(String url) {
+            this.url = url;
+        }
+
+        public String getUrl() {
+            return url;
+        }
+
+        /**
+         * URL without the query string (which may carry credentials), for logs and metrics
+         */
+        public String getDisplayUrl() {
+            int query = url.indexOf('?');
+            return query >= 0 ? url.substring(0, query) : url;
+        }
+
+        public boolean isHealthy() {
+            return healthy;
+        }
+
+        /** Seconds behind the primary at the last check, -1 if unknown */
+        public long getLagSeconds() {
+            return lagSeconds;
+        }
+
+        public long getCheckedAtMillis() {
+            return checkedAtMillis;
+        }
+    }
+
+    private final List<Replica> replicas;
+    private final String user;
+    private final String password;
+    private final long maxLagSeconds;
+    private final AtomicInteger next = new AtomicInteger();
+    private ScheduledExecutorService scheduler;
+
+    ReplicaMonitor(List<String> urls, String user, String password, long maxLagSeconds) {
+        List<Replica> list = new ArrayList<>();
+        for (String url : urls) {
+            list.add(new Replica(url));
+        }
+        this.replicas = Collections.unmodifiableList(list);
+        this.user = user;
+        this.password = password;
+        this.maxLagSeconds = maxLagSeconds;
+    }
+
+    /**
+     * Check every replica now and then every intervalSeconds (daemon thread)
+     */
+    synchronized void start(long intervalSeconds) {
+        if (scheduler != null || replicas.isEmpty()) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-lag-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::checkAll, 0, Math.max(1, intervalSeconds), TimeUnit.SECONDS);
+    }
+
+    public List<Replica> getReplicas() {
+        return replicas;
+    }
+
+    public long getMaxLagSeconds() {
+        return maxLagSeconds;
+    }
+
+    /**
+     * Next healthy replica (round robin), or null if reads should go to the primary
+     */
+    Replica pick() {
+        int size = replicas.size();
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get(Math.floorMod(next.getAndIncrement(), size));
+            if (replica.healthy) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Take a replica out of rotation after a failed connection, until the next check
+     */
+    void markUnavailable(Replica replica, SQLException cause) {
+        if (replica.healthy) {
+            replica.healthy = false;
+            LoggerConfig.logWarning("Replica " + replica.getDisplayUrl() + " unavailable, reading from primary: "
+                    + cause.getMessage());
+        }
+    }
+
+    private void checkAll() {
+        for (Replica replica : replicas) {
+            check(replica);
+        }
+    }
+
+    private void check(Replica replica) {
+        long lag;
+        try (Connection conn = DriverManager.getConnection(replica.url, user, password)) {
+            lag = readLag(conn);
+        } catch (SQLException e) {
+            lag = -1;
+        }
+
+        boolean healthy = lag >= 0 && lag <= maxLagSeconds;
+        boolean wasHealthy = replica.healthy;
+        replica.lagSeconds = lag;
+        replica.checkedAtMillis = System.currentTimeMillis();
+        replica.healthy = healthy;
+
+        if (healthy && !wasHealthy) {
+            LoggerConfig.logInfo("Replica " + replica.getDisplayUrl() + " in rotation (lag " + lag + " s)");
+        } else if (!healthy && wasHealthy) {
+            LoggerConfig.logWarning("Replica " + replica.getDisplayUrl() + " out of rotation ("
+                    + (lag < 0 ? "unreachable or not replicating" : "lag " + lag + " s > " + maxLagSeconds + " s")
+                    + "), reading from primary");
+        }
+    }
+
+    /**
+     * Seconds_Behind_Source from SHOW REPLICA STATUS (MySQL 8.0.22+), falling back to
+     * SHOW SLAVE STATUS on older servers; -1 when replication is not running
+     */
+    private static long readLag(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            try (ResultSet rs = stmt.executeQuery("SHOW REPLICA STATUS")) {
+                return lag(rs, "Seconds_Behind_Source");
+            } catch (SQLException e) {
+                try (ResultSet rs = stmt.executeQuery("SHOW SLAVE STATUS")) {
+                    return lag(rs, "Seconds_Behind_Master");
+                }
+            }
+        }
+    }
+
+    private static long lag(ResultSet rs, String column) throws SQLException {
+        if (!rs.next()) {
+            return -1;
+        }
+        long lag = rs.getLong(column);
+        return rs.wasNull() ? -1 : lag;
+    }
+}
@@ -14,7 +14,11 @@ public class AuthController {
     private final UserService userService;
 
     public AuthController() {
-        this.userService = new UserService();
+        this(new UserService());
+    }
+
+    public AuthController(UserService userService) {
+        this.userService = userService;
     }
 
     /**
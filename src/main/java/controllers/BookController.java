@@ -1,12 +1,18 @@
 package controllers;
 
+import config.BranchRouter;
+import config.ConfigLoader;
 import exceptions.DatabaseException;
 import exceptions.DuplicateIsbnException;
+import exceptions.OptimisticLockException;
 import models.Book;
 import services.BookService;
 import utils.InputValidator;
 import utils.MessageHelper;
+import utils.PagedTableModel;
+import utils.PagedTableModel.Column;
 import utils.TableFormatter;
+import utils.ValidationResult;
 
 import java.util.List;
 import java.util.Optional;
@@ -19,7 +25,11 @@ public class BookController {
     private final BookService bookService;
 
     public BookController() {
-        this.bookService = new BookService();
+        this(new BookService());
+    }
+
+    public BookController(BookService bookService) {
+        this.bookService = bookService;
     }
 
     /**
@@ -28,34 +38,11 @@ public class BookController {
     public boolean createBook(String isbn, String title, String author, String category,
                               String totalCopiesStr, String referencePriceStr) {
         try {
-            // Validate input
-            if (InputValidator.isNullOrEmpty(isbn)) {
-                MessageHelper.showError("El ISBN es requerido");
-                return false;
-            }
-
-            if (!InputValidator.isValidISBN(isbn)) {
-                MessageHelper.showError("Formato de ISBN inválido");
-                return false;
-            }
-
-            if (InputValidator.isNullOrEmpty(title)) {
-                MessageHelper.showError("El título es requerido");
-                return false;
-            }
-
-            if (InputValidator.isNullOrEmpty(author)) {
-                MessageHelper.showError("El autor es requerido");
-                return false;
-            }
-
-            if (!InputValidator.isPositiveInteger(totalCopiesStr)) {
-                MessageHelper.showError("El número de ejemplares debe ser un entero positivo");
-                return false;
-            }
-
-            if (!InputValidator.isNonNegativeDouble(referencePriceStr)) {
-                MessageHelper.showError("El precio debe ser un número positivo");
+            // Validate input (all fields at once)
+            ValidationResult validation = InputValidator.validateBook(isbn, title, author,
+                    totalCopiesStr, referencePriceStr);
+            if (!validation.isValid()) {
+                MessageHelper.showError(validation.getMessage());
                 return false;
             }
 
@@ -87,19 +74,44 @@ public class BookController {
      */
     public void viewAllBooks() {
         try {
-            List<Book> books = bookService.getAllBooks();
-
-            if (books.isEmpty()) {
+            if (bookService.countBooks(null) == 0) {
                 MessageHelper.showInfo("No hay libros registrados en el sistema");
                 return;
             }
-
-            String table = TableFormatter.formatBooksTable(books);
-            MessageHelper.showScrollableData("Catálogo de Libros", table);
-
         } catch (DatabaseException e) {
             MessageHelper.showError("Error al cargar los libros: " + e.getMessage());
+            return;
         }
+
+        ConfigLoader config = ConfigLoader.getInstance();
+
+        PagedTableModel<Book> model = new PagedTableModel<>(
+                new PagedTableModel.PageSource<>() {
+                    @Override
+                    public int count(String filter) throws DatabaseException {
+                        return bookService.countBooks(filter);
+                    }
+
+                    @Override
+                    public List<Book> fetch(String filter, String sortColumn, boolean ascending, int offset, int limit)
+                            throws DatabaseException {
+                        return bookService.getBooksPage(filter, sortColumn, ascending, offset, limit);
+                    }
+                },
+                List.of(
+                        new Column<>("ISBN", "isbn", Book::getIsbn),
+                        new Column<>("Título", "title", Book::getTitle),
+                        new Column<>("Autor", "author", Book::getAuthor),
+                        new Column<>("Categoría", "category", Book::getCategory),
+                        new Column<>("Total", "total_copies", Book::getTotalCopies),
+                        new Column<>("Disp.", "available_copies", Book::getAvailableCopies),
+                        new Column<>("Precio", "reference_price", book -> String.format("$%.2f", book.getReferencePrice())),
+                        new Column<>("Estado", "is_active", book -> book.isActive() ? "ACTIVO" : "INACTIVO")),
+                config.getIntProperty("ui.pageSize", 100),
+                config.getIntProperty("ui.cachedPages", 10),
+                "title", true);
+
+        MessageHelper.showPagedTable("Catálogo de Libros", model);
     }
 
     /**
@@ -198,45 +210,96 @@ public class BookController {
     }
 
     /**
-     * Update book
+     * Show how many copies of a book each branch has available
      */
-    public boolean updateBook(String isbn, String title, String author, String category,
-                              String totalCopiesStr, String availableCopiesStr, String referencePriceStr) {
+    public void viewBookAcrossBranches(String isbn) {
         try {
-            // Validate input
-            if (!InputValidator.isPositiveInteger(totalCopiesStr)) {
-                MessageHelper.showError("El número de ejemplares totales debe ser un entero positivo");
-                return false;
+            if (InputValidator.isNullOrEmpty(isbn)) {
+                MessageHelper.showError("El ISBN es requerido");
+                return;
             }
 
-            if (!InputValidator.isNonNegativeInteger(availableCopiesStr)) {
-                MessageHelper.showError("El número de ejemplares disponibles debe ser un entero no negativo");
-                return false;
+            BranchRouter branches = BranchRouter.getInstance();
+            if (!branches.isPartitioned()) {
+                MessageHelper.showInfo("La biblioteca no tiene sedes configuradas");
+                return;
             }
 
-            if (!InputValidator.isNonNegativeDouble(referencePriceStr)) {
-                MessageHelper.showError("El precio debe ser un número positivo");
-                return false;
+            List<Book> books = bookService.findBookAcrossBranches(isbn);
+            if (books.isEmpty()) {
+                MessageHelper.showError("Ninguna sede tiene el libro con ISBN: " + isbn);
+                return;
             }
 
-            Integer totalCopies = InputValidator.parseIntSafely(totalCopiesStr);
-            Integer availableCopies = InputValidator.parseIntSafely(availableCopiesStr);
-            Double referencePrice = InputValidator.parseDoubleSafely(referencePriceStr);
+            StringBuilder sb = new StringBuilder();
+            sb.append(books.get(0).getTitle()).append(" (").append(isbn).append(")\n\n");
+            for (BranchRouter.Branch branch : branches.getBranches()) {
+                Book book = books.stream()
+                        .filter(b -> Integer.valueOf(branch.getId()).equals(b.getBranchId()))
+                        .findFirst().orElse(null);
+                sb.append(String.format("%-25s ", branch.getName()));
+                if (book == null) {
+                    sb.append("no lo tiene");
+                } else if (!book.isActive()) {
+                    sb.append("inactivo");
+                } else {
+                    sb.append(book.getAvailableCopies()).append("/").append(book.getTotalCopies()).append(" disponibles");
+                }
+                sb.append("\n");
+            }
+            MessageHelper.showScrollableData("Disponibilidad por Sede", sb.toString());
+
+        } catch (DatabaseException e) {
+            MessageHelper.showError("Error al consultar las sedes: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Load a book at the start of an edit. Its version is sent back with the changes, so
+     * anything that modified the book meanwhile (a checkout, another edit) is detected.
+     */
+    public Optional<Book> loadBookForEdit(String isbn) {
+        try {
+            if (InputValidator.isNullOrEmpty(isbn)) {
+                MessageHelper.showError("El ISBN es requerido");
+                return Optional.empty();
+            }
 
-            // Get existing book
             Optional<Book> bookOpt = bookService.findBookByIsbn(isbn);
             if (bookOpt.isEmpty()) {
                 MessageHelper.showError("Libro no encontrado");
+            }
+            return bookOpt;
+
+        } catch (DatabaseException e) {
+            MessageHelper.showError("Error al buscar el libro: " + e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Update a book loaded with loadBookForEdit. Available copies are not edited: they
+     * follow the change in total copies.
+     */
+    public boolean updateBook(Book book, String title, String author, String category,
+                              String totalCopiesStr, String referencePriceStr) {
+        try {
+            // Validate input
+            if (!InputValidator.isPositiveInteger(totalCopiesStr)) {
+                MessageHelper.showError("El número de ejemplares totales debe ser un entero positivo");
+                return false;
+            }
+
+            if (!InputValidator.isNonNegativeDouble(referencePriceStr)) {
+                MessageHelper.showError("El precio debe ser un número positivo");
                 return false;
             }
 
-            Book book = bookOpt.get();
             book.setTitle(title);
             book.setAuthor(author);
             book.setCategory(category);
-            book.setTotalCopies(totalCopies);
-            book.setAvailableCopies(availableCopies);
-            book.setReferencePrice(referencePrice);
+            book.setTotalCopies(InputValidator.parseIntSafely(totalCopiesStr));
+            book.setReferencePrice(InputValidator.parseDoubleSafely(referencePriceStr));
 
             boolean updated = bookService.updateBook(book);
 
@@ -248,6 +311,13 @@ public class BookController {
 
             return updated;
 
+        } catch (IllegalArgumentException e) {
+            MessageHelper.showError("Datos inválidos: " + e.getMessage());
+            return false;
+        } catch (OptimisticLockException e) {
+            MessageHelper.showWarning("El libro fue modificado por otra operación mientras lo editaba.\n" +
+                    "Vuelva a cargarlo e intente de nuevo.");
+            return false;
         } catch (DatabaseException e) {
             MessageHelper.showError("Error al actualizar el libro: " + e.getMessage());
             return false;
@@ -3,22 +3,36 @@ package controllers;
 import exceptions.DatabaseException;
 import models.Book;
 import models.Loan;
+import services.IncrementalExportService;
+import services.IncrementalExportService.ExportResult;
+import services.IncrementalExportService.ExportType;
 import utils.CSVExporter;
+import utils.ColumnarExporter;
 import utils.MessageHelper;
 
 import java.util.List;
 
 /**
- * Controller for export operations (CSV)
+ * Controller for export operations (CSV and columnar binary)
  */
 public class ExportController {
 
     private final BookController bookController;
     private final LoanController loanController;
+    private final IncrementalExportService incrementalExportService;
 
     public ExportController() {
-        this.bookController = new BookController();
-        this.loanController = new LoanController();
+        this(new BookController(), new LoanController(), new IncrementalExportService());
+    }
+
+    /**
+     * Reuse the application's book and loan controllers instead of building a second set
+     */
+    public ExportController(BookController bookController, LoanController loanController,
+                            IncrementalExportService incrementalExportService) {
+        this.bookController = bookController;
+        this.loanController = loanController;
+        this.incrementalExportService = incrementalExportService;
     }
 
     /**
@@ -104,4 +118,51 @@ public class ExportController {
             MessageHelper.showError("Error al obtener los datos: " + e.getMessage());
         }
     }
+
+    /**
+     * Export all loans to the columnar binary format (for analytics)
+     */
+    public void exportAllLoansColumnar() {
+        try {
+            List<Loan> loans = loanController.getAllLoans();
+
+            if (loans.isEmpty()) {
+                MessageHelper.showWarning("No hay préstamos para exportar");
+                return;
+            }
+
+            String filename = "prestamos_export.lnc";
+            boolean success = ColumnarExporter.exportAllLoans(loans, filename);
+
+            if (success) {
+                MessageHelper.showSuccess("Préstamos exportados exitosamente (formato columnar):\n" +
+                        "Archivo: " + filename + "\n" +
+                        "Total de registros: " + loans.size());
+            } else {
+                MessageHelper.showError("Error al exportar los préstamos");
+            }
+
+        } catch (DatabaseException e) {
+            MessageHelper.showError("Error al obtener los datos: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Export only the rows changed since the previous run (full snapshot on first run or compaction)
+     */
+    public void exportIncremental(ExportType type) {
+        try {
+            ExportResult result = incrementalExportService.export(type);
+
+            String kind = result.getKind() == IncrementalExportService.ExportKind.FULL
+                    ? "Instantánea completa" : "Cambios incrementales";
+            MessageHelper.showSuccess("Exportación incremental realizada:\n" +
+                    "Tipo: " + kind + "\n" +
+                    "Archivo: " + result.getFilename() + "\n" +
+                    "Total de registros: " + result.getRecords());
+
+        } catch (DatabaseException e) {
+            MessageHelper.showError("Error en la exportación incremental: " + e.getMessage());
+        }
+    }
 }
\ No newline at end of file
@@ -1,13 +1,24 @@
 package controllers;
 
+import config.ConfigLoader;
 import exceptions.*;
+import models.CirculationReport;
+import models.Hold;
 import models.Loan;
+import services.FineAssessmentService;
+import services.HoldService;
 import services.LoanService;
+import services.StatisticsService;
 import utils.InputValidator;
 import utils.MessageHelper;
+import utils.PagedTableModel;
+import utils.PagedTableModel.Column;
 import utils.TableFormatter;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -16,9 +27,20 @@ import java.util.Optional;
 public class LoanController {
 
     private final LoanService loanService;
+    private final FineAssessmentService fineAssessmentService;
+    private final StatisticsService statisticsService;
+    private final HoldService holdService;
 
     public LoanController() {
-        this.loanService = new LoanService();
+        this(new LoanService(), new FineAssessmentService(), new StatisticsService(), new HoldService());
+    }
+
+    public LoanController(LoanService loanService, FineAssessmentService fineAssessmentService,
+                          StatisticsService statisticsService, HoldService holdService) {
+        this.loanService = loanService;
+        this.fineAssessmentService = fineAssessmentService;
+        this.statisticsService = statisticsService;
+        this.holdService = holdService;
     }
 
     /**
@@ -49,7 +71,10 @@ public class LoanController {
             return true;
 
         } catch (InsufficientStockException e) {
-            MessageHelper.showError("No hay ejemplares disponibles del libro");
+            if (MessageHelper.showConfirmation("No hay ejemplares disponibles del libro.\n" +
+                    "¿Desea reservarlo? El próximo ejemplar devuelto quedará apartado para el socio.")) {
+                placeHold(isbn, memberIdStr);
+            }
             return false;
         } catch (InactiveMemberException e) {
             MessageHelper.showError("El socio está inactivo y no puede realizar préstamos");
@@ -69,6 +94,152 @@ public class LoanController {
         }
     }
 
+    /**
+     * Create several loans for one member (comma-separated ISBNs) in one transaction
+     */
+    public boolean createLoans(String isbnsStr, String memberIdStr) {
+        try {
+            // Validate input
+            if (InputValidator.isNullOrEmpty(isbnsStr)) {
+                MessageHelper.showError("Debe ingresar al menos un ISBN");
+                return false;
+            }
+
+            if (!InputValidator.isPositiveInteger(memberIdStr)) {
+                MessageHelper.showError("ID de socio inválido");
+                return false;
+            }
+
+            List<String> isbns = new ArrayList<>();
+            for (String isbn : isbnsStr.split(",")) {
+                if (!isbn.isBlank()) {
+                    isbns.add(isbn.trim());
+                }
+            }
+
+            Integer memberId = InputValidator.parseIntSafely(memberIdStr);
+            LoanService.CheckoutResult result = loanService.createLoans(memberId, isbns);
+
+            StringBuilder message = new StringBuilder("Préstamos creados: " + result.getCreatedLoans().size() + "\n");
+            for (Loan loan : result.getCreatedLoans()) {
+                message.append("  #").append(loan.getIdLoan()).append(" - ").append(loan.getIsbn())
+                        .append(" (vence ").append(loan.getDueDate()).append(")\n");
+            }
+
+            if (!result.isComplete()) {
+                message.append("\nNo prestados:\n");
+                for (String rejection : result.getRejections()) {
+                    message.append("  ").append(rejection).append("\n");
+                }
+                MessageHelper.showWarning(message.toString());
+            } else {
+                MessageHelper.showSuccess(message.toString());
+            }
+            return !result.getCreatedLoans().isEmpty();
+
+        } catch (InactiveMemberException e) {
+            MessageHelper.showError("El socio está inactivo y no puede realizar préstamos");
+            return false;
+        } catch (EntityNotFoundException e) {
+            MessageHelper.showError(e.getMessage());
+            return false;
+        } catch (InvalidLoanException e) {
+            MessageHelper.showError("Préstamo inválido: " + e.getMessage());
+            return false;
+        } catch (DatabaseException e) {
+            MessageHelper.showError("Error al crear los préstamos: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Place a hold (reservation) on a book without available copies
+     */
+    public boolean placeHold(String isbn, String memberIdStr) {
+        try {
+            if (InputValidator.isNullOrEmpty(isbn)) {
+                MessageHelper.showError("El ISBN es requerido");
+                return false;
+            }
+
+            if (!InputValidator.isPositiveInteger(memberIdStr)) {
+                MessageHelper.showError("ID de socio inválido");
+                return false;
+            }
+
+            Hold hold = holdService.placeHold(isbn, InputValidator.parseIntSafely(memberIdStr));
+
+            MessageHelper.showSuccess("Reserva registrada exitosamente:\n" +
+                    "ID Reserva: " + hold.getIdHold() + "\n" +
+                    "ISBN: " + hold.getIsbn());
+            return true;
+
+        } catch (InactiveMemberException e) {
+            MessageHelper.showError("El socio está inactivo y no puede realizar reservas");
+            return false;
+        } catch (EntityNotFoundException e) {
+            MessageHelper.showError(e.getMessage());
+            return false;
+        } catch (InvalidLoanException e) {
+            MessageHelper.showError("Reserva inválida: " + e.getMessage());
+            return false;
+        } catch (DatabaseException e) {
+            MessageHelper.showError("Error al crear la reserva: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * View the hold queue of a book
+     */
+    public void viewHoldsByBook(String isbn) {
+        try {
+            if (InputValidator.isNullOrEmpty(isbn)) {
+                MessageHelper.showError("El ISBN es requerido");
+                return;
+            }
+
+            List<Hold> holds = holdService.getQueue(isbn);
+
+            if (holds.isEmpty()) {
+                MessageHelper.showInfo("El libro no tiene reservas pendientes");
+                return;
+            }
+
+            String table = TableFormatter.formatHoldsTable(holds);
+            MessageHelper.showScrollableData("Reservas del libro " + isbn, table);
+
+        } catch (DatabaseException e) {
+            MessageHelper.showError("Error al cargar las reservas: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Cancel a hold
+     */
+    public boolean cancelHold(String holdIdStr) {
+        try {
+            if (!InputValidator.isPositiveInteger(holdIdStr)) {
+                MessageHelper.showError("ID de reserva inválido");
+                return false;
+            }
+
+            holdService.cancelHold(InputValidator.parseIntSafely(holdIdStr));
+            MessageHelper.showSuccess("Reserva cancelada exitosamente");
+            return true;
+
+        } catch (EntityNotFoundException e) {
+            MessageHelper.showError(e.getMessage());
+            return false;
+        } catch (InvalidLoanException e) {
+            MessageHelper.showError("La reserva ya no está activa");
+            return false;
+        } catch (DatabaseException e) {
+            MessageHelper.showError("Error al cancelar la reserva: " + e.getMessage());
+            return false;
+        }
+    }
+
     /**
      * Return a loan
      */
@@ -130,24 +301,101 @@ public class LoanController {
         }
     }
 
+    /**
+     * Return several loans (comma-separated IDs) in one transaction and show the outcome per loan
+     */
+    public void returnLoans(String loanIdsStr) {
+        try {
+            if (InputValidator.isNullOrEmpty(loanIdsStr)) {
+                MessageHelper.showError("Debe ingresar al menos un ID de préstamo");
+                return;
+            }
+
+            List<Integer> loanIds = new ArrayList<>();
+            for (String id : loanIdsStr.split(",")) {
+                if (id.isBlank()) {
+                    continue;
+                }
+                if (!InputValidator.isPositiveInteger(id.trim())) {
+                    MessageHelper.showError("ID de préstamo inválido: " + id.trim());
+                    return;
+                }
+                loanIds.add(InputValidator.parseIntSafely(id.trim()));
+            }
+
+            List<LoanService.ReturnOutcome> outcomes = loanService.returnLoans(loanIds);
+
+            int returned = 0;
+            double totalFines = 0;
+            StringBuilder report = new StringBuilder();
+            for (LoanService.ReturnOutcome outcome : outcomes) {
+                String detail = switch (outcome.getStatus()) {
+                    case RETURNED -> outcome.getFineAmount() > 0
+                            ? String.format("devuelto - multa $%.2f (%d días de retraso)",
+                                    outcome.getFineAmount(), outcome.getDaysOverdue())
+                            : "devuelto";
+                    case NOT_FOUND -> "no encontrado";
+                    case ALREADY_RETURNED -> "ya estaba devuelto";
+                };
+                report.append("  #").append(outcome.getLoanId()).append(": ").append(detail).append("\n");
+
+                if (outcome.isReturned()) {
+                    returned++;
+                    totalFines += outcome.getFineAmount();
+                }
+            }
+            report.append(String.format("%nDevueltos: %d de %d - Multas: $%.2f", returned, outcomes.size(), totalFines));
+
+            MessageHelper.showScrollableData("Devolución Múltiple", report.toString());
+
+        } catch (DatabaseException e) {
+            MessageHelper.showError("Error al devolver los préstamos: " + e.getMessage());
+        }
+    }
+
     /**
      * View all loans
      */
     public void viewAllLoans() {
         try {
-            List<Loan> loans = loanService.getAllLoans();
-
-            if (loans.isEmpty()) {
+            if (loanService.countLoans(null) == 0) {
                 MessageHelper.showInfo("No hay préstamos registrados en el sistema");
                 return;
             }
-
-            String table = TableFormatter.formatLoansTable(loans);
-            MessageHelper.showScrollableData("Lista de Préstamos", table);
-
         } catch (DatabaseException e) {
             MessageHelper.showError("Error al cargar los préstamos: " + e.getMessage());
+            return;
         }
+
+        ConfigLoader config = ConfigLoader.getInstance();
+
+        PagedTableModel<Loan> model = new PagedTableModel<>(
+                new PagedTableModel.PageSource<>() {
+                    @Override
+                    public int count(String filter) throws DatabaseException {
+                        return loanService.countLoans(filter);
+                    }
+
+                    @Override
+                    public List<Loan> fetch(String filter, String sortColumn, boolean ascending, int offset, int limit)
+                            throws DatabaseException {
+                        return loanService.getLoansPage(filter, sortColumn, ascending, offset, limit);
+                    }
+                },
+                List.of(
+                        new Column<>("ID", "id_loan", Loan::getIdLoan),
+                        new Column<>("ISBN", "isbn", Loan::getIsbn),
+                        new Column<>("Socio", "id_member", Loan::getIdMember),
+                        new Column<>("Préstamo", "loan_date", Loan::getLoanDate),
+                        new Column<>("Vence", "due_date", Loan::getDueDate),
+                        new Column<>("Devuelto", "return_date", Loan::getReturnDate),
+                        new Column<>("Estado", "status", loan -> loan.isOverdue() ? loan.getStatus() + " ⚠" : loan.getStatus()),
+                        new Column<>("Multa", "fine_amount", loan -> String.format("$%.2f", loan.getFineAmount()))),
+                config.getIntProperty("ui.pageSize", 100),
+                config.getIntProperty("ui.cachedPages", 10),
+                "id_loan", false);
+
+        MessageHelper.showPagedTable("Lista de Préstamos (filtro: ID, socio, ISBN o estado)", model);
     }
 
     /**
@@ -190,6 +438,62 @@ public class LoanController {
         }
     }
 
+    /**
+     * View active loans due within the next N days, with a per-day summary
+     */
+    public void viewLoansDueSoon(String daysStr) {
+        try {
+            if (!InputValidator.isPositiveInteger(daysStr)) {
+                MessageHelper.showError("Número de días inválido");
+                return;
+            }
+
+            int days = InputValidator.parseIntSafely(daysStr);
+            List<Loan> loans = loanService.getLoansDueWithin(days);
+
+            if (loans.isEmpty()) {
+                MessageHelper.showInfo("No hay préstamos que venzan en los próximos " + days + " días");
+                return;
+            }
+
+            int[] perDay = loanService.countLoansDuePerDay(days + 1);
+            StringBuilder summary = new StringBuilder("\n\nVencimientos por día:\n");
+            LocalDate today = LocalDate.now();
+            for (int i = 0; i < perDay.length; i++) {
+                if (perDay[i] > 0) {
+                    summary.append(String.format("  %s: %d%n", today.plusDays(i), perDay[i]));
+                }
+            }
+
+            String table = TableFormatter.formatLoansTable(loans);
+            MessageHelper.showScrollableData("Préstamos por Vencer (" + days + " días)", table + summary);
+
+        } catch (DatabaseException e) {
+            MessageHelper.showError("Error al cargar los préstamos: " + e.getMessage());
+        }
+    }
+
+    /**
+     * View circulation statistics for the last N days
+     */
+    public void viewStatistics(String daysStr) {
+        try {
+            if (!InputValidator.isPositiveInteger(daysStr)) {
+                MessageHelper.showError("Número de días inválido");
+                return;
+            }
+
+            int days = InputValidator.parseIntSafely(daysStr);
+            CirculationReport report = statisticsService.getReportForLastDays(days);
+
+            String table = TableFormatter.formatCirculationReport(report);
+            MessageHelper.showScrollableData("Estadísticas de Circulación (" + days + " días)", table);
+
+        } catch (DatabaseException e) {
+            MessageHelper.showError("Error al calcular las estadísticas: " + e.getMessage());
+        }
+    }
+
     /**
      * View loans by member
      */
@@ -242,6 +546,39 @@ public class LoanController {
         }
     }
 
+    /**
+     * Recompute accrued fines for all overdue loans
+     */
+    public void assessFines() {
+        try {
+            int updated = fineAssessmentService.assessOverdueFines();
+            MessageHelper.showSuccess("Multas recalculadas:\n" +
+                    "Préstamos vencidos actualizados: " + updated);
+        } catch (DatabaseException e) {
+            MessageHelper.showError("Error al calcular las multas: " + e.getMessage());
+        }
+    }
+
+    /**
+     * View outstanding fines per member
+     */
+    public void viewOutstandingFines() {
+        try {
+            Map<Integer, Double> fines = fineAssessmentService.getOutstandingFinesByMember();
+
+            if (fines.isEmpty()) {
+                MessageHelper.showInfo("No hay multas pendientes");
+                return;
+            }
+
+            String table = TableFormatter.formatFinesTable(fines);
+            MessageHelper.showScrollableData("Multas por Socio", table);
+
+        } catch (DatabaseException e) {
+            MessageHelper.showError("Error al cargar las multas: " + e.getMessage());
+        }
+    }
+
     /**
      * Get all loans (for exports or other operations)
      */
@@ -2,11 +2,13 @@ package controllers;
 
 import exceptions.DatabaseException;
 import exceptions.DuplicateEmailException;
+import exceptions.OptimisticLockException;
 import models.Member;
 import services.MemberService;
 import utils.InputValidator;
 import utils.MessageHelper;
 import utils.TableFormatter;
+import utils.ValidationResult;
 
 import java.util.List;
 import java.util.Optional;
@@ -19,7 +21,11 @@ public class MemberController {
     private final MemberService memberService;
 
     public MemberController() {
-        this.memberService = new MemberService();
+        this(new MemberService());
+    }
+
+    public MemberController(MemberService memberService) {
+        this.memberService = memberService;
     }
 
     /**
@@ -27,24 +33,10 @@ public class MemberController {
      */
     public boolean createMember(String name, String email, String phone, String address) {
         try {
-            // Validate input
-            if (InputValidator.isNullOrEmpty(name)) {
-                MessageHelper.showError("El nombre es requerido");
-                return false;
-            }
-
-            if (InputValidator.isNullOrEmpty(email)) {
-                MessageHelper.showError("El email es requerido");
-                return false;
-            }
-
-            if (!InputValidator.isValidEmail(email)) {
-                MessageHelper.showError("Formato de email inválido");
-                return false;
-            }
-
-            if (!InputValidator.isNullOrEmpty(phone) && !InputValidator.isValidPhone(phone)) {
-                MessageHelper.showError("Formato de teléfono inválido");
+            // Validate input (all fields at once)
+            ValidationResult validation = InputValidator.validateMember(name, email, phone);
+            if (!validation.isValid()) {
+                MessageHelper.showError(validation.getMessage());
                 return false;
             }
 
@@ -135,30 +127,38 @@ public class MemberController {
     }
 
     /**
-     * Update member
+     * Load a member at the start of an edit. Its version is sent back with the changes, so
+     * anything that modified the member meanwhile is detected.
      */
-    public boolean updateMember(String memberIdStr, String name, String email, String phone, String address) {
+    public Optional<Member> loadMemberForEdit(String memberIdStr) {
         try {
             if (!InputValidator.isPositiveInteger(memberIdStr)) {
                 MessageHelper.showError("ID de socio inválido");
-                return false;
+                return Optional.empty();
             }
 
-            if (!InputValidator.isValidEmail(email)) {
-                MessageHelper.showError("Formato de email inválido");
-                return false;
+            Optional<Member> memberOpt = memberService.findMemberById(InputValidator.parseIntSafely(memberIdStr));
+            if (memberOpt.isEmpty()) {
+                MessageHelper.showError("Socio no encontrado");
             }
+            return memberOpt;
 
-            Integer memberId = InputValidator.parseIntSafely(memberIdStr);
+        } catch (DatabaseException e) {
+            MessageHelper.showError("Error al buscar el socio: " + e.getMessage());
+            return Optional.empty();
+        }
+    }
 
-            // Get existing member
-            Optional<Member> memberOpt = memberService.findMemberById(memberId);
-            if (memberOpt.isEmpty()) {
-                MessageHelper.showError("Socio no encontrado");
+    /**
+     * Update a member loaded with loadMemberForEdit
+     */
+    public boolean updateMember(Member member, String name, String email, String phone, String address) {
+        try {
+            if (!InputValidator.isValidEmail(email)) {
+                MessageHelper.showError("Formato de email inválido");
                 return false;
             }
 
-            Member member = memberOpt.get();
             member.setName(name);
             member.setEmail(email);
             member.setPhone(phone);
@@ -177,6 +177,10 @@ public class MemberController {
         } catch (DuplicateEmailException e) {
             MessageHelper.showError("El email ya está registrado por otro socio");
             return false;
+        } catch (OptimisticLockException e) {
+            MessageHelper.showWarning("El socio fue modificado por otra operación mientras lo editaba.\n" +
+                    "Vuelva a cargarlo e intente de nuevo.");
+            return false;
         } catch (DatabaseException e) {
             MessageHelper.showError("Error al actualizar el socio: " + e.getMessage());
             return false;
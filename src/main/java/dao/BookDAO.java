@@ -2,7 +2,10 @@ package dao;
 
 import models.Book;
 import exceptions.*;
+import java.sql.Connection;
 import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -42,9 +45,11 @@ public interface BookDAO {
     List<Book> findByAuthor(String author) throws SQLException;
 
     /**
-     * Update book information
+     * Update book information if its row version still matches (the version is then incremented).
+     * Checkouts and returns do not move the version, only edits do.
+     * Returns false when the book does not exist
      */
-    boolean update(Book book) throws SQLException;
+    boolean update(Book book) throws SQLException, OptimisticLockException;
 
     /**
      * Delete book by ISBN
@@ -70,4 +75,37 @@ public interface BookDAO {
      * Check if ISBN exists
      */
     boolean existsByIsbn(String isbn) throws SQLException;
-}
\ No newline at end of file
+
+    /**
+     * Find books created or modified after since and up to until, ordered by updated_at
+     */
+    List<Book> findModifiedSince(LocalDateTime since, LocalDateTime until) throws SQLException;
+
+    /**
+     * Find several books in one query within a transaction
+     */
+    List<Book> findByIsbns(Collection<String> isbns, Connection connection) throws SQLException;
+
+    /**
+     * Take one copy of each ISBN in a single JDBC batch within a transaction.
+     * Returns the update count per ISBN (0 when no copy was available)
+     */
+    int[] decrementAvailableCopies(List<String> isbns, Connection connection) throws SQLException;
+
+    /**
+     * Put back one copy of each ISBN (repeats allowed) in a single JDBC batch within a transaction
+     */
+    int[] incrementAvailableCopies(List<String> isbns, Connection connection) throws SQLException;
+
+    /**
+     * One page of books matching the filter (ISBN, title, author or category contains it),
+     * sorted by a whitelisted column (isbn, title, author, category, total_copies,
+     * available_copies, reference_price, is_active, created_at); unknown columns sort by title
+     */
+    List<Book> findPage(String filter, String sortColumn, boolean ascending, int offset, int limit) throws SQLException;
+
+    /**
+     * Number of books matching the filter used by findPage
+     */
+    int count(String filter) throws SQLException;
+}
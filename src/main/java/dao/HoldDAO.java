@@ -0,0 +1,79 @@
+package dao;
+
+import models.Hold;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Interface for Hold (reservation) data access operations
+ * Note: state transitions that move a copy use transaction-aware methods receiving a Connection
+ */
+public interface HoldDAO {
+
+    /**
+     * Create a new WAITING hold
+     */
+    Hold create(Hold hold) throws SQLException;
+
+    /**
+     * Find hold by ID
+     */
+    Optional<Hold> findById(Integer id) throws SQLException;
+
+    /**
+     * Find the open (WAITING or READY) holds of a book in queue order
+     */
+    List<Hold> findOpenByBook(String isbn) throws SQLException;
+
+    /**
+     * Find all holds of a member, newest first
+     */
+    List<Hold> findByMember(Integer idMember) throws SQLException;
+
+    /**
+     * Check if the member already has an open hold on the book
+     */
+    boolean existsOpenHold(String isbn, Integer idMember) throws SQLException;
+
+    /**
+     * Find the READY holds of a member within a transaction
+     */
+    List<Hold> findReadyByMember(Integer idMember, Connection connection) throws SQLException;
+
+    /**
+     * Lock and return the first WAITING holds of a book in queue order, at most limit rows,
+     * within a transaction
+     */
+    List<Hold> findWaitingForUpdate(String isbn, int limit, Connection connection) throws SQLException;
+
+    /**
+     * Mark WAITING holds as READY for pickup in a single JDBC batch within a transaction
+     * @return Update count per hold (0 when it was no longer WAITING)
+     */
+    int[] markReady(List<Integer> ids, LocalDateTime readyAt, LocalDateTime expiresAt, Connection connection)
+            throws SQLException;
+
+    /**
+     * Mark a READY hold as FULFILLED (picked up) within a transaction
+     */
+    boolean markFulfilled(Integer id, Connection connection) throws SQLException;
+
+    /**
+     * Find READY holds whose pickup window ended before now, oldest first, at most limit rows
+     */
+    List<Hold> findExpiredReady(LocalDateTime now, int limit, Connection connection) throws SQLException;
+
+    /**
+     * Mark READY holds as EXPIRED in a single JDBC batch within a transaction
+     * @return Update count per hold (0 when it was no longer READY)
+     */
+    int[] markExpired(List<Integer> ids, Connection connection) throws SQLException;
+
+    /**
+     * Cancel an open (WAITING or READY) hold within a transaction
+     */
+    boolean cancel(Integer id, Connection connection) throws SQLException;
+}
@@ -3,7 +3,11 @@ package dao;
 import models.Loan;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -21,6 +25,15 @@ public interface LoanDAO {
      */
     Loan create(Loan loan, Connection connection) throws SQLException;
 
+    /**
+     * Create several loans with a single JDBC batch within a transaction
+     * @param loans Loans to create
+     * @param connection Active database connection for transaction
+     * @return The same loans with their generated IDs
+     * @throws SQLException if database error occurs
+     */
+    List<Loan> createBatch(List<Loan> loans, Connection connection) throws SQLException;
+
     /**
      * Find loan by ID
      * @param id Loan ID
@@ -100,4 +113,79 @@ public interface LoanDAO {
      * @throws SQLException if database error occurs
      */
     boolean markAsReturned(Integer idLoan, double fineAmount, Connection connection) throws SQLException;
-}
\ No newline at end of file
+
+    /**
+     * Find several loans in one query within a transaction
+     * @param ids Loan IDs
+     * @param connection Active database connection for transaction
+     * @return Loans found (missing IDs are simply absent)
+     * @throws SQLException if database error occurs
+     */
+    List<Loan> findByIds(Collection<Integer> ids, Connection connection) throws SQLException;
+
+    /**
+     * Mark several active loans as returned with a single JDBC batch within a transaction
+     * @param finesByLoan Fine amount per loan ID
+     * @param returnDate Return date to record
+     * @param connection Active database connection for transaction
+     * @return Update count per entry, in the map's iteration order
+     * @throws SQLException if database error occurs
+     */
+    int[] markAsReturnedBatch(Map<Integer, Double> finesByLoan, LocalDate returnDate, Connection connection)
+            throws SQLException;
+
+    /**
+     * Find loans created or modified in a time window
+     * @param since Exclusive lower bound on updated_at
+     * @param until Inclusive upper bound on updated_at
+     * @return List of loans ordered by updated_at
+     * @throws SQLException if database error occurs
+     */
+    List<Loan> findModifiedSince(LocalDateTime since, LocalDateTime until) throws SQLException;
+
+    /**
+     * Recompute the accrued fine of every overdue active loan in a single statement,
+     * writing only the rows whose fine changed
+     * @param asOf Date the fines are assessed for
+     * @param finePerDay Fine charged per overdue day
+     * @return Number of loans whose fine changed
+     * @throws SQLException if database error occurs
+     */
+    int assessOverdueFines(LocalDate asOf, double finePerDay) throws SQLException;
+
+    /**
+     * Sum the fines accrued on active (overdue) loans per member (server-side aggregate)
+     * @return Map of member ID to total fine amount, only members with fines
+     * @throws SQLException if database error occurs
+     */
+    Map<Integer, Double> sumFinesByMember() throws SQLException;
+
+    /**
+     * Sum the fines accrued on the active (overdue) loans of a single member
+     * @param idMember Member ID
+     * @return Total fine amount (0 if none)
+     * @throws SQLException if database error occurs
+     */
+    double sumFinesForMember(Integer idMember) throws SQLException;
+
+    /**
+     * One page of loans matching the filter, sorted by a whitelisted column
+     * @param filter Loan or member ID when numeric, otherwise ISBN prefix or status; null or blank for all
+     * @param sortColumn id_loan, isbn, id_member, loan_date, due_date, return_date, fine_amount or status
+     *                   (unknown columns sort by created_at)
+     * @param ascending Sort direction
+     * @param offset First row (0-based)
+     * @param limit Maximum rows
+     * @return List of loans
+     * @throws SQLException if database error occurs
+     */
+    List<Loan> findPage(String filter, String sortColumn, boolean ascending, int offset, int limit) throws SQLException;
+
+    /**
+     * Number of loans matching the filter used by findPage
+     * @param filter Same filter as findPage
+     * @return Matching rows
+     * @throws SQLException if database error occurs
+     */
+    int count(String filter) throws SQLException;
+}
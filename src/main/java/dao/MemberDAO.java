@@ -2,8 +2,10 @@ package dao;
 
 import models.Member;
 import exceptions.*;
+import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -37,9 +39,10 @@ public interface MemberDAO {
     List<Member> findAllActive() throws SQLException;
 
     /**
-     * Update member information
+     * Update member information if its row version still matches (the version is then incremented).
+     * Returns false when the member does not exist
      */
-    boolean update(Member member) throws SQLException, DuplicateEmailException;
+    boolean update(Member member) throws SQLException, DuplicateEmailException, OptimisticLockException;
 
     /**
      * Delete member by ID
@@ -60,4 +63,33 @@ public interface MemberDAO {
      * Check if email exists
      */
     boolean existsByEmail(String email) throws SQLException;
-}
\ No newline at end of file
+
+    /**
+     * Add count to the member's active-loan counter within a transaction, only if the
+     * result stays within maxActive (no limit when maxActive <= 0)
+     * @return false when the member does not exist or the limit would be exceeded
+     */
+    boolean incrementActiveLoans(Integer idMember, int count, int maxActive, Connection connection) throws SQLException;
+
+    /**
+     * Subtract one from the active-loan counter of each member (repeats allowed) in a single
+     * JDBC batch within a transaction
+     */
+    int[] decrementActiveLoans(List<Integer> memberIds, Connection connection) throws SQLException;
+
+    /**
+     * Active-loan counter of every member with at least one active loan
+     */
+    Map<Integer, Integer> findActiveLoanCounts() throws SQLException;
+
+    /**
+     * Members whose counter differs from their ACTIVE loans (member ID to {counter, actual})
+     */
+    Map<Integer, int[]> findActiveLoanMismatches() throws SQLException;
+
+    /**
+     * Recount the member's counter from the loans table
+     * @return The recounted value
+     */
+    int recountActiveLoans(Integer idMember) throws SQLException;
+}
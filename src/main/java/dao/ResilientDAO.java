@@ -0,0 +1,104 @@
+package dao;
+
+import config.DatabaseConnection;
+import config.DatabaseResilience;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Wraps a DAO so every call goes through {@link DatabaseResilience}, and reads may be
+ * served by a read replica (see {@link DatabaseConnection#readOnly}).
+ *
+ * Reads (methods named find*, exists*, count*, sum*, average*, authenticate) are retried on
+ * transient failures; writes only when their connection could not be opened. Methods that
+ * take a Connection run inside the caller's transaction and are never retried here: the
+ * transaction has to be rolled back and started again as a whole.
+ */
+public final class ResilientDAO implements InvocationHandler {
+
+    private static final String[] READ_PREFIXES = {"find", "exists", "count", "sum", "average", "authenticate"};
+
+    // Carries checked exceptions other than SQLException (e.g. DuplicateIsbnException) out of the retry loop
+    private static final class Tunnel extends RuntimeException {
+        Tunnel(Throwable cause) {
+            super(cause.getMessage(), cause, false, false);
+        }
+    }
+
+    private final Object target;
+    private final DatabaseResilience resilience;
+    private final DatabaseConnection dbConnection;
+
+    private ResilientDAO(Object target) {
+        this.target = target;
+        this.resilience = DatabaseResilience.getInstance();
+        this.dbConnection = DatabaseConnection.getInstance();
+    }
+
+    public static <T> T wrap(Class<T> type, T target) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                new ResilientDAO(target)));
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        if (method.getDeclaringClass() == Object.class || usesCallerConnection(method)) {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        try {
+            if (isRead(method)) {
+                return dbConnection.readOnly(() -> resilience.execute(true, () -> invokeTarget(method, args)));
+            }
+            try {
+                return resilience.execute(false, () -> invokeTarget(method, args));
+            } finally {
+                dbConnection.recordWrite();
+            }
+        } catch (Tunnel e) {
+            throw e.getCause();
+        }
+    }
+
+    private Object invokeTarget(Method method, Object[] args) throws SQLException {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof SQLException) {
+                throw (SQLException) cause;
+            }
+            throw new Tunnel(cause);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("DAO method not accessible: " + method, e);
+        }
+    }
+
+    private static boolean isRead(Method method) {
+        String name = method.getName();
+        for (String prefix : READ_PREFIXES) {
+            if (name.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean usesCallerConnection(Method method) {
+        for (Class<?> type : method.getParameterTypes()) {
+            if (type == Connection.class) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
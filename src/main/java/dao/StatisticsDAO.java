@@ -0,0 +1,33 @@
+package dao;
+
+import models.CirculationStat;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Interface for circulation statistics computed with server-side aggregate queries.
+ * All windows filter on loan_date between from and to (inclusive).
+ */
+public interface StatisticsDAO {
+
+    /**
+     * Most borrowed books in the window (key = ISBN, label = title)
+     */
+    List<CirculationStat> findTopBorrowedBooks(LocalDate from, LocalDate to, int limit) throws SQLException;
+
+    /**
+     * Loan count per book category in the window (key = label = category)
+     */
+    List<CirculationStat> countLoansByCategory(LocalDate from, LocalDate to) throws SQLException;
+
+    /**
+     * Most active members in the window (key = member ID, label = name, value = fines)
+     */
+    List<CirculationStat> findMemberActivity(LocalDate from, LocalDate to, int limit) throws SQLException;
+
+    /**
+     * Average days between loan and return for the loans made in the window that have been returned
+     */
+    double averageLoanDurationDays(LocalDate from, LocalDate to) throws SQLException;
+}
@@ -1,20 +1,30 @@
 package dao.impl;
 
+import config.BranchRouter;
 import config.DatabaseConnection;
 import dao.BookDAO;
 import exceptions.DuplicateIsbnException;
+import exceptions.OptimisticLockException;
 import models.Book;
 
 import java.sql.*;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * JDBC implementation of BookDAO
  */
 public class BookDAOImpl implements BookDAO {
 
+    private static final Set<String> SORT_COLUMNS = Set.of("isbn", "title", "author", "category",
+            "total_copies", "available_copies", "reference_price", "is_active", "created_at");
+    private static final String FILTER_CLAUSE = " WHERE (isbn LIKE ? OR title LIKE ? OR author LIKE ? OR category LIKE ?)";
+
     private final DatabaseConnection dbConnection;
 
     public BookDAOImpl() {
@@ -44,6 +54,7 @@ public class BookDAOImpl implements BookDAO {
             stmt.setTimestamp(9, Timestamp.valueOf(book.getCreatedAt()));
 
             stmt.executeUpdate();
+            book.setBranchId(BranchRouter.getInstance().getCurrentBranchId());
             return book;
         }
     }
@@ -142,9 +153,16 @@ public class BookDAOImpl implements BookDAO {
     }
 
     @Override
-    public boolean update(Book book) throws SQLException {
-        String sql = "UPDATE books SET title = ?, author = ?, category = ?, total_copies = ?, " +
-                "available_copies = ?, reference_price = ?, is_active = ? WHERE isbn = ?";
+    public boolean update(Book book) throws SQLException, OptimisticLockException {
+        // Available copies follow the change in total copies (assignments run left to right,
+        // so available_copies is computed from the old total). BookService checks the total
+        // against the copies on loan; the last condition only catches a checkout racing with it.
+        String sql = "UPDATE books SET title = ?, author = ?, category = ?, " +
+                "available_copies = available_copies + (? - total_copies), total_copies = ?, " +
+                "reference_price = ?, is_active = ?, version = version + 1 " +
+                "WHERE isbn = ? AND version = ? AND total_copies - available_copies <= ?";
+        int version = book.getVersion() != null ? book.getVersion() : 0;
+        int rowsAffected;
 
         try (Connection conn = dbConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -153,13 +171,25 @@ public class BookDAOImpl implements BookDAO {
             stmt.setString(2, book.getAuthor());
             stmt.setString(3, book.getCategory());
             stmt.setInt(4, book.getTotalCopies());
-            stmt.setInt(5, book.getAvailableCopies());
+            stmt.setInt(5, book.getTotalCopies());
             stmt.setDouble(6, book.getReferencePrice());
             stmt.setBoolean(7, book.getIsActive());
             stmt.setString(8, book.getIsbn());
+            stmt.setInt(9, version);
+            stmt.setInt(10, book.getTotalCopies());
 
-            return stmt.executeUpdate() > 0;
+            rowsAffected = stmt.executeUpdate();
+        }
+
+        if (rowsAffected > 0) {
+            book.setVersion(version + 1);
+            return true;
+        }
+        // No row matched: the book is gone, or it changed since it was read
+        if (!existsByIsbn(book.getIsbn())) {
+            return false;
         }
+        throw new OptimisticLockException("Book was modified concurrently: " + book.getIsbn());
     }
 
     @Override
@@ -176,7 +206,7 @@ public class BookDAOImpl implements BookDAO {
 
     @Override
     public boolean activate(String isbn) throws SQLException {
-        String sql = "UPDATE books SET is_active = TRUE WHERE isbn = ?";
+        String sql = "UPDATE books SET is_active = TRUE, version = version + 1 WHERE isbn = ?";
 
         try (Connection conn = dbConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -188,7 +218,7 @@ public class BookDAOImpl implements BookDAO {
 
     @Override
     public boolean deactivate(String isbn) throws SQLException {
-        String sql = "UPDATE books SET is_active = FALSE WHERE isbn = ?";
+        String sql = "UPDATE books SET is_active = FALSE, version = version + 1 WHERE isbn = ?";
 
         try (Connection conn = dbConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -231,11 +261,149 @@ public class BookDAOImpl implements BookDAO {
         return false;
     }
 
+    @Override
+    public List<Book> findModifiedSince(LocalDateTime since, LocalDateTime until) throws SQLException {
+        List<Book> books = new ArrayList<>();
+        String sql = "SELECT * FROM books WHERE updated_at > ? AND updated_at <= ? ORDER BY updated_at";
+
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setTimestamp(1, Timestamp.valueOf(since));
+            stmt.setTimestamp(2, Timestamp.valueOf(until));
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    books.add(mapResultSetToBook(rs));
+                }
+            }
+        }
+
+        return books;
+    }
+
+    @Override
+    public List<Book> findByIsbns(Collection<String> isbns, Connection connection) throws SQLException {
+        List<Book> books = new ArrayList<>();
+        if (isbns.isEmpty()) {
+            return books;
+        }
+
+        String placeholders = String.join(", ", Collections.nCopies(isbns.size(), "?"));
+        String sql = "SELECT * FROM books WHERE isbn IN (" + placeholders + ")";
+
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            int index = 1;
+            for (String isbn : isbns) {
+                stmt.setString(index++, isbn);
+            }
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    books.add(mapResultSetToBook(rs));
+                }
+            }
+        }
+
+        return books;
+    }
+
+    @Override
+    public int[] decrementAvailableCopies(List<String> isbns, Connection connection) throws SQLException {
+        String sql = "UPDATE books SET available_copies = available_copies - 1 " +
+                "WHERE isbn = ? AND available_copies > 0";
+
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            for (String isbn : isbns) {
+                stmt.setString(1, isbn);
+                stmt.addBatch();
+            }
+
+            return stmt.executeBatch();
+        }
+    }
+
+    @Override
+    public int[] incrementAvailableCopies(List<String> isbns, Connection connection) throws SQLException {
+        String sql = "UPDATE books SET available_copies = available_copies + 1 WHERE isbn = ?";
+
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            for (String isbn : isbns) {
+                stmt.setString(1, isbn);
+                stmt.addBatch();
+            }
+
+            return stmt.executeBatch();
+        }
+    }
+
+    @Override
+    public List<Book> findPage(String filter, String sortColumn, boolean ascending, int offset, int limit)
+            throws SQLException {
+        List<Book> books = new ArrayList<>();
+        String column = sortColumn != null && SORT_COLUMNS.contains(sortColumn) ? sortColumn : "title";
+        String direction = ascending ? "ASC" : "DESC";
+        boolean filtered = filter != null && !filter.isBlank();
+
+        // ISBN is the primary key, so it makes the order (and therefore the pages) stable
+        String sql = "SELECT * FROM books" + (filtered ? FILTER_CLAUSE : "") +
+                " ORDER BY " + column + " " + direction + ", isbn " + direction + " LIMIT ? OFFSET ?";
+
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            int index = filtered ? setFilter(stmt, filter) : 1;
+            stmt.setInt(index++, limit);
+            stmt.setInt(index, offset);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    books.add(mapResultSetToBook(rs));
+                }
+            }
+        }
+
+        return books;
+    }
+
+    @Override
+    public int count(String filter) throws SQLException {
+        boolean filtered = filter != null && !filter.isBlank();
+        String sql = "SELECT COUNT(*) FROM books" + (filtered ? FILTER_CLAUSE : "");
+
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            if (filtered) {
+                setFilter(stmt, filter);
+            }
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getInt(1);
+                }
+            }
+        }
+
+        return 0;
+    }
+
+    /**
+     * Bind the filter to the four LIKE parameters and return the next parameter index
+     */
+    private int setFilter(PreparedStatement stmt, String filter) throws SQLException {
+        String pattern = "%" + filter.trim() + "%";
+        for (int i = 1; i <= 4; i++) {
+            stmt.setString(i, pattern);
+        }
+        return 5;
+    }
+
     /**
      * Map ResultSet to Book object
      */
     private Book mapResultSetToBook(ResultSet rs) throws SQLException {
-        return new Book(
+        Book book = new Book(
                 rs.getString("isbn"),
                 rs.getString("title"),
                 rs.getString("author"),
@@ -246,5 +414,12 @@ public class BookDAOImpl implements BookDAO {
                 rs.getBoolean("is_active"),
                 rs.getTimestamp("created_at").toLocalDateTime()
         );
+
+        Timestamp updatedAt = rs.getTimestamp("updated_at");
+        book.setUpdatedAt(updatedAt != null ? updatedAt.toLocalDateTime() : null);
+        book.setVersion(rs.getInt("version"));
+        // Each branch has its own database, so the row belongs to the branch being queried
+        book.setBranchId(BranchRouter.getInstance().getCurrentBranchId());
+        return book;
     }
 }
\ No newline at end of file
@@ -0,0 +1,254 @@
+package dao.impl;
+
+import config.DatabaseConnection;
+import dao.HoldDAO;
+import models.Hold;
+import models.Hold.HoldStatus;
+
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * JDBC implementation of HoldDAO with transaction support
+ */
+public class HoldDAOImpl implements HoldDAO {
+
+    private final DatabaseConnection dbConnection;
+
+    public HoldDAOImpl() {
+        this.dbConnection = DatabaseConnection.getInstance();
+    }
+
+    @Override
+    public Hold create(Hold hold) throws SQLException {
+        String sql = "INSERT INTO holds (isbn, id_member, status, created_at) VALUES (?, ?, ?, ?)";
+
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+
+            stmt.setString(1, hold.getIsbn());
+            stmt.setInt(2, hold.getIdMember());
+            stmt.setString(3, hold.getStatus().name());
+            stmt.setTimestamp(4, Timestamp.valueOf(hold.getCreatedAt()));
+
+            int rowsAffected = stmt.executeUpdate();
+
+            if (rowsAffected > 0) {
+                try (ResultSet rs = stmt.getGeneratedKeys()) {
+                    if (rs.next()) {
+                        hold.setIdHold(rs.getInt(1));
+                    }
+                }
+            }
+
+            return hold;
+        }
+    }
+
+    @Override
+    public Optional<Hold> findById(Integer id) throws SQLException {
+        String sql = "SELECT * FROM holds WHERE id_hold = ?";
+
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, id);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return Optional.of(mapResultSetToHold(rs));
+                }
+            }
+        }
+
+        return Optional.empty();
+    }
+
+    @Override
+    public List<Hold> findOpenByBook(String isbn) throws SQLException {
+        List<Hold> holds = new ArrayList<>();
+        String sql = "SELECT * FROM holds WHERE isbn = ? AND status IN ('WAITING', 'READY') ORDER BY id_hold";
+
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setString(1, isbn);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    holds.add(mapResultSetToHold(rs));
+                }
+            }
+        }
+
+        return holds;
+    }
+
+    @Override
+    public List<Hold> findByMember(Integer idMember) throws SQLException {
+        List<Hold> holds = new ArrayList<>();
+        String sql = "SELECT * FROM holds WHERE id_member = ? ORDER BY id_hold DESC";
+
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, idMember);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    holds.add(mapResultSetToHold(rs));
+                }
+            }
+        }
+
+        return holds;
+    }
+
+    @Override
+    public boolean existsOpenHold(String isbn, Integer idMember) throws SQLException {
+        String sql = "SELECT COUNT(*) FROM holds WHERE isbn = ? AND id_member = ? AND status IN ('WAITING', 'READY')";
+
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setString(1, isbn);
+            stmt.setInt(2, idMember);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getInt(1) > 0;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    @Override
+    public List<Hold> findReadyByMember(Integer idMember, Connection connection) throws SQLException {
+        List<Hold> holds = new ArrayList<>();
+        String sql = "SELECT * FROM holds WHERE id_member = ? AND status = 'READY' ORDER BY id_hold";
+
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            stmt.setInt(1, idMember);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    holds.add(mapResultSetToHold(rs));
+                }
+            }
+        }
+
+        return holds;
+    }
+
+    @Override
+    public List<Hold> findWaitingForUpdate(String isbn, int limit, Connection connection) throws SQLException {
+        List<Hold> holds = new ArrayList<>();
+        String sql = "SELECT * FROM holds WHERE isbn = ? AND status = 'WAITING' ORDER BY id_hold LIMIT ? FOR UPDATE";
+
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            stmt.setString(1, isbn);
+            stmt.setInt(2, limit);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    holds.add(mapResultSetToHold(rs));
+                }
+            }
+        }
+
+        return holds;
+    }
+
+    @Override
+    public int[] markReady(List<Integer> ids, LocalDateTime readyAt, LocalDateTime expiresAt, Connection connection)
+            throws SQLException {
+        String sql = "UPDATE holds SET status = 'READY', ready_at = ?, expires_at = ? WHERE id_hold = ? AND status = 'WAITING'";
+
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            for (Integer id : ids) {
+                stmt.setTimestamp(1, Timestamp.valueOf(readyAt));
+                stmt.setTimestamp(2, Timestamp.valueOf(expiresAt));
+                stmt.setInt(3, id);
+                stmt.addBatch();
+            }
+
+            return stmt.executeBatch();
+        }
+    }
+
+    @Override
+    public boolean markFulfilled(Integer id, Connection connection) throws SQLException {
+        String sql = "UPDATE holds SET status = 'FULFILLED' WHERE id_hold = ? AND status = 'READY'";
+
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            stmt.setInt(1, id);
+            return stmt.executeUpdate() > 0;
+        }
+    }
+
+    @Override
+    public List<Hold> findExpiredReady(LocalDateTime now, int limit, Connection connection) throws SQLException {
+        List<Hold> holds = new ArrayList<>();
+        String sql = "SELECT * FROM holds WHERE status = 'READY' AND expires_at < ? ORDER BY expires_at LIMIT ?";
+
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            stmt.setTimestamp(1, Timestamp.valueOf(now));
+            stmt.setInt(2, limit);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    holds.add(mapResultSetToHold(rs));
+                }
+            }
+        }
+
+        return holds;
+    }
+
+    @Override
+    public int[] markExpired(List<Integer> ids, Connection connection) throws SQLException {
+        String sql = "UPDATE holds SET status = 'EXPIRED' WHERE id_hold = ? AND status = 'READY'";
+
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            for (Integer id : ids) {
+                stmt.setInt(1, id);
+                stmt.addBatch();
+            }
+
+            return stmt.executeBatch();
+        }
+    }
+
+    @Override
+    public boolean cancel(Integer id, Connection connection) throws SQLException {
+        String sql = "UPDATE holds SET status = 'CANCELLED' WHERE id_hold = ? AND status IN ('WAITING', 'READY')";
+
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            stmt.setInt(1, id);
+            return stmt.executeUpdate() > 0;
+        }
+    }
+
+    /**
+     * Map ResultSet to Hold object
+     */
+    private Hold mapResultSetToHold(ResultSet rs) throws SQLException {
+        Timestamp readyAt = rs.getTimestamp("ready_at");
+        Timestamp expiresAt = rs.getTimestamp("expires_at");
+
+        return new Hold(
+                rs.getInt("id_hold"),
+                rs.getString("isbn"),
+                rs.getInt("id_member"),
+                HoldStatus.valueOf(rs.getString("status")),
+                rs.getTimestamp("created_at").toLocalDateTime(),
+                readyAt != null ? readyAt.toLocalDateTime() : null,
+                expiresAt != null ? expiresAt.toLocalDateTime() : null
+        );
+    }
+}
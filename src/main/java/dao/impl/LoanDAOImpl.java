@@ -1,5 +1,6 @@
 package dao.impl;
 
+import config.BranchRouter;
 import config.DatabaseConnection;
 import dao.LoanDAO;
 import models.Loan;
@@ -7,15 +8,24 @@ import models.Loan.LoanStatus;
 
 import java.sql.*;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * JDBC implementation of LoanDAO with transaction support
  */
 public class LoanDAOImpl implements LoanDAO {
 
+    private static final Set<String> SORT_COLUMNS = Set.of("id_loan", "isbn", "id_member", "loan_date",
+            "due_date", "return_date", "fine_amount", "status");
+
     private final DatabaseConnection dbConnection;
 
     public LoanDAOImpl() {
@@ -42,6 +52,7 @@ public class LoanDAOImpl implements LoanDAO {
                 try (ResultSet rs = stmt.getGeneratedKeys()) {
                     if (rs.next()) {
                         loan.setIdLoan(rs.getInt(1));
+                        loan.setBranchId(BranchRouter.getInstance().getCurrentBranchId());
                     }
                 }
             }
@@ -50,6 +61,44 @@ public class LoanDAOImpl implements LoanDAO {
         }
     }
 
+    @Override
+    public List<Loan> createBatch(List<Loan> loans, Connection connection) throws SQLException {
+        String sql = "INSERT INTO loans (isbn, id_member, loan_date, due_date, fine_amount, status, created_at) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+        if (loans.isEmpty()) {
+            return loans;
+        }
+
+        try (PreparedStatement stmt = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            for (Loan loan : loans) {
+                stmt.setString(1, loan.getIsbn());
+                stmt.setInt(2, loan.getIdMember());
+                stmt.setDate(3, Date.valueOf(loan.getLoanDate()));
+                stmt.setDate(4, Date.valueOf(loan.getDueDate()));
+                stmt.setDouble(5, loan.getFineAmount());
+                stmt.setString(6, loan.getStatus().name());
+                stmt.setTimestamp(7, Timestamp.valueOf(loan.getCreatedAt()));
+                stmt.addBatch();
+            }
+
+            stmt.executeBatch();
+
+            // Generated keys come back in insertion order
+            try (ResultSet rs = stmt.getGeneratedKeys()) {
+                for (Loan loan : loans) {
+                    if (!rs.next()) {
+                        break;
+                    }
+                    loan.setIdLoan(rs.getInt(1));
+                    loan.setBranchId(BranchRouter.getInstance().getCurrentBranchId());
+                }
+            }
+
+            return loans;
+        }
+    }
+
     @Override
     public Optional<Loan> findById(Integer id) throws SQLException {
         String sql = "SELECT * FROM loans WHERE id_loan = ?";
@@ -223,6 +272,219 @@ public class LoanDAOImpl implements LoanDAO {
         }
     }
 
+    @Override
+    public List<Loan> findByIds(Collection<Integer> ids, Connection connection) throws SQLException {
+        List<Loan> loans = new ArrayList<>();
+        if (ids.isEmpty()) {
+            return loans;
+        }
+
+        String placeholders = String.join(", ", Collections.nCopies(ids.size(), "?"));
+        String sql = "SELECT * FROM loans WHERE id_loan IN (" + placeholders + ")";
+
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            int index = 1;
+            for (Integer id : ids) {
+                stmt.setInt(index++, id);
+            }
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    loans.add(mapResultSetToLoan(rs));
+                }
+            }
+        }
+
+        return loans;
+    }
+
+    @Override
+    public int[] markAsReturnedBatch(Map<Integer, Double> finesByLoan, LocalDate returnDate, Connection connection)
+            throws SQLException {
+        String sql = "UPDATE loans SET status = 'RETURNED', return_date = ?, fine_amount = ? " +
+                "WHERE id_loan = ? AND status = 'ACTIVE'";
+
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            for (Map.Entry<Integer, Double> entry : finesByLoan.entrySet()) {
+                stmt.setDate(1, Date.valueOf(returnDate));
+                stmt.setDouble(2, entry.getValue());
+                stmt.setInt(3, entry.getKey());
+                stmt.addBatch();
+            }
+
+            return stmt.executeBatch();
+        }
+    }
+
+    @Override
+    public List<Loan> findModifiedSince(LocalDateTime since, LocalDateTime until) throws SQLException {
+        List<Loan> loans = new ArrayList<>();
+        String sql = "SELECT * FROM loans WHERE updated_at > ? AND updated_at <= ? ORDER BY updated_at";
+
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setTimestamp(1, Timestamp.valueOf(since));
+            stmt.setTimestamp(2, Timestamp.valueOf(until));
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    loans.add(mapResultSetToLoan(rs));
+                }
+            }
+        }
+
+        return loans;
+    }
+
+    @Override
+    public int assessOverdueFines(LocalDate asOf, double finePerDay) throws SQLException {
+        String sql = "UPDATE loans SET fine_amount = DATEDIFF(?, due_date) * ? " +
+                "WHERE status = 'ACTIVE' AND due_date < ? " +
+                "AND (fine_amount IS NULL OR fine_amount <> DATEDIFF(?, due_date) * ?)";
+
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setDate(1, Date.valueOf(asOf));
+            stmt.setDouble(2, finePerDay);
+            stmt.setDate(3, Date.valueOf(asOf));
+            stmt.setDate(4, Date.valueOf(asOf));
+            stmt.setDouble(5, finePerDay);
+
+            return stmt.executeUpdate();
+        }
+    }
+
+    @Override
+    public Map<Integer, Double> sumFinesByMember() throws SQLException {
+        Map<Integer, Double> totals = new LinkedHashMap<>();
+        String sql = "SELECT id_member, SUM(fine_amount) AS total FROM loans " +
+                "WHERE status = 'ACTIVE' AND fine_amount > 0 GROUP BY id_member ORDER BY total DESC";
+
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+
+            while (rs.next()) {
+                totals.put(rs.getInt("id_member"), rs.getDouble("total"));
+            }
+        }
+
+        return totals;
+    }
+
+    @Override
+    public double sumFinesForMember(Integer idMember) throws SQLException {
+        String sql = "SELECT COALESCE(SUM(fine_amount), 0) FROM loans " +
+                "WHERE id_member = ? AND status = 'ACTIVE' AND fine_amount > 0";
+
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, idMember);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getDouble(1);
+                }
+            }
+        }
+
+        return 0.0;
+    }
+
+    @Override
+    public List<Loan> findPage(String filter, String sortColumn, boolean ascending, int offset, int limit)
+            throws SQLException {
+        List<Loan> loans = new ArrayList<>();
+        String column = sortColumn != null && SORT_COLUMNS.contains(sortColumn) ? sortColumn : "created_at";
+        String direction = ascending ? "ASC" : "DESC";
+
+        // id_loan is the primary key, so it makes the order (and therefore the pages) stable
+        String sql = "SELECT * FROM loans" + filterClause(filter) +
+                " ORDER BY " + column + " " + direction + ", id_loan " + direction + " LIMIT ? OFFSET ?";
+
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            int index = setFilter(stmt, filter);
+            stmt.setInt(index++, limit);
+            stmt.setInt(index, offset);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    loans.add(mapResultSetToLoan(rs));
+                }
+            }
+        }
+
+        return loans;
+    }
+
+    @Override
+    public int count(String filter) throws SQLException {
+        String sql = "SELECT COUNT(*) FROM loans" + filterClause(filter);
+
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            setFilter(stmt, filter);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getInt(1);
+                }
+            }
+        }
+
+        return 0;
+    }
+
+    /**
+     * WHERE clause for the paging filter: numeric values match loan or member ID,
+     * anything else an ISBN prefix or a status
+     */
+    private String filterClause(String filter) {
+        if (filter == null || filter.isBlank()) {
+            return "";
+        }
+        return isNumeric(filter.trim())
+                ? " WHERE (id_loan = ? OR id_member = ?)"
+                : " WHERE (isbn LIKE ? OR status = ?)";
+    }
+
+    /**
+     * Bind the filter parameters and return the next parameter index
+     */
+    private int setFilter(PreparedStatement stmt, String filter) throws SQLException {
+        if (filter == null || filter.isBlank()) {
+            return 1;
+        }
+
+        String value = filter.trim();
+        if (isNumeric(value)) {
+            stmt.setInt(1, Integer.parseInt(value));
+            stmt.setInt(2, Integer.parseInt(value));
+        } else {
+            stmt.setString(1, value + "%");
+            stmt.setString(2, value.toUpperCase());
+        }
+        return 3;
+    }
+
+    private boolean isNumeric(String value) {
+        if (value.isEmpty() || value.length() > 9) {
+            return false;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            if (!Character.isDigit(value.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     /**
      * Map ResultSet to Loan object
      */
@@ -230,7 +492,7 @@ public class LoanDAOImpl implements LoanDAO {
         Date returnDateSql = rs.getDate("return_date");
         LocalDate returnDate = returnDateSql != null ? returnDateSql.toLocalDate() : null;
 
-        return new Loan(
+        Loan loan = new Loan(
                 rs.getInt("id_loan"),
                 rs.getString("isbn"),
                 rs.getInt("id_member"),
@@ -241,5 +503,11 @@ public class LoanDAOImpl implements LoanDAO {
                 LoanStatus.valueOf(rs.getString("status")),
                 rs.getTimestamp("created_at").toLocalDateTime()
         );
+
+        Timestamp updatedAt = rs.getTimestamp("updated_at");
+        loan.setUpdatedAt(updatedAt != null ? updatedAt.toLocalDateTime() : null);
+        // Each branch has its own database, so the row belongs to the branch being queried
+        loan.setBranchId(BranchRouter.getInstance().getCurrentBranchId());
+        return loan;
     }
 }
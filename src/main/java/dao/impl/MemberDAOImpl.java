@@ -3,11 +3,14 @@ package dao.impl;
 import config.DatabaseConnection;
 import dao.MemberDAO;
 import exceptions.DuplicateEmailException;
+import exceptions.OptimisticLockException;
 import models.Member;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -126,14 +129,17 @@ public class MemberDAOImpl implements MemberDAO {
     }
 
     @Override
-    public boolean update(Member member) throws SQLException, DuplicateEmailException {
+    public boolean update(Member member) throws SQLException, DuplicateEmailException, OptimisticLockException {
         // Check if email is taken by another member
         Optional<Member> existing = findByEmail(member.getEmail());
         if (existing.isPresent() && !existing.get().getIdMember().equals(member.getIdMember())) {
             throw new DuplicateEmailException("Email already exists: " + member.getEmail());
         }
 
-        String sql = "UPDATE members SET name = ?, email = ?, phone = ?, address = ?, is_active = ? WHERE id_member = ?";
+        String sql = "UPDATE members SET name = ?, email = ?, phone = ?, address = ?, is_active = ?, " +
+                "version = version + 1 WHERE id_member = ? AND version = ?";
+        int version = member.getVersion() != null ? member.getVersion() : 0;
+        int rowsAffected;
 
         try (Connection conn = dbConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -144,9 +150,21 @@ public class MemberDAOImpl implements MemberDAO {
             stmt.setString(4, member.getAddress());
             stmt.setBoolean(5, member.getIsActive());
             stmt.setInt(6, member.getIdMember());
+            stmt.setInt(7, version);
 
-            return stmt.executeUpdate() > 0;
+            rowsAffected = stmt.executeUpdate();
+        }
+
+        if (rowsAffected > 0) {
+            member.setVersion(version + 1);
+            return true;
         }
+
+        // No row matched: either the member is gone or its version moved on
+        if (findById(member.getIdMember()).isPresent()) {
+            throw new OptimisticLockException("Member was modified concurrently: " + member.getIdMember());
+        }
+        return false;
     }
 
     @Override
@@ -163,7 +181,7 @@ public class MemberDAOImpl implements MemberDAO {
 
     @Override
     public boolean activate(Integer id) throws SQLException {
-        String sql = "UPDATE members SET is_active = TRUE WHERE id_member = ?";
+        String sql = "UPDATE members SET is_active = TRUE, version = version + 1 WHERE id_member = ?";
 
         try (Connection conn = dbConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -175,7 +193,7 @@ public class MemberDAOImpl implements MemberDAO {
 
     @Override
     public boolean deactivate(Integer id) throws SQLException {
-        String sql = "UPDATE members SET is_active = FALSE WHERE id_member = ?";
+        String sql = "UPDATE members SET is_active = FALSE, version = version + 1 WHERE id_member = ?";
 
         try (Connection conn = dbConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -204,11 +222,101 @@ public class MemberDAOImpl implements MemberDAO {
         return false;
     }
 
+    @Override
+    public boolean incrementActiveLoans(Integer idMember, int count, int maxActive, Connection connection)
+            throws SQLException {
+        String sql = "UPDATE members SET active_loans = active_loans + ? " +
+                "WHERE id_member = ? AND (? <= 0 OR active_loans + ? <= ?)";
+
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            stmt.setInt(1, count);
+            stmt.setInt(2, idMember);
+            stmt.setInt(3, maxActive);
+            stmt.setInt(4, count);
+            stmt.setInt(5, maxActive);
+
+            return stmt.executeUpdate() > 0;
+        }
+    }
+
+    @Override
+    public int[] decrementActiveLoans(List<Integer> memberIds, Connection connection) throws SQLException {
+        String sql = "UPDATE members SET active_loans = GREATEST(active_loans - 1, 0) WHERE id_member = ?";
+
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            for (Integer idMember : memberIds) {
+                stmt.setInt(1, idMember);
+                stmt.addBatch();
+            }
+
+            return stmt.executeBatch();
+        }
+    }
+
+    @Override
+    public Map<Integer, Integer> findActiveLoanCounts() throws SQLException {
+        Map<Integer, Integer> counts = new LinkedHashMap<>();
+        String sql = "SELECT id_member, active_loans FROM members WHERE active_loans > 0";
+
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+
+            while (rs.next()) {
+                counts.put(rs.getInt("id_member"), rs.getInt("active_loans"));
+            }
+        }
+
+        return counts;
+    }
+
+    @Override
+    public Map<Integer, int[]> findActiveLoanMismatches() throws SQLException {
+        Map<Integer, int[]> mismatches = new LinkedHashMap<>();
+        String sql = "SELECT m.id_member, m.active_loans, COUNT(l.id_loan) AS actual FROM members m " +
+                "LEFT JOIN loans l ON l.id_member = m.id_member AND l.status = 'ACTIVE' " +
+                "GROUP BY m.id_member, m.active_loans HAVING m.active_loans <> COUNT(l.id_loan)";
+
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+
+            while (rs.next()) {
+                mismatches.put(rs.getInt("id_member"), new int[]{rs.getInt("active_loans"), rs.getInt("actual")});
+            }
+        }
+
+        return mismatches;
+    }
+
+    @Override
+    public int recountActiveLoans(Integer idMember) throws SQLException {
+        String update = "UPDATE members SET active_loans = " +
+                "(SELECT COUNT(*) FROM loans WHERE id_member = ? AND status = 'ACTIVE') WHERE id_member = ?";
+        String select = "SELECT active_loans FROM members WHERE id_member = ?";
+
+        try (Connection conn = dbConnection.getConnection()) {
+            try (PreparedStatement stmt = conn.prepareStatement(update)) {
+                stmt.setInt(1, idMember);
+                stmt.setInt(2, idMember);
+                stmt.executeUpdate();
+            }
+
+            try (PreparedStatement stmt = conn.prepareStatement(select)) {
+                stmt.setInt(1, idMember);
+
+                try (ResultSet rs = stmt.executeQuery()) {
+                    return rs.next() ? rs.getInt(1) : 0;
+                }
+            }
+        }
+    }
+
     /**
      * Map ResultSet to Member object
      */
     private Member mapResultSetToMember(ResultSet rs) throws SQLException {
-        return new Member(
+        Member member = new Member(
                 rs.getInt("id_member"),
                 rs.getString("name"),
                 rs.getString("email"),
@@ -217,5 +325,9 @@ public class MemberDAOImpl implements MemberDAO {
                 rs.getBoolean("is_active"),
                 rs.getTimestamp("created_at").toLocalDateTime()
         );
+
+        member.setVersion(rs.getInt("version"));
+        member.setActiveLoans(rs.getInt("active_loans"));
+        return member;
     }
 }
\ No newline at end of file
@@ -0,0 +1,120 @@
+package dao.impl;
+
+import config.DatabaseConnection;
+import dao.StatisticsDAO;
+import models.CirculationStat;
+
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JDBC implementation of StatisticsDAO (GROUP BY aggregates, no row scans in Java)
+ */
+public class StatisticsDAOImpl implements StatisticsDAO {
+
+    private final DatabaseConnection dbConnection;
+
+    public StatisticsDAOImpl() {
+        this.dbConnection = DatabaseConnection.getInstance();
+    }
+
+    @Override
+    public List<CirculationStat> findTopBorrowedBooks(LocalDate from, LocalDate to, int limit) throws SQLException {
+        List<CirculationStat> stats = new ArrayList<>();
+        String sql = "SELECT l.isbn, b.title, COUNT(*) AS loans FROM loans l " +
+                "LEFT JOIN books b ON b.isbn = l.isbn " +
+                "WHERE l.loan_date BETWEEN ? AND ? " +
+                "GROUP BY l.isbn, b.title ORDER BY loans DESC, l.isbn LIMIT ?";
+
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setDate(1, Date.valueOf(from));
+            stmt.setDate(2, Date.valueOf(to));
+            stmt.setInt(3, limit);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    stats.add(new CirculationStat(rs.getString("isbn"), rs.getString("title"),
+                            rs.getLong("loans"), 0.0));
+                }
+            }
+        }
+
+        return stats;
+    }
+
+    @Override
+    public List<CirculationStat> countLoansByCategory(LocalDate from, LocalDate to) throws SQLException {
+        List<CirculationStat> stats = new ArrayList<>();
+        String sql = "SELECT COALESCE(b.category, 'N/A') AS category, COUNT(*) AS loans FROM loans l " +
+                "LEFT JOIN books b ON b.isbn = l.isbn " +
+                "WHERE l.loan_date BETWEEN ? AND ? " +
+                "GROUP BY COALESCE(b.category, 'N/A') ORDER BY loans DESC";
+
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setDate(1, Date.valueOf(from));
+            stmt.setDate(2, Date.valueOf(to));
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    String category = rs.getString("category");
+                    stats.add(new CirculationStat(category, category, rs.getLong("loans"), 0.0));
+                }
+            }
+        }
+
+        return stats;
+    }
+
+    @Override
+    public List<CirculationStat> findMemberActivity(LocalDate from, LocalDate to, int limit) throws SQLException {
+        List<CirculationStat> stats = new ArrayList<>();
+        String sql = "SELECT l.id_member, m.name, COUNT(*) AS loans, SUM(l.fine_amount) AS fines FROM loans l " +
+                "LEFT JOIN members m ON m.id_member = l.id_member " +
+                "WHERE l.loan_date BETWEEN ? AND ? " +
+                "GROUP BY l.id_member, m.name ORDER BY loans DESC, l.id_member LIMIT ?";
+
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setDate(1, Date.valueOf(from));
+            stmt.setDate(2, Date.valueOf(to));
+            stmt.setInt(3, limit);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    stats.add(new CirculationStat(String.valueOf(rs.getInt("id_member")), rs.getString("name"),
+                            rs.getLong("loans"), rs.getDouble("fines")));
+                }
+            }
+        }
+
+        return stats;
+    }
+
+    @Override
+    public double averageLoanDurationDays(LocalDate from, LocalDate to) throws SQLException {
+        String sql = "SELECT AVG(DATEDIFF(return_date, loan_date)) FROM loans " +
+                "WHERE status = 'RETURNED' AND return_date IS NOT NULL AND loan_date BETWEEN ? AND ?";
+
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setDate(1, Date.valueOf(from));
+            stmt.setDate(2, Date.valueOf(to));
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getDouble(1);
+                }
+            }
+        }
+
+        return 0.0;
+    }
+}
@@ -0,0 +1,20 @@
+package events;
+
+import models.Book;
+
+/**
+ * A book was added to the catalog
+ */
+public class BookCreated extends BookEvent {
+
+    private final Book book;
+
+    public BookCreated(Book book) {
+        super(book.getIsbn());
+        this.book = book;
+    }
+
+    public Book getBook() {
+        return book;
+    }
+}
@@ -0,0 +1,11 @@
+package events;
+
+/**
+ * A book was removed from the catalog
+ */
+public class BookDeleted extends BookEvent {
+
+    public BookDeleted(String isbn) {
+        super(isbn);
+    }
+}
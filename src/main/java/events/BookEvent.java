@@ -0,0 +1,17 @@
+package events;
+
+/**
+ * A change to one book of the catalog
+ */
+public abstract class BookEvent extends DomainEvent {
+
+    private final String isbn;
+
+    protected BookEvent(String isbn) {
+        this.isbn = isbn;
+    }
+
+    public String getIsbn() {
+        return isbn;
+    }
+}
@@ -0,0 +1,18 @@
+package events;
+
+/**
+ * A book was activated or deactivated
+ */
+public class BookStatusChanged extends BookEvent {
+
+    private final boolean active;
+
+    public BookStatusChanged(String isbn, boolean active) {
+        super(isbn);
+        this.active = active;
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+}
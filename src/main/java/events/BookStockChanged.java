@@ -0,0 +1,21 @@
+package events;
+
+import java.util.List;
+
+/**
+ * Copies went back into the available stock of these books outside a checkout or return
+ * (a hold was cancelled or expired, or a returned copy had no one waiting for it).
+ * An ISBN appears once per copy.
+ */
+public class BookStockChanged extends DomainEvent {
+
+    private final List<String> restockedIsbns;
+
+    public BookStockChanged(List<String> restockedIsbns) {
+        this.restockedIsbns = List.copyOf(restockedIsbns);
+    }
+
+    public List<String> getRestockedIsbns() {
+        return restockedIsbns;
+    }
+}
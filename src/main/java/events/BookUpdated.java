@@ -0,0 +1,20 @@
+package events;
+
+import models.Book;
+
+/**
+ * A book's details or copies were edited
+ */
+public class BookUpdated extends BookEvent {
+
+    private final Book book;
+
+    public BookUpdated(Book book) {
+        super(book.getIsbn());
+        this.book = book;
+    }
+
+    public Book getBook() {
+        return book;
+    }
+}
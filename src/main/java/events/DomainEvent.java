@@ -0,0 +1,38 @@
+package events;
+
+import config.BranchRouter;
+
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * Base class of the change events published on the {@link EventBus} after a transaction commits
+ */
+public abstract class DomainEvent {
+
+    private final Instant occurredAt;
+    private final Integer branchId;
+
+    protected DomainEvent() {
+        this.occurredAt = Instant.now();
+        this.branchId = BranchRouter.getInstance().getCurrentBranchId();
+    }
+
+    public Instant getOccurredAt() {
+        return occurredAt;
+    }
+
+    /**
+     * Branch whose database changed, null when the library has a single database
+     */
+    public Integer getBranchId() {
+        return branchId;
+    }
+
+    /**
+     * True when the change happened on this client's home branch (the one its in-memory indexes mirror)
+     */
+    public boolean isHomeBranch() {
+        return Objects.equals(branchId, BranchRouter.getInstance().getHomeBranchId());
+    }
+}
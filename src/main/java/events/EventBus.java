@@ -0,0 +1,284 @@
+package events;
+
+import config.LoggerConfig;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * In-process bus for domain change events (singleton).
+ *
+ * Services publish an event after the transaction that made the change has committed.
+ * Synchronous subscribers run on the publishing thread before publish returns, so a
+ * cache they maintain is already current for the caller's next read. Asynchronous
+ * subscribers each get a bounded lock-free queue and a dedicated daemon thread that hands
+ * them the queued events in batches; when a queue is full the publisher either waits for
+ * room (BLOCK) or the event is dropped and counted (DROP). A failing subscriber is logged
+ * and never affects the publisher or the other subscribers.
+ */
+public class EventBus {
+
+    private static EventBus instance;
+
+    // Bounds the wait for a lost wake-up; the publisher normally unparks the worker
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long BLOCK_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    /**
+     * Handles one event on the publishing thread
+     */
+    @FunctionalInterface
+    public interface Listener<E extends DomainEvent> {
+        void onEvent(E event);
+    }
+
+    /**
+     * Handles a batch of events (in publication order) on the subscription's own thread
+     */
+    @FunctionalInterface
+    public interface BatchListener<E extends DomainEvent> {
+        void onEvents(List<E> events);
+    }
+
+    /**
+     * What publishing does when an asynchronous subscriber's queue is full
+     */
+    public enum Backpressure {
+        /** Wait until the subscriber catches up (no event is lost) */
+        BLOCK,
+        /** Drop the event and count it (the publisher never waits) */
+        DROP
+    }
+
+    /**
+     * A registered subscriber
+     */
+    public abstract static class Subscription {
+        private final String name;
+
+        Subscription(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        abstract void offer(DomainEvent event);
+
+        abstract void stop(long timeoutMillis);
+
+        /** Events waiting to be delivered (always 0 for synchronous subscribers) */
+        public int getPending() {
+            return 0;
+        }
+
+        public long getDropped() {
+            return 0;
+        }
+    }
+
+    private static final class SyncSubscription<E extends DomainEvent> extends Subscription {
+        private final Class<E> type;
+        private final Listener<? super E> listener;
+
+        SyncSubscription(String name, Class<E> type, Listener<? super E> listener) {
+            super(name);
+            this.type = type;
+            this.listener = listener;
+        }
+
+        @Override
+        void offer(DomainEvent event) {
+            if (type.isInstance(event)) {
+                try {
+                    listener.onEvent(type.cast(event));
+                } catch (RuntimeException e) {
+                    LoggerConfig.logError("Event subscriber " + getName() + " failed on "
+                            + event.getClass().getSimpleName(), e);
+                }
+            }
+        }
+
+        @Override
+        void stop(long timeoutMillis) {
+        }
+    }
+
+    private static final class AsyncSubscription<E extends DomainEvent> extends Subscription implements Runnable {
+        private final Class<E> type;
+        private final BatchListener<E> listener;
+        private final MpscQueue<E> queue;
+        private final int maxBatch;
+        private final Backpressure backpressure;
+        private final Thread worker;
+        private final AtomicBoolean parked = new AtomicBoolean();
+        private final AtomicLong dropped = new AtomicLong();
+        private volatile boolean running = true;
+
+        AsyncSubscription(String name, Class<E> type, BatchListener<E> listener, int capacity, int maxBatch,
+                          Backpressure backpressure) {
+            super(name);
+            this.type = type;
+            this.listener = listener;
+            this.queue = new MpscQueue<>(capacity);
+            this.maxBatch = maxBatch;
+            this.backpressure = backpressure;
+            this.worker = new Thread(this, "events-" + name);
+            this.worker.setDaemon(true);
+        }
+
+        @Override
+        void offer(DomainEvent event) {
+            if (!type.isInstance(event)) {
+                return;
+            }
+            E typed = type.cast(event);
+
+            if (Thread.currentThread() == worker) {
+                queue.forceOffer(typed);
+                return;
+            }
+            while (!queue.offer(typed)) {
+                if (backpressure == Backpressure.DROP || !running) {
+                    long count = dropped.incrementAndGet();
+                    if (Long.bitCount(count) == 1) { // 1, 2, 4, 8... so a stuck subscriber cannot flood the log
+                        LoggerConfig.logWarning("Event subscriber " + getName() + " is behind, "
+                                + count + " event(s) dropped");
+                    }
+                    return;
+                }
+                wakeWorker();
+                LockSupport.parkNanos(this, BLOCK_PARK_NANOS);
+            }
+            wakeWorker();
+        }
+
+        private void wakeWorker() {
+            if (parked.get()) {
+                LockSupport.unpark(worker);
+            }
+        }
+
+        @Override
+        public void run() {
+            List<E> batch = new ArrayList<>(maxBatch);
+            while (running || !queue.isEmpty()) {
+                if (queue.drainTo(batch, maxBatch) == 0) {
+                    // Publish the parked flag before the last look at the queue: a publisher
+                    // either sees the flag and unparks, or its event is seen here
+                    parked.set(true);
+                    if (running && queue.isEmpty()) {
+                        LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                    }
+                    parked.set(false);
+                    continue;
+                }
+
+                try {
+                    listener.onEvents(Collections.unmodifiableList(batch));
+                } catch (RuntimeException e) {
+                    LoggerConfig.logError("Event subscriber " + getName() + " failed on a batch of "
+                            + batch.size() + " event(s)", e);
+                }
+                batch.clear();
+            }
+        }
+
+        @Override
+        void stop(long timeoutMillis) {
+            running = false;
+            LockSupport.unpark(worker);
+            try {
+                worker.join(timeoutMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public int getPending() {
+            return queue.size();
+        }
+
+        @Override
+        public long getDropped() {
+            return dropped.get();
+        }
+    }
+
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+
+    private EventBus() {
+    }
+
+    public static EventBus getInstance() {
+        if (instance == null) {
+            synchronized (EventBus.class) {
+                if (instance == null) {
+                    instance = new EventBus();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Run the listener on the publishing thread for every event of the given type (or a subtype)
+     */
+    public <E extends DomainEvent> Subscription subscribe(String name, Class<E> type, Listener<? super E> listener) {
+        Subscription subscription = new SyncSubscription<>(name, type, listener);
+        subscriptions.add(subscription);
+        return subscription;
+    }
+
+    /**
+     * Deliver events of the given type in batches of up to maxBatch on a dedicated daemon thread,
+     * queueing at most capacity of them
+     */
+    public <E extends DomainEvent> Subscription subscribeAsync(String name, Class<E> type, BatchListener<E> listener,
+                                                               int capacity, int maxBatch, Backpressure backpressure) {
+        if (capacity < 1 || maxBatch < 1) {
+            throw new IllegalArgumentException("capacity and maxBatch must be positive");
+        }
+        AsyncSubscription<E> subscription = new AsyncSubscription<>(name, type, listener, capacity, maxBatch,
+                backpressure);
+        subscriptions.add(subscription);
+        subscription.worker.start();
+        return subscription;
+    }
+
+    /**
+     * Stop delivering to a subscriber; an asynchronous one first gets the events already queued
+     */
+    public void unsubscribe(Subscription subscription) {
+        if (subscriptions.remove(subscription)) {
+            subscription.stop(TimeUnit.SECONDS.toMillis(5));
+        }
+    }
+
+    /**
+     * Hand a committed change to every subscriber of its type
+     */
+    public void publish(DomainEvent event) {
+        for (Subscription subscription : subscriptions) {
+            subscription.offer(event);
+        }
+    }
+
+    public void publishAll(List<? extends DomainEvent> events) {
+        for (DomainEvent event : events) {
+            publish(event);
+        }
+    }
+
+    public List<Subscription> getSubscriptions() {
+        return Collections.unmodifiableList(subscriptions);
+    }
+}
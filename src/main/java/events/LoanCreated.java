@@ -0,0 +1,23 @@
+package events;
+
+import models.Loan;
+
+/**
+ * A copy was checked out: the loan was created and the book's stock (or a ready hold) used
+ */
+public class LoanCreated extends LoanEvent {
+
+    private final boolean heldCopy;
+
+    public LoanCreated(Loan loan, boolean heldCopy) {
+        super(loan);
+        this.heldCopy = heldCopy;
+    }
+
+    /**
+     * True when the copy came from the member's ready hold instead of the available stock
+     */
+    public boolean isHeldCopy() {
+        return heldCopy;
+    }
+}
@@ -0,0 +1,22 @@
+package events;
+
+import models.Loan;
+
+/**
+ * A change to one loan
+ */
+public abstract class LoanEvent extends DomainEvent {
+
+    private final Loan loan;
+
+    protected LoanEvent(Loan loan) {
+        this.loan = loan;
+    }
+
+    /**
+     * The loan as it was when the event was published; it must not be modified
+     */
+    public Loan getLoan() {
+        return loan;
+    }
+}
@@ -0,0 +1,28 @@
+package events;
+
+import models.Loan;
+
+import java.time.LocalDate;
+
+/**
+ * A loan was returned. Where the copy went (next hold or stock) is published separately.
+ */
+public class LoanReturned extends LoanEvent {
+
+    private final LocalDate returnDate;
+    private final double fineAmount;
+
+    public LoanReturned(Loan loan, LocalDate returnDate, double fineAmount) {
+        super(loan);
+        this.returnDate = returnDate;
+        this.fineAmount = fineAmount;
+    }
+
+    public LocalDate getReturnDate() {
+        return returnDate;
+    }
+
+    public double getFineAmount() {
+        return fineAmount;
+    }
+}
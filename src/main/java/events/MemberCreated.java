@@ -0,0 +1,20 @@
+package events;
+
+import models.Member;
+
+/**
+ * A member was registered
+ */
+public class MemberCreated extends MemberEvent {
+
+    private final Member member;
+
+    public MemberCreated(Member member) {
+        super(member.getIdMember());
+        this.member = member;
+    }
+
+    public Member getMember() {
+        return member;
+    }
+}
@@ -0,0 +1,11 @@
+package events;
+
+/**
+ * A member was removed
+ */
+public class MemberDeleted extends MemberEvent {
+
+    public MemberDeleted(Integer memberId) {
+        super(memberId);
+    }
+}
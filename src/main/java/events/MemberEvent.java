@@ -0,0 +1,17 @@
+package events;
+
+/**
+ * A change to one member
+ */
+public abstract class MemberEvent extends DomainEvent {
+
+    private final Integer memberId;
+
+    protected MemberEvent(Integer memberId) {
+        this.memberId = memberId;
+    }
+
+    public Integer getMemberId() {
+        return memberId;
+    }
+}
@@ -0,0 +1,18 @@
+package events;
+
+/**
+ * A member was activated or deactivated
+ */
+public class MemberStatusChanged extends MemberEvent {
+
+    private final boolean active;
+
+    public MemberStatusChanged(Integer memberId, boolean active) {
+        super(memberId);
+        this.active = active;
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+}
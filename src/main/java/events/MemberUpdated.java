@@ -0,0 +1,20 @@
+package events;
+
+import models.Member;
+
+/**
+ * A member's details were edited
+ */
+public class MemberUpdated extends MemberEvent {
+
+    private final Member member;
+
+    public MemberUpdated(Member member) {
+        super(member.getIdMember());
+        this.member = member;
+    }
+
+    public Member getMember() {
+        return member;
+    }
+}
@@ -0,0 +1,102 @@
+package events;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Bounded lock-free multi-producer single-consumer queue.
+ *
+ * A linked list where producers swap themselves in as the tail with one atomic exchange
+ * and the single consumer walks from the head without any atomic operation. Capacity is
+ * reserved with a CAS on the size counter before the node is linked, so a full queue is
+ * refused without allocating. Between a producer's exchange and its link the new node is
+ * not yet visible: the consumer sees the queue as empty until the link is written.
+ */
+final class MpscQueue<E> {
+
+    private static final class Node<E> {
+        private E value;
+        private volatile Node<E> next;
+
+        Node(E value) {
+            this.value = value;
+        }
+    }
+
+    private final AtomicReference<Node<E>> tail;
+    private final AtomicInteger size = new AtomicInteger();
+    private final int capacity;
+    private Node<E> head; // consumer only
+
+    MpscQueue(int capacity) {
+        Node<E> stub = new Node<>(null);
+        this.head = stub;
+        this.tail = new AtomicReference<>(stub);
+        this.capacity = capacity;
+    }
+
+    /**
+     * Append unless the queue is full (any thread)
+     */
+    boolean offer(E value) {
+        int current;
+        do {
+            current = size.get();
+            if (current >= capacity) {
+                return false;
+            }
+        } while (!size.compareAndSet(current, current + 1));
+        link(value);
+        return true;
+    }
+
+    /**
+     * Append even past capacity, for the consumer thread, which must never wait on itself
+     */
+    void forceOffer(E value) {
+        size.incrementAndGet();
+        link(value);
+    }
+
+    private void link(E value) {
+        Node<E> node = new Node<>(value);
+        Node<E> previous = tail.getAndSet(node);
+        previous.next = node;
+    }
+
+    /**
+     * Move up to max elements into the list (consumer thread only)
+     * @return Number of elements moved
+     */
+    int drainTo(List<E> into, int max) {
+        int count = 0;
+        Node<E> node = head;
+        while (count < max) {
+            Node<E> next = node.next;
+            if (next == null) {
+                break;
+            }
+            into.add(next.value);
+            next.value = null;
+            node = next;
+            count++;
+        }
+        head = node;
+        if (count > 0) {
+            size.addAndGet(-count);
+        }
+        return count;
+    }
+
+    /**
+     * True when no linked element is waiting (consumer thread only)
+     */
+    boolean isEmpty() {
+        return head.next == null;
+    }
+
+    int size() {
+        return size.get();
+    }
+}
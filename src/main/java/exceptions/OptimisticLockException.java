@@ -0,0 +1,15 @@
+package exceptions;
+
+/**
+ * Thrown when a row was modified by someone else since it was read (row version mismatch).
+ * The operation is safe to retry after reloading the entity.
+ */
+public class OptimisticLockException extends Exception {
+    public OptimisticLockException(String message) {
+        super(message);
+    }
+
+    public OptimisticLockException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -16,11 +16,15 @@ public class Book {
     private Double referencePrice;
     private Boolean isActive;
     private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private Integer version;
+    private Integer branchId;
 
     // Constructors
     public Book() {
         this.isActive = true;
         this.createdAt = LocalDateTime.now();
+        this.version = 0;
     }
 
     public Book(String isbn, String title, String author, String category,
@@ -47,6 +51,7 @@ public class Book {
         this.referencePrice = referencePrice;
         this.isActive = isActive;
         this.createdAt = createdAt;
+        this.version = 0;
     }
 
     // Getters and Setters
@@ -115,6 +120,36 @@ public class Book {
         return createdAt;
     }
 
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    /**
+     * Row version read from the database, checked on update
+     */
+    public Integer getVersion() {
+        return version;
+    }
+
+    public void setVersion(Integer version) {
+        this.version = version;
+    }
+
+    /**
+     * Branch whose database the row was read from, null when the library has a single database
+     */
+    public Integer getBranchId() {
+        return branchId;
+    }
+
+    public void setBranchId(Integer branchId) {
+        this.branchId = branchId;
+    }
+
 
     // Business methods
     public boolean hasAvailableCopies() {
@@ -0,0 +1,61 @@
+package models;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Circulation statistics for a time window (dashboard data)
+ */
+public class CirculationReport {
+    private final LocalDate from;
+    private final LocalDate to;
+    private final List<CirculationStat> topBooks;
+    private final List<CirculationStat> loansByCategory;
+    private final List<CirculationStat> memberActivity;
+    private final double averageLoanDays;
+    private final LocalDateTime generatedAt;
+
+    public CirculationReport(LocalDate from, LocalDate to, List<CirculationStat> topBooks,
+                             List<CirculationStat> loansByCategory, List<CirculationStat> memberActivity,
+                             double averageLoanDays) {
+        this.from = from;
+        this.to = to;
+        this.topBooks = List.copyOf(topBooks);
+        this.loansByCategory = List.copyOf(loansByCategory);
+        this.memberActivity = List.copyOf(memberActivity);
+        this.averageLoanDays = averageLoanDays;
+        this.generatedAt = LocalDateTime.now();
+    }
+
+    public LocalDate getFrom() {
+        return from;
+    }
+
+    public LocalDate getTo() {
+        return to;
+    }
+
+    public List<CirculationStat> getTopBooks() {
+        return topBooks;
+    }
+
+    public List<CirculationStat> getLoansByCategory() {
+        return loansByCategory;
+    }
+
+    public List<CirculationStat> getMemberActivity() {
+        return memberActivity;
+    }
+
+    /**
+     * Average days between loan and return for the loans made in the window that have been returned
+     */
+    public double getAverageLoanDays() {
+        return averageLoanDays;
+    }
+
+    public LocalDateTime getGeneratedAt() {
+        return generatedAt;
+    }
+}
@@ -0,0 +1,49 @@
+package models;
+
+/**
+ * Aggregated circulation figure for one book, category or member
+ */
+public class CirculationStat {
+    private final String key;
+    private final String label;
+    private final long loanCount;
+    private final double value;
+
+    public CirculationStat(String key, String label, long loanCount, double value) {
+        this.key = key;
+        this.label = label;
+        this.loanCount = loanCount;
+        this.value = value;
+    }
+
+    /**
+     * ISBN, category name or member ID
+     */
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * Human readable name (title, category, member name)
+     */
+    public String getLabel() {
+        return label;
+    }
+
+    public long getLoanCount() {
+        return loanCount;
+    }
+
+    /**
+     * Secondary figure (e.g. total fines for member activity)
+     */
+    public double getValue() {
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("CirculationStat{key='%s', label='%s', loans=%d, value=%.2f}",
+                key, label, loanCount, value);
+    }
+}
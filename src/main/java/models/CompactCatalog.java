@@ -0,0 +1,596 @@
+package models;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read-only catalog stored column by column in primitive arrays, for holding very large
+ * catalogs in memory.
+ *
+ * A {@link Book} costs several hundred bytes: the object, boxed numbers, two timestamps
+ * and its own strings. Here each book is a row number: stock, version and prices are int
+ * columns, timestamps long columns, the active flag one bit, author, category and branch
+ * ids into dictionaries holding each distinct value once, and ISBN and title UTF-8 bytes
+ * in one shared array. Rows are read through {@link BookView}, a Book whose getters read
+ * the columns, so existing code (tables, JSON, exports) works on a compact catalog
+ * unchanged.
+ *
+ * Values are kept as the database stores them: prices to the cent and timestamps to the
+ * second. Built once with a {@link Builder}; safe to read from any thread.
+ *
+ * The catalog snapshot ({@code services.CatalogSnapshotCache}) stores its full reloads
+ * in one when {@code catalog.compact} is on, so active and per-category listings read
+ * these views.
+ */
+public final class CompactCatalog {
+
+    private static final int NULL_INT = Integer.MIN_VALUE;
+    private static final long NULL_TIME = Long.MIN_VALUE;
+    private static final int MAX_TEXT = Integer.MAX_VALUE - 8;
+
+    private final int size;
+    private final byte[] text;     // ISBN then title of each row, UTF-8
+    private final int[] isbnEnd;   // ISBN of row i: [titleEnd[i - 1], isbnEnd[i])
+    private final int[] titleEnd;  // title of row i: [isbnEnd[i], titleEnd[i])
+    private final int[] authorIds;
+    private final char[] categoryIds;
+    private final char[] branchIds;
+    private final int[] totalCopies;
+    private final int[] availableCopies;
+    private final int[] priceCents;
+    private final int[] versions;
+    private final long[] createdAt;  // epoch seconds (UTC)
+    private final long[] updatedAt;
+    private final long[] active;     // bit set
+    private final String[] authors;
+    private final String[] categories;
+    private final Map<String, Integer> authorIdsByName;
+    private final Map<String, Integer> categoryIdsByName;
+    private final Integer[] branches;
+    private final int[] isbnIndex;   // open addressing, row + 1 (0 = empty slot)
+
+    private CompactCatalog(Builder builder) {
+        this.size = builder.size;
+        this.text = Arrays.copyOf(builder.text, builder.textLength);
+        this.isbnEnd = Arrays.copyOf(builder.isbnEnd, size);
+        this.titleEnd = Arrays.copyOf(builder.titleEnd, size);
+        this.authorIds = Arrays.copyOf(builder.authorIds, size);
+        this.categoryIds = Arrays.copyOf(builder.categoryIds, size);
+        this.branchIds = Arrays.copyOf(builder.branchIds, size);
+        this.totalCopies = Arrays.copyOf(builder.totalCopies, size);
+        this.availableCopies = Arrays.copyOf(builder.availableCopies, size);
+        this.priceCents = Arrays.copyOf(builder.priceCents, size);
+        this.versions = Arrays.copyOf(builder.versions, size);
+        this.createdAt = Arrays.copyOf(builder.createdAt, size);
+        this.updatedAt = Arrays.copyOf(builder.updatedAt, size);
+        this.active = Arrays.copyOf(builder.active, (size + 63) >>> 6);
+        this.authors = builder.authors.values.toArray(new String[0]);
+        this.categories = builder.categories.values.toArray(new String[0]);
+        this.authorIdsByName = new HashMap<>(builder.authors.ids);
+        this.categoryIdsByName = new HashMap<>(builder.categories.ids);
+        this.branches = builder.branches.values.toArray(new Integer[0]);
+        this.isbnIndex = buildIsbnIndex();
+    }
+
+    /**
+     * Compact copy of the given books, in iteration order
+     */
+    public static CompactCatalog of(Collection<? extends Book> books) {
+        Builder builder = new Builder(books.size());
+        for (Book book : books) {
+            builder.add(book);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Appends books row by row; not thread-safe
+     */
+    public static final class Builder {
+        private int size;
+        private byte[] text;
+        private int textLength;
+        private int[] isbnEnd;
+        private int[] titleEnd;
+        private int[] authorIds;
+        private char[] categoryIds;
+        private char[] branchIds;
+        private int[] totalCopies;
+        private int[] availableCopies;
+        private int[] priceCents;
+        private int[] versions;
+        private long[] createdAt;
+        private long[] updatedAt;
+        private long[] active;
+        private final Dictionary<String> authors = new Dictionary<>(Integer.MAX_VALUE);
+        private final Dictionary<String> categories = new Dictionary<>(Character.MAX_VALUE + 1);
+        private final Dictionary<Integer> branches = new Dictionary<>(Character.MAX_VALUE + 1);
+
+        public Builder() {
+            this(1024);
+        }
+
+        public Builder(int expectedSize) {
+            int capacity = Math.max(16, expectedSize);
+            text = new byte[(int) Math.min(MAX_TEXT, capacity * 48L)];
+            isbnEnd = new int[capacity];
+            titleEnd = new int[capacity];
+            authorIds = new int[capacity];
+            categoryIds = new char[capacity];
+            branchIds = new char[capacity];
+            totalCopies = new int[capacity];
+            availableCopies = new int[capacity];
+            priceCents = new int[capacity];
+            versions = new int[capacity];
+            createdAt = new long[capacity];
+            updatedAt = new long[capacity];
+            active = new long[(capacity + 63) >>> 6];
+        }
+
+        public Builder add(Book book) {
+            if (size == isbnEnd.length) {
+                grow();
+            }
+            int row = size;
+
+            appendText(book.getIsbn());
+            isbnEnd[row] = textLength;
+            appendText(book.getTitle());
+            titleEnd[row] = textLength;
+
+            authorIds[row] = authors.idOf(book.getAuthor());
+            categoryIds[row] = (char) categories.idOf(book.getCategory());
+            branchIds[row] = (char) branches.idOf(book.getBranchId());
+            totalCopies[row] = book.getTotalCopies() != null ? book.getTotalCopies() : NULL_INT;
+            availableCopies[row] = book.getAvailableCopies() != null ? book.getAvailableCopies() : NULL_INT;
+            priceCents[row] = book.getReferencePrice() != null
+                    ? Math.toIntExact(Math.round(book.getReferencePrice() * 100)) : NULL_INT;
+            versions[row] = book.getVersion() != null ? book.getVersion() : NULL_INT;
+            createdAt[row] = toEpochSecond(book.getCreatedAt());
+            updatedAt[row] = toEpochSecond(book.getUpdatedAt());
+            if (book.isActive()) {
+                active[row >>> 6] |= 1L << row;
+            }
+
+            size++;
+            return this;
+        }
+
+        public CompactCatalog build() {
+            return new CompactCatalog(this);
+        }
+
+        private void appendText(String value) {
+            // null is stored as empty: ISBN and title are NOT NULL columns
+            byte[] bytes = value != null ? value.getBytes(StandardCharsets.UTF_8) : new byte[0];
+            if (textLength + bytes.length > text.length) {
+                long needed = (long) textLength + bytes.length;
+                if (needed > MAX_TEXT) {
+                    throw new IllegalStateException("Catalog text exceeds 2 GB");
+                }
+                text = Arrays.copyOf(text, (int) Math.min(MAX_TEXT, Math.max(needed, (long) text.length * 2)));
+            }
+            System.arraycopy(bytes, 0, text, textLength, bytes.length);
+            textLength += bytes.length;
+        }
+
+        private void grow() {
+            int capacity = isbnEnd.length * 2;
+            isbnEnd = Arrays.copyOf(isbnEnd, capacity);
+            titleEnd = Arrays.copyOf(titleEnd, capacity);
+            authorIds = Arrays.copyOf(authorIds, capacity);
+            categoryIds = Arrays.copyOf(categoryIds, capacity);
+            branchIds = Arrays.copyOf(branchIds, capacity);
+            totalCopies = Arrays.copyOf(totalCopies, capacity);
+            availableCopies = Arrays.copyOf(availableCopies, capacity);
+            priceCents = Arrays.copyOf(priceCents, capacity);
+            versions = Arrays.copyOf(versions, capacity);
+            createdAt = Arrays.copyOf(createdAt, capacity);
+            updatedAt = Arrays.copyOf(updatedAt, capacity);
+            active = Arrays.copyOf(active, (capacity + 63) >>> 6);
+        }
+
+        private static long toEpochSecond(LocalDateTime time) {
+            return time != null ? time.toEpochSecond(ZoneOffset.UTC) : NULL_TIME;
+        }
+    }
+
+    /**
+     * Distinct values in first-seen order (null is a value like any other)
+     */
+    private static final class Dictionary<T> {
+        private final Map<T, Integer> ids = new HashMap<>();
+        private final List<T> values = new ArrayList<>();
+        private final int maxSize;
+
+        Dictionary(int maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        int idOf(T value) {
+            Integer id = ids.get(value);
+            if (id == null) {
+                if (values.size() == maxSize) {
+                    throw new IllegalStateException("More than " + maxSize + " distinct values: " + value);
+                }
+                id = values.size();
+                ids.put(value, id);
+                values.add(value);
+            }
+            return id;
+        }
+    }
+
+    /**
+     * A row seen as a Book. Getters read the catalog's columns, so a view is a small fixed-size
+     * object whatever the row holds, and can be moved to another row (moveTo) to walk the catalog without allocating.
+     * Setters are not supported.
+     */
+    public static final class BookView extends Book {
+        private final CompactCatalog catalog;
+        private int row;
+
+        private BookView(CompactCatalog catalog, int row) {
+            this.catalog = catalog;
+            this.row = row;
+        }
+
+        public int getRow() {
+            return row;
+        }
+
+        public BookView moveTo(int row) {
+            catalog.checkRow(row);
+            this.row = row;
+            return this;
+        }
+
+        /**
+         * Independent Book with the row's values
+         */
+        public Book toBook() {
+            Book book = new Book(getIsbn(), getTitle(), getAuthor(), getCategory(), getTotalCopies(),
+                    getAvailableCopies(), getReferencePrice(), getIsActive(), getCreatedAt());
+            book.setUpdatedAt(getUpdatedAt());
+            book.setVersion(getVersion());
+            book.setBranchId(getBranchId());
+            return book;
+        }
+
+        @Override
+        public String getIsbn() {
+            return catalog.isbn(row);
+        }
+
+        @Override
+        public String getTitle() {
+            return catalog.title(row);
+        }
+
+        @Override
+        public String getAuthor() {
+            return catalog.authors[catalog.authorIds[row]];
+        }
+
+        @Override
+        public String getCategory() {
+            return catalog.categories[catalog.categoryIds[row]];
+        }
+
+        @Override
+        public Integer getTotalCopies() {
+            return boxed(catalog.totalCopies[row]);
+        }
+
+        @Override
+        public Integer getAvailableCopies() {
+            return boxed(catalog.availableCopies[row]);
+        }
+
+        @Override
+        public Double getReferencePrice() {
+            int cents = catalog.priceCents[row];
+            return cents != NULL_INT ? cents / 100.0 : null;
+        }
+
+        @Override
+        public Boolean getIsActive() {
+            return isActive();
+        }
+
+        @Override
+        public LocalDateTime getCreatedAt() {
+            return time(catalog.createdAt[row]);
+        }
+
+        @Override
+        public LocalDateTime getUpdatedAt() {
+            return time(catalog.updatedAt[row]);
+        }
+
+        @Override
+        public Integer getVersion() {
+            return boxed(catalog.versions[row]);
+        }
+
+        @Override
+        public Integer getBranchId() {
+            return catalog.branches[catalog.branchIds[row]];
+        }
+
+        @Override
+        public boolean hasAvailableCopies() {
+            return catalog.availableCopies[row] > 0;
+        }
+
+        @Override
+        public boolean isActive() {
+            return catalog.isActive(row);
+        }
+
+        @Override
+        public void setIsbn(String isbn) {
+            throw readOnly();
+        }
+
+        @Override
+        public void setTitle(String title) {
+            throw readOnly();
+        }
+
+        @Override
+        public void setAuthor(String author) {
+            throw readOnly();
+        }
+
+        @Override
+        public void setCategory(String category) {
+            throw readOnly();
+        }
+
+        @Override
+        public void setTotalCopies(Integer totalCopies) {
+            throw readOnly();
+        }
+
+        @Override
+        public void setAvailableCopies(Integer availableCopies) {
+            throw readOnly();
+        }
+
+        @Override
+        public void setReferencePrice(Double referencePrice) {
+            throw readOnly();
+        }
+
+        @Override
+        public void setUpdatedAt(LocalDateTime updatedAt) {
+            throw readOnly();
+        }
+
+        @Override
+        public void setVersion(Integer version) {
+            throw readOnly();
+        }
+
+        @Override
+        public void setBranchId(Integer branchId) {
+            throw readOnly();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof BookView)) return false;
+            BookView view = (BookView) o;
+            return catalog.sameIsbn(row, view.catalog, view.row);
+        }
+
+        @Override
+        public int hashCode() {
+            return getIsbn().hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Book{isbn='%s', title='%s', author='%s', available=%d/%d, active=%s}",
+                    getIsbn(), getTitle(), getAuthor(), getAvailableCopies(), getTotalCopies(), isActive());
+        }
+
+        private static Integer boxed(int value) {
+            return value != NULL_INT ? value : null;
+        }
+
+        private static LocalDateTime time(long epochSecond) {
+            return epochSecond != NULL_TIME ? LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC) : null;
+        }
+
+        private static UnsupportedOperationException readOnly() {
+            return new UnsupportedOperationException("Compact catalog rows are read-only");
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * View of one row
+     */
+    public BookView view(int row) {
+        checkRow(row);
+        return new BookView(this, row);
+    }
+
+    /**
+     * Row of the first book with this ISBN (as stored, hyphens included), or -1
+     */
+    public int indexOf(String isbn) {
+        if (isbn == null || size == 0) {
+            return -1;
+        }
+        byte[] key = isbn.getBytes(StandardCharsets.UTF_8);
+        int mask = isbnIndex.length - 1;
+        for (int slot = hash(key, 0, key.length) & mask; isbnIndex[slot] != 0; slot = (slot + 1) & mask) {
+            int row = isbnIndex[slot] - 1;
+            int start = isbnStart(row);
+            if (Arrays.equals(text, start, isbnEnd[row], key, 0, key.length)) {
+                return row;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Rows whose author is exactly this one, in row order
+     */
+    public int[] rowsByAuthor(String author) {
+        Integer id = authorIdsByName.get(author);
+        if (id == null) {
+            return new int[0];
+        }
+        int[] rows = new int[size];
+        int count = 0;
+        for (int row = 0; row < size; row++) {
+            if (authorIds[row] == id) {
+                rows[count++] = row;
+            }
+        }
+        return Arrays.copyOf(rows, count);
+    }
+
+    /**
+     * Rows whose category is exactly this one, in row order
+     */
+    public int[] rowsByCategory(String category) {
+        Integer id = categoryIdsByName.get(category);
+        if (id == null) {
+            return new int[0];
+        }
+        int[] rows = new int[size];
+        int count = 0;
+        for (int row = 0; row < size; row++) {
+            if (categoryIds[row] == id) {
+                rows[count++] = row;
+            }
+        }
+        return Arrays.copyOf(rows, count);
+    }
+
+    public int getAuthorCount() {
+        return authors.length;
+    }
+
+    public int getCategoryCount() {
+        return categories.length;
+    }
+
+    /**
+     * Approximate heap used by the catalog: its arrays plus the dictionaries (strings and
+     * the value-to-id maps)
+     */
+    public long getMemoryBytes() {
+        long bytes = array(text.length) + array(isbnIndex.length * 4L)
+                + 6 * array(size * 4L)   // ISBN/title ends, author ids, copies, price, version
+                + 2 * array(size * 2L)   // category and branch ids
+                + 2 * array(size * 8L)   // created, updated
+                + array(active.length * 8L);
+        bytes += dictionaryBytes(authors) + dictionaryBytes(categories)
+                + idMapBytes(authors.length) + idMapBytes(categories.length)
+                + array(branches.length * 4L) + branches.length * 16L;
+        return bytes;
+    }
+
+    /**
+     * Average heap bytes per book (see getMemoryBytes)
+     */
+    public double getBytesPerTitle() {
+        return size == 0 ? 0 : (double) getMemoryBytes() / size;
+    }
+
+    private static long array(long dataBytes) {
+        return 16 + ((dataBytes + 7) & ~7L);
+    }
+
+    private static long dictionaryBytes(String[] values) {
+        long bytes = array(values.length * 4L);
+        for (String value : values) {
+            if (value != null) {
+                bytes += 24 + array(value.length() * 2L); // upper bound: Latin-1 strings use half
+            }
+        }
+        return bytes;
+    }
+
+    // HashMap: the map, its table (load factor 0.75) and a 32-byte node plus a boxed id per entry
+    private static long idMapBytes(int entries) {
+        long slots = Integer.highestOneBit(Math.max(1, entries * 4 / 3)) * 2L;
+        return 48 + array(slots * 4L) + entries * 48L;
+    }
+
+    String isbn(int row) {
+        int start = isbnStart(row);
+        return new String(text, start, isbnEnd[row] - start, StandardCharsets.UTF_8);
+    }
+
+    String title(int row) {
+        return new String(text, isbnEnd[row], titleEnd[row] - isbnEnd[row], StandardCharsets.UTF_8);
+    }
+
+    boolean isActive(int row) {
+        return (active[row >>> 6] & (1L << row)) != 0;
+    }
+
+    private int isbnStart(int row) {
+        return row == 0 ? 0 : titleEnd[row - 1];
+    }
+
+    private boolean sameIsbn(int row, CompactCatalog other, int otherRow) {
+        return Arrays.equals(text, isbnStart(row), isbnEnd[row],
+                other.text, other.isbnStart(otherRow), other.isbnEnd[otherRow]);
+    }
+
+    private void checkRow(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Row " + row + " of " + size);
+        }
+    }
+
+    private int[] buildIsbnIndex() {
+        int capacity = Integer.highestOneBit(Math.max(16, size * 2) * 2 - 1);
+        int[] index = new int[capacity];
+        int mask = capacity - 1;
+        for (int row = 0; row < size; row++) {
+            int start = isbnStart(row);
+            int slot = hash(text, start, isbnEnd[row]) & mask;
+            boolean duplicate = false;
+            while (index[slot] != 0) {
+                int other = index[slot] - 1;
+                if (Arrays.equals(text, start, isbnEnd[row], text, isbnStart(other), isbnEnd[other])) {
+                    duplicate = true; // the same book in another branch: keep the first row
+                    break;
+                }
+                slot = (slot + 1) & mask;
+            }
+            if (!duplicate) {
+                index[slot] = row + 1;
+            }
+        }
+        return index;
+    }
+
+    private static int hash(byte[] bytes, int from, int to) {
+        int h = 0x811C9DC5; // FNV-1a
+        for (int i = from; i < to; i++) {
+            h = (h ^ bytes[i]) * 0x01000193;
+        }
+        return h ^ (h >>> 16);
+    }
+}
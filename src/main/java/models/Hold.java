@@ -0,0 +1,126 @@
+package models;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Hold entity representing a member's reservation of a book with no available copies
+ */
+public class Hold {
+    private Integer idHold;
+    private String isbn;
+    private Integer idMember;
+    private HoldStatus status;
+    private LocalDateTime createdAt;
+    private LocalDateTime readyAt;
+    private LocalDateTime expiresAt;
+
+    // Constructors
+    public Hold() {
+        this.status = HoldStatus.WAITING;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    public Hold(String isbn, Integer idMember) {
+        this();
+        this.isbn = isbn;
+        this.idMember = idMember;
+    }
+
+    public Hold(Integer idHold, String isbn, Integer idMember, HoldStatus status,
+                LocalDateTime createdAt, LocalDateTime readyAt, LocalDateTime expiresAt) {
+        this.idHold = idHold;
+        this.isbn = isbn;
+        this.idMember = idMember;
+        this.status = status;
+        this.createdAt = createdAt;
+        this.readyAt = readyAt;
+        this.expiresAt = expiresAt;
+    }
+
+    // Getters and Setters
+    public Integer getIdHold() {
+        return idHold;
+    }
+
+    public void setIdHold(Integer idHold) {
+        this.idHold = idHold;
+    }
+
+    public String getIsbn() {
+        return isbn;
+    }
+
+    public void setIsbn(String isbn) {
+        this.isbn = isbn;
+    }
+
+    public Integer getIdMember() {
+        return idMember;
+    }
+
+    public void setIdMember(Integer idMember) {
+        this.idMember = idMember;
+    }
+
+    public HoldStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(HoldStatus status) {
+        this.status = status;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getReadyAt() {
+        return readyAt;
+    }
+
+    public void setReadyAt(LocalDateTime readyAt) {
+        this.readyAt = readyAt;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    // Business methods
+    public boolean isWaiting() {
+        return status == HoldStatus.WAITING;
+    }
+
+    public boolean isReady() {
+        return status == HoldStatus.READY;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Hold hold = (Hold) o;
+        return Objects.equals(idHold, hold.idHold);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(idHold);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Hold{id=%d, isbn='%s', member=%d, status=%s, expires=%s}",
+                idHold, isbn, idMember, status, expiresAt);
+    }
+
+    // Enum
+    public enum HoldStatus {
+        WAITING, READY, FULFILLED, EXPIRED, CANCELLED
+    }
+}
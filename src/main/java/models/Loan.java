@@ -18,6 +18,8 @@ public class Loan {
     private Double fineAmount;
     private LoanStatus status;
     private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private Integer branchId;
 
     // Constructors
     public Loan() {
@@ -102,21 +104,52 @@ public class Loan {
         return createdAt;
     }
 
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    /**
+     * Branch whose database the row was read from, null when the library has a single database
+     */
+    public Integer getBranchId() {
+        return branchId;
+    }
+
+    public void setBranchId(Integer branchId) {
+        this.branchId = branchId;
+    }
+
 
     // Business methods
     public boolean isOverdue() {
-        return status == LoanStatus.ACTIVE && LocalDate.now().isAfter(dueDate);
+        return isOverdue(LocalDate.now());
+    }
+
+    public boolean isOverdue(LocalDate today) {
+        return status == LoanStatus.ACTIVE && today.isAfter(dueDate);
     }
 
     public long getDaysOverdue() {
-        if (!isOverdue()) {
+        return getDaysOverdue(LocalDate.now());
+    }
+
+    public long getDaysOverdue(LocalDate today) {
+        if (!isOverdue(today)) {
             return 0;
         }
-        return ChronoUnit.DAYS.between(dueDate, LocalDate.now());
+        return ChronoUnit.DAYS.between(dueDate, today);
     }
 
     public double calculateFine(double finePerDay) {
-        long daysOverdue = getDaysOverdue();
+        return calculateFine(finePerDay, LocalDate.now());
+    }
+
+    public double calculateFine(double finePerDay, LocalDate today) {
+        long daysOverdue = getDaysOverdue(today);
         return daysOverdue > 0 ? daysOverdue * finePerDay : 0.0;
     }
 
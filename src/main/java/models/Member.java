@@ -14,11 +14,14 @@ public class Member {
     private String address;
     private Boolean isActive;
     private LocalDateTime createdAt;
+    private Integer version;
+    private Integer activeLoans;
 
     // Constructors
     public Member() {
         this.isActive = true;
         this.createdAt = LocalDateTime.now();
+        this.version = 0;
     }
 
     public Member(String name, String email, String phone, String address) {
@@ -38,6 +41,7 @@ public class Member {
         this.address = address;
         this.isActive = isActive;
         this.createdAt = createdAt;
+        this.version = 0;
     }
 
     // Getters and Setters
@@ -90,6 +94,28 @@ public class Member {
         return createdAt;
     }
 
+    /**
+     * Row version read from the database, checked on update
+     */
+    public Integer getVersion() {
+        return version;
+    }
+
+    public void setVersion(Integer version) {
+        this.version = version;
+    }
+
+    /**
+     * Maintained count of the member's ACTIVE loans
+     */
+    public Integer getActiveLoans() {
+        return activeLoans;
+    }
+
+    public void setActiveLoans(Integer activeLoans) {
+        this.activeLoans = activeLoans;
+    }
+
 
     // Business methods
     public boolean isActive() {
@@ -0,0 +1,211 @@
+package server;
+
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A parsed API request: method, path parameters from the matched route, query string
+ * and JSON body. Missing or malformed values raise IllegalArgumentException (answered with 400).
+ */
+public class ApiRequest {
+
+    private final String method;
+    private final String path;
+    private final Map<String, String> pathParams;
+    private final Map<String, String> query;
+    private final String body;
+    private Map<String, Object> json;
+
+    public ApiRequest(String method, String path, Map<String, String> pathParams, String rawQuery, String body) {
+        this.method = method;
+        this.path = path;
+        this.pathParams = pathParams;
+        this.query = parseQuery(rawQuery);
+        this.body = body;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public String pathParam(String name) {
+        return pathParams.get(name);
+    }
+
+    public int pathInt(String name) {
+        return toInt(name, pathParams.get(name));
+    }
+
+    public boolean hasQuery(String name) {
+        return query.containsKey(name);
+    }
+
+    /**
+     * True when the JSON body has the member, even if its value is null
+     */
+    public boolean hasBody(String name) {
+        return jsonBody().containsKey(name);
+    }
+
+    public String query(String name) {
+        return query.get(name);
+    }
+
+    public int queryInt(String name, int defaultValue) {
+        String value = query.get(name);
+        return value == null || value.isEmpty() ? defaultValue : toInt(name, value);
+    }
+
+    /**
+     * Required string member of the JSON body
+     */
+    public String bodyString(String name) {
+        Object value = jsonBody().get(name);
+        if (!(value instanceof String) || ((String) value).isBlank()) {
+            throw new IllegalArgumentException("Field '" + name + "' is required");
+        }
+        return (String) value;
+    }
+
+    /**
+     * Optional string member of the JSON body, or the default when absent
+     */
+    public String bodyString(String name, String defaultValue) {
+        Object value = jsonBody().get(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        if (!(value instanceof String)) {
+            throw new IllegalArgumentException("Field '" + name + "' must be a string");
+        }
+        return (String) value;
+    }
+
+    /**
+     * Required integer member of the JSON body
+     */
+    public Integer bodyInt(String name) {
+        Integer value = bodyInt(name, null);
+        if (value == null) {
+            throw new IllegalArgumentException("Field '" + name + "' is required");
+        }
+        return value;
+    }
+
+    public Integer bodyInt(String name, Integer defaultValue) {
+        Object value = jsonBody().get(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        if (!(value instanceof Long) || (Long) value < Integer.MIN_VALUE || (Long) value > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Field '" + name + "' must be an integer");
+        }
+        return ((Long) value).intValue();
+    }
+
+    public Double bodyDouble(String name, Double defaultValue) {
+        Object value = jsonBody().get(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        if (!(value instanceof Number)) {
+            throw new IllegalArgumentException("Field '" + name + "' must be a number");
+        }
+        return ((Number) value).doubleValue();
+    }
+
+    /**
+     * Required non-empty array of strings in the JSON body
+     */
+    public List<String> bodyStringList(String name) {
+        List<String> values = new ArrayList<>();
+        for (Object element : bodyList(name)) {
+            if (!(element instanceof String)) {
+                throw new IllegalArgumentException("Field '" + name + "' must be an array of strings");
+            }
+            values.add((String) element);
+        }
+        return values;
+    }
+
+    /**
+     * Required non-empty array of integers in the JSON body
+     */
+    public List<Integer> bodyIntList(String name) {
+        List<Integer> values = new ArrayList<>();
+        for (Object element : bodyList(name)) {
+            if (!(element instanceof Long) || (Long) element < Integer.MIN_VALUE || (Long) element > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Field '" + name + "' must be an array of integers");
+            }
+            values.add(((Long) element).intValue());
+        }
+        return values;
+    }
+
+    private List<?> bodyList(String name) {
+        Object value = jsonBody().get(name);
+        if (!(value instanceof List) || ((List<?>) value).isEmpty()) {
+            throw new IllegalArgumentException("Field '" + name + "' must be a non-empty array");
+        }
+        return (List<?>) value;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> jsonBody() {
+        if (json == null) {
+            if (body == null || body.isBlank()) {
+                json = Collections.emptyMap();
+            } else {
+                Object parsed = JsonReader.parse(body);
+                if (!(parsed instanceof Map)) {
+                    throw new IllegalArgumentException("Request body must be a JSON object");
+                }
+                json = (Map<String, Object>) parsed;
+            }
+        }
+        return json;
+    }
+
+    private static int toInt(String name, String value) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Parameter '" + name + "' must be an integer");
+        }
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        Map<String, String> params = new HashMap<>();
+        for (String pair : rawQuery.split("&")) {
+            if (pair.isEmpty()) {
+                continue;
+            }
+            int equals = pair.indexOf('=');
+            String name = equals >= 0 ? pair.substring(0, equals) : pair;
+            String value = equals >= 0 ? pair.substring(equals + 1) : "";
+            params.putIfAbsent(decode(name), decode(value));
+        }
+        return params;
+    }
+
+    static String decode(String value) {
+        try {
+            return URLDecoder.decode(value, StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid URL encoding: " + value);
+        }
+    }
+}
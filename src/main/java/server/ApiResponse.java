@@ -0,0 +1,53 @@
+package server;
+
+import java.io.IOException;
+
+/**
+ * Status and JSON body of an API response. The body is written only after the handler
+ * has returned, so service errors never happen halfway through a streamed response.
+ */
+public class ApiResponse {
+
+    /**
+     * Streams the response body
+     */
+    @FunctionalInterface
+    public interface Body {
+        void write(JsonWriter json) throws IOException;
+    }
+
+    private final int status;
+    private final Body body;
+
+    private ApiResponse(int status, Body body) {
+        this.status = status;
+        this.body = body;
+    }
+
+    public static ApiResponse ok(Body body) {
+        return new ApiResponse(200, body);
+    }
+
+    public static ApiResponse created(Body body) {
+        return new ApiResponse(201, body);
+    }
+
+    public static ApiResponse noContent() {
+        return new ApiResponse(204, null);
+    }
+
+    public static ApiResponse error(int status, String message) {
+        return new ApiResponse(status, json -> json.beginObject()
+                .field("status", status)
+                .field("error", message)
+                .endObject());
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public Body getBody() {
+        return body;
+    }
+}
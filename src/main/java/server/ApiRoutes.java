@@ -0,0 +1,426 @@
+package server;
+
+import audit.LoanJournal;
+import audit.LoanJournalFormat;
+import audit.LoanJournalReader;
+import config.BranchRouter;
+import config.ConfigLoader;
+import config.DatabaseConnection;
+import config.DatabaseResilience;
+import config.ReplicaMonitor;
+import models.Book;
+import models.CirculationReport;
+import models.Hold;
+import models.Loan;
+import models.Member;
+import services.BookService;
+import services.FineAssessmentService;
+import services.HoldService;
+import services.IncrementalExportService;
+import services.IncrementalExportService.ExportType;
+import services.LoanService;
+import services.MemberService;
+import services.StatisticsService;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * The API routes, mapped onto the same endpoints the services log as simulated HTTP calls.
+ * Services are shared by all requests; they keep no per-request state.
+ */
+public class ApiRoutes {
+
+    private final BookService bookService = new BookService();
+    private final MemberService memberService = new MemberService();
+    private final LoanService loanService = new LoanService();
+    private final HoldService holdService = new HoldService();
+    private final FineAssessmentService fineService = new FineAssessmentService();
+    private final StatisticsService statisticsService = new StatisticsService();
+    private final IncrementalExportService exportService = new IncrementalExportService();
+    private final int maxPageSize;
+
+    public ApiRoutes(int maxPageSize) {
+        this.maxPageSize = maxPageSize;
+    }
+
+    /**
+     * Register every route; literal paths go before parameterized paths they overlap with
+     */
+    public Router register(Router router) {
+        // Books
+        router.add("GET", "/api/books", this::listBooks)
+                .add("POST", "/api/books", this::createBook)
+                .add("GET", "/api/books/{isbn}", this::getBook)
+                .add("GET", "/api/books/{isbn}/branches", request -> {
+                    List<Book> books = bookService.findBookAcrossBranches(request.pathParam("isbn"));
+                    return ApiResponse.ok(json -> ModelJson.writeList(json, books, ModelJson::writeBook));
+                })
+                .add("PATCH", "/api/books/{isbn}", this::updateBook)
+                .add("DELETE", "/api/books/{isbn}", request -> found(bookService.deleteBook(request.pathParam("isbn"))))
+                .add("PATCH", "/api/books/{isbn}/activate",
+                        request -> found(bookService.activateBook(request.pathParam("isbn"))))
+                .add("PATCH", "/api/books/{isbn}/deactivate",
+                        request -> found(bookService.deactivateBook(request.pathParam("isbn"))));
+
+        // Members
+        router.add("GET", "/api/members", this::listMembers)
+                .add("POST", "/api/members", this::createMember)
+                .add("GET", "/api/members/{id}", this::getMember)
+                .add("PATCH", "/api/members/{id}", this::updateMember)
+                .add("DELETE", "/api/members/{id}", request -> found(memberService.deleteMember(request.pathInt("id"))))
+                .add("PATCH", "/api/members/{id}/activate",
+                        request -> found(memberService.activateMember(request.pathInt("id"))))
+                .add("PATCH", "/api/members/{id}/deactivate",
+                        request -> found(memberService.deactivateMember(request.pathInt("id"))));
+
+        // Loans
+        router.add("GET", "/api/loans", this::listLoans)
+                .add("POST", "/api/loans", this::createLoan)
+                .add("POST", "/api/loans/batch", this::createLoans)
+                .add("PATCH", "/api/loans/returns", this::returnLoans)
+                .add("GET", "/api/loans/{id}", this::getLoan)
+                .add("PATCH", "/api/loans/{id}/return", this::returnLoan);
+
+        // Holds
+        router.add("GET", "/api/holds", this::listHolds)
+                .add("POST", "/api/holds", this::placeHold)
+                .add("DELETE", "/api/holds/{id}", request -> {
+                    holdService.cancelHold(request.pathInt("id"));
+                    return ApiResponse.noContent();
+                });
+
+        // Fines, statistics and exports
+        router.add("GET", "/api/fines", this::getFines)
+                .add("POST", "/api/fines/assessments", request -> {
+                    int updated = fineService.assessOverdueFines();
+                    return ApiResponse.ok(json -> json.beginObject().field("updated", updated).endObject());
+                })
+                .add("GET", "/api/stats/circulation", this::getCirculationReport)
+                .add("GET", "/api/audit/loans", this::searchLoanJournal)
+                .add("GET", "/api/branches", request -> {
+                    BranchRouter branches = BranchRouter.getInstance();
+                    List<BranchRouter.Branch> list = new ArrayList<>(branches.getBranches());
+                    Integer home = branches.getHomeBranchId();
+                    return ApiResponse.ok(json -> ModelJson.writeList(json, list,
+                            (writer, branch) -> ModelJson.writeBranch(writer, branch, home)));
+                })
+                .add("GET", "/api/health/db", request -> {
+                    DatabaseResilience.Metrics metrics = DatabaseResilience.getInstance().getMetrics();
+                    ReplicaMonitor replicas = DatabaseConnection.getInstance().getReplicaMonitor();
+                    return ApiResponse.ok(json -> ModelJson.writeDatabaseMetrics(json, metrics, replicas));
+                })
+                .add("POST", "/api/exports/{type}/incremental", this::runIncrementalExport);
+
+        return router;
+    }
+
+    private ApiResponse listBooks(ApiRequest request) throws Exception {
+        if (request.hasQuery("offset") || request.hasQuery("limit")) {
+            int offset = Math.max(0, request.queryInt("offset", 0));
+            int limit = pageLimit(request);
+            String filter = request.query("filter");
+            List<Book> books = bookService.getBooksPage(filter, request.query("sort"), ascending(request), offset, limit);
+            int total = bookService.countBooks(filter);
+            return ApiResponse.ok(json -> ModelJson.writePage(json, books, total, offset, limit, ModelJson::writeBook));
+        }
+
+        List<Book> books;
+        if (request.hasQuery("category")) {
+            books = bookService.getBooksByCategory(request.query("category"));
+        } else if (request.hasQuery("author")) {
+            books = bookService.getBooksByAuthor(request.query("author"));
+        } else if ("active".equals(request.query("status"))) {
+            books = networkScope(request) ? bookService.getActiveBooksAcrossBranches() : bookService.getActiveBooks();
+        } else {
+            books = bookService.getAllBooks();
+        }
+        return ApiResponse.ok(json -> ModelJson.writeList(json, books, ModelJson::writeBook));
+    }
+
+    private ApiResponse getBook(ApiRequest request) throws Exception {
+        Optional<Book> book = bookService.findBookByIsbn(request.pathParam("isbn"));
+        return book.isPresent()
+                ? ApiResponse.ok(json -> ModelJson.writeBook(json, book.get()))
+                : ApiResponse.error(404, "Book not found");
+    }
+
+    private ApiResponse createBook(ApiRequest request) throws Exception {
+        Book book = bookService.createBook(
+                request.bodyString("isbn"),
+                request.bodyString("title"),
+                request.bodyString("author"),
+                request.bodyString("category", null),
+                request.bodyInt("totalCopies"),
+                request.bodyDouble("referencePrice", 0.0));
+        return ApiResponse.created(json -> ModelJson.writeBook(json, book));
+    }
+
+    /**
+     * Partial update; the version read earlier is required to detect concurrent changes.
+     * Available copies follow totalCopies and cannot be written.
+     */
+    private ApiResponse updateBook(ApiRequest request) throws Exception {
+        if (request.hasBody("availableCopies")) {
+            return ApiResponse.error(400, "Field 'availableCopies' cannot be written, it follows totalCopies");
+        }
+        Integer version = request.bodyInt("version", null);
+        if (version == null) {
+            return ApiResponse.error(428, "Field 'version' is required: send the version read with the book");
+        }
+
+        Optional<Book> existing = bookService.findBookByIsbn(request.pathParam("isbn"));
+        if (existing.isEmpty()) {
+            return ApiResponse.error(404, "Book not found");
+        }
+
+        Book book = existing.get();
+        book.setTitle(request.bodyString("title", book.getTitle()));
+        book.setAuthor(request.bodyString("author", book.getAuthor()));
+        book.setCategory(request.bodyString("category", book.getCategory()));
+        book.setTotalCopies(request.bodyInt("totalCopies", book.getTotalCopies()));
+        book.setReferencePrice(request.bodyDouble("referencePrice", book.getReferencePrice()));
+        book.setVersion(version);
+
+        if (!bookService.updateBook(book)) {
+            return ApiResponse.error(404, "Book not found");
+        }
+        Optional<Book> updated = bookService.findBookByIsbn(book.getIsbn());
+        return ApiResponse.ok(json -> ModelJson.writeBook(json, updated.orElse(book)));
+    }
+
+    private ApiResponse listMembers(ApiRequest request) throws Exception {
+        List<Member> members = "active".equals(request.query("status"))
+                ? memberService.getActiveMembers()
+                : memberService.getAllMembers();
+        return ApiResponse.ok(json -> ModelJson.writeList(json, members, ModelJson::writeMember));
+    }
+
+    private ApiResponse getMember(ApiRequest request) throws Exception {
+        Optional<Member> member = memberService.findMemberById(request.pathInt("id"));
+        return member.isPresent()
+                ? ApiResponse.ok(json -> ModelJson.writeMember(json, member.get()))
+                : ApiResponse.error(404, "Member not found");
+    }
+
+    private ApiResponse createMember(ApiRequest request) throws Exception {
+        Member member = memberService.createMember(
+                request.bodyString("name"),
+                request.bodyString("email"),
+                request.bodyString("phone", null),
+                request.bodyString("address", null));
+        return ApiResponse.created(json -> ModelJson.writeMember(json, member));
+    }
+
+    /**
+     * Partial update; the version read earlier is required to detect concurrent changes
+     */
+    private ApiResponse updateMember(ApiRequest request) throws Exception {
+        Integer version = request.bodyInt("version", null);
+        if (version == null) {
+            return ApiResponse.error(428, "Field 'version' is required: send the version read with the member");
+        }
+
+        Optional<Member> existing = memberService.findMemberById(request.pathInt("id"));
+        if (existing.isEmpty()) {
+            return ApiResponse.error(404, "Member not found");
+        }
+
+        Member member = existing.get();
+        member.setName(request.bodyString("name", member.getName()));
+        member.setEmail(request.bodyString("email", member.getEmail()));
+        member.setPhone(request.bodyString("phone", member.getPhone()));
+        member.setAddress(request.bodyString("address", member.getAddress()));
+        member.setVersion(version);
+
+        if (!memberService.updateMember(member)) {
+            return ApiResponse.error(404, "Member not found");
+        }
+        Optional<Member> updated = memberService.findMemberById(member.getIdMember());
+        return ApiResponse.ok(json -> ModelJson.writeMember(json, updated.orElse(member)));
+    }
+
+    private ApiResponse listLoans(ApiRequest request) throws Exception {
+        if (request.hasQuery("offset") || request.hasQuery("limit")) {
+            int offset = Math.max(0, request.queryInt("offset", 0));
+            int limit = pageLimit(request);
+            String filter = request.query("filter");
+            List<Loan> loans = loanService.getLoansPage(filter, request.query("sort"), ascending(request), offset, limit);
+            int total = loanService.countLoans(filter);
+            return ApiResponse.ok(json -> ModelJson.writePage(json, loans, total, offset, limit, ModelJson::writeLoan));
+        }
+
+        List<Loan> loans;
+        if (request.hasQuery("memberId")) {
+            loans = loanService.getLoansByMember(request.queryInt("memberId", 0));
+        } else if (request.hasQuery("dueWithinDays")) {
+            loans = loanService.getLoansDueWithin(request.queryInt("dueWithinDays", 0));
+        } else if ("active".equals(request.query("status"))) {
+            loans = loanService.getActiveLoans();
+        } else if ("overdue".equals(request.query("status"))) {
+            loans = networkScope(request) ? loanService.getOverdueLoansAcrossBranches() : loanService.getOverdueLoans();
+        } else {
+            loans = loanService.getAllLoans();
+        }
+        return ApiResponse.ok(json -> ModelJson.writeList(json, loans, ModelJson::writeLoan));
+    }
+
+    private ApiResponse getLoan(ApiRequest request) throws Exception {
+        Optional<Loan> loan = loanService.findLoanById(request.pathInt("id"));
+        return loan.isPresent()
+                ? ApiResponse.ok(json -> ModelJson.writeLoan(json, loan.get()))
+                : ApiResponse.error(404, "Loan not found");
+    }
+
+    private ApiResponse createLoan(ApiRequest request) throws Exception {
+        Loan loan = loanService.createLoan(request.bodyString("isbn"), request.bodyInt("memberId"));
+        return ApiResponse.created(json -> ModelJson.writeLoan(json, loan));
+    }
+
+    private ApiResponse createLoans(ApiRequest request) throws Exception {
+        LoanService.CheckoutResult result = loanService.createLoans(request.bodyInt("memberId"),
+                request.bodyStringList("isbns"));
+        return ApiResponse.created(json -> ModelJson.writeCheckoutResult(json, result));
+    }
+
+    private ApiResponse returnLoan(ApiRequest request) throws Exception {
+        int loanId = request.pathInt("id");
+        loanService.returnLoan(loanId);
+
+        Optional<Loan> loan = loanService.findLoanById(loanId);
+        return loan.isPresent()
+                ? ApiResponse.ok(json -> ModelJson.writeLoan(json, loan.get()))
+                : ApiResponse.noContent();
+    }
+
+    private ApiResponse returnLoans(ApiRequest request) throws Exception {
+        List<LoanService.ReturnOutcome> outcomes = loanService.returnLoans(request.bodyIntList("loanIds"));
+        return ApiResponse.ok(json -> ModelJson.writeList(json, outcomes, ModelJson::writeReturnOutcome));
+    }
+
+    private ApiResponse listHolds(ApiRequest request) throws Exception {
+        List<Hold> holds;
+        if (request.hasQuery("isbn")) {
+            holds = holdService.getQueue(request.query("isbn"));
+        } else if (request.hasQuery("memberId")) {
+            holds = holdService.getHoldsByMember(request.queryInt("memberId", 0));
+        } else {
+            throw new IllegalArgumentException("Query parameter 'isbn' or 'memberId' is required");
+        }
+        return ApiResponse.ok(json -> ModelJson.writeList(json, holds, ModelJson::writeHold));
+    }
+
+    private ApiResponse placeHold(ApiRequest request) throws Exception {
+        Hold hold = holdService.placeHold(request.bodyString("isbn"), request.bodyInt("memberId"));
+        return ApiResponse.created(json -> ModelJson.writeHold(json, hold));
+    }
+
+    private ApiResponse getFines(ApiRequest request) throws Exception {
+        if (request.hasQuery("memberId")) {
+            int memberId = request.queryInt("memberId", 0);
+            double total = fineService.getOutstandingFines(memberId);
+            return ApiResponse.ok(json -> json.beginObject()
+                    .field("memberId", memberId)
+                    .field("total", total)
+                    .endObject());
+        }
+
+        Map<Integer, Double> fines = fineService.getOutstandingFinesByMember();
+        return ApiResponse.ok(json -> ModelJson.writeFines(json, fines));
+    }
+
+    private ApiResponse getCirculationReport(ApiRequest request) throws Exception {
+        CirculationReport report = request.hasQuery("from") || request.hasQuery("to")
+                ? statisticsService.getReport(date(request, "from"), date(request, "to"))
+                : statisticsService.getReportForLastDays(request.queryInt("days", 30));
+        return ApiResponse.ok(json -> ModelJson.writeCirculationReport(json, report));
+    }
+
+    /**
+     * Checkouts and returns from the binary audit journal, oldest first; from/to are inclusive dates
+     */
+    private ApiResponse searchLoanJournal(ApiRequest request) throws Exception {
+        LoanJournalReader.Filter filter = new LoanJournalReader.Filter();
+        if (request.hasQuery("loanId")) {
+            filter.loan(request.queryInt("loanId", 0));
+        }
+        if (request.hasQuery("memberId")) {
+            filter.member(request.queryInt("memberId", 0));
+        }
+        if (request.hasQuery("isbn")) {
+            filter.isbn(request.query("isbn"));
+        }
+        if (request.hasQuery("type")) {
+            String type = request.query("type");
+            try {
+                filter.type(LoanJournalFormat.EventType.valueOf(type.toUpperCase()));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Parameter 'type' must be checkout or return");
+            }
+        }
+        if (request.hasQuery("from")) {
+            filter.from(date(request, "from").atStartOfDay(ZoneId.systemDefault()).toInstant());
+        }
+        if (request.hasQuery("to")) {
+            filter.until(date(request, "to").plusDays(1).atStartOfDay(ZoneId.systemDefault()).toInstant());
+        }
+
+        LoanJournal journal = LoanJournal.getInstance();
+        Path directory = journal != null ? journal.getDirectory()
+                : Path.of(ConfigLoader.getInstance().getProperty("audit.dir", "audit"));
+        List<LoanJournalReader.Entry> entries = LoanJournalReader.open(directory).find(filter, pageLimit(request));
+        return ApiResponse.ok(json -> ModelJson.writeList(json, entries, ModelJson::writeJournalEntry));
+    }
+
+    private ApiResponse runIncrementalExport(ApiRequest request) throws Exception {
+        String key = request.pathParam("type");
+        for (ExportType type : ExportType.values()) {
+            if (type.getKey().equals(key)) {
+                IncrementalExportService.ExportResult result = exportService.export(type);
+                return ApiResponse.created(json -> ModelJson.writeExportResult(json, result));
+            }
+        }
+        return ApiResponse.error(404, "Unknown export type: " + key);
+    }
+
+    private int pageLimit(ApiRequest request) {
+        int limit = request.queryInt("limit", maxPageSize);
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Parameter 'limit' must be greater than 0");
+        }
+        return Math.min(limit, maxPageSize);
+    }
+
+    private static boolean ascending(ApiRequest request) {
+        return !"desc".equalsIgnoreCase(request.query("order"));
+    }
+
+    /**
+     * scope=network: read every branch's database instead of this client's home branch
+     */
+    private static boolean networkScope(ApiRequest request) {
+        return "network".equalsIgnoreCase(request.query("scope"));
+    }
+
+    private static LocalDate date(ApiRequest request, String name) {
+        String value = request.query(name);
+        if (value == null) {
+            throw new IllegalArgumentException("Query parameter '" + name + "' is required");
+        }
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Parameter '" + name + "' must be a date (yyyy-MM-dd)");
+        }
+    }
+
+    private static ApiResponse found(boolean changed) {
+        return changed ? ApiResponse.noContent() : ApiResponse.error(404, "Not found");
+    }
+}
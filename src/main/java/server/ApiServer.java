@@ -0,0 +1,242 @@
+package server;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import config.CircuitBreaker;
+import config.ConfigLoader;
+import config.DatabaseConnection;
+import config.LoggerConfig;
+import exceptions.DatabaseException;
+import exceptions.DuplicateEmailException;
+import exceptions.DuplicateIsbnException;
+import exceptions.DuplicateUsernameException;
+import exceptions.EntityNotFoundException;
+import exceptions.InactiveMemberException;
+import exceptions.InsufficientStockException;
+import exceptions.InvalidLoanException;
+import exceptions.OptimisticLockException;
+
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Headless JSON API over the services, on the JDK's built-in HTTP server.
+ *
+ * Every request runs on its own virtual thread when the JVM provides them (Java 21+),
+ * otherwise on a fixed pool of {@code server.maxConcurrentRequests} threads. Since there
+ * is no connection pool, at most that many requests use the database at once (the rest
+ * wait for a permit) and each request closes its thread's connection when it ends.
+ * Responses are streamed with chunked encoding, so connections stay open for keep-alive.
+ * When {@code server.apiKey} is set every request must send it in the X-Api-Key header.
+ */
+public class ApiServer {
+
+    private static final String API_KEY_HEADER = "X-Api-Key";
+
+    private final String host;
+    private final int port;
+    private final int maxBodyBytes;
+    private final byte[] apiKey;
+    private final Semaphore databasePermits;
+    private final int maxConcurrentRequests;
+    private final Router router;
+    private HttpServer server;
+    private ExecutorService executor;
+
+    public ApiServer() {
+        ConfigLoader config = ConfigLoader.getInstance();
+        String key = config.getProperty("server.apiKey", "");
+
+        this.host = config.getProperty("server.host", "127.0.0.1");
+        this.port = config.getIntProperty("server.port", 8080);
+        this.maxBodyBytes = Math.max(1024, config.getIntProperty("server.maxBodyBytes", 1_048_576));
+        this.apiKey = key.isBlank() ? null : key.getBytes(StandardCharsets.UTF_8);
+        this.maxConcurrentRequests = Math.max(1, config.getIntProperty("server.maxConcurrentRequests", 16));
+        this.databasePermits = new Semaphore(maxConcurrentRequests, true);
+        this.router = new ApiRoutes(Math.max(1, config.getIntProperty("server.maxPageSize", 500))).register(new Router());
+    }
+
+    /**
+     * Bind and start serving
+     */
+    public synchronized void start() throws IOException {
+        if (server != null) {
+            return;
+        }
+
+        executor = newRequestExecutor(maxConcurrentRequests);
+        server = HttpServer.create(new InetSocketAddress(host, port), 0);
+        server.createContext("/api/", this::handle);
+        server.setExecutor(executor);
+        server.start();
+
+        LoggerConfig.logInfo("API server listening on http://" + host + ":" + server.getAddress().getPort()
+                + "/api (" + (isVirtualThreadExecutor() ? "virtual threads" : maxConcurrentRequests + " threads")
+                + ", " + maxConcurrentRequests + " concurrent DB requests"
+                + (apiKey != null ? ", API key required" : "") + ")");
+    }
+
+    /**
+     * Stop accepting requests, giving running ones up to delaySeconds to finish
+     */
+    public synchronized void stop(int delaySeconds) {
+        if (server == null) {
+            return;
+        }
+
+        server.stop(delaySeconds);
+        executor.shutdown();
+        try {
+            executor.awaitTermination(delaySeconds, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        server = null;
+        LoggerConfig.logInfo("API server stopped");
+    }
+
+    public int getPort() {
+        return server != null ? server.getAddress().getPort() : port;
+    }
+
+    private void handle(HttpExchange exchange) {
+        ApiResponse response;
+
+        try {
+            String body = readBody(exchange);
+            response = authorized(exchange) ? dispatch(exchange, body) : ApiResponse.error(401, "Invalid API key");
+        } catch (IllegalArgumentException e) {
+            response = ApiResponse.error(400, e.getMessage());
+        } catch (IOException e) {
+            response = ApiResponse.error(400, "Could not read request: " + e.getMessage());
+        }
+
+        try {
+            send(exchange, response);
+        } catch (IOException e) {
+            LoggerConfig.logWarning("Could not send API response: " + e.getMessage());
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private ApiResponse dispatch(HttpExchange exchange, String body) {
+        String method = exchange.getRequestMethod();
+        String path = exchange.getRequestURI().getRawPath();
+        Router.Match match = router.find(method, path);
+
+        if (match.getHandler() == null) {
+            return match.isMethodMismatch()
+                    ? ApiResponse.error(405, "Method not allowed: " + method)
+                    : ApiResponse.error(404, "No route for " + method + " " + path);
+        }
+
+        try {
+            databasePermits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return ApiResponse.error(503, "Server shutting down");
+        }
+
+        try {
+            ApiRequest request = new ApiRequest(method, path, match.getPathParams(),
+                    exchange.getRequestURI().getRawQuery(), body);
+            return match.getHandler().handle(request);
+        } catch (IllegalArgumentException e) {
+            return ApiResponse.error(400, e.getMessage());
+        } catch (EntityNotFoundException e) {
+            return ApiResponse.error(404, e.getMessage());
+        } catch (DuplicateIsbnException | DuplicateEmailException | DuplicateUsernameException
+                 | OptimisticLockException e) {
+            return ApiResponse.error(409, e.getMessage());
+        } catch (InsufficientStockException | InactiveMemberException | InvalidLoanException e) {
+            return ApiResponse.error(400, e.getMessage());
+        } catch (DatabaseException e) {
+            if (e.getCause() instanceof CircuitBreaker.OpenCircuitException) {
+                return ApiResponse.error(503, e.getCause().getMessage());
+            }
+            return ApiResponse.error(500, "Database error");
+        } catch (Exception e) {
+            LoggerConfig.logError("Unexpected API error on " + method + " " + path, e);
+            return ApiResponse.error(500, "Internal server error");
+        } finally {
+            DatabaseConnection.getInstance().releaseConnection();
+            databasePermits.release();
+        }
+    }
+
+    private boolean authorized(HttpExchange exchange) {
+        if (apiKey == null) {
+            return true;
+        }
+        String provided = exchange.getRequestHeaders().getFirst(API_KEY_HEADER);
+        return provided != null && MessageDigest.isEqual(apiKey, provided.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Read the whole request body (needed anyway to keep the connection reusable)
+     */
+    private String readBody(HttpExchange exchange) throws IOException {
+        try (InputStream input = exchange.getRequestBody()) {
+            ByteArrayOutputStream body = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = input.read(buffer)) != -1) {
+                if (body.size() + read > maxBodyBytes) {
+                    throw new IllegalArgumentException("Request body larger than " + maxBodyBytes + " bytes");
+                }
+                body.write(buffer, 0, read);
+            }
+            return body.toString(StandardCharsets.UTF_8);
+        }
+    }
+
+    private void send(HttpExchange exchange, ApiResponse response) throws IOException {
+        if (response.getBody() == null) {
+            exchange.sendResponseHeaders(response.getStatus(), -1);
+            return;
+        }
+
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(response.getStatus(), 0);
+
+        try (Writer writer = new BufferedWriter(
+                new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8), 8192)) {
+            response.getBody().write(new JsonWriter(writer));
+        }
+    }
+
+    private boolean isVirtualThreadExecutor() {
+        return !(executor instanceof java.util.concurrent.ThreadPoolExecutor);
+    }
+
+    /**
+     * One virtual thread per task when available (looked up reflectively so the code still
+     * builds for Java 17), otherwise a fixed pool of platform threads
+     */
+    private static ExecutorService newRequestExecutor(int fallbackThreads) {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+            // Java 17-20 (or virtual threads still in preview)
+            AtomicInteger counter = new AtomicInteger(1);
+            return Executors.newFixedThreadPool(fallbackThreads, runnable -> {
+                Thread thread = new Thread(runnable, "api-worker-" + counter.getAndIncrement());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package server;
+
+import audit.LoanJournalReader;
+import config.BranchRouter;
+import config.DatabaseResilience;
+import config.ReplicaMonitor;
+import models.Book;
+import models.CirculationReport;
+import models.CirculationStat;
+import models.Hold;
+import models.Loan;
+import models.Member;
+import services.IncrementalExportService.ExportResult;
+import services.LoanService.CheckoutResult;
+import services.LoanService.ReturnOutcome;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JSON representation of the models returned by the API
+ */
+public class ModelJson {
+
+    /**
+     * Writes one element of a list
+     */
+    @FunctionalInterface
+    public interface ElementWriter<T> {
+        void write(JsonWriter json, T element) throws IOException;
+    }
+
+    public static <T> void writeList(JsonWriter json, List<T> elements, ElementWriter<T> writer) throws IOException {
+        json.beginArray();
+        for (T element : elements) {
+            writer.write(json, element);
+        }
+        json.endArray();
+    }
+
+    /**
+     * Page of results: {"total": n, "offset": o, "limit": l, "items": [...]}
+     */
+    public static <T> void writePage(JsonWriter json, List<T> items, int total, int offset, int limit,
+                                     ElementWriter<T> writer) throws IOException {
+        json.beginObject()
+                .field("total", total)
+                .field("offset", offset)
+                .field("limit", limit)
+                .name("items");
+        writeList(json, items, writer);
+        json.endObject();
+    }
+
+    public static void writeBook(JsonWriter json, Book book) throws IOException {
+        json.beginObject()
+                .field("isbn", book.getIsbn())
+                .field("title", book.getTitle())
+                .field("author", book.getAuthor())
+                .field("category", book.getCategory())
+                .field("totalCopies", book.getTotalCopies())
+                .field("availableCopies", book.getAvailableCopies())
+                .field("referencePrice", book.getReferencePrice())
+                .field("active", book.getIsActive())
+                .field("createdAt", book.getCreatedAt())
+                .field("updatedAt", book.getUpdatedAt())
+                .field("version", book.getVersion())
+                .field("branchId", book.getBranchId())
+                .endObject();
+    }
+
+    public static void writeMember(JsonWriter json, Member member) throws IOException {
+        json.beginObject()
+                .field("id", member.getIdMember())
+                .field("name", member.getName())
+                .field("email", member.getEmail())
+                .field("phone", member.getPhone())
+                .field("address", member.getAddress())
+                .field("active", member.getIsActive())
+                .field("activeLoans", member.getActiveLoans())
+                .field("createdAt", member.getCreatedAt())
+                .field("version", member.getVersion())
+                .endObject();
+    }
+
+    public static void writeLoan(JsonWriter json, Loan loan) throws IOException {
+        json.beginObject()
+                .field("id", loan.getIdLoan())
+                .field("isbn", loan.getIsbn())
+                .field("memberId", loan.getIdMember())
+                .field("loanDate", loan.getLoanDate())
+                .field("dueDate", loan.getDueDate())
+                .field("returnDate", loan.getReturnDate())
+                .field("fineAmount", loan.getFineAmount())
+                .field("status", loan.getStatus())
+                .field("overdue", loan.getDueDate() != null && loan.isOverdue())
+                .field("createdAt", loan.getCreatedAt())
+                .field("updatedAt", loan.getUpdatedAt())
+                .field("branchId", loan.getBranchId())
+                .endObject();
+    }
+
+    public static void writeJournalEntry(JsonWriter json, LoanJournalReader.Entry entry) throws IOException {
+        json.beginObject()
+                .field("sequence", entry.getSequence())
+                .field("timestamp", entry.getTimestamp())
+                .field("type", entry.getType())
+                .field("loanId", entry.getLoanId())
+                .field("isbn", entry.getIsbn())
+                .field("memberId", entry.getMemberId())
+                .field("fineAmount", entry.getFineAmount())
+                .field("branchId", entry.getBranchId() != 0 ? entry.getBranchId() : null)
+                .field("heldCopy", entry.isHeldCopy())
+                .endObject();
+    }
+
+    public static void writeBranch(JsonWriter json, BranchRouter.Branch branch, Integer homeBranchId) throws IOException {
+        json.beginObject()
+                .field("id", branch.getId())
+                .field("name", branch.getName())
+                .field("home", homeBranchId != null && homeBranchId == branch.getId())
+                .endObject();
+    }
+
+    public static void writeHold(JsonWriter json, Hold hold) throws IOException {
+        json.beginObject()
+                .field("id", hold.getIdHold())
+                .field("isbn", hold.getIsbn())
+                .field("memberId", hold.getIdMember())
+                .field("status", hold.getStatus())
+                .field("createdAt", hold.getCreatedAt())
+                .field("readyAt", hold.getReadyAt())
+                .field("expiresAt", hold.getExpiresAt())
+                .endObject();
+    }
+
+    public static void writeCheckoutResult(JsonWriter json, CheckoutResult result) throws IOException {
+        json.beginObject()
+                .field("complete", result.isComplete())
+                .name("loans");
+        writeList(json, result.getCreatedLoans(), ModelJson::writeLoan);
+        json.name("rejections");
+        writeList(json, result.getRejections(), (out, rejection) -> out.value(rejection));
+        json.endObject();
+    }
+
+    public static void writeReturnOutcome(JsonWriter json, ReturnOutcome outcome) throws IOException {
+        json.beginObject()
+                .field("loanId", outcome.getLoanId())
+                .field("status", outcome.getStatus())
+                .field("fineAmount", outcome.getFineAmount())
+                .field("daysOverdue", outcome.getDaysOverdue())
+                .endObject();
+    }
+
+    public static void writeFines(JsonWriter json, Map<Integer, Double> finesByMember) throws IOException {
+        json.beginArray();
+        for (Map.Entry<Integer, Double> entry : finesByMember.entrySet()) {
+            json.beginObject()
+                    .field("memberId", entry.getKey())
+                    .field("total", entry.getValue())
+                    .endObject();
+        }
+        json.endArray();
+    }
+
+    public static void writeCirculationReport(JsonWriter json, CirculationReport report) throws IOException {
+        json.beginObject()
+                .field("from", report.getFrom())
+                .field("to", report.getTo())
+                .field("averageLoanDays", report.getAverageLoanDays())
+                .field("generatedAt", report.getGeneratedAt())
+                .name("topBooks");
+        writeList(json, report.getTopBooks(), ModelJson::writeStat);
+        json.name("loansByCategory");
+        writeList(json, report.getLoansByCategory(), ModelJson::writeStat);
+        json.name("memberActivity");
+        writeList(json, report.getMemberActivity(), ModelJson::writeStat);
+        json.endObject();
+    }
+
+    public static void writeExportResult(JsonWriter json, ExportResult result) throws IOException {
+        json.beginObject()
+                .field("type", result.getType())
+                .field("kind", result.getKind())
+                .field("file", result.getFilename())
+                .field("records", result.getRecords())
+                .field("watermark", result.getWatermark())
+                .endObject();
+    }
+
+    public static void writeDatabaseMetrics(JsonWriter json, DatabaseResilience.Metrics metrics,
+                                            ReplicaMonitor replicas) throws IOException {
+        json.beginObject()
+                .field("circuit", metrics.getState())
+                .field("consecutiveFailures", metrics.getConsecutiveFailures())
+                .field("stateChangedAt", Instant.ofEpochMilli(metrics.getStateChangedAtMillis()))
+                .field("timesOpened", metrics.getTimesOpened())
+                .field("calls", metrics.getCalls())
+                .field("retries", metrics.getRetries())
+                .field("recovered", metrics.getRecovered())
+                .field("failed", metrics.getFailed())
+                .field("rejected", metrics.getRejected());
+        json.name("replicas");
+        writeList(json, replicas != null ? replicas.getReplicas() : List.of(), ModelJson::writeReplica);
+        json.endObject();
+    }
+
+    private static void writeReplica(JsonWriter json, ReplicaMonitor.Replica replica) throws IOException {
+        json.beginObject()
+                .field("url", replica.getDisplayUrl())
+                .field("healthy", replica.isHealthy())
+                .field("lagSeconds", replica.getLagSeconds())
+                .field("checkedAt", replica.getCheckedAtMillis() > 0 ? Instant.ofEpochMilli(replica.getCheckedAtMillis()) : null)
+                .endObject();
+    }
+
+    private static void writeStat(JsonWriter json, CirculationStat stat) throws IOException {
+        json.beginObject()
+                .field("key", stat.getKey())
+                .field("label", stat.getLabel())
+                .field("loans", stat.getLoanCount())
+                .endObject();
+    }
+}
@@ -0,0 +1,118 @@
+package server;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Matches method + path against routes such as "/api/books/{isbn}/activate".
+ * Literal segments must match exactly; {name} segments capture one path segment.
+ */
+public class Router {
+
+    /**
+     * Handles a matched request
+     */
+    @FunctionalInterface
+    public interface Handler {
+        ApiResponse handle(ApiRequest request) throws Exception;
+    }
+
+    /**
+     * Result of a lookup: the handler (null if none) and the captured path parameters.
+     * methodMismatch is set when the path exists but not for the requested method.
+     */
+    public static class Match {
+        private final Handler handler;
+        private final Map<String, String> pathParams;
+        private final boolean methodMismatch;
+
+        Match(Handler handler, Map<String, String> pathParams, boolean methodMismatch) {
+            this.handler = handler;
+            this.pathParams = pathParams;
+            this.methodMismatch = methodMismatch;
+        }
+
+        public Handler getHandler() {
+            return handler;
+        }
+
+        public Map<String, String> getPathParams() {
+            return pathParams;
+        }
+
+        public boolean isMethodMismatch() {
+            return methodMismatch;
+        }
+    }
+
+    private static class Route {
+        private final String method;
+        private final String[] segments;
+        private final Handler handler;
+
+        Route(String method, String pattern, Handler handler) {
+            this.method = method;
+            this.segments = split(pattern);
+            this.handler = handler;
+        }
+    }
+
+    private final List<Route> routes = new ArrayList<>();
+
+    public Router add(String method, String pattern, Handler handler) {
+        routes.add(new Route(method, pattern, handler));
+        return this;
+    }
+
+    public Match find(String method, String path) {
+        String[] segments = split(path);
+        boolean pathMatched = false;
+
+        // Literal routes are registered before parameterized ones that could shadow them
+        for (Route route : routes) {
+            Map<String, String> params = match(route.segments, segments);
+            if (params == null) {
+                continue;
+            }
+            if (route.method.equals(method)) {
+                return new Match(route.handler, params, false);
+            }
+            pathMatched = true;
+        }
+
+        return new Match(null, Map.of(), pathMatched);
+    }
+
+    private static Map<String, String> match(String[] pattern, String[] segments) {
+        if (pattern.length != segments.length) {
+            return null;
+        }
+
+        Map<String, String> params = null;
+        for (int i = 0; i < pattern.length; i++) {
+            String expected = pattern[i];
+            if (expected.startsWith("{") && expected.endsWith("}")) {
+                if (params == null) {
+                    params = new HashMap<>();
+                }
+                params.put(expected.substring(1, expected.length() - 1), ApiRequest.decode(segments[i]));
+            } else if (!expected.equals(segments[i])) {
+                return null;
+            }
+        }
+        return params != null ? params : Map.of();
+    }
+
+    private static String[] split(String path) {
+        String trimmed = path;
+        while (trimmed.startsWith("/")) {
+            trimmed = trimmed.substring(1);
+        }
+        while (trimmed.endsWith("/")) {
+            trimmed = trimmed.substring(0, trimmed.length() - 1);
+        }
+        return trimmed.isEmpty() ? new String[0] : trimmed.split("/");
+    }
+}
@@ -0,0 +1,122 @@
+package services;
+
+import events.EventBus;
+import events.LoanCreated;
+import events.LoanReturned;
+import utils.IntIntHashMap;
+
+import java.sql.SQLException;
+import java.util.Map;
+
+/**
+ * Singleton in-memory mirror of members.active_loans.
+ *
+ * Lets the borrowing-limit check run as a primitive map lookup. The column stays the
+ * source of truth: checkouts increment it with a conditional UPDATE that enforces the
+ * limit atomically, and this mirror is only adjusted by the LoanCreated and LoanReturned
+ * events published after the transaction commits. It does not see loans made or returned
+ * by other clients, so it is a hint: a member it shows at the limit is checked against
+ * the member row, and reconciliation reloads it.
+ */
+public class ActiveLoanCounter {
+
+    private static ActiveLoanCounter instance;
+
+    /**
+     * Source of member ID to active-loan count for a rebuild
+     */
+    @FunctionalInterface
+    public interface Loader {
+        Map<Integer, Integer> load() throws SQLException;
+    }
+
+    private final IntIntHashMap counts = new IntIntHashMap(1024);
+    private volatile boolean loaded = false;
+
+    private ActiveLoanCounter() {
+        EventBus events = EventBus.getInstance();
+        events.subscribe("active-loan-counter", LoanCreated.class, event -> {
+            if (event.isHomeBranch()) {
+                add(event.getLoan().getIdMember(), 1);
+            }
+        });
+        events.subscribe("active-loan-counter", LoanReturned.class, event -> {
+            if (event.isHomeBranch()) {
+                add(event.getLoan().getIdMember(), -1);
+            }
+        });
+    }
+
+    public static ActiveLoanCounter getInstance() {
+        if (instance == null) {
+            synchronized (ActiveLoanCounter.class) {
+                if (instance == null) {
+                    instance = new ActiveLoanCounter();
+                }
+            }
+        }
+        return instance;
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Replace the mirror contents with the counts returned by the loader
+     */
+    public synchronized void rebuild(Loader loader) throws SQLException {
+        Map<Integer, Integer> loadedCounts = loader.load();
+
+        counts.clear();
+        for (Map.Entry<Integer, Integer> entry : loadedCounts.entrySet()) {
+            if (entry.getValue() > 0) {
+                counts.put(entry.getKey(), entry.getValue());
+            }
+        }
+        loaded = true;
+    }
+
+    /**
+     * Active loans of the member (0 if none)
+     */
+    public synchronized int get(int memberId) {
+        return counts.get(memberId, 0);
+    }
+
+    /**
+     * Apply a committed change to the member's count
+     */
+    public synchronized void add(int memberId, int delta) {
+        if (!loaded) {
+            return;
+        }
+
+        int value = counts.addTo(memberId, delta);
+        if (value <= 0) {
+            counts.remove(memberId);
+        }
+    }
+
+    /**
+     * Overwrite the member's count (after reconciliation)
+     */
+    public synchronized void set(int memberId, int value) {
+        if (!loaded) {
+            return;
+        }
+
+        if (value <= 0) {
+            counts.remove(memberId);
+        } else {
+            counts.put(memberId, value);
+        }
+    }
+
+    /**
+     * Number of members with at least one active loan
+     */
+    public synchronized int size() {
+        return counts.size();
+    }
+}
@@ -1,13 +1,25 @@
 package services;
 
+import config.BranchRouter;
+import config.ConfigLoader;
+import config.DatabaseConnection;
 import config.LoggerConfig;
 import dao.BookDAO;
+import dao.ResilientDAO;
 import dao.impl.BookDAOImpl;
+import events.BookCreated;
+import events.BookDeleted;
+import events.BookStatusChanged;
+import events.BookUpdated;
+import events.EventBus;
 import exceptions.*;
 import models.Book;
 
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 
 /**
@@ -16,9 +28,17 @@ import java.util.Optional;
 public class BookService {
 
     private final BookDAO bookDAO;
+    private final DatabaseConnection dbConnection;
+    private final CatalogSnapshotCache catalogCache;
+    private final EventBus eventBus;
 
     public BookService() {
-        this.bookDAO = new BookDAOImpl();
+        this.bookDAO = ResilientDAO.wrap(BookDAO.class, new BookDAOImpl());
+        this.dbConnection = DatabaseConnection.getInstance();
+        this.catalogCache = CatalogSnapshotCache.getInstance();
+        this.eventBus = EventBus.getInstance();
+        catalogCache.setMaxAgeSeconds(ConfigLoader.getInstance().getIntProperty("catalog.snapshotMaxAgeSeconds", 300));
+        catalogCache.setCompact(Boolean.parseBoolean(ConfigLoader.getInstance().getProperty("catalog.compact", "true")));
     }
 
     /**
@@ -41,6 +61,7 @@ public class BookService {
 
             Book book = new Book(isbn, title, author, category, totalCopies, referencePrice);
             Book createdBook = bookDAO.create(book);
+            eventBus.publish(new BookCreated(createdBook));
 
             LoggerConfig.logHttpResponse(201, "Book created successfully");
             LoggerConfig.logInfo("New book created: " + isbn + " - " + title);
@@ -71,12 +92,42 @@ public class BookService {
     }
 
     /**
-     * Get only active books
+     * Get one page of books (filter and sort run in SQL) - simulates HTTP GET request
+     */
+    public List<Book> getBooksPage(String filter, String sortColumn, boolean ascending, int offset, int limit)
+            throws DatabaseException {
+        try {
+            LoggerConfig.logHttpRequest("GET", "/api/books?offset=" + offset + "&limit=" + limit
+                    + "&sort=" + sortColumn, "system");
+            List<Book> books = bookDAO.findPage(filter, sortColumn, ascending, offset, limit);
+            LoggerConfig.logHttpResponse(200, "Books retrieved: " + books.size());
+            return books;
+        } catch (SQLException e) {
+            LoggerConfig.logHttpResponse(500, "Database error");
+            LoggerConfig.logError("Error retrieving books page", e);
+            throw new DatabaseException("Error retrieving books", e);
+        }
+    }
+
+    /**
+     * Count the books matching a filter
+     */
+    public int countBooks(String filter) throws DatabaseException {
+        try {
+            return bookDAO.count(filter);
+        } catch (SQLException e) {
+            LoggerConfig.logError("Error counting books", e);
+            throw new DatabaseException("Error counting books", e);
+        }
+    }
+
+    /**
+     * Get only active books (served from the catalog snapshot)
      */
     public List<Book> getActiveBooks() throws DatabaseException {
         try {
             LoggerConfig.logHttpRequest("GET", "/api/books?status=active", "system");
-            List<Book> books = bookDAO.findAllActive();
+            List<Book> books = usesCatalogSnapshot() ? catalogSnapshot().getActiveBooks() : bookDAO.findAllActive();
             LoggerConfig.logHttpResponse(200, "Active books retrieved: " + books.size());
             return books;
         } catch (SQLException e) {
@@ -87,12 +138,13 @@ public class BookService {
     }
 
     /**
-     * Find books by category - simulates HTTP GET request
+     * Find active books by category (served from the catalog snapshot) - simulates HTTP GET request
      */
     public List<Book> getBooksByCategory(String category) throws DatabaseException {
         try {
             LoggerConfig.logHttpRequest("GET", "/api/books?category=" + category, "system");
-            List<Book> books = bookDAO.findByCategory(category);
+            List<Book> books = usesCatalogSnapshot()
+                    ? catalogSnapshot().getBooksByCategory(category) : bookDAO.findByCategory(category);
             LoggerConfig.logHttpResponse(200, "Books found: " + books.size());
             return books;
         } catch (SQLException e) {
@@ -135,10 +187,50 @@ public class BookService {
         }
     }
 
+    /**
+     * Find a book in every branch (one entry per branch that holds it, with that branch's copies)
+     */
+    public List<Book> findBookAcrossBranches(String isbn) throws DatabaseException {
+        try {
+            LoggerConfig.logHttpRequest("GET", "/api/books/" + isbn + "/branches", "system");
+            List<Book> books = new ArrayList<>();
+            for (Optional<Book> book : BranchRouter.getInstance().scatter(() -> bookDAO.findByIsbn(isbn)).values()) {
+                book.ifPresent(books::add);
+            }
+            LoggerConfig.logHttpResponse(200, "Branches holding the book: " + books.size());
+            return books;
+        } catch (SQLException e) {
+            LoggerConfig.logHttpResponse(500, "Database error");
+            LoggerConfig.logError("Error finding book across branches", e);
+            throw new DatabaseException("Error finding book across branches", e);
+        }
+    }
+
+    /**
+     * Get the active books of every branch, merged by title
+     */
+    public List<Book> getActiveBooksAcrossBranches() throws DatabaseException {
+        try {
+            LoggerConfig.logHttpRequest("GET", "/api/books?status=active&scope=network", "system");
+            List<Book> books = new ArrayList<>();
+            for (List<Book> branchBooks : BranchRouter.getInstance().scatter(bookDAO::findAllActive).values()) {
+                books.addAll(branchBooks);
+            }
+            books.sort(Comparator.comparing(Book::getTitle, String.CASE_INSENSITIVE_ORDER)
+                    .thenComparing(Book::getIsbn));
+            LoggerConfig.logHttpResponse(200, "Active books retrieved: " + books.size());
+            return books;
+        } catch (SQLException e) {
+            LoggerConfig.logHttpResponse(500, "Database error");
+            LoggerConfig.logError("Error retrieving active books across branches", e);
+            throw new DatabaseException("Error retrieving active books across branches", e);
+        }
+    }
+
     /**
      * Update book - simulates HTTP PATCH request
      */
-    public boolean updateBook(Book book) throws DatabaseException {
+    public boolean updateBook(Book book) throws OptimisticLockException, DatabaseException {
         try {
             LoggerConfig.logHttpRequest("PATCH", "/api/books/" + book.getIsbn(), "system");
 
@@ -146,16 +238,31 @@ public class BookService {
             validateBookData(book.getIsbn(), book.getTitle(), book.getAuthor(),
                     book.getTotalCopies(), book.getReferencePrice());
 
+            Optional<Book> current = dbConnection.onPrimary(() -> bookDAO.findByIsbn(book.getIsbn()));
+            if (current.isEmpty()) {
+                LoggerConfig.logHttpResponse(404, "Book not found");
+                return false;
+            }
+            int onLoan = current.get().getTotalCopies() - current.get().getAvailableCopies();
+            if (book.getTotalCopies() < onLoan) {
+                throw new IllegalArgumentException("Total copies cannot be less than the " + onLoan + " copies on loan");
+            }
+
             boolean updated = bookDAO.update(book);
             LoggerConfig.logHttpResponse(updated ? 200 : 404,
                     updated ? "Book updated successfully" : "Book not found");
 
             if (updated) {
                 LoggerConfig.logInfo("Book updated: " + book.getIsbn());
+                eventBus.publish(new BookUpdated(book));
             }
 
             return updated;
 
+        } catch (OptimisticLockException e) {
+            LoggerConfig.logHttpResponse(409, e.getMessage());
+            LoggerConfig.logWarning("Update conflict: " + e.getMessage());
+            throw e;
         } catch (SQLException e) {
             LoggerConfig.logHttpResponse(500, "Database error");
             LoggerConfig.logError("Error updating book", e);
@@ -175,6 +282,7 @@ public class BookService {
 
             if (deleted) {
                 LoggerConfig.logInfo("Book deleted: " + isbn);
+                eventBus.publish(new BookDeleted(isbn));
             }
 
             return deleted;
@@ -197,6 +305,7 @@ public class BookService {
 
             if (activated) {
                 LoggerConfig.logInfo("Book activated: " + isbn);
+                eventBus.publish(new BookStatusChanged(isbn, true));
             }
 
             return activated;
@@ -219,6 +328,7 @@ public class BookService {
 
             if (deactivated) {
                 LoggerConfig.logInfo("Book deactivated: " + isbn);
+                eventBus.publish(new BookStatusChanged(isbn, false));
             }
 
             return deactivated;
@@ -230,6 +340,21 @@ public class BookService {
     }
 
 
+    /**
+     * The snapshot mirrors this client's home branch; reads of other branches go to their database
+     */
+    private boolean usesCatalogSnapshot() {
+        BranchRouter branches = BranchRouter.getInstance();
+        return Objects.equals(branches.getCurrentBranchId(), branches.getHomeBranchId());
+    }
+
+    /**
+     * Current catalog snapshot, reading from the primary whatever changed since the last one
+     */
+    private CatalogSnapshotCache.Snapshot catalogSnapshot() throws SQLException {
+        return dbConnection.onPrimary(() -> catalogCache.get(bookDAO::findAllActive, bookDAO::findByIsbn));
+    }
+
     /**
      * Validate book input data
      */
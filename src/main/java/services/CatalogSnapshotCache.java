@@ -0,0 +1,346 @@
+package services;
+
+import events.BookEvent;
+import events.BookStockChanged;
+import events.EventBus;
+import events.LoanCreated;
+import models.Book;
+import models.CompactCatalog;
+
+import java.sql.SQLException;
+import java.text.Collator;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Singleton immutable snapshot of the active catalog, sorted by title, with one slice
+ * per category.
+ *
+ * Every committed change to a book (book events, checkouts from stock and restocks on the
+ * {@link EventBus}) bumps the catalog version and marks its ISBN dirty.
+ * Readers get the current snapshot with two volatile reads and no lock as long as the
+ * version has not moved; otherwise the first reader re-reads only the dirty books and
+ * builds the next snapshot from the previous one (untouched category slices are reused).
+ * Like the other indexes the snapshot is per process: changes made by other processes
+ * are picked up when it is older than the maximum age and gets fully reloaded.
+ *
+ * In compact mode a full reload stores the catalog as a {@link CompactCatalog} and the
+ * snapshot lists its read-only row views; books re-read by an incremental rebuild stay
+ * plain Books until the next full reload.
+ */
+public class CatalogSnapshotCache {
+
+    private static CatalogSnapshotCache instance;
+
+    // Above this many dirty books one full query is cheaper than one query per book
+    private static final int MAX_INCREMENTAL_BOOKS = 64;
+
+    /**
+     * Source of all active books for a full reload
+     */
+    @FunctionalInterface
+    public interface Loader {
+        List<Book> load() throws SQLException;
+    }
+
+    /**
+     * Source of one book (active or not) for an incremental rebuild
+     */
+    @FunctionalInterface
+    public interface BookLoader {
+        Optional<Book> load(String isbn) throws SQLException;
+    }
+
+    /**
+     * Immutable view of the active catalog at one catalog version.
+     * The books are shared by all readers and must not be modified.
+     */
+    public static final class Snapshot {
+        private final long version;
+        private final long loadedAtNanos;
+        private final List<Book> books;
+        private final Map<String, Book> byIsbn;
+        private final Map<String, List<Book>> byCategory;
+
+        private Snapshot(long version, List<Book> books, Map<String, Book> byIsbn,
+                         Map<String, List<Book>> byCategory, long loadedAtNanos) {
+            this.version = version;
+            this.loadedAtNanos = loadedAtNanos;
+            this.books = books;
+            this.byIsbn = byIsbn;
+            this.byCategory = byCategory;
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        /**
+         * Active books sorted by title
+         */
+        public List<Book> getActiveBooks() {
+            return books;
+        }
+
+        /**
+         * Active books of a category sorted by title (case and accents ignored, as in the database)
+         */
+        public List<Book> getBooksByCategory(String category) {
+            if (category == null) {
+                return List.of();
+            }
+            return byCategory.getOrDefault(categoryKey(category), List.of());
+        }
+
+        public int size() {
+            return books.size();
+        }
+    }
+
+    private final AtomicLong version = new AtomicLong();
+    private final Set<String> dirtyIsbns = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean fullReload = new AtomicBoolean(true);
+    private final Comparator<Book> byTitle;
+    private volatile Snapshot current;
+    private volatile long maxAgeNanos = Long.MAX_VALUE;
+    private volatile boolean compact = false;
+
+    private CatalogSnapshotCache() {
+        // Same order as ORDER BY title under MySQL's accent- and case-insensitive collation
+        Collator collator = Collator.getInstance(new Locale("es"));
+        collator.setStrength(Collator.PRIMARY);
+        this.byTitle = Comparator.comparing((Book book) -> book.getTitle() != null ? book.getTitle() : "", collator)
+                .thenComparing(Book::getIsbn);
+
+        EventBus events = EventBus.getInstance();
+        events.subscribe("catalog-snapshot", BookEvent.class, event -> {
+            if (event.isHomeBranch()) {
+                bump(event.getIsbn());
+            }
+        });
+        events.subscribe("catalog-snapshot", LoanCreated.class, event -> {
+            if (event.isHomeBranch() && !event.isHeldCopy()) {
+                bump(event.getLoan().getIsbn());
+            }
+        });
+        events.subscribe("catalog-snapshot", BookStockChanged.class, event -> {
+            if (event.isHomeBranch()) {
+                bump(event.getRestockedIsbns());
+            }
+        });
+    }
+
+    public static CatalogSnapshotCache getInstance() {
+        if (instance == null) {
+            synchronized (CatalogSnapshotCache.class) {
+                if (instance == null) {
+                    instance = new CatalogSnapshotCache();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Reload everything once a snapshot is older than this (seconds, 0 = never)
+     */
+    public void setMaxAgeSeconds(long seconds) {
+        this.maxAgeNanos = seconds > 0 ? seconds * 1_000_000_000L : Long.MAX_VALUE;
+    }
+
+    /**
+     * Hold fully reloaded snapshots as a compact catalog; applies from the next full reload
+     */
+    public void setCompact(boolean compact) {
+        this.compact = compact;
+    }
+
+    /**
+     * Current catalog version; moves on every committed book change
+     */
+    public long getVersion() {
+        return version.get();
+    }
+
+    /**
+     * Record a committed change to a book (created, edited, activated, stock moved...)
+     */
+    public void bump(String isbn) {
+        if (isbn != null) {
+            dirtyIsbns.add(isbn);
+            version.incrementAndGet();
+        }
+    }
+
+    public void bump(Collection<String> isbns) {
+        if (!isbns.isEmpty()) {
+            dirtyIsbns.addAll(isbns);
+            version.incrementAndGet();
+        }
+    }
+
+    /**
+     * Drop the snapshot; the next read reloads the whole catalog
+     */
+    public void invalidateAll() {
+        fullReload.set(true);
+        version.incrementAndGet();
+    }
+
+    /**
+     * Snapshot for the current catalog version, rebuilt first if a book changed since the last one
+     */
+    public Snapshot get(Loader loader, BookLoader bookLoader) throws SQLException {
+        Snapshot snapshot = current;
+        if (snapshot != null && snapshot.version == version.get()
+                && System.nanoTime() - snapshot.loadedAtNanos < maxAgeNanos) {
+            return snapshot;
+        }
+        return refresh(loader, bookLoader);
+    }
+
+    private synchronized Snapshot refresh(Loader loader, BookLoader bookLoader) throws SQLException {
+        Snapshot previous = current;
+        long target = version.get();
+        long now = System.nanoTime();
+        if (previous != null && previous.version == target && now - previous.loadedAtNanos < maxAgeNanos) {
+            return previous; // rebuilt by the reader we waited for
+        }
+
+        // Read the version before draining: a change racing with the load leaves the version
+        // ahead of the snapshot and its ISBN in the dirty set, so the next reader picks it up
+        Set<String> dirty = new HashSet<>(dirtyIsbns);
+        dirtyIsbns.removeAll(dirty);
+        boolean full = fullReload.getAndSet(false) || previous == null
+                || now - previous.loadedAtNanos >= maxAgeNanos || dirty.size() > MAX_INCREMENTAL_BOOKS;
+
+        Snapshot next;
+        try {
+            next = full ? build(target, loader.load(), now) : rebuild(previous, target, dirty, bookLoader);
+        } catch (SQLException | RuntimeException e) {
+            dirtyIsbns.addAll(dirty);
+            if (full) {
+                fullReload.set(true);
+            }
+            throw e;
+        }
+
+        current = next;
+        return next;
+    }
+
+    private Snapshot build(long target, List<Book> activeBooks, long now) {
+        List<Book> books = new ArrayList<>(activeBooks.size());
+        Map<String, Book> byIsbn = new HashMap<>(activeBooks.size() * 2);
+        for (Book book : activeBooks) {
+            if (book.isActive() && byIsbn.putIfAbsent(book.getIsbn(), book) == null) {
+                books.add(book);
+            }
+        }
+        books.sort(byTitle);
+
+        if (compact) {
+            CompactCatalog catalog = CompactCatalog.of(books);
+            for (int row = 0; row < books.size(); row++) {
+                Book view = catalog.view(row);
+                books.set(row, view);
+                byIsbn.put(view.getIsbn(), view);
+            }
+        }
+
+        Map<String, List<Book>> slices = new HashMap<>();
+        for (Book book : books) {
+            if (book.getCategory() != null) {
+                slices.computeIfAbsent(categoryKey(book.getCategory()), key -> new ArrayList<>()).add(book);
+            }
+        }
+        Map<String, List<Book>> byCategory = new HashMap<>(slices.size() * 2);
+        slices.forEach((key, slice) -> byCategory.put(key, Collections.unmodifiableList(slice)));
+
+        return new Snapshot(target, Collections.unmodifiableList(books), Collections.unmodifiableMap(byIsbn),
+                Collections.unmodifiableMap(byCategory), now);
+    }
+
+    /**
+     * Next snapshot from the previous one plus the current state of the dirty books
+     */
+    private Snapshot rebuild(Snapshot previous, long target, Set<String> dirty, BookLoader bookLoader)
+            throws SQLException {
+        Map<String, Book> byIsbn = new HashMap<>(previous.byIsbn);
+        List<Book> changed = new ArrayList<>();
+        Set<String> touchedCategories = new HashSet<>();
+
+        for (String isbn : dirty) {
+            Book old = byIsbn.remove(isbn);
+            if (old != null && old.getCategory() != null) {
+                touchedCategories.add(categoryKey(old.getCategory()));
+            }
+            Optional<Book> book = bookLoader.load(isbn);
+            if (book.isPresent() && book.get().isActive()) {
+                Book fresh = book.get();
+                byIsbn.put(isbn, fresh);
+                changed.add(fresh);
+                if (fresh.getCategory() != null) {
+                    touchedCategories.add(categoryKey(fresh.getCategory()));
+                }
+            }
+        }
+
+        // Drop the dirty books from the sorted list and insert their new versions in place
+        List<Book> books = new ArrayList<>(byIsbn.size());
+        for (Book book : previous.books) {
+            if (!dirty.contains(book.getIsbn())) {
+                books.add(book);
+            }
+        }
+        changed.sort(byTitle);
+        for (Book book : changed) {
+            int index = Collections.binarySearch(books, book, byTitle);
+            books.add(index < 0 ? -index - 1 : index, book);
+        }
+
+        // Only the slices of categories a dirty book left or joined are rebuilt
+        Map<String, List<Book>> byCategory = new HashMap<>(previous.byCategory);
+        Map<String, List<Book>> slices = new HashMap<>();
+        for (String key : touchedCategories) {
+            byCategory.remove(key);
+            slices.put(key, new ArrayList<>());
+        }
+        if (!slices.isEmpty()) {
+            for (Book book : books) {
+                if (book.getCategory() != null) {
+                    List<Book> slice = slices.get(categoryKey(book.getCategory()));
+                    if (slice != null) {
+                        slice.add(book);
+                    }
+                }
+            }
+            slices.forEach((key, slice) -> {
+                if (!slice.isEmpty()) {
+                    byCategory.put(key, Collections.unmodifiableList(slice));
+                }
+            });
+        }
+
+        return new Snapshot(target, Collections.unmodifiableList(books), Collections.unmodifiableMap(byIsbn),
+                Collections.unmodifiableMap(byCategory), previous.loadedAtNanos);
+    }
+
+    private static String categoryKey(String category) {
+        String stripped = Normalizer.normalize(category.trim(), Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+        return stripped.toLowerCase(Locale.ROOT);
+    }
+}
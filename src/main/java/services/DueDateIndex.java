@@ -0,0 +1,333 @@
+package services;
+
+import events.EventBus;
+import events.LoanCreated;
+import events.LoanReturned;
+import models.Loan;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Singleton in-memory index of active loans ordered by due date.
+ *
+ * Keys are packed into a sorted primitive array as (epochDay &lt;&lt; 32 | loanId), so
+ * "overdue now", "due in N days" and per-day counts are binary searches over a
+ * contiguous range instead of a DB round trip. It follows the LoanCreated and
+ * LoanReturned events published after each committed checkout/return. The index is per
+ * process: loans made or returned by other clients are picked up when it is older than the
+ * maximum age and gets reloaded. A reload queries the database without holding the lock;
+ * events that arrive meanwhile are replayed on the new contents (add and remove are idempotent).
+ */
+public class DueDateIndex {
+
+    private static DueDateIndex instance;
+
+    /**
+     * Source of active loans for a rebuild
+     */
+    @FunctionalInterface
+    public interface Loader {
+        List<Loan> load() throws SQLException;
+    }
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // One reload at a time
+    private final Object reloadLock = new Object();
+    private Map<Integer, Loan> loansById = new HashMap<>();
+    private long[] keys = new long[64];
+    private int size = 0;
+    private volatile boolean loaded = false;
+    private volatile long loadedAtNanos;
+    private volatile long maxAgeNanos = Long.MAX_VALUE;
+
+    // Events received while a reload is querying the database (null when none is running)
+    private List<Loan> addedDuringReload;
+    private Map<Integer, LocalDate> removedDuringReload;
+
+    private DueDateIndex() {
+        EventBus events = EventBus.getInstance();
+        events.subscribe("due-date-index", LoanCreated.class, event -> {
+            if (event.isHomeBranch()) {
+                add(event.getLoan());
+            }
+        });
+        events.subscribe("due-date-index", LoanReturned.class, event -> {
+            if (event.isHomeBranch()) {
+                remove(event.getLoan().getIdLoan(), event.getLoan().getDueDate());
+            }
+        });
+    }
+
+    public static DueDateIndex getInstance() {
+        if (instance == null) {
+            synchronized (DueDateIndex.class) {
+                if (instance == null) {
+                    instance = new DueDateIndex();
+                }
+            }
+        }
+        return instance;
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Reload the whole index once it is older than this (seconds, 0 = never)
+     */
+    public void setMaxAgeSeconds(long seconds) {
+        this.maxAgeNanos = seconds > 0 ? seconds * 1_000_000_000L : Long.MAX_VALUE;
+    }
+
+    /**
+     * True when the index has not been loaded yet or is older than the maximum age
+     */
+    public boolean isStale() {
+        return !loaded || System.nanoTime() - loadedAtNanos >= maxAgeNanos;
+    }
+
+    /**
+     * Reload the index if it is stale; concurrent callers wait for a single reload
+     */
+    public void reloadIfStale(Loader loader) throws SQLException {
+        synchronized (reloadLock) {
+            if (isStale()) {
+                rebuild(loader);
+            }
+        }
+    }
+
+    /**
+     * Replace the index contents with the loans returned by the loader
+     */
+    public void rebuild(Loader loader) throws SQLException {
+        synchronized (reloadLock) {
+            long startedAt = System.nanoTime();
+            lock.writeLock().lock();
+            try {
+                addedDuringReload = new ArrayList<>();
+                removedDuringReload = new LinkedHashMap<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            List<Loan> activeLoans;
+            try {
+                activeLoans = loader.load();
+            } catch (SQLException | RuntimeException e) {
+                lock.writeLock().lock();
+                try {
+                    addedDuringReload = null;
+                    removedDuringReload = null;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                throw e;
+            }
+
+            Map<Integer, Loan> newLoansById = new HashMap<>();
+            long[] newKeys = new long[Math.max(64, activeLoans.size() * 2)];
+            int count = 0;
+            for (Loan loan : activeLoans) {
+                if (loan.isActive() && newLoansById.putIfAbsent(loan.getIdLoan(), loan) == null) {
+                    newKeys[count++] = key(loan.getDueDate(), loan.getIdLoan());
+                }
+            }
+            Arrays.sort(newKeys, 0, count);
+
+            lock.writeLock().lock();
+            try {
+                loansById = newLoansById;
+                keys = newKeys;
+                size = count;
+                loaded = true;
+                loadedAtNanos = startedAt;
+
+                // A checkout or return committed during the query may be missing from its result
+                for (Loan loan : addedDuringReload) {
+                    insert(loan);
+                }
+                for (Map.Entry<Integer, LocalDate> removed : removedDuringReload.entrySet()) {
+                    delete(removed.getKey(), removed.getValue());
+                }
+                addedDuringReload = null;
+                removedDuringReload = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Add an active loan (no-op if already indexed)
+     */
+    public void add(Loan loan) {
+        lock.writeLock().lock();
+        try {
+            if (addedDuringReload != null) {
+                addedDuringReload.add(loan);
+            }
+            if (loaded) {
+                insert(loan);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove a loan that is no longer active (no-op if not indexed)
+     */
+    public void remove(Integer loanId, LocalDate dueDate) {
+        lock.writeLock().lock();
+        try {
+            if (removedDuringReload != null) {
+                removedDuringReload.put(loanId, dueDate);
+            }
+            delete(loanId, dueDate);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Callers hold the write lock
+    private void insert(Loan loan) {
+        if (loansById.putIfAbsent(loan.getIdLoan(), loan) != null) {
+            return;
+        }
+
+        long key = key(loan.getDueDate(), loan.getIdLoan());
+        int position = Arrays.binarySearch(keys, 0, size, key);
+        position = position >= 0 ? position : -position - 1;
+
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, keys.length * 2);
+        }
+        System.arraycopy(keys, position, keys, position + 1, size - position);
+        keys[position] = key;
+        size++;
+    }
+
+    // Callers hold the write lock
+    private void delete(Integer loanId, LocalDate dueDate) {
+        if (loansById.remove(loanId) == null) {
+            return;
+        }
+
+        int position = Arrays.binarySearch(keys, 0, size, key(dueDate, loanId));
+        if (position >= 0) {
+            System.arraycopy(keys, position + 1, keys, position, size - position - 1);
+            size--;
+        }
+    }
+
+    /**
+     * All active loans ordered by due date
+     */
+    public List<Loan> getActiveLoans() {
+        lock.readLock().lock();
+        try {
+            return collect(0, size);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Active loans whose due date is before today, ordered by due date
+     */
+    public List<Loan> getOverdueLoans(LocalDate today) {
+        lock.readLock().lock();
+        try {
+            return collect(0, lowerBound(today.toEpochDay()));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Active loans due between today and today + days (inclusive), ordered by due date
+     */
+    public List<Loan> getLoansDueWithin(LocalDate today, int days) {
+        lock.readLock().lock();
+        try {
+            long first = today.toEpochDay();
+            return collect(lowerBound(first), lowerBound(first + days + 1));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Number of active loans due on each day starting at from (index 0 = from)
+     */
+    public int[] countDuePerDay(LocalDate from, int days) {
+        if (days < 0) {
+            throw new IllegalArgumentException("Days cannot be negative: " + days);
+        }
+        int[] counts = new int[days];
+
+        lock.readLock().lock();
+        try {
+            long first = from.toEpochDay();
+            int end = lowerBound(first + days);
+            for (int i = lowerBound(first); i < end; i++) {
+                counts[(int) ((keys[i] >> 32) - first)]++;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return counts;
+    }
+
+    /**
+     * Number of overdue active loans
+     */
+    public int countOverdue(LocalDate today) {
+        lock.readLock().lock();
+        try {
+            return lowerBound(today.toEpochDay());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * First position whose epoch day is >= the given day
+     */
+    private int lowerBound(long epochDay) {
+        int position = Arrays.binarySearch(keys, 0, size, epochDay << 32);
+        return position >= 0 ? position : -position - 1;
+    }
+
+    private List<Loan> collect(int from, int to) {
+        List<Loan> result = new ArrayList<>(Math.max(0, to - from));
+        for (int i = from; i < to; i++) {
+            result.add(loansById.get((int) keys[i]));
+        }
+        return result;
+    }
+
+    private static long key(LocalDate dueDate, int loanId) {
+        return (dueDate.toEpochDay() << 32) | (loanId & 0xFFFFFFFFL);
+    }
+}
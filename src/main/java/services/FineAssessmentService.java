@@ -0,0 +1,101 @@
+package services;
+
+import config.ConfigLoader;
+import config.LoggerConfig;
+import dao.LoanDAO;
+import dao.ResilientDAO;
+import dao.impl.LoanDAOImpl;
+import exceptions.DatabaseException;
+
+import java.sql.SQLException;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * Service for bulk (set-based) fine assessment of overdue loans.
+ *
+ * The accrued fine of every overdue active loan is recomputed in one UPDATE on the
+ * server, using a single "today" taken from the injected clock, and stored in
+ * loans.fine_amount; rows whose fine did not change are not written. When the loan is
+ * returned, LoanService records the final fine. Outstanding totals only count the fines
+ * accruing on loans that are still active (overdue).
+ */
+public class FineAssessmentService {
+
+    private final LoanDAO loanDAO;
+    private final ConfigLoader config;
+    private final Clock clock;
+
+    public FineAssessmentService() {
+        this(Clock.systemDefaultZone());
+    }
+
+    public FineAssessmentService(Clock clock) {
+        this.loanDAO = ResilientDAO.wrap(LoanDAO.class, new LoanDAOImpl());
+        this.config = ConfigLoader.getInstance();
+        this.clock = clock;
+    }
+
+    /**
+     * Assess accrued fines for all overdue active loans - simulates HTTP POST request
+     * @return Number of loans whose fine changed
+     */
+    public int assessOverdueFines() throws DatabaseException {
+        try {
+            LoggerConfig.logHttpRequest("POST", "/api/fines/assessments", "system");
+
+            LocalDate today = LocalDate.now(clock);
+            double finePerDay = config.getFinePerDay();
+            int updated = loanDAO.assessOverdueFines(today, finePerDay);
+
+            // Indexed active loans carry the fine amount, so refresh them
+            DueDateIndex dueDateIndex = DueDateIndex.getInstance();
+            if (updated > 0 && dueDateIndex.isLoaded()) {
+                dueDateIndex.rebuild(loanDAO::findAllActive);
+            }
+
+            LoggerConfig.logHttpResponse(200, "Fines assessed: " + updated + " loans");
+            LoggerConfig.logInfo("Fine assessment as of " + today + ": " + updated + " overdue loans updated");
+
+            return updated;
+
+        } catch (SQLException e) {
+            LoggerConfig.logHttpResponse(500, "Database error");
+            LoggerConfig.logError("Error assessing fines", e);
+            throw new DatabaseException("Error assessing fines", e);
+        }
+    }
+
+    /**
+     * Get the fines accrued on overdue active loans, per member with fines
+     */
+    public Map<Integer, Double> getOutstandingFinesByMember() throws DatabaseException {
+        try {
+            LoggerConfig.logHttpRequest("GET", "/api/fines?groupBy=member", "system");
+            Map<Integer, Double> totals = loanDAO.sumFinesByMember();
+            LoggerConfig.logHttpResponse(200, "Members with fines: " + totals.size());
+            return totals;
+        } catch (SQLException e) {
+            LoggerConfig.logHttpResponse(500, "Database error");
+            LoggerConfig.logError("Error retrieving outstanding fines", e);
+            throw new DatabaseException("Error retrieving outstanding fines", e);
+        }
+    }
+
+    /**
+     * Get the total fine accrued on the overdue active loans of one member
+     */
+    public double getOutstandingFines(Integer memberId) throws DatabaseException {
+        try {
+            LoggerConfig.logHttpRequest("GET", "/api/fines?memberId=" + memberId, "system");
+            double total = loanDAO.sumFinesForMember(memberId);
+            LoggerConfig.logHttpResponse(200, "Outstanding fines: " + total);
+            return total;
+        } catch (SQLException e) {
+            LoggerConfig.logHttpResponse(500, "Database error");
+            LoggerConfig.logError("Error retrieving outstanding fines", e);
+            throw new DatabaseException("Error retrieving outstanding fines", e);
+        }
+    }
+}
@@ -0,0 +1,421 @@
+package services;
+
+import config.ConfigLoader;
+import config.ConfigSnapshot;
+import config.DatabaseConnection;
+import config.LoggerConfig;
+import dao.BookDAO;
+import dao.HoldDAO;
+import dao.MemberDAO;
+import dao.ResilientDAO;
+import dao.impl.BookDAOImpl;
+import dao.impl.HoldDAOImpl;
+import dao.impl.MemberDAOImpl;
+import events.BookStockChanged;
+import events.EventBus;
+import exceptions.*;
+import models.Book;
+import models.Hold;
+import models.Member;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Service layer for Hold (reservation) business logic.
+ *
+ * Members queue for books without available copies. A returned copy is handed to the
+ * next WAITING hold inside the return transaction (it becomes READY for
+ * {@code hold.pickupDays}) instead of going back to stock. READY holds that are not
+ * picked up are expired by a sweep that works in bounded batches, passing each copy
+ * on to the next hold or back to stock.
+ */
+public class HoldService {
+
+    /**
+     * Where the copies released in a transaction went: READY holds or back to stock
+     */
+    public static class CopyAssignment {
+        private final List<Hold> readyHolds;
+        private final List<String> restockIsbns;
+
+        CopyAssignment(List<Hold> readyHolds, List<String> restockIsbns) {
+            this.readyHolds = readyHolds;
+            this.restockIsbns = restockIsbns;
+        }
+
+        public List<Hold> getReadyHolds() {
+            return Collections.unmodifiableList(readyHolds);
+        }
+
+        /**
+         * One entry per copy that no hold claimed
+         */
+        public List<String> getRestockIsbns() {
+            return Collections.unmodifiableList(restockIsbns);
+        }
+    }
+
+    // MySQL ER_DUP_ENTRY
+    private static final int DUPLICATE_KEY = 1062;
+
+    private final HoldDAO holdDAO;
+    private final BookDAO bookDAO;
+    private final MemberDAO memberDAO;
+    private final DatabaseConnection dbConnection;
+    private final ConfigLoader config;
+    private final Clock clock;
+
+    public HoldService() {
+        this(Clock.systemDefaultZone());
+    }
+
+    public HoldService(Clock clock) {
+        this.holdDAO = ResilientDAO.wrap(HoldDAO.class, new HoldDAOImpl());
+        this.bookDAO = ResilientDAO.wrap(BookDAO.class, new BookDAOImpl());
+        this.memberDAO = ResilientDAO.wrap(MemberDAO.class, new MemberDAOImpl());
+        this.dbConnection = DatabaseConnection.getInstance();
+        this.config = ConfigLoader.getInstance();
+        this.clock = clock;
+    }
+
+    /**
+     * Place a hold on a book with no available copies - simulates HTTP POST request
+     */
+    public Hold placeHold(String isbn, Integer memberId)
+            throws EntityNotFoundException, InactiveMemberException, InvalidLoanException, DatabaseException {
+        try {
+            LoggerConfig.logHttpRequest("POST", "/api/holds", "system");
+
+            Optional<Book> bookOpt = bookDAO.findByIsbn(isbn);
+            if (bookOpt.isEmpty()) {
+                throw new EntityNotFoundException("Book not found with ISBN: " + isbn);
+            }
+
+            Book book = bookOpt.get();
+
+            if (!book.isActive()) {
+                throw new InvalidLoanException("Book is inactive: " + book.getTitle());
+            }
+
+            if (book.hasAvailableCopies()) {
+                throw new InvalidLoanException("Book has available copies, no hold needed: " + book.getTitle());
+            }
+
+            Optional<Member> memberOpt = memberDAO.findById(memberId);
+            if (memberOpt.isEmpty()) {
+                throw new EntityNotFoundException("Member not found with ID: " + memberId);
+            }
+
+            if (!memberOpt.get().isActive()) {
+                throw new InactiveMemberException("Member is inactive: " + memberOpt.get().getName());
+            }
+
+            if (holdDAO.existsOpenHold(isbn, memberId)) {
+                throw new InvalidLoanException("Member already has a hold on: " + book.getTitle());
+            }
+
+            Hold hold;
+            try {
+                hold = holdDAO.create(new Hold(isbn, memberId));
+            } catch (SQLException e) {
+                // uq_holds_open: a concurrent request queued the same member first
+                if (e.getErrorCode() == DUPLICATE_KEY) {
+                    throw new InvalidLoanException("Member already has a hold on: " + book.getTitle());
+                }
+                throw e;
+            }
+
+            LoggerConfig.logHttpResponse(201, "Hold created successfully");
+            LoggerConfig.logInfo("New hold: Hold ID " + hold.getIdHold() + " - Book: " + isbn);
+
+            return hold;
+
+        } catch (EntityNotFoundException | InactiveMemberException | InvalidLoanException e) {
+            LoggerConfig.logHttpResponse(400, e.getMessage());
+            throw e;
+        } catch (SQLException e) {
+            LoggerConfig.logHttpResponse(500, "Database error");
+            LoggerConfig.logError("Error creating hold", e);
+            throw new DatabaseException("Error creating hold", e);
+        }
+    }
+
+    /**
+     * Cancel an open hold with TRANSACTION; a READY hold passes its copy on - simulates HTTP DELETE request
+     */
+    public void cancelHold(Integer holdId) throws EntityNotFoundException, InvalidLoanException, DatabaseException {
+        Connection conn = null;
+
+        try {
+            LoggerConfig.logHttpRequest("DELETE", "/api/holds/" + holdId, "system");
+
+            Optional<Hold> holdOpt = holdDAO.findById(holdId);
+            if (holdOpt.isEmpty()) {
+                throw new EntityNotFoundException("Hold not found with ID: " + holdId);
+            }
+
+            Hold hold = holdOpt.get();
+
+            conn = dbConnection.getNewConnection();
+            conn.setAutoCommit(false); // Start transaction
+
+            if (!holdDAO.cancel(holdId, conn)) {
+                throw new InvalidLoanException("Hold is no longer open");
+            }
+
+            CopyAssignment assignment = null;
+            if (hold.isReady()) {
+                assignment = assignReleasedCopies(List.of(hold.getIsbn()), conn);
+                bookDAO.incrementAvailableCopies(assignment.getRestockIsbns(), conn);
+            }
+
+            conn.commit();
+            if (assignment != null) {
+                confirmAssignment(assignment);
+            }
+
+            LoggerConfig.logHttpResponse(200, "Hold cancelled");
+            LoggerConfig.logInfo("Hold cancelled: Hold ID " + holdId);
+
+        } catch (EntityNotFoundException | InvalidLoanException e) {
+            rollback(conn, e.getMessage());
+            LoggerConfig.logHttpResponse(400, e.getMessage());
+            throw e;
+        } catch (SQLException e) {
+            rollback(conn, "database error");
+            LoggerConfig.logHttpResponse(500, "Database error");
+            LoggerConfig.logError("Error cancelling hold", e);
+            throw new DatabaseException("Error cancelling hold", e);
+        } finally {
+            close(conn);
+        }
+    }
+
+    /**
+     * Get the open holds of a book in queue order
+     */
+    public List<Hold> getQueue(String isbn) throws DatabaseException {
+        try {
+            LoggerConfig.logHttpRequest("GET", "/api/holds?isbn=" + isbn, "system");
+            List<Hold> holds = holdDAO.findOpenByBook(isbn);
+            LoggerConfig.logHttpResponse(200, "Holds found: " + holds.size());
+            return holds;
+        } catch (SQLException e) {
+            LoggerConfig.logHttpResponse(500, "Database error");
+            LoggerConfig.logError("Error retrieving holds", e);
+            throw new DatabaseException("Error retrieving holds", e);
+        }
+    }
+
+    /**
+     * Get all holds of a member
+     */
+    public List<Hold> getHoldsByMember(Integer memberId) throws DatabaseException {
+        try {
+            LoggerConfig.logHttpRequest("GET", "/api/holds?memberId=" + memberId, "system");
+            List<Hold> holds = holdDAO.findByMember(memberId);
+            LoggerConfig.logHttpResponse(200, "Holds found: " + holds.size());
+            return holds;
+        } catch (SQLException e) {
+            LoggerConfig.logHttpResponse(500, "Database error");
+            LoggerConfig.logError("Error retrieving holds", e);
+            throw new DatabaseException("Error retrieving holds", e);
+        }
+    }
+
+    /**
+     * Expire READY holds whose pickup window has ended, in batches of {@code hold.sweepBatchSize}
+     * (at most {@code hold.sweepMaxBatches} per run, one transaction per batch)
+     * @return Number of holds expired
+     */
+    public int expireReadyHolds() throws DatabaseException {
+        ConfigSnapshot settings = config.getSnapshot();
+        int batchSize = settings.getHoldSweepBatchSize();
+        int maxBatches = settings.getHoldSweepMaxBatches();
+        LocalDateTime now = LocalDateTime.now(clock);
+        int expired = 0;
+
+        for (int batch = 0; batch < maxBatches; batch++) {
+            int found = expireBatch(now, batchSize);
+            expired += Math.max(0, found);
+            if (found < batchSize) {
+                break;
+            }
+        }
+
+        if (expired > 0) {
+            LoggerConfig.logInfo("Hold expiry sweep: " + expired + " holds expired");
+        }
+        return expired;
+    }
+
+    /**
+     * Ready hold of the member for the book, if any (checked inside the checkout transaction)
+     */
+    Optional<Hold> findReadyHold(Integer memberId, String isbn, Connection conn) throws SQLException {
+        for (Hold hold : holdDAO.findReadyByMember(memberId, conn)) {
+            if (hold.getIsbn().equals(isbn)) {
+                return Optional.of(hold);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * READY holds of the member per ISBN (checked inside the checkout transaction)
+     */
+    Map<String, Hold> findReadyHolds(Integer memberId, Connection conn) throws SQLException {
+        Map<String, Hold> holds = new LinkedHashMap<>();
+        for (Hold hold : holdDAO.findReadyByMember(memberId, conn)) {
+            holds.putIfAbsent(hold.getIsbn(), hold);
+        }
+        return holds;
+    }
+
+    /**
+     * Mark a READY hold as picked up; false if it expired or was cancelled meanwhile
+     */
+    boolean fulfill(Hold hold, Connection conn) throws SQLException {
+        return holdDAO.markFulfilled(hold.getIdHold(), conn);
+    }
+
+    /**
+     * Hand released copies (one ISBN entry per copy) to the next WAITING holds within the
+     * caller's transaction. The holds are read from the table and locked, so holds placed
+     * by other clients are served in order too; copies without a waiting hold are listed
+     * for restocking. Call {@link #confirmAssignment} after the commit.
+     */
+    CopyAssignment assignReleasedCopies(List<String> isbns, Connection conn) throws SQLException {
+        Map<String, Integer> copies = new LinkedHashMap<>();
+        for (String isbn : isbns) {
+            copies.merge(isbn, 1, Integer::sum);
+        }
+
+        List<Hold> ready = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now(clock);
+        LocalDateTime expiresAt = now.plusDays(config.getSnapshot().getHoldPickupDays());
+
+        for (Map.Entry<String, Integer> entry : copies.entrySet()) {
+            int left = entry.getValue();
+            // A hold that is no longer WAITING is not selected again, so this ends
+            while (left > 0) {
+                List<Hold> candidates = holdDAO.findWaitingForUpdate(entry.getKey(), left, conn);
+                if (candidates.isEmpty()) {
+                    break;
+                }
+
+                List<Integer> ids = new ArrayList<>(candidates.size());
+                candidates.forEach(hold -> ids.add(hold.getIdHold()));
+                int[] updated = holdDAO.markReady(ids, now, expiresAt, conn);
+
+                for (int i = 0; i < candidates.size(); i++) {
+                    Hold hold = candidates.get(i);
+                    if (updated[i] != 0) {
+                        ready.add(new Hold(hold.getIdHold(), hold.getIsbn(), hold.getIdMember(),
+                                Hold.HoldStatus.READY, hold.getCreatedAt(), now, expiresAt));
+                        left--;
+                    }
+                }
+            }
+            entry.setValue(left);
+        }
+
+        List<String> restock = new ArrayList<>();
+        for (Map.Entry<String, Integer> entry : copies.entrySet()) {
+            for (int i = 0; i < entry.getValue(); i++) {
+                restock.add(entry.getKey());
+            }
+        }
+
+        return new CopyAssignment(ready, restock);
+    }
+
+    /**
+     * Publish the restocks of a committed assignment and notify the members
+     */
+    void confirmAssignment(CopyAssignment assignment) {
+        if (!assignment.restockIsbns.isEmpty()) {
+            EventBus.getInstance().publish(new BookStockChanged(assignment.restockIsbns));
+        }
+        for (Hold hold : assignment.readyHolds) {
+            LoggerConfig.logInfo("Hold ready for pickup: Hold ID " + hold.getIdHold() + " - Member "
+                    + hold.getIdMember() + " - Book: " + hold.getIsbn() + " - Until " + hold.getExpiresAt());
+        }
+    }
+
+    /**
+     * Expire one batch in its own transaction
+     * @return Number of expired READY holds found (batch is full when equal to the limit)
+     */
+    private int expireBatch(LocalDateTime now, int batchSize) throws DatabaseException {
+        Connection conn = null;
+
+        try {
+            conn = dbConnection.getNewConnection();
+            conn.setAutoCommit(false); // Start transaction
+
+            List<Hold> expired = holdDAO.findExpiredReady(now, batchSize, conn);
+            if (expired.isEmpty()) {
+                conn.commit();
+                return 0;
+            }
+
+            List<Integer> ids = new ArrayList<>(expired.size());
+            expired.forEach(hold -> ids.add(hold.getIdHold()));
+            int[] updated = holdDAO.markExpired(ids, conn);
+
+            // Each expired hold releases its reserved copy
+            List<String> released = new ArrayList<>();
+            for (int i = 0; i < expired.size(); i++) {
+                if (updated[i] != 0) {
+                    released.add(expired.get(i).getIsbn());
+                }
+            }
+
+            CopyAssignment assignment = assignReleasedCopies(released, conn);
+            bookDAO.incrementAvailableCopies(assignment.getRestockIsbns(), conn);
+
+            conn.commit();
+            confirmAssignment(assignment);
+
+            return expired.size();
+
+        } catch (SQLException e) {
+            rollback(conn, "database error");
+            LoggerConfig.logError("Error expiring holds", e);
+            throw new DatabaseException("Error expiring holds", e);
+        } finally {
+            close(conn);
+        }
+    }
+
+    private void rollback(Connection conn, String reason) {
+        if (conn != null) {
+            try {
+                conn.rollback();
+                LoggerConfig.logWarning("Transaction rolled back: " + reason);
+            } catch (SQLException rollbackEx) {
+                LoggerConfig.logError("Error during rollback", rollbackEx);
+            }
+        }
+    }
+
+    private void close(Connection conn) {
+        if (conn != null) {
+            try {
+                conn.close();
+            } catch (SQLException e) {
+                LoggerConfig.logError("Error closing connection", e);
+            }
+        }
+    }
+}
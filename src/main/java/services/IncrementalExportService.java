@@ -0,0 +1,288 @@
+package services;
+
+import config.ConfigLoader;
+import config.DatabaseConnection;
+import config.LoggerConfig;
+import dao.BookDAO;
+import dao.LoanDAO;
+import dao.ResilientDAO;
+import dao.impl.BookDAOImpl;
+import dao.impl.LoanDAOImpl;
+import exceptions.DatabaseException;
+import models.Book;
+import models.Loan;
+import utils.CSVExporter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Service for incremental (delta) CSV exports driven by persisted watermarks.
+ *
+ * Each export type keeps a chain in {@code <export.dir>/<type>/}: one FULL snapshot
+ * followed by DELTA files with the rows whose updated_at moved past the previous
+ * watermark. updated_at only has second precision and rows may commit after the second
+ * they were stamped with, so a run never reads past the database clock minus
+ * {@code export.safetyLagSeconds}: that bound becomes the next watermark, and rows
+ * stamped after it wait for the next run (a full snapshot may already contain them).
+ * The chain is listed in manifest.csv; after {@code export.compactEvery} deltas the
+ * next run compacts it into a fresh FULL snapshot and prunes the old files. Deleted
+ * rows are not tracked, so consumers only see them disappear at compaction.
+ */
+public class IncrementalExportService {
+
+    private static final DateTimeFormatter TIMESTAMP_FORMATTER = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+    private static final DateTimeFormatter FILE_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss");
+    private static final String MANIFEST_HEADER = "sequence,kind,file,from_watermark,to_watermark,records,created_at";
+    private static final String WATERMARKS_FILE = "watermarks.properties";
+
+    /**
+     * Tables that support incremental export
+     */
+    public enum ExportType {
+        CATALOG("catalog"),
+        LOANS("loans");
+
+        private final String key;
+
+        ExportType(String key) {
+            this.key = key;
+        }
+
+        public String getKey() {
+            return key;
+        }
+    }
+
+    /**
+     * Kind of file in an export chain
+     */
+    public enum ExportKind {
+        FULL, DELTA
+    }
+
+    /**
+     * Outcome of one incremental export run
+     */
+    public static class ExportResult {
+        private final ExportType type;
+        private final ExportKind kind;
+        private final String filename;
+        private final int records;
+        private final LocalDateTime watermark;
+
+        public ExportResult(ExportType type, ExportKind kind, String filename, int records, LocalDateTime watermark) {
+            this.type = type;
+            this.kind = kind;
+            this.filename = filename;
+            this.records = records;
+            this.watermark = watermark;
+        }
+
+        public ExportType getType() {
+            return type;
+        }
+
+        public ExportKind getKind() {
+            return kind;
+        }
+
+        public String getFilename() {
+            return filename;
+        }
+
+        public int getRecords() {
+            return records;
+        }
+
+        public LocalDateTime getWatermark() {
+            return watermark;
+        }
+    }
+
+    private final BookDAO bookDAO;
+    private final LoanDAO loanDAO;
+    private final Path exportDir;
+    private final int compactEvery;
+    private final int safetyLagSeconds;
+
+    public IncrementalExportService() {
+        ConfigLoader config = ConfigLoader.getInstance();
+        this.bookDAO = ResilientDAO.wrap(BookDAO.class, new BookDAOImpl());
+        this.loanDAO = ResilientDAO.wrap(LoanDAO.class, new LoanDAOImpl());
+        this.exportDir = Path.of(config.getProperty("export.dir", "exports"));
+        this.compactEvery = Math.max(1, config.getIntProperty("export.compactEvery", 7));
+        this.safetyLagSeconds = Math.max(0, config.getIntProperty("export.safetyLagSeconds", 5));
+    }
+
+    /**
+     * Export the rows changed since the last run, or a full snapshot when the chain
+     * does not exist yet or is due for compaction
+     */
+    public synchronized ExportResult export(ExportType type) throws DatabaseException {
+        try {
+            LoggerConfig.logHttpRequest("POST", "/api/exports/" + type.getKey() + "/incremental", "system");
+
+            Path typeDir = exportDir.resolve(type.getKey());
+            Files.createDirectories(typeDir);
+
+            Properties watermarks = loadWatermarks();
+            String stored = watermarks.getProperty(type.getKey());
+            LocalDateTime previous = stored != null ? LocalDateTime.parse(stored, TIMESTAMP_FORMATTER) : null;
+            List<String> manifest = readManifest(typeDir);
+
+            ExportKind kind = previous == null || manifest.isEmpty() || manifest.size() > compactEvery
+                    ? ExportKind.FULL : ExportKind.DELTA;
+
+            String filename = type.getKey() + "_" + kind.name().toLowerCase() + "_"
+                    + LocalDateTime.now().format(FILE_FORMATTER) + ".csv";
+            Path file = typeDir.resolve(filename);
+
+            // Read on the primary, so every row stamped before the cutoff is visible
+            DatabaseConnection db = DatabaseConnection.getInstance();
+            LocalDateTime cutoff = db.onPrimary(db::currentTimestamp).minusSeconds(safetyLagSeconds);
+            LocalDateTime watermark = later(previous, cutoff);
+            int records;
+
+            if (type == ExportType.CATALOG) {
+                List<Book> books = db.onPrimary(() -> kind == ExportKind.FULL
+                        ? bookDAO.findAll() : bookDAO.findModifiedSince(previous, watermark));
+                records = books.size();
+                writeOrFail(CSVExporter.exportBooksCatalog(books, file.toString()), file);
+            } else {
+                List<Loan> loans = db.onPrimary(() -> kind == ExportKind.FULL
+                        ? loanDAO.findAll() : loanDAO.findModifiedSince(previous, watermark));
+                records = loans.size();
+                writeOrFail(CSVExporter.exportAllLoans(loans, file.toString()), file);
+            }
+
+            List<String> replaced = manifest;
+            if (kind == ExportKind.FULL) {
+                manifest = new ArrayList<>();
+            }
+
+            manifest.add(String.join(",",
+                    String.valueOf(manifest.size() + 1),
+                    kind.name(),
+                    filename,
+                    previous != null && kind == ExportKind.DELTA ? previous.format(TIMESTAMP_FORMATTER) : "",
+                    watermark.format(TIMESTAMP_FORMATTER),
+                    String.valueOf(records),
+                    LocalDateTime.now().format(TIMESTAMP_FORMATTER)));
+            writeManifest(typeDir, manifest);
+
+            // Only delete the old chain once the manifest no longer lists it
+            if (kind == ExportKind.FULL) {
+                pruneChain(typeDir, replaced, filename);
+            }
+
+            // Persist the watermark only after the file and manifest are in place
+            watermarks.setProperty(type.getKey(), watermark.format(TIMESTAMP_FORMATTER));
+            storeWatermarks(watermarks);
+
+            LoggerConfig.logHttpResponse(201, kind + " export created: " + records + " records");
+            LoggerConfig.logInfo("Incremental export (" + type.getKey() + ", " + kind + "): " + file + " (" + records + " records)");
+
+            return new ExportResult(type, kind, file.toString(), records, watermark);
+
+        } catch (SQLException e) {
+            LoggerConfig.logHttpResponse(500, "Database error");
+            LoggerConfig.logError("Error running incremental export", e);
+            throw new DatabaseException("Error running incremental export", e);
+        } catch (IOException e) {
+            LoggerConfig.logHttpResponse(500, "Export file error");
+            LoggerConfig.logError("Error writing incremental export", e);
+            throw new DatabaseException("Error writing incremental export: " + e.getMessage(), e);
+        }
+    }
+
+    private LocalDateTime later(LocalDateTime current, LocalDateTime candidate) {
+        if (candidate == null) {
+            return current;
+        }
+        return current == null || candidate.isAfter(current) ? candidate : current;
+    }
+
+    private void writeOrFail(boolean written, Path file) throws IOException {
+        if (!written) {
+            throw new IOException("Could not write " + file);
+        }
+    }
+
+    /**
+     * Delete the files of the chain replaced by a new full snapshot (keep: the snapshot's file)
+     */
+    private void pruneChain(Path typeDir, List<String> manifest, String keep) {
+        for (String entry : manifest) {
+            String[] fields = entry.split(",", -1);
+            if (fields[2].equals(keep)) {
+                continue;
+            }
+            try {
+                Files.deleteIfExists(typeDir.resolve(fields[2]));
+            } catch (IOException e) {
+                LoggerConfig.logWarning("Could not delete compacted export file: " + fields[2]);
+            }
+        }
+    }
+
+    private List<String> readManifest(Path typeDir) throws IOException {
+        Path manifest = typeDir.resolve("manifest.csv");
+        List<String> entries = new ArrayList<>();
+
+        if (Files.exists(manifest)) {
+            for (String line : Files.readAllLines(manifest, StandardCharsets.UTF_8)) {
+                if (!line.isBlank() && !line.equals(MANIFEST_HEADER)) {
+                    entries.add(line);
+                }
+            }
+        }
+
+        return entries;
+    }
+
+    private void writeManifest(Path typeDir, List<String> entries) throws IOException {
+        List<String> lines = new ArrayList<>();
+        lines.add(MANIFEST_HEADER);
+        lines.addAll(entries);
+
+        Path tmp = typeDir.resolve("manifest.csv.tmp");
+        Files.write(tmp, lines, StandardCharsets.UTF_8);
+        Files.move(tmp, typeDir.resolve("manifest.csv"), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private Properties loadWatermarks() throws IOException {
+        Properties watermarks = new Properties();
+        Path file = exportDir.resolve(WATERMARKS_FILE);
+
+        if (Files.exists(file)) {
+            try (InputStream input = Files.newInputStream(file)) {
+                watermarks.load(input);
+            }
+        }
+
+        return watermarks;
+    }
+
+    private void storeWatermarks(Properties watermarks) throws IOException {
+        Files.createDirectories(exportDir);
+        Path tmp = exportDir.resolve(WATERMARKS_FILE + ".tmp");
+
+        try (OutputStream output = Files.newOutputStream(tmp)) {
+            watermarks.store(output, "LibroNova export watermarks (updated_at exported up to, per type)");
+        }
+
+        Files.move(tmp, exportDir.resolve(WATERMARKS_FILE), StandardCopyOption.REPLACE_EXISTING);
+    }
+}
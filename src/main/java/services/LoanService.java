@@ -1,23 +1,38 @@
 package services;
 
+import config.BranchRouter;
 import config.ConfigLoader;
 import config.DatabaseConnection;
 import config.LoggerConfig;
 import dao.BookDAO;
 import dao.LoanDAO;
 import dao.MemberDAO;
+import dao.ResilientDAO;
 import dao.impl.BookDAOImpl;
 import dao.impl.LoanDAOImpl;
 import dao.impl.MemberDAOImpl;
+import events.EventBus;
+import events.LoanCreated;
+import events.LoanReturned;
 import exceptions.*;
 import models.Book;
+import models.Hold;
 import models.Loan;
 import models.Member;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.time.Clock;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -25,18 +40,110 @@ import java.util.Optional;
  */
 public class LoanService {
 
+    /**
+     * What a multi-book checkout does when some of the books cannot be lent
+     */
+    public enum BatchPolicy {
+        ALL_OR_NOTHING, PARTIAL
+    }
+
+    /**
+     * Outcome of a multi-book checkout
+     */
+    public static class CheckoutResult {
+        private final List<Loan> createdLoans;
+        private final List<String> rejections;
+
+        public CheckoutResult(List<Loan> createdLoans, List<String> rejections) {
+            this.createdLoans = Collections.unmodifiableList(createdLoans);
+            this.rejections = Collections.unmodifiableList(rejections);
+        }
+
+        public List<Loan> getCreatedLoans() {
+            return createdLoans;
+        }
+
+        /**
+         * One "ISBN: reason" entry per book that was not lent
+         */
+        public List<String> getRejections() {
+            return rejections;
+        }
+
+        public boolean isComplete() {
+            return rejections.isEmpty();
+        }
+    }
+
+    /**
+     * Outcome of one loan in a bulk return
+     */
+    public static class ReturnOutcome {
+
+        public enum Status {
+            RETURNED, NOT_FOUND, ALREADY_RETURNED
+        }
+
+        private final Integer loanId;
+        private final Status status;
+        private final double fineAmount;
+        private final long daysOverdue;
+
+        public ReturnOutcome(Integer loanId, Status status, double fineAmount, long daysOverdue) {
+            this.loanId = loanId;
+            this.status = status;
+            this.fineAmount = fineAmount;
+            this.daysOverdue = daysOverdue;
+        }
+
+        public Integer getLoanId() {
+            return loanId;
+        }
+
+        public Status getStatus() {
+            return status;
+        }
+
+        public double getFineAmount() {
+            return fineAmount;
+        }
+
+        public long getDaysOverdue() {
+            return daysOverdue;
+        }
+
+        public boolean isReturned() {
+            return status == Status.RETURNED;
+        }
+    }
+
     private final LoanDAO loanDAO;
     private final BookDAO bookDAO;
     private final MemberDAO memberDAO;
     private final DatabaseConnection dbConnection;
     private final ConfigLoader config;
+    private final Clock clock;
+    private final DueDateIndex dueDateIndex;
+    private final HoldService holdService;
+    private final ActiveLoanCounter activeLoanCounter;
+    private final EventBus eventBus;
 
     public LoanService() {
-        this.loanDAO = new LoanDAOImpl();
-        this.bookDAO = new BookDAOImpl();
-        this.memberDAO = new MemberDAOImpl();
+        this(Clock.systemDefaultZone());
+    }
+
+    public LoanService(Clock clock) {
+        this.loanDAO = ResilientDAO.wrap(LoanDAO.class, new LoanDAOImpl());
+        this.bookDAO = ResilientDAO.wrap(BookDAO.class, new BookDAOImpl());
+        this.memberDAO = ResilientDAO.wrap(MemberDAO.class, new MemberDAOImpl());
         this.dbConnection = DatabaseConnection.getInstance();
         this.config = ConfigLoader.getInstance();
+        this.clock = clock;
+        this.dueDateIndex = DueDateIndex.getInstance();
+        dueDateIndex.setMaxAgeSeconds(config.getIntProperty("loan.dueDateIndexMaxAgeSeconds", 60));
+        this.holdService = new HoldService(clock);
+        this.activeLoanCounter = ActiveLoanCounter.getInstance();
+        this.eventBus = EventBus.getInstance();
     }
 
     /**
@@ -68,10 +175,6 @@ public class LoanService {
                 throw new InvalidLoanException("Book is inactive: " + book.getTitle());
             }
 
-            if (!book.hasAvailableCopies()) {
-                throw new InsufficientStockException("No available copies for: " + book.getTitle());
-            }
-
             // Validate member exists and is active
             Optional<Member> memberOpt = memberDAO.findById(memberId);
             if (memberOpt.isEmpty()) {
@@ -84,19 +187,36 @@ public class LoanService {
                 throw new InactiveMemberException("Member is inactive: " + member.getName());
             }
 
+            // Borrowing limit: O(1) check on the in-memory counter, enforced atomically below
+            int maxActive = getMaxActiveLoans();
+            if (maxActive > 0 && activeLoansOf(member, maxActive) >= maxActive) {
+                throw new InvalidLoanException("Member reached the limit of " + maxActive + " active loans");
+            }
+
+            // A READY hold of this member has a copy reserved outside the available stock
+            Optional<Hold> readyHold = holdService.findReadyHold(memberId, isbn, conn);
+            boolean pickedUp = readyHold.isPresent() && holdService.fulfill(readyHold.get(), conn);
+
+            // Otherwise take one copy; the conditional update fails if a concurrent checkout took the last one
+            if (!pickedUp && (!book.hasAvailableCopies()
+                    || bookDAO.decrementAvailableCopies(List.of(isbn), conn)[0] == 0)) {
+                throw new InsufficientStockException("No available copies for: " + book.getTitle());
+            }
+
+            if (!memberDAO.incrementActiveLoans(memberId, 1, maxActive, conn)) {
+                throw new InvalidLoanException("Member reached the limit of " + maxActive + " active loans");
+            }
+
             // Create loan
             int loanDays = config.getLoanDays();
-            LocalDate dueDate = LocalDate.now().plusDays(loanDays);
+            LocalDate dueDate = LocalDate.now(clock).plusDays(loanDays);
 
             Loan loan = new Loan(isbn, memberId, dueDate);
             Loan createdLoan = loanDAO.create(loan, conn);
 
-            // Update book stock
-            int newAvailable = book.getAvailableCopies() - 1;
-            bookDAO.updateAvailableCopies(isbn, newAvailable);
-
             // Commit transaction
             conn.commit();
+            eventBus.publish(new LoanCreated(createdLoan, pickedUp));
 
             LoggerConfig.logHttpResponse(201, "Loan created successfully");
             LoggerConfig.logInfo("New loan created: Loan ID " + createdLoan.getIdLoan() + " - Book: " + isbn);
@@ -142,6 +262,182 @@ public class LoanService {
         }
     }
 
+    /**
+     * Create several loans for one member with a single TRANSACTION (one member check,
+     * one book query, batched conditional stock update and batched insert, one commit).
+     * With loan.batchPolicy=ALL_OR_NOTHING any unavailable book rejects the whole checkout;
+     * with PARTIAL the available books are lent and the rest are reported.
+     * Simulates HTTP POST request
+     */
+    public CheckoutResult createLoans(Integer memberId, List<String> isbns)
+            throws InactiveMemberException, EntityNotFoundException, InvalidLoanException, DatabaseException {
+
+        if (isbns == null || isbns.isEmpty()) {
+            throw new InvalidLoanException("At least one ISBN is required");
+        }
+
+        BatchPolicy policy = getBatchPolicy();
+        Connection conn = null;
+
+        try {
+            LoggerConfig.logHttpRequest("POST", "/api/loans/batch?policy=" + policy, "system");
+
+            // Validate member once for the whole checkout
+            Optional<Member> memberOpt = memberDAO.findById(memberId);
+            if (memberOpt.isEmpty()) {
+                throw new EntityNotFoundException("Member not found with ID: " + memberId);
+            }
+
+            Member member = memberOpt.get();
+
+            if (!member.isActive()) {
+                throw new InactiveMemberException("Member is inactive: " + member.getName());
+            }
+
+            // Get new connection for transaction
+            conn = dbConnection.getNewConnection();
+            conn.setAutoCommit(false); // Start transaction
+
+            // Load all requested books in one query; the conditional decrement below guards the stock
+            Map<String, Book> books = new HashMap<>();
+            for (Book book : bookDAO.findByIsbns(new LinkedHashSet<>(isbns), conn)) {
+                books.put(book.getIsbn(), book);
+            }
+
+            // Remaining borrowing slots from the in-memory counter
+            int maxActive = getMaxActiveLoans();
+            int slots = maxActive > 0 ? maxActive - activeLoansOf(member, maxActive) : Integer.MAX_VALUE;
+
+            // READY holds of this member are picked up instead of taking stock
+            Map<String, Hold> readyHolds = holdService.findReadyHolds(memberId, conn);
+            List<Hold> pickups = new ArrayList<>();
+
+            // Check each requested copy against the stock still left in this checkout
+            Map<String, Integer> remaining = new HashMap<>();
+            List<String> accepted = new ArrayList<>();
+            List<String> rejections = new ArrayList<>();
+
+            for (String isbn : isbns) {
+                Book book = books.get(isbn);
+                if (book == null) {
+                    rejections.add(isbn + ": book not found");
+                    continue;
+                }
+                if (!book.isActive()) {
+                    rejections.add(isbn + ": book is inactive");
+                    continue;
+                }
+                if (slots <= 0) {
+                    rejections.add(isbn + ": loan limit of " + maxActive + " reached");
+                    continue;
+                }
+
+                Hold hold = readyHolds.remove(isbn);
+                if (hold != null) {
+                    pickups.add(hold);
+                    slots--;
+                    continue;
+                }
+
+                int left = remaining.getOrDefault(isbn, book.getAvailableCopies());
+                if (left <= 0) {
+                    rejections.add(isbn + ": no available copies");
+                    continue;
+                }
+
+                remaining.put(isbn, left - 1);
+                accepted.add(isbn);
+                slots--;
+            }
+
+            if (policy == BatchPolicy.ALL_OR_NOTHING && !rejections.isEmpty()) {
+                throw new InvalidLoanException("Checkout rejected: " + String.join("; ", rejections));
+            }
+
+            // Take one copy per accepted book in a single batch
+            int[] updated = bookDAO.decrementAvailableCopies(accepted, conn);
+
+            LocalDate dueDate = LocalDate.now(clock).plusDays(config.getLoanDays());
+            List<Loan> loans = new ArrayList<>();
+
+            for (int i = 0; i < accepted.size(); i++) {
+                if (updated[i] == 0) {
+                    rejections.add(accepted.get(i) + ": no available copies");
+                } else {
+                    loans.add(new Loan(accepted.get(i), memberId, dueDate));
+                }
+            }
+
+            int fromStock = loans.size();
+            for (Hold hold : pickups) {
+                if (holdService.fulfill(hold, conn)) {
+                    loans.add(new Loan(hold.getIsbn(), memberId, dueDate));
+                } else {
+                    rejections.add(hold.getIsbn() + ": hold is no longer ready");
+                }
+            }
+
+            if (policy == BatchPolicy.ALL_OR_NOTHING && !rejections.isEmpty()) {
+                throw new InvalidLoanException("Checkout rejected: " + String.join("; ", rejections));
+            }
+
+            if (!loans.isEmpty() && !memberDAO.incrementActiveLoans(memberId, loans.size(), maxActive, conn)) {
+                throw new InvalidLoanException("Member reached the limit of " + maxActive + " active loans");
+            }
+
+            loanDAO.createBatch(loans, conn);
+
+            // Commit transaction
+            conn.commit();
+            for (int i = 0; i < loans.size(); i++) {
+                eventBus.publish(new LoanCreated(loans.get(i), i >= fromStock));
+            }
+
+            LoggerConfig.logHttpResponse(201, "Loans created: " + loans.size() + ", rejected: " + rejections.size());
+            LoggerConfig.logInfo("Batch checkout for member " + memberId + ": " + loans.size()
+                    + " loans created, " + rejections.size() + " rejected");
+
+            return new CheckoutResult(loans, rejections);
+
+        } catch (InactiveMemberException | EntityNotFoundException | InvalidLoanException e) {
+            // Rollback transaction on business rule violation
+            if (conn != null) {
+                try {
+                    conn.rollback();
+                    LoggerConfig.logWarning("Transaction rolled back: " + e.getMessage());
+                } catch (SQLException rollbackEx) {
+                    LoggerConfig.logError("Error during rollback", rollbackEx);
+                }
+            }
+            LoggerConfig.logHttpResponse(400, e.getMessage());
+            throw e;
+
+        } catch (SQLException e) {
+            // Rollback transaction on database error
+            if (conn != null) {
+                try {
+                    conn.rollback();
+                    LoggerConfig.logWarning("Transaction rolled back due to database error");
+                } catch (SQLException rollbackEx) {
+                    LoggerConfig.logError("Error during rollback", rollbackEx);
+                }
+            }
+            LoggerConfig.logHttpResponse(500, "Database error");
+            LoggerConfig.logError("Error creating loans", e);
+            throw new DatabaseException("Error creating loans", e);
+
+        } finally {
+            // Close connection
+            if (conn != null) {
+                try {
+                    conn.close();
+                } catch (SQLException e) {
+                    LoggerConfig.logError("Error closing connection", e);
+                }
+            }
+        }
+    }
+
     /**
      * Return loan with TRANSACTION (update loan + calculate fine + restore book stock)
      * Simulates HTTP PATCH request
@@ -171,28 +467,30 @@ public class LoanService {
             }
 
             // Calculate fine if overdue
+            LocalDate today = LocalDate.now(clock);
             double finePerDay = config.getFinePerDay();
-            double fineAmount = loan.calculateFine(finePerDay);
+            double fineAmount = loan.calculateFine(finePerDay, today);
 
-            // Mark loan as returned
-            loanDAO.markAsReturned(loanId, fineAmount, conn);
-
-            // Restore book stock
-            Optional<Book> bookOpt = bookDAO.findByIsbn(loan.getIsbn());
-            if (bookOpt.isPresent()) {
-                Book book = bookOpt.get();
-                int newAvailable = book.getAvailableCopies() + 1;
-                bookDAO.updateAvailableCopies(loan.getIsbn(), newAvailable);
+            // Mark loan as returned (fails if it was returned concurrently)
+            if (loanDAO.markAsReturnedBatch(Map.of(loanId, fineAmount), today, conn)[0] == 0) {
+                throw new InvalidLoanException("Loan is already returned");
             }
 
+            // Hand the copy to the next hold in the queue, or restore book stock
+            HoldService.CopyAssignment assignment = holdService.assignReleasedCopies(List.of(loan.getIsbn()), conn);
+            bookDAO.incrementAvailableCopies(assignment.getRestockIsbns(), conn);
+            memberDAO.decrementActiveLoans(List.of(loan.getIdMember()), conn);
+
             // Commit transaction
             conn.commit();
+            holdService.confirmAssignment(assignment);
+            eventBus.publish(new LoanReturned(loan, today, fineAmount));
 
             LoggerConfig.logHttpResponse(200, "Loan returned successfully");
             LoggerConfig.logInfo("Loan returned: Loan ID " + loanId + " - Fine: $" + fineAmount);
 
             if (fineAmount > 0) {
-                LoggerConfig.logInfo("Fine calculated: $" + fineAmount + " for " + loan.getDaysOverdue() + " days overdue");
+                LoggerConfig.logInfo("Fine calculated: $" + fineAmount + " for " + loan.getDaysOverdue(today) + " days overdue");
             }
 
         } catch (EntityNotFoundException | InvalidLoanException e) {
@@ -234,6 +532,121 @@ public class LoanService {
         }
     }
 
+    /**
+     * Return several loans with a single TRANSACTION (one IN query, fines computed in one
+     * pass, batched status update and batched stock increments, one commit).
+     * Unknown or already returned loans are reported and do not stop the others.
+     * Simulates HTTP PATCH request
+     * @return One outcome per distinct loan ID, in request order
+     */
+    public List<ReturnOutcome> returnLoans(Collection<Integer> loanIds) throws DatabaseException {
+        List<Integer> ids = new ArrayList<>(new LinkedHashSet<>(loanIds));
+        List<ReturnOutcome> outcomes = new ArrayList<>();
+        if (ids.isEmpty()) {
+            return outcomes;
+        }
+
+        Connection conn = null;
+
+        try {
+            LoggerConfig.logHttpRequest("PATCH", "/api/loans/returns", "system");
+
+            // Get new connection for transaction
+            conn = dbConnection.getNewConnection();
+            conn.setAutoCommit(false); // Start transaction
+
+            Map<Integer, Loan> loans = new HashMap<>();
+            for (Loan loan : loanDAO.findByIds(ids, conn)) {
+                loans.put(loan.getIdLoan(), loan);
+            }
+
+            // Compute every fine with the same "today"
+            LocalDate today = LocalDate.now(clock);
+            double finePerDay = config.getFinePerDay();
+            Map<Integer, Double> fines = new LinkedHashMap<>();
+            List<String> releasedIsbns = new ArrayList<>();
+
+            for (Integer id : ids) {
+                Loan loan = loans.get(id);
+                if (loan == null) {
+                    outcomes.add(new ReturnOutcome(id, ReturnOutcome.Status.NOT_FOUND, 0.0, 0));
+                } else if (!loan.isActive()) {
+                    outcomes.add(new ReturnOutcome(id, ReturnOutcome.Status.ALREADY_RETURNED, 0.0, 0));
+                } else {
+                    double fine = loan.calculateFine(finePerDay, today);
+                    fines.put(id, fine);
+                    releasedIsbns.add(loan.getIsbn());
+                    outcomes.add(new ReturnOutcome(id, ReturnOutcome.Status.RETURNED, fine, loan.getDaysOverdue(today)));
+                }
+            }
+
+            HoldService.CopyAssignment assignment = null;
+            if (!fines.isEmpty()) {
+                // Only loans still ACTIVE are updated; one returned concurrently must not be restocked twice
+                int[] updated = loanDAO.markAsReturnedBatch(fines, today, conn);
+                List<Integer> returnedIds = new ArrayList<>(fines.keySet());
+
+                for (int i = updated.length - 1; i >= 0; i--) {
+                    if (updated[i] == 0) {
+                        Integer id = returnedIds.get(i);
+                        fines.remove(id);
+                        releasedIsbns.remove(i);
+                        outcomes.replaceAll(outcome -> outcome.getLoanId().equals(id)
+                                ? new ReturnOutcome(id, ReturnOutcome.Status.ALREADY_RETURNED, 0.0, 0) : outcome);
+                    }
+                }
+
+                // Returned copies go to waiting holds first, the rest back to stock
+                assignment = holdService.assignReleasedCopies(releasedIsbns, conn);
+                bookDAO.incrementAvailableCopies(assignment.getRestockIsbns(), conn);
+
+                List<Integer> memberIds = new ArrayList<>(fines.size());
+                fines.keySet().forEach(id -> memberIds.add(loans.get(id).getIdMember()));
+                memberDAO.decrementActiveLoans(memberIds, conn);
+            }
+
+            // Commit transaction
+            conn.commit();
+            if (assignment != null) {
+                holdService.confirmAssignment(assignment);
+            }
+            for (Map.Entry<Integer, Double> fine : fines.entrySet()) {
+                eventBus.publish(new LoanReturned(loans.get(fine.getKey()), today, fine.getValue()));
+            }
+
+            double totalFines = fines.values().stream().mapToDouble(Double::doubleValue).sum();
+            LoggerConfig.logHttpResponse(200, "Loans returned: " + fines.size() + " of " + ids.size());
+            LoggerConfig.logInfo("Bulk return: " + fines.size() + " loans returned, "
+                    + (ids.size() - fines.size()) + " skipped - Fines: $" + totalFines);
+
+            return outcomes;
+
+        } catch (SQLException e) {
+            // Rollback transaction on database error
+            if (conn != null) {
+                try {
+                    conn.rollback();
+                    LoggerConfig.logWarning("Transaction rolled back due to database error");
+                } catch (SQLException rollbackEx) {
+                    LoggerConfig.logError("Error during rollback", rollbackEx);
+                }
+            }
+            LoggerConfig.logHttpResponse(500, "Database error");
+            LoggerConfig.logError("Error returning loans", e);
+            throw new DatabaseException("Error returning loans", e);
+
+        } finally {
+            // Close connection
+            if (conn != null) {
+                try {
+                    conn.close();
+                } catch (SQLException e) {
+                    LoggerConfig.logError("Error closing connection", e);
+                }
+            }
+        }
+    }
+
     /**
      * Get all loans - simulates HTTP GET request
      */
@@ -250,13 +663,44 @@ public class LoanService {
         }
     }
 
+    /**
+     * Get one page of loans (filter and sort run in SQL) - simulates HTTP GET request
+     */
+    public List<Loan> getLoansPage(String filter, String sortColumn, boolean ascending, int offset, int limit)
+            throws DatabaseException {
+        try {
+            LoggerConfig.logHttpRequest("GET", "/api/loans?offset=" + offset + "&limit=" + limit
+                    + "&sort=" + sortColumn, "system");
+            List<Loan> loans = loanDAO.findPage(filter, sortColumn, ascending, offset, limit);
+            LoggerConfig.logHttpResponse(200, "Loans retrieved: " + loans.size());
+            return loans;
+        } catch (SQLException e) {
+            LoggerConfig.logHttpResponse(500, "Database error");
+            LoggerConfig.logError("Error retrieving loans page", e);
+            throw new DatabaseException("Error retrieving loans", e);
+        }
+    }
+
+    /**
+     * Count the loans matching a filter
+     */
+    public int countLoans(String filter) throws DatabaseException {
+        try {
+            return loanDAO.count(filter);
+        } catch (SQLException e) {
+            LoggerConfig.logError("Error counting loans", e);
+            throw new DatabaseException("Error counting loans", e);
+        }
+    }
+
     /**
      * Get active loans
      */
     public List<Loan> getActiveLoans() throws DatabaseException {
         try {
             LoggerConfig.logHttpRequest("GET", "/api/loans?status=active", "system");
-            List<Loan> loans = loanDAO.findAllActive();
+            ensureIndexLoaded();
+            List<Loan> loans = dueDateIndex.getActiveLoans();
             LoggerConfig.logHttpResponse(200, "Active loans retrieved: " + loans.size());
             return loans;
         } catch (SQLException e) {
@@ -272,7 +716,8 @@ public class LoanService {
     public List<Loan> getOverdueLoans() throws DatabaseException {
         try {
             LoggerConfig.logHttpRequest("GET", "/api/loans?status=overdue", "system");
-            List<Loan> loans = loanDAO.findOverdueLoans();
+            ensureIndexLoaded();
+            List<Loan> loans = dueDateIndex.getOverdueLoans(LocalDate.now(clock));
             LoggerConfig.logHttpResponse(200, "Overdue loans retrieved: " + loans.size());
             return loans;
         } catch (SQLException e) {
@@ -282,6 +727,115 @@ public class LoanService {
         }
     }
 
+    /**
+     * Get the overdue loans of every branch, merged by due date. Read from each branch's
+     * database: the due-date index only covers this client's home branch.
+     */
+    public List<Loan> getOverdueLoansAcrossBranches() throws DatabaseException {
+        try {
+            LoggerConfig.logHttpRequest("GET", "/api/loans?status=overdue&scope=network", "system");
+            List<Loan> loans = new ArrayList<>();
+            for (List<Loan> branchLoans : BranchRouter.getInstance().scatter(loanDAO::findOverdueLoans).values()) {
+                loans.addAll(branchLoans);
+            }
+            loans.sort(Comparator.comparing(Loan::getDueDate)
+                    .thenComparing(Loan::getBranchId, Comparator.nullsFirst(Comparator.naturalOrder()))
+                    .thenComparing(Loan::getIdLoan));
+            LoggerConfig.logHttpResponse(200, "Overdue loans retrieved: " + loans.size());
+            return loans;
+        } catch (SQLException e) {
+            LoggerConfig.logHttpResponse(500, "Database error");
+            LoggerConfig.logError("Error retrieving overdue loans across branches", e);
+            throw new DatabaseException("Error retrieving overdue loans across branches", e);
+        }
+    }
+
+    /**
+     * Get active loans due within the next N days (served from the due-date index)
+     */
+    public List<Loan> getLoansDueWithin(int days) throws DatabaseException {
+        try {
+            LoggerConfig.logHttpRequest("GET", "/api/loans?dueWithinDays=" + days, "system");
+            ensureIndexLoaded();
+            List<Loan> loans = dueDateIndex.getLoansDueWithin(LocalDate.now(clock), days);
+            LoggerConfig.logHttpResponse(200, "Loans due soon: " + loans.size());
+            return loans;
+        } catch (SQLException e) {
+            LoggerConfig.logHttpResponse(500, "Database error");
+            LoggerConfig.logError("Error retrieving loans due soon", e);
+            throw new DatabaseException("Error retrieving loans due soon", e);
+        }
+    }
+
+    /**
+     * Count active loans due on each of the next N days (index 0 = today)
+     */
+    public int[] countLoansDuePerDay(int days) throws DatabaseException {
+        try {
+            ensureIndexLoaded();
+            return dueDateIndex.countDuePerDay(LocalDate.now(clock), days);
+        } catch (SQLException e) {
+            LoggerConfig.logError("Error counting loans due per day", e);
+            throw new DatabaseException("Error counting loans due per day", e);
+        }
+    }
+
+    /**
+     * Reload the due-date index from the database (startup and resync)
+     */
+    public void rebuildDueDateIndex() throws DatabaseException {
+        try {
+            long start = System.currentTimeMillis();
+            dueDateIndex.rebuild(() -> dbConnection.onPrimary(loanDAO::findAllActive));
+            LoggerConfig.logInfo("Due-date index rebuilt: " + dueDateIndex.size() + " active loans ("
+                    + (System.currentTimeMillis() - start) + " ms)");
+        } catch (SQLException e) {
+            LoggerConfig.logError("Error rebuilding due-date index", e);
+            throw new DatabaseException("Error rebuilding due-date index", e);
+        }
+    }
+
+    /**
+     * Reload the in-memory active-loan counters from members.active_loans
+     */
+    public void rebuildActiveLoanCounters() throws DatabaseException {
+        try {
+            activeLoanCounter.rebuild(() -> dbConnection.onPrimary(memberDAO::findActiveLoanCounts));
+            LoggerConfig.logInfo("Active-loan counters loaded: " + activeLoanCounter.size() + " members with loans");
+        } catch (SQLException e) {
+            LoggerConfig.logError("Error loading active-loan counters", e);
+            throw new DatabaseException("Error loading active-loan counters", e);
+        }
+    }
+
+    /**
+     * Verify members.active_loans against the ACTIVE rows in loans, repair any drift and
+     * reload the in-memory counters from the column
+     * @return Number of members whose counter was corrected
+     */
+    public int reconcileActiveLoanCounters() throws DatabaseException {
+        try {
+            Map<Integer, int[]> mismatches = memberDAO.findActiveLoanMismatches();
+
+            for (Map.Entry<Integer, int[]> entry : mismatches.entrySet()) {
+                int recounted = memberDAO.recountActiveLoans(entry.getKey());
+                activeLoanCounter.set(entry.getKey(), recounted);
+                LoggerConfig.logWarning("Active-loan counter corrected for member " + entry.getKey()
+                        + ": " + entry.getValue()[0] + " -> " + recounted);
+            }
+
+            // Also picks up checkouts and returns made by other clients since the last load
+            activeLoanCounter.rebuild(() -> dbConnection.onPrimary(memberDAO::findActiveLoanCounts));
+
+            LoggerConfig.logInfo("Active-loan counters reconciled: " + mismatches.size() + " corrected");
+            return mismatches.size();
+
+        } catch (SQLException e) {
+            LoggerConfig.logError("Error reconciling active-loan counters", e);
+            throw new DatabaseException("Error reconciling active-loan counters", e);
+        }
+    }
+
     /**
      * Get loans by member
      */
@@ -321,6 +875,62 @@ public class LoanService {
      */
     public double calculateFine(Loan loan) {
         double finePerDay = config.getFinePerDay();
-        return loan.calculateFine(finePerDay);
+        return loan.calculateFine(finePerDay, LocalDate.now(clock));
+    }
+
+    /**
+     * Checkout policy from config (loan.batchPolicy), ALL_OR_NOTHING by default
+     */
+    private BatchPolicy getBatchPolicy() {
+        String value = config.getProperty("loan.batchPolicy", BatchPolicy.ALL_OR_NOTHING.name());
+        try {
+            return BatchPolicy.valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            LoggerConfig.logWarning("Invalid loan.batchPolicy: " + value + ", using ALL_OR_NOTHING");
+            return BatchPolicy.ALL_OR_NOTHING;
+        }
+    }
+
+    /**
+     * Borrowing limit from config (loan.maxActivePerMember), 0 = unlimited
+     */
+    private int getMaxActiveLoans() {
+        return config.getSnapshot().getMaxActiveLoansPerMember();
+    }
+
+    /**
+     * Active loans of the member for the limit pre-check. The mirror only follows this
+     * process's checkouts and returns, so when it says the member is at the limit the
+     * count in the member row just read decides, and corrects the mirror. Either way the
+     * conditional UPDATE in incrementActiveLoans is what enforces the limit.
+     */
+    private int activeLoansOf(Member member, int maxActive) throws SQLException {
+        ensureCounterLoaded();
+        int mirrored = activeLoanCounter.get(member.getIdMember());
+        Integer stored = member.getActiveLoans();
+        if (mirrored >= maxActive && stored != null && stored < mirrored) {
+            activeLoanCounter.set(member.getIdMember(), stored);
+            return stored;
+        }
+        return mirrored;
+    }
+
+    /**
+     * Load the active-loan counters on first use
+     */
+    private void ensureCounterLoaded() throws SQLException {
+        if (!activeLoanCounter.isLoaded()) {
+            activeLoanCounter.rebuild(() -> dbConnection.onPrimary(memberDAO::findActiveLoanCounts));
+        }
+    }
+
+    /**
+     * Load the due-date index on first use, and reload it once it is older than
+     * loan.dueDateIndexMaxAgeSeconds so loans made by other clients show up
+     */
+    private void ensureIndexLoaded() throws SQLException {
+        if (dueDateIndex.isStale()) {
+            dueDateIndex.reloadIfStale(() -> dbConnection.onPrimary(loanDAO::findAllActive));
+        }
     }
 }
\ No newline at end of file
@@ -2,9 +2,16 @@ package services;
 
 import config.LoggerConfig;
 import dao.MemberDAO;
+import dao.ResilientDAO;
 import dao.impl.MemberDAOImpl;
+import events.EventBus;
+import events.MemberCreated;
+import events.MemberDeleted;
+import events.MemberStatusChanged;
+import events.MemberUpdated;
 import exceptions.*;
 import models.Member;
+import utils.InputValidator;
 
 import java.sql.SQLException;
 import java.util.List;
@@ -16,9 +23,11 @@ import java.util.Optional;
 public class MemberService {
 
     private final MemberDAO memberDAO;
+    private final EventBus eventBus;
 
     public MemberService() {
-        this.memberDAO = new MemberDAOImpl();
+        this.memberDAO = ResilientDAO.wrap(MemberDAO.class, new MemberDAOImpl());
+        this.eventBus = EventBus.getInstance();
     }
 
     /**
@@ -34,6 +43,7 @@ public class MemberService {
 
             Member member = new Member(name, email, phone, address);
             Member createdMember = memberDAO.create(member);
+            eventBus.publish(new MemberCreated(createdMember));
 
             LoggerConfig.logHttpResponse(201, "Member created successfully");
             LoggerConfig.logInfo("New member created: " + email);
@@ -99,7 +109,8 @@ public class MemberService {
     /**
      * Update member - simulates HTTP PATCH request
      */
-    public boolean updateMember(Member member) throws DuplicateEmailException, DatabaseException {
+    public boolean updateMember(Member member)
+            throws DuplicateEmailException, OptimisticLockException, DatabaseException {
         try {
             LoggerConfig.logHttpRequest("PATCH", "/api/members/" + member.getIdMember(), "system");
 
@@ -112,10 +123,15 @@ public class MemberService {
 
             if (updated) {
                 LoggerConfig.logInfo("Member updated: " + member.getEmail());
+                eventBus.publish(new MemberUpdated(member));
             }
 
             return updated;
 
+        } catch (OptimisticLockException e) {
+            LoggerConfig.logHttpResponse(409, e.getMessage());
+            LoggerConfig.logWarning("Update conflict: " + e.getMessage());
+            throw e;
         } catch (SQLException e) {
             LoggerConfig.logHttpResponse(500, "Database error");
             LoggerConfig.logError("Error updating member", e);
@@ -135,6 +151,7 @@ public class MemberService {
 
             if (deleted) {
                 LoggerConfig.logInfo("Member deleted: ID " + id);
+                eventBus.publish(new MemberDeleted(id));
             }
 
             return deleted;
@@ -157,6 +174,7 @@ public class MemberService {
 
             if (activated) {
                 LoggerConfig.logInfo("Member activated: ID " + id);
+                eventBus.publish(new MemberStatusChanged(id, true));
             }
 
             return activated;
@@ -179,6 +197,7 @@ public class MemberService {
 
             if (deactivated) {
                 LoggerConfig.logInfo("Member deactivated: ID " + id);
+                eventBus.publish(new MemberStatusChanged(id, false));
             }
 
             return deactivated;
@@ -202,7 +221,7 @@ public class MemberService {
             throw new IllegalArgumentException("Member email cannot be empty");
         }
 
-        if (!email.matches("^[A-Za-z0-9+_.-]+@(.+)$")) {
+        if (!InputValidator.isValidEmail(email)) {
             throw new IllegalArgumentException("Invalid email format");
         }
     }
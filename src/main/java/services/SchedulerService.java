@@ -0,0 +1,312 @@
+package services;
+
+import config.ConfigLoader;
+import config.DatabaseConnection;
+import config.LoggerConfig;
+import exceptions.DatabaseException;
+import models.Book;
+import models.Loan;
+import utils.CSVExporter;
+import utils.CronSchedule;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Singleton in-process scheduler for background jobs (exports, fine assessment, hold expiry,
+ * counter reconciliation) configured with cron expressions in config.properties.
+ *
+ * Jobs run on a small pool of low-priority daemon threads whose size is the
+ * connection budget ({@code scheduler.maxConnections}): every job runs its DAO calls
+ * sequentially on its own thread and the thread's shared connection is released when
+ * the job ends. Jobs that write (fine assessment, hold expiry, reconciliation) also open
+ * one transaction connection at a time next to the shared one, so background work holds
+ * at most twice the budget while they run. A job that fires while its previous run is
+ * still going is either skipped or coalesced into a single follow-up run
+ * ({@code scheduler.overlap=skip|coalesce}).
+ *
+ * Jobs use the services they are registered with, i.e. the application's shared instances.
+ */
+public class SchedulerService {
+
+    private static SchedulerService instance;
+
+    /**
+     * What to do when a job fires while its previous run is still in progress
+     */
+    public enum OverlapPolicy {
+        SKIP, COALESCE
+    }
+
+    /**
+     * A registered job and its run state
+     */
+    private static class Job {
+        private final String name;
+        private final CronSchedule schedule;
+        private final Runnable task;
+        private final AtomicBoolean running = new AtomicBoolean(false);
+        private final AtomicBoolean pending = new AtomicBoolean(false);
+        private volatile LocalDateTime lastFired;
+
+        Job(String name, CronSchedule schedule, Runnable task) {
+            this.name = name;
+            this.schedule = schedule;
+            this.task = task;
+        }
+    }
+
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService ticker;
+    private final ThreadPoolExecutor workers;
+    private final OverlapPolicy overlapPolicy;
+    private final Path exportDir;
+    private volatile boolean started = false;
+
+    private SchedulerService() {
+        ConfigLoader config = ConfigLoader.getInstance();
+        int budget = Math.max(1, config.getIntProperty("scheduler.maxConnections", 1));
+
+        this.overlapPolicy = "skip".equalsIgnoreCase(config.getProperty("scheduler.overlap", "coalesce"))
+                ? OverlapPolicy.SKIP : OverlapPolicy.COALESCE;
+        this.exportDir = Path.of(config.getProperty("export.dir", "exports"));
+        this.ticker = Executors.newSingleThreadScheduledExecutor(lowPriorityThreads("scheduler-tick"));
+        this.workers = new ThreadPoolExecutor(budget, budget, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), lowPriorityThreads("scheduler-worker"));
+    }
+
+    public static SchedulerService getInstance() {
+        if (instance == null) {
+            synchronized (SchedulerService.class) {
+                if (instance == null) {
+                    instance = new SchedulerService();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Register a job; replaces any job with the same name
+     */
+    public void register(String name, String cronExpression, Runnable task) {
+        CronSchedule schedule = CronSchedule.parse(cronExpression);
+        jobs.put(name, new Job(name, schedule, task));
+        LoggerConfig.logInfo("Scheduled job registered: " + name + " [" + schedule + "]");
+    }
+
+    /**
+     * Register the export jobs whose schedules are present in config.properties
+     */
+    public void registerConfiguredExports(BookService bookService, LoanService loanService) {
+        ConfigLoader config = ConfigLoader.getInstance();
+
+        registerIfConfigured(config, "export-catalog", "scheduler.export.catalog",
+                () -> exportCatalog(bookService));
+        registerIfConfigured(config, "export-loans", "scheduler.export.loans",
+                () -> exportAllLoans(loanService));
+        registerIfConfigured(config, "export-overdue", "scheduler.export.overdue",
+                () -> exportOverdueLoans(loanService));
+    }
+
+    /**
+     * Register the nightly fine assessment when scheduled in config.properties
+     */
+    public void registerFineAssessment(FineAssessmentService fineAssessmentService) {
+        registerIfConfigured(ConfigLoader.getInstance(), "fine-assessment", "scheduler.fines.assessment",
+                () -> assessFines(fineAssessmentService));
+    }
+
+    /**
+     * Register the ready-for-pickup hold expiry sweep when scheduled in config.properties
+     */
+    public void registerHoldExpiry(HoldService holdService) {
+        registerIfConfigured(ConfigLoader.getInstance(), "hold-expiry", "scheduler.holds.expiry",
+                () -> expireHolds(holdService));
+    }
+
+    /**
+     * Register the active-loan counter reconciliation when scheduled in config.properties
+     */
+    public void registerLoanCounterReconciliation(LoanService loanService) {
+        registerIfConfigured(ConfigLoader.getInstance(), "loan-counter-reconciliation", "scheduler.loans.reconcile",
+                () -> reconcileLoanCounters(loanService));
+    }
+
+    /**
+     * Start ticking once per minute, aligned to the start of the next minute
+     */
+    public synchronized void start() {
+        if (started) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        long initialDelay = Duration.between(now, now.truncatedTo(ChronoUnit.MINUTES).plusMinutes(1)).toMillis();
+        ticker.scheduleAtFixedRate(this::tick, initialDelay, TimeUnit.MINUTES.toMillis(1), TimeUnit.MILLISECONDS);
+
+        started = true;
+        LoggerConfig.logInfo("Scheduler started: " + jobs.size() + " jobs, " + workers.getMaximumPoolSize()
+                + " connection(s) budget, overlap=" + overlapPolicy);
+    }
+
+    /**
+     * Stop scheduling; running jobs are allowed to finish
+     */
+    public synchronized void shutdown() {
+        ticker.shutdownNow();
+        workers.shutdown();
+        started = false;
+        LoggerConfig.logInfo("Scheduler stopped");
+    }
+
+    private void tick() {
+        LocalDateTime minute = LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES);
+
+        for (Job job : jobs.values()) {
+            if (job.schedule.matches(minute) && !minute.equals(job.lastFired)) {
+                job.lastFired = minute;
+                submit(job);
+            }
+        }
+    }
+
+    private void submit(Job job) {
+        if (!job.running.compareAndSet(false, true)) {
+            if (overlapPolicy == OverlapPolicy.COALESCE) {
+                job.pending.set(true);
+                LoggerConfig.logInfo("Scheduled job still running, coalescing: " + job.name);
+            } else {
+                LoggerConfig.logWarning("Scheduled job still running, skipped: " + job.name);
+            }
+            return;
+        }
+
+        workers.execute(() -> runJob(job));
+    }
+
+    private void runJob(Job job) {
+        try {
+            do {
+                job.pending.set(false);
+                long start = System.currentTimeMillis();
+
+                try {
+                    job.task.run();
+                    LoggerConfig.logInfo("Scheduled job finished: " + job.name
+                            + " (" + (System.currentTimeMillis() - start) + " ms)");
+                } catch (RuntimeException e) {
+                    LoggerConfig.logError("Scheduled job failed: " + job.name, e);
+                } finally {
+                    // Workers are reused: do not keep a connection open until the next run
+                    DatabaseConnection.getInstance().releaseConnection();
+                }
+            } while (job.pending.get());
+        } finally {
+            job.running.set(false);
+        }
+
+        // A trigger may have arrived between the last check and the release
+        if (job.pending.get()) {
+            submit(job);
+        }
+    }
+
+    private void registerIfConfigured(ConfigLoader config, String name, String key, Runnable task) {
+        String expression = config.getProperty(key);
+        if (expression == null || expression.isBlank()) {
+            return;
+        }
+
+        try {
+            register(name, expression, task);
+        } catch (IllegalArgumentException e) {
+            LoggerConfig.logWarning("Invalid schedule for " + key + ": " + e.getMessage());
+        }
+    }
+
+    private void assessFines(FineAssessmentService fineAssessmentService) {
+        try {
+            fineAssessmentService.assessOverdueFines();
+        } catch (DatabaseException e) {
+            LoggerConfig.logError("Scheduled fine assessment failed", e);
+        }
+    }
+
+    private void expireHolds(HoldService holdService) {
+        try {
+            holdService.expireReadyHolds();
+        } catch (DatabaseException e) {
+            LoggerConfig.logError("Scheduled hold expiry failed", e);
+        }
+    }
+
+    private void reconcileLoanCounters(LoanService loanService) {
+        try {
+            loanService.reconcileActiveLoanCounters();
+        } catch (DatabaseException e) {
+            LoggerConfig.logError("Scheduled loan counter reconciliation failed", e);
+        }
+    }
+
+    private void exportCatalog(BookService bookService) {
+        try {
+            List<Book> books = bookService.getAllBooks();
+            CSVExporter.exportBooksCatalog(books, exportFile("libros_export.csv"));
+        } catch (DatabaseException e) {
+            LoggerConfig.logError("Scheduled catalog export failed", e);
+        }
+    }
+
+    private void exportAllLoans(LoanService loanService) {
+        try {
+            List<Loan> loans = loanService.getAllLoans();
+            CSVExporter.exportAllLoans(loans, exportFile("prestamos_export.csv"));
+        } catch (DatabaseException e) {
+            LoggerConfig.logError("Scheduled loans export failed", e);
+        }
+    }
+
+    private void exportOverdueLoans(LoanService loanService) {
+        try {
+            List<Loan> loans = loanService.getOverdueLoans();
+            CSVExporter.exportOverdueLoans(loans, exportFile("prestamos_vencidos.csv"));
+        } catch (DatabaseException e) {
+            LoggerConfig.logError("Scheduled overdue loans export failed", e);
+        }
+    }
+
+    private String exportFile(String filename) {
+        try {
+            Files.createDirectories(exportDir);
+        } catch (IOException e) {
+            LoggerConfig.logWarning("Could not create export directory: " + exportDir);
+        }
+        return exportDir.resolve(filename).toString();
+    }
+
+    private static ThreadFactory lowPriorityThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger(1);
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + counter.getAndIncrement());
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,141 @@
+package services;
+
+import config.ConfigLoader;
+import config.LoggerConfig;
+import dao.StatisticsDAO;
+import dao.ResilientDAO;
+import dao.impl.StatisticsDAOImpl;
+import exceptions.DatabaseException;
+import models.CirculationReport;
+import models.CirculationStat;
+import utils.TimedCache;
+
+import java.sql.SQLException;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Service for circulation statistics (top books, loans per category, member activity,
+ * average loan duration) over a time window.
+ *
+ * Figures are computed by GROUP BY queries on the server and kept in a process-wide
+ * cache for {@code stats.cacheSeconds}, so repeated dashboard views cost one map lookup.
+ * The cache keeps at most {@code stats.cacheEntries} windows.
+ * Results may therefore lag recent checkouts/returns by up to the cache TTL.
+ */
+public class StatisticsService {
+
+    private static TimedCache<String, CirculationReport> reportCache;
+
+    private final StatisticsDAO statisticsDAO;
+    private final ConfigLoader config;
+    private final Clock clock;
+
+    public StatisticsService() {
+        this(Clock.systemDefaultZone());
+    }
+
+    public StatisticsService(Clock clock) {
+        this.statisticsDAO = ResilientDAO.wrap(StatisticsDAO.class, new StatisticsDAOImpl());
+        this.config = ConfigLoader.getInstance();
+        this.clock = clock;
+    }
+
+    /**
+     * Circulation report for the last N days (including today)
+     */
+    public CirculationReport getReportForLastDays(int days) throws DatabaseException {
+        if (days <= 0) {
+            throw new IllegalArgumentException("Days must be greater than 0");
+        }
+        LocalDate today = LocalDate.now(clock);
+        return getReport(today.minusDays(days - 1L), today);
+    }
+
+    /**
+     * Circulation report for loans made between from and to (inclusive) - simulates HTTP GET request
+     */
+    public CirculationReport getReport(LocalDate from, LocalDate to) throws DatabaseException {
+        if (from == null || to == null || from.isAfter(to)) {
+            throw new IllegalArgumentException("Invalid statistics window");
+        }
+
+        int limit = config.getSnapshot().getStatsTopN();
+        String key = from + "|" + to + "|" + limit;
+
+        try {
+            LoggerConfig.logHttpRequest("GET", "/api/stats/circulation?from=" + from + "&to=" + to, "system");
+            CirculationReport report = cache().get(key, () -> loadReport(from, to, limit));
+            LoggerConfig.logHttpResponse(200, "Circulation report generated at " + report.getGeneratedAt());
+            return report;
+        } catch (SQLException e) {
+            LoggerConfig.logHttpResponse(500, "Database error");
+            LoggerConfig.logError("Error computing circulation statistics", e);
+            throw new DatabaseException("Error computing circulation statistics", e);
+        }
+    }
+
+    /**
+     * Top borrowed books in the window
+     */
+    public List<CirculationStat> getTopBorrowedBooks(LocalDate from, LocalDate to) throws DatabaseException {
+        return getReport(from, to).getTopBooks();
+    }
+
+    /**
+     * Loan count per category in the window
+     */
+    public List<CirculationStat> getLoansByCategory(LocalDate from, LocalDate to) throws DatabaseException {
+        return getReport(from, to).getLoansByCategory();
+    }
+
+    /**
+     * Most active members in the window
+     */
+    public List<CirculationStat> getMemberActivity(LocalDate from, LocalDate to) throws DatabaseException {
+        return getReport(from, to).getMemberActivity();
+    }
+
+    /**
+     * Average loan duration in days for the loans made in the window that have been returned
+     */
+    public double getAverageLoanDays(LocalDate from, LocalDate to) throws DatabaseException {
+        return getReport(from, to).getAverageLoanDays();
+    }
+
+    /**
+     * Force the next lookup to hit the database
+     */
+    public void refresh() {
+        cache().invalidateAll();
+        LoggerConfig.logInfo("Circulation statistics cache cleared");
+    }
+
+    private CirculationReport loadReport(LocalDate from, LocalDate to, int limit) throws SQLException {
+        long start = System.currentTimeMillis();
+
+        CirculationReport report = new CirculationReport(from, to,
+                statisticsDAO.findTopBorrowedBooks(from, to, limit),
+                statisticsDAO.countLoansByCategory(from, to),
+                statisticsDAO.findMemberActivity(from, to, limit),
+                statisticsDAO.averageLoanDurationDays(from, to));
+
+        LoggerConfig.logInfo("Circulation statistics computed for " + from + " - " + to
+                + " (" + (System.currentTimeMillis() - start) + " ms)");
+        return report;
+    }
+
+    private TimedCache<String, CirculationReport> cache() {
+        if (reportCache == null) {
+            synchronized (StatisticsService.class) {
+                if (reportCache == null) {
+                    long ttlSeconds = Math.max(0, config.getIntProperty("stats.cacheSeconds", 300));
+                    int maxReports = Math.max(1, config.getIntProperty("stats.cacheEntries", 50));
+                    reportCache = new TimedCache<>(ttlSeconds * 1000L, maxReports);
+                }
+            }
+        }
+        return reportCache;
+    }
+}
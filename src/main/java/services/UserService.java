@@ -2,6 +2,7 @@ package services;
 
 import config.LoggerConfig;
 import dao.UserDAO;
+import dao.ResilientDAO;
 import dao.impl.UserDAOImpl;
 import exceptions.*;
 import models.User;
@@ -18,7 +19,7 @@ public class UserService {
     private User currentUser;
 
     public UserService() {
-        this.userDAO = new UserDAOImpl();
+        this.userDAO = ResilientDAO.wrap(UserDAO.class, new UserDAOImpl());
     }
 
     /**
@@ -0,0 +1,166 @@
+package utils;
+
+import config.LoggerConfig;
+import models.Loan;
+import utils.ColumnarFormat.Column;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Utility class for exporting loans to the columnar binary format (see {@link ColumnarFormat})
+ */
+public class ColumnarExporter {
+
+    /**
+     * Export all loans to a columnar file
+     */
+    public static boolean exportAllLoans(List<Loan> loans, String filename) {
+        return exportAllLoans(loans, filename, ColumnarFormat.DEFAULT_BLOCK_SIZE);
+    }
+
+    /**
+     * Export all loans to a columnar file using the given rows per block
+     */
+    public static boolean exportAllLoans(List<Loan> loans, String filename, int blockSize) {
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("Block size must be greater than 0");
+        }
+
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(filename)))) {
+
+            // Build dictionaries up front so every block can reference them
+            Map<String, Integer> isbnIds = new HashMap<>();
+            List<String> isbnDictionary = new ArrayList<>();
+            Map<String, Integer> statusIds = new HashMap<>();
+            List<String> statusDictionary = new ArrayList<>();
+
+            for (Loan loan : loans) {
+                encode(isbnIds, isbnDictionary, loan.getIsbn());
+                encode(statusIds, statusDictionary, loan.getStatus().name());
+            }
+
+            // Write file header
+            int blockCount = (loans.size() + blockSize - 1) / blockSize;
+            out.writeInt(ColumnarFormat.MAGIC);
+            out.writeShort(ColumnarFormat.VERSION);
+            out.writeInt(loans.size());
+            out.writeInt(blockSize);
+            writeDictionary(out, isbnDictionary);
+            writeDictionary(out, statusDictionary);
+            out.writeInt(blockCount);
+
+            // Write blocks
+            long[] values = new long[blockSize];
+            for (int start = 0; start < loans.size(); start += blockSize) {
+                List<Loan> block = loans.subList(start, Math.min(start + blockSize, loans.size()));
+                out.writeInt(block.size());
+
+                for (Column column : Column.values()) {
+                    for (int i = 0; i < block.size(); i++) {
+                        values[i] = valueOf(block.get(i), column, isbnIds, statusIds);
+                    }
+                    writeChunk(out, column, values, block.size());
+                }
+            }
+
+            LoggerConfig.logInfo("All loans exported to columnar file: " + filename + " (" + loans.size() + " records)");
+            return true;
+
+        } catch (IOException e) {
+            LoggerConfig.logError("Error exporting all loans to columnar file", e);
+            return false;
+        }
+    }
+
+    /**
+     * Extract the encoded value of one cell
+     */
+    private static long valueOf(Loan loan, Column column, Map<String, Integer> isbnIds, Map<String, Integer> statusIds) {
+        return switch (column) {
+            case LOAN_ID -> loan.getIdLoan();
+            case ISBN -> isbnIds.get(loan.getIsbn());
+            case MEMBER_ID -> loan.getIdMember();
+            case LOAN_DATE -> loan.getLoanDate().toEpochDay();
+            case DUE_DATE -> loan.getDueDate().toEpochDay();
+            case RETURN_DATE -> loan.getReturnDate() != null ? loan.getReturnDate().toEpochDay() : ColumnarFormat.NULL;
+            case FINE_CENTS -> loan.getFineAmount() != null ? Math.round(loan.getFineAmount() * 100) : 0L;
+            case STATUS -> statusIds.get(loan.getStatus().name());
+            case CREATED_AT -> loan.getCreatedAt().toEpochSecond(ZoneOffset.UTC);
+        };
+    }
+
+    /**
+     * Write one column chunk: stats, null bitmap (nullable columns only) and encoded values
+     */
+    private static void writeChunk(DataOutputStream out, Column column, long[] values, int rows) throws IOException {
+        ByteArrayOutputStream data = new ByteArrayOutputStream(rows * 2);
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        int nulls = 0;
+
+        if (column.nullable) {
+            byte[] bitmap = new byte[(rows + 7) / 8];
+            for (int i = 0; i < rows; i++) {
+                if (values[i] != ColumnarFormat.NULL) {
+                    bitmap[i >> 3] |= (byte) (1 << (i & 7));
+                }
+            }
+            data.write(bitmap, 0, bitmap.length);
+        }
+
+        long previous = 0;
+        for (int i = 0; i < rows; i++) {
+            long value = values[i];
+            if (value == ColumnarFormat.NULL) {
+                nulls++;
+                continue;
+            }
+
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+
+            if (column.encoding == ColumnarFormat.Encoding.DELTA) {
+                ColumnarFormat.writeVarLong(data, value - previous);
+                previous = value;
+            } else {
+                ColumnarFormat.writeVarLong(data, value);
+            }
+        }
+
+        // An all-null chunk has no meaningful range
+        if (nulls == rows) {
+            min = ColumnarFormat.NULL;
+            max = ColumnarFormat.NULL;
+        }
+
+        out.writeLong(min);
+        out.writeLong(max);
+        out.writeInt(nulls);
+        out.writeInt(data.size());
+        data.writeTo(out);
+    }
+
+    private static void encode(Map<String, Integer> ids, List<String> dictionary, String value) {
+        if (!ids.containsKey(value)) {
+            ids.put(value, dictionary.size());
+            dictionary.add(value);
+        }
+    }
+
+    private static void writeDictionary(DataOutputStream out, List<String> dictionary) throws IOException {
+        out.writeInt(dictionary.size());
+        for (String entry : dictionary) {
+            out.writeUTF(entry);
+        }
+    }
+}
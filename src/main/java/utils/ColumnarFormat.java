@@ -0,0 +1,98 @@
+package utils;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Shared layout definitions for the columnar loan export (.lnc files)
+ *
+ * File layout (big-endian):
+ * <pre>
+ * int    magic ("LNCL")
+ * short  version
+ * int    row count
+ * int    block size
+ * dict   ISBN dictionary   (int count + UTF strings)
+ * dict   status dictionary (int count + UTF strings)
+ * int    block count
+ * block* int rows, then one chunk per column:
+ *        long min, long max, int nulls, int length, byte[length] data
+ * </pre>
+ */
+public final class ColumnarFormat {
+
+    static final int MAGIC = 0x4C4E434C;
+    static final short VERSION = 1;
+    static final int DEFAULT_BLOCK_SIZE = 4096;
+
+    /** Value reported by the reader for null cells */
+    public static final long NULL = Long.MIN_VALUE;
+
+    private ColumnarFormat() {
+    }
+
+    /**
+     * How values of a column are stored inside a chunk
+     */
+    enum Encoding {
+        /** Zigzag varint of the difference to the previous non-null value */
+        DELTA,
+        /** Zigzag varint of the raw value */
+        PLAIN,
+        /** Varint index into a file-level dictionary */
+        DICTIONARY
+    }
+
+    /**
+     * Columns of the loan export, in on-disk order
+     */
+    public enum Column {
+        LOAN_ID(Encoding.DELTA, false),
+        ISBN(Encoding.DICTIONARY, false),
+        MEMBER_ID(Encoding.PLAIN, false),
+        /** Epoch day */
+        LOAN_DATE(Encoding.DELTA, false),
+        /** Epoch day */
+        DUE_DATE(Encoding.DELTA, false),
+        /** Epoch day, null while the loan is active */
+        RETURN_DATE(Encoding.DELTA, true),
+        /** Fixed point, hundredths of the currency unit */
+        FINE_CENTS(Encoding.PLAIN, false),
+        STATUS(Encoding.DICTIONARY, false),
+        /** Epoch second of the local timestamp */
+        CREATED_AT(Encoding.DELTA, false);
+
+        final Encoding encoding;
+        final boolean nullable;
+
+        Column(Encoding encoding, boolean nullable) {
+            this.encoding = encoding;
+            this.nullable = nullable;
+        }
+
+        public boolean isDate() {
+            return this == LOAN_DATE || this == DUE_DATE || this == RETURN_DATE;
+        }
+    }
+
+    static void writeVarLong(ByteArrayOutputStream out, long value) {
+        long zigzag = (value << 1) ^ (value >> 63);
+        while ((zigzag & ~0x7FL) != 0) {
+            out.write((int) ((zigzag & 0x7F) | 0x80));
+            zigzag >>>= 7;
+        }
+        out.write((int) zigzag);
+    }
+
+    static long readVarLong(ByteBuffer in) {
+        long zigzag = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = in.get();
+            zigzag |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return (zigzag >>> 1) ^ -(zigzag & 1);
+    }
+}
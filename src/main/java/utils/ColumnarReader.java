@@ -0,0 +1,301 @@
+package utils;
+
+import models.Loan;
+import models.Loan.LoanStatus;
+import utils.ColumnarFormat.Column;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Reader for columnar loan exports produced by {@link ColumnarExporter}.
+ * Only the chunks of the requested columns are decoded; block min/max stats
+ * are used to skip whole blocks when filtering.
+ */
+public class ColumnarReader {
+
+    /**
+     * Callback for column scans
+     */
+    @FunctionalInterface
+    public interface ColumnVisitor {
+        void visit(int row, long value);
+    }
+
+    private final ByteBuffer buffer;
+    private final int rowCount;
+    private final List<String> isbnDictionary;
+    private final List<String> statusDictionary;
+
+    // Block directory, indexed by [block][column]
+    private final int[] blockRows;
+    private final int[] blockFirstRow;
+    private final long[][] chunkMin;
+    private final long[][] chunkMax;
+    private final int[][] chunkNulls;
+    private final int[][] chunkOffset;
+
+    private ColumnarReader(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+
+        if (buffer.getInt() != ColumnarFormat.MAGIC) {
+            throw new IOException("Not a columnar loan export");
+        }
+
+        short version = buffer.getShort();
+        if (version != ColumnarFormat.VERSION) {
+            throw new IOException("Unsupported columnar format version: " + version);
+        }
+
+        this.rowCount = buffer.getInt();
+        buffer.getInt(); // block size, informative only
+        this.isbnDictionary = readDictionary(buffer);
+        this.statusDictionary = readDictionary(buffer);
+
+        int blockCount = buffer.getInt();
+        int columnCount = Column.values().length;
+        this.blockRows = new int[blockCount];
+        this.blockFirstRow = new int[blockCount];
+        this.chunkMin = new long[blockCount][columnCount];
+        this.chunkMax = new long[blockCount][columnCount];
+        this.chunkNulls = new int[blockCount][columnCount];
+        this.chunkOffset = new int[blockCount][columnCount];
+
+        // Walk chunk headers only, skipping the encoded data
+        int firstRow = 0;
+        for (int b = 0; b < blockCount; b++) {
+            blockRows[b] = buffer.getInt();
+            blockFirstRow[b] = firstRow;
+            firstRow += blockRows[b];
+
+            for (int c = 0; c < columnCount; c++) {
+                chunkMin[b][c] = buffer.getLong();
+                chunkMax[b][c] = buffer.getLong();
+                chunkNulls[b][c] = buffer.getInt();
+                int length = buffer.getInt();
+                chunkOffset[b][c] = buffer.position();
+                buffer.position(buffer.position() + length);
+            }
+        }
+    }
+
+    /**
+     * Open a columnar file (memory mapped, read only)
+     */
+    public static ColumnarReader open(String filename) throws IOException {
+        try (FileChannel channel = FileChannel.open(Path.of(filename), StandardOpenOption.READ)) {
+            return new ColumnarReader(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    public int getBlockCount() {
+        return blockRows.length;
+    }
+
+    public List<String> getIsbnDictionary() {
+        return Collections.unmodifiableList(isbnDictionary);
+    }
+
+    public List<String> getStatusDictionary() {
+        return Collections.unmodifiableList(statusDictionary);
+    }
+
+    /**
+     * Min value of a column inside a block ({@link ColumnarFormat#NULL} when all null)
+     */
+    public long getBlockMin(int block, Column column) {
+        return chunkMin[block][column.ordinal()];
+    }
+
+    /**
+     * Max value of a column inside a block ({@link ColumnarFormat#NULL} when all null)
+     */
+    public long getBlockMax(int block, Column column) {
+        return chunkMax[block][column.ordinal()];
+    }
+
+    /**
+     * Visit every value of a single column in row order
+     */
+    public void scanColumn(Column column, ColumnVisitor visitor) {
+        long[] values = new long[maxBlockRows()];
+        for (int b = 0; b < blockRows.length; b++) {
+            decodeChunk(b, column, values);
+            for (int i = 0; i < blockRows[b]; i++) {
+                visitor.visit(blockFirstRow[b] + i, values[i]);
+            }
+        }
+    }
+
+    /**
+     * Decode a single column into an array (nulls as {@link ColumnarFormat#NULL})
+     */
+    public long[] readColumn(Column column) {
+        long[] result = new long[rowCount];
+        long[] values = new long[maxBlockRows()];
+        for (int b = 0; b < blockRows.length; b++) {
+            decodeChunk(b, column, values);
+            System.arraycopy(values, 0, result, blockFirstRow[b], blockRows[b]);
+        }
+        return result;
+    }
+
+    /**
+     * Find the rows whose date column falls within [from, to] (inclusive).
+     * Blocks whose stats do not overlap the range are skipped without decoding.
+     */
+    public int[] filterByDateRange(Column column, LocalDate from, LocalDate to) {
+        if (!column.isDate()) {
+            throw new IllegalArgumentException("Not a date column: " + column);
+        }
+
+        long low = from.toEpochDay();
+        long high = to.toEpochDay();
+        int c = column.ordinal();
+        long[] values = new long[maxBlockRows()];
+        int[] rows = new int[16];
+        int count = 0;
+
+        for (int b = 0; b < blockRows.length; b++) {
+            if (chunkMin[b][c] == ColumnarFormat.NULL || chunkMax[b][c] < low || chunkMin[b][c] > high) {
+                continue;
+            }
+
+            decodeChunk(b, column, values);
+            for (int i = 0; i < blockRows[b]; i++) {
+                long value = values[i];
+                if (value != ColumnarFormat.NULL && value >= low && value <= high) {
+                    if (count == rows.length) {
+                        rows = Arrays.copyOf(rows, rows.length * 2);
+                    }
+                    rows[count++] = blockFirstRow[b] + i;
+                }
+            }
+        }
+
+        return Arrays.copyOf(rows, count);
+    }
+
+    /**
+     * Materialize the given rows (sorted ascending) as loans, decoding only the blocks they live in
+     */
+    public List<Loan> readLoans(int[] rows) {
+        List<Loan> loans = new ArrayList<>(rows.length);
+        Column[] columns = Column.values();
+        long[][] decoded = new long[columns.length][maxBlockRows()];
+        int currentBlock = -1;
+
+        for (int row : rows) {
+            int b = blockOf(row);
+            if (b != currentBlock) {
+                for (Column column : columns) {
+                    decodeChunk(b, column, decoded[column.ordinal()]);
+                }
+                currentBlock = b;
+            }
+
+            int i = row - blockFirstRow[b];
+            long returnDay = decoded[Column.RETURN_DATE.ordinal()][i];
+
+            loans.add(new Loan(
+                    (int) decoded[Column.LOAN_ID.ordinal()][i],
+                    isbnDictionary.get((int) decoded[Column.ISBN.ordinal()][i]),
+                    (int) decoded[Column.MEMBER_ID.ordinal()][i],
+                    LocalDate.ofEpochDay(decoded[Column.LOAN_DATE.ordinal()][i]),
+                    LocalDate.ofEpochDay(decoded[Column.DUE_DATE.ordinal()][i]),
+                    returnDay != ColumnarFormat.NULL ? LocalDate.ofEpochDay(returnDay) : null,
+                    decoded[Column.FINE_CENTS.ordinal()][i] / 100.0,
+                    LoanStatus.valueOf(statusDictionary.get((int) decoded[Column.STATUS.ordinal()][i])),
+                    LocalDateTime.ofEpochSecond(decoded[Column.CREATED_AT.ordinal()][i], 0, ZoneOffset.UTC)
+            ));
+        }
+
+        return loans;
+    }
+
+    /**
+     * Materialize every row as loans
+     */
+    public List<Loan> readAllLoans() {
+        int[] rows = new int[rowCount];
+        for (int i = 0; i < rowCount; i++) {
+            rows[i] = i;
+        }
+        return readLoans(rows);
+    }
+
+    /**
+     * Decode one chunk into the given array
+     */
+    private void decodeChunk(int block, Column column, long[] values) {
+        int rows = blockRows[block];
+        ByteBuffer in = buffer.duplicate();
+        in.position(chunkOffset[block][column.ordinal()]);
+
+        byte[] bitmap = null;
+        if (column.nullable) {
+            bitmap = new byte[(rows + 7) / 8];
+            in.get(bitmap);
+        }
+
+        long previous = 0;
+        for (int i = 0; i < rows; i++) {
+            if (bitmap != null && (bitmap[i >> 3] & (1 << (i & 7))) == 0) {
+                values[i] = ColumnarFormat.NULL;
+                continue;
+            }
+
+            long value = ColumnarFormat.readVarLong(in);
+            if (column.encoding == ColumnarFormat.Encoding.DELTA) {
+                value += previous;
+                previous = value;
+            }
+            values[i] = value;
+        }
+    }
+
+    private int blockOf(int row) {
+        if (row < 0 || row >= rowCount) {
+            throw new IndexOutOfBoundsException("Row out of range: " + row);
+        }
+
+        int index = Arrays.binarySearch(blockFirstRow, row);
+        return index >= 0 ? index : -index - 2;
+    }
+
+    private int maxBlockRows() {
+        int max = 0;
+        for (int rows : blockRows) {
+            max = Math.max(max, rows);
+        }
+        return max;
+    }
+
+    private static List<String> readDictionary(ByteBuffer in) {
+        int size = in.getInt();
+        List<String> dictionary = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            int length = in.getShort() & 0xFFFF;
+            byte[] bytes = new byte[length];
+            in.get(bytes);
+            // writeUTF uses modified UTF-8, identical to UTF-8 for ISBN and status values
+            dictionary.add(new String(bytes, StandardCharsets.UTF_8));
+        }
+        return dictionary;
+    }
+}
@@ -0,0 +1,126 @@
+package utils;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.util.BitSet;
+
+/**
+ * Minimal cron expression: "minute hour day-of-month month day-of-week".
+ * Each field accepts *, a number, ranges (a-b), steps (*&#47;n, a-b/n) and comma lists.
+ * Day-of-week uses 0-7 where both 0 and 7 are Sunday. As in classic cron, when both
+ * day fields are restricted a time matches if either of them matches.
+ */
+public class CronSchedule {
+
+    private final String expression;
+    private final BitSet minutes;
+    private final BitSet hours;
+    private final BitSet daysOfMonth;
+    private final BitSet months;
+    private final BitSet daysOfWeek;
+    private final boolean dayOfMonthRestricted;
+    private final boolean dayOfWeekRestricted;
+
+    private CronSchedule(String expression) {
+        String[] fields = expression.trim().split("\\s+");
+        if (fields.length != 5) {
+            throw new IllegalArgumentException("Cron expression must have 5 fields: " + expression);
+        }
+
+        this.expression = expression.trim();
+        this.minutes = parseField(fields[0], 0, 59);
+        this.hours = parseField(fields[1], 0, 23);
+        this.daysOfMonth = parseField(fields[2], 1, 31);
+        this.months = parseField(fields[3], 1, 12);
+        this.daysOfWeek = parseField(fields[4], 0, 7);
+        this.dayOfMonthRestricted = !fields[2].equals("*");
+        this.dayOfWeekRestricted = !fields[4].equals("*");
+
+        // Sunday may be written as 0 or 7
+        if (daysOfWeek.get(7)) {
+            daysOfWeek.set(0);
+        }
+    }
+
+    /**
+     * Parse a cron expression
+     */
+    public static CronSchedule parse(String expression) {
+        if (expression == null || expression.isBlank()) {
+            throw new IllegalArgumentException("Cron expression cannot be empty");
+        }
+        return new CronSchedule(expression);
+    }
+
+    /**
+     * Check if the given minute matches the schedule (seconds are ignored)
+     */
+    public boolean matches(LocalDateTime time) {
+        return minutes.get(time.getMinute())
+                && hours.get(time.getHour())
+                && months.get(time.getMonthValue())
+                && dayMatches(time);
+    }
+
+    @Override
+    public String toString() {
+        return expression;
+    }
+
+    private boolean dayMatches(LocalDateTime time) {
+        boolean domMatch = daysOfMonth.get(time.getDayOfMonth());
+        boolean dowMatch = daysOfWeek.get(time.getDayOfWeek() == DayOfWeek.SUNDAY ? 0 : time.getDayOfWeek().getValue());
+        return dayOfMonthRestricted && dayOfWeekRestricted ? domMatch || dowMatch : domMatch && dowMatch;
+    }
+
+    private static BitSet parseField(String field, int min, int max) {
+        BitSet bits = new BitSet(max + 1);
+
+        for (String part : field.split(",")) {
+            int step = 1;
+            String range = part;
+
+            int slash = part.indexOf('/');
+            if (slash >= 0) {
+                step = parseNumber(part.substring(slash + 1), 1, max, part);
+                range = part.substring(0, slash);
+            }
+
+            int start;
+            int end;
+            if (range.equals("*")) {
+                start = min;
+                end = max;
+            } else if (range.contains("-")) {
+                String[] bounds = range.split("-", 2);
+                start = parseNumber(bounds[0], min, max, part);
+                end = parseNumber(bounds[1], min, max, part);
+            } else {
+                start = parseNumber(range, min, max, part);
+                end = slash >= 0 ? max : start;
+            }
+
+            if (start > end) {
+                throw new IllegalArgumentException("Invalid cron range: " + part);
+            }
+
+            for (int i = start; i <= end; i += step) {
+                bits.set(i);
+            }
+        }
+
+        return bits;
+    }
+
+    private static int parseNumber(String value, int min, int max, String part) {
+        try {
+            int number = Integer.parseInt(value.trim());
+            if (number < min || number > max) {
+                throw new IllegalArgumentException("Cron value out of range [" + min + "-" + max + "]: " + part);
+            }
+            return number;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cron field: " + part, e);
+        }
+    }
+}
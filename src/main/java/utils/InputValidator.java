@@ -1,10 +1,29 @@
 package utils;
 
+import models.Book;
+import models.Member;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
 /**
- * Utility class for input validation
+ * Utility class for input validation.
+ *
+ * Format checks are hand-written scanners instead of regular expressions so bulk
+ * validation does not compile or run a regex per field. The validateBook/validateMember
+ * methods check a whole record in one pass and report every invalid field.
  */
 public class InputValidator {
 
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private static final int ISBN_VALID = 0;
+    private static final int ISBN_EMPTY = 1;
+    private static final int ISBN_BAD_FORMAT = 2;
+    private static final int ISBN_BAD_CHECK_DIGIT = 3;
+
     /**
      * Check if string is null or empty
      */
@@ -13,15 +32,43 @@ public class InputValidator {
     }
 
     /**
-     * Validate email format
+     * Validate email format: local@domain.tld where the local part is letters, digits and +_.-,
+     * the domain letters, digits, dots and dashes, and the tld at least two letters
      */
     public static boolean isValidEmail(String email) {
         if (isNullOrEmpty(email)) {
             return false;
         }
 
-        String emailRegex = "^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,}$";
-        return email.matches(emailRegex);
+        int length = email.length();
+        int at = 0;
+        while (at < length && isEmailLocalChar(email.charAt(at))) {
+            at++;
+        }
+        if (at == 0 || at == length || email.charAt(at) != '@') {
+            return false;
+        }
+
+        int lastDot = -1;
+        for (int i = at + 1; i < length; i++) {
+            char c = email.charAt(i);
+            if (c == '.') {
+                lastDot = i;
+            } else if (!isAsciiLetterOrDigit(c) && c != '-') {
+                return false;
+            }
+        }
+
+        // At least one domain character before the last dot and two letters after it
+        if (lastDot <= at + 1 || length - lastDot - 1 < 2) {
+            return false;
+        }
+        for (int i = lastDot + 1; i < length; i++) {
+            if (!isAsciiLetter(email.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
     }
 
     /**
@@ -32,24 +79,35 @@ public class InputValidator {
             return false;
         }
 
-        // Allow digits, spaces, parentheses, dashes, and plus sign
-        String phoneRegex = "^[0-9\\s()+-]{7,20}$";
-        return phone.matches(phoneRegex);
+        // Allow 7-20 digits, spaces, parentheses, dashes, and plus sign
+        int length = phone.length();
+        if (length < 7 || length > 20) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            char c = phone.charAt(i);
+            if (!isAsciiDigit(c) && !isWhitespace(c) && c != '(' && c != ')' && c != '+' && c != '-') {
+                return false;
+            }
+        }
+        return true;
     }
 
     /**
-     * Validate ISBN format (ISBN-10 or ISBN-13)
+     * Validate ISBN (ISBN-10 or ISBN-13), including the check digit
      */
     public static boolean isValidISBN(String isbn) {
-        if (isNullOrEmpty(isbn)) {
-            return false;
-        }
-
-        // Remove hyphens and spaces
-        String cleanIsbn = isbn.replaceAll("[\\s-]", "");
+        return checkISBN(isbn) == ISBN_VALID;
+    }
 
-        // Check if it's ISBN-10 or ISBN-13
-        return cleanIsbn.matches("^\\d{10}$") || cleanIsbn.matches("^\\d{13}$");
+    /**
+     * ISBN without hyphens and spaces (check digit X in upper case), or null if it is not
+     * 10 or 13 characters of the right kind; the check digit is not verified
+     */
+    public static String normalizeISBN(String isbn) {
+        char[] digits = new char[13];
+        int count = cleanISBN(isbn, digits);
+        return count == 10 || count == 13 ? new String(digits, 0, count) : null;
     }
 
     /**
@@ -159,8 +217,17 @@ public class InputValidator {
         }
 
         // Allow alphanumeric characters and underscore, 3-20 characters
-        String usernameRegex = "^[a-zA-Z0-9_]{3,20}$";
-        return username.matches(usernameRegex);
+        int length = username.length();
+        if (length < 3 || length > 20) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            char c = username.charAt(i);
+            if (!isAsciiLetterOrDigit(c) && c != '_') {
+                return false;
+            }
+        }
+        return true;
     }
 
     /**
@@ -183,6 +250,192 @@ public class InputValidator {
             return "";
         }
 
-        return str.trim().replaceAll("\\s+", " ");
+        return WHITESPACE.matcher(str.trim()).replaceAll(" ");
+    }
+
+    /**
+     * Validate the fields of a new or edited book in one pass, collecting every error
+     */
+    public static ValidationResult validateBook(String isbn, String title, String author,
+                                                String totalCopiesStr, String referencePriceStr) {
+        ValidationResult result = new ValidationResult();
+
+        int isbnStatus = checkISBN(isbn);
+        if (isbnStatus == ISBN_EMPTY) {
+            result.addError("isbn", "El ISBN es requerido");
+        } else if (isbnStatus == ISBN_BAD_FORMAT) {
+            result.addError("isbn", "Formato de ISBN inválido");
+        } else if (isbnStatus == ISBN_BAD_CHECK_DIGIT) {
+            result.addError("isbn", "Dígito de control del ISBN inválido");
+        }
+
+        if (isNullOrEmpty(title)) {
+            result.addError("title", "El título es requerido");
+        }
+
+        if (isNullOrEmpty(author)) {
+            result.addError("author", "El autor es requerido");
+        }
+
+        if (!isPositiveInteger(totalCopiesStr)) {
+            result.addError("totalCopies", "El número de ejemplares debe ser un entero positivo");
+        }
+
+        if (!isNonNegativeDouble(referencePriceStr)) {
+            result.addError("referencePrice", "El precio debe ser un número positivo");
+        }
+
+        return result;
+    }
+
+    /**
+     * Validate a book record (e.g. one imported row) in one pass
+     */
+    public static ValidationResult validateBook(Book book) {
+        return validateBook(book.getIsbn(), book.getTitle(), book.getAuthor(),
+                book.getTotalCopies() != null ? book.getTotalCopies().toString() : null,
+                book.getReferencePrice() != null ? book.getReferencePrice().toString() : null);
+    }
+
+    /**
+     * Validate many book records; returns the results of the invalid ones by position in the list
+     */
+    public static Map<Integer, ValidationResult> validateBooks(List<Book> books) {
+        Map<Integer, ValidationResult> invalid = new LinkedHashMap<>();
+        for (int i = 0; i < books.size(); i++) {
+            ValidationResult result = validateBook(books.get(i));
+            if (!result.isValid()) {
+                invalid.put(i, result);
+            }
+        }
+        return invalid;
+    }
+
+    /**
+     * Validate the fields of a new or edited member in one pass, collecting every error.
+     * The phone is optional.
+     */
+    public static ValidationResult validateMember(String name, String email, String phone) {
+        ValidationResult result = new ValidationResult();
+
+        if (isNullOrEmpty(name)) {
+            result.addError("name", "El nombre es requerido");
+        }
+
+        if (isNullOrEmpty(email)) {
+            result.addError("email", "El email es requerido");
+        } else if (!isValidEmail(email)) {
+            result.addError("email", "Formato de email inválido");
+        }
+
+        if (!isNullOrEmpty(phone) && !isValidPhone(phone)) {
+            result.addError("phone", "Formato de teléfono inválido");
+        }
+
+        return result;
+    }
+
+    /**
+     * Validate a member record (e.g. one imported row) in one pass
+     */
+    public static ValidationResult validateMember(Member member) {
+        return validateMember(member.getName(), member.getEmail(), member.getPhone());
+    }
+
+    /**
+     * Validate many member records; returns the results of the invalid ones by position in the list
+     */
+    public static Map<Integer, ValidationResult> validateMembers(List<Member> members) {
+        Map<Integer, ValidationResult> invalid = new LinkedHashMap<>();
+        for (int i = 0; i < members.size(); i++) {
+            ValidationResult result = validateMember(members.get(i));
+            if (!result.isValid()) {
+                invalid.put(i, result);
+            }
+        }
+        return invalid;
+    }
+
+    private static int checkISBN(String isbn) {
+        if (isNullOrEmpty(isbn)) {
+            return ISBN_EMPTY;
+        }
+
+        char[] digits = new char[13];
+        int count = cleanISBN(isbn, digits);
+        if (count == 10) {
+            // ISBN-10: weights 10..1, sum divisible by 11 (X = 10, check digit only)
+            int sum = 0;
+            for (int i = 0; i < 10; i++) {
+                sum += (10 - i) * (digits[i] == 'X' ? 10 : digits[i] - '0');
+            }
+            return sum % 11 == 0 ? ISBN_VALID : ISBN_BAD_CHECK_DIGIT;
+        }
+        if (count == 13) {
+            // ISBN-13: alternating weights 1 and 3, sum divisible by 10
+            int sum = 0;
+            for (int i = 0; i < 13; i++) {
+                sum += (i % 2 == 0 ? 1 : 3) * (digits[i] - '0');
+            }
+            return sum % 10 == 0 ? ISBN_VALID : ISBN_BAD_CHECK_DIGIT;
+        }
+        return ISBN_BAD_FORMAT;
+    }
+
+    /**
+     * Copy the ISBN characters without hyphens and whitespace into digits; returns how many
+     * were copied, or -1 if there is any other character, too many, or a misplaced X
+     */
+    private static int cleanISBN(String isbn, char[] digits) {
+        if (isbn == null) {
+            return -1;
+        }
+
+        int count = 0;
+        for (int i = 0; i < isbn.length(); i++) {
+            char c = isbn.charAt(i);
+            if (c == '-' || isWhitespace(c)) {
+                continue;
+            }
+            if (count == digits.length) {
+                return -1;
+            }
+            if (isAsciiDigit(c)) {
+                digits[count++] = c;
+            } else if ((c == 'X' || c == 'x') && count == 9) {
+                digits[count++] = 'X';
+            } else {
+                return -1;
+            }
+        }
+
+        // X is only a valid final character of an ISBN-10
+        if (count > 9 && digits[9] == 'X' && count != 10) {
+            return -1;
+        }
+        return count;
+    }
+
+    private static boolean isEmailLocalChar(char c) {
+        return isAsciiLetterOrDigit(c) || c == '+' || c == '_' || c == '.' || c == '-';
+    }
+
+    private static boolean isAsciiLetterOrDigit(char c) {
+        return isAsciiLetter(c) || isAsciiDigit(c);
+    }
+
+    private static boolean isAsciiLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    private static boolean isAsciiDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    /**
+     * Same characters as \s in java.util.regex
+     */
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
     }
 }
\ No newline at end of file
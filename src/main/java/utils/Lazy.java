@@ -0,0 +1,37 @@
+package utils;
+
+import java.util.function.Supplier;
+
+/**
+ * Value created on first use and shared afterwards (thread-safe, created at most once).
+ * A failed creation is not cached, so the next call tries again.
+ */
+public final class Lazy<T> implements Supplier<T> {
+
+    private Supplier<? extends T> factory;
+    private volatile T value;
+
+    public Lazy(Supplier<? extends T> factory) {
+        this.factory = factory;
+    }
+
+    @Override
+    public T get() {
+        T result = value;
+        if (result == null) {
+            synchronized (this) {
+                result = value;
+                if (result == null) {
+                    result = factory.get();
+                    value = result;
+                    factory = null;
+                }
+            }
+        }
+        return result;
+    }
+
+    public boolean isInitialized() {
+        return value != null;
+    }
+}
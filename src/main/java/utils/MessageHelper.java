@@ -82,6 +82,49 @@ public class MessageHelper {
         JOptionPane.showMessageDialog(null, scrollPane, title, JOptionPane.INFORMATION_MESSAGE);
     }
 
+    /**
+     * Show a paged table with a filter box; clicking a header sorts by that column
+     */
+    public static void showPagedTable(String title, PagedTableModel<?> model) {
+        JTable table = new JTable(model);
+        table.setFillsViewportHeight(true);
+        table.setAutoResizeMode(JTable.AUTO_RESIZE_ALL_COLUMNS);
+        table.getTableHeader().setReorderingAllowed(false);
+        table.getTableHeader().addMouseListener(new java.awt.event.MouseAdapter() {
+            @Override
+            public void mouseClicked(java.awt.event.MouseEvent e) {
+                int column = table.columnAtPoint(e.getPoint());
+                if (column >= 0) {
+                    model.sortBy(table.convertColumnIndexToModel(column));
+                }
+            }
+        });
+
+        JLabel total = new JLabel(" ");
+        model.addTableModelListener(e -> total.setText("Total: " + model.getRowCount()));
+
+        JTextField filter = new JTextField(25);
+        filter.addActionListener(e -> model.setFilter(filter.getText()));
+        JButton search = new JButton("Buscar");
+        search.addActionListener(e -> model.setFilter(filter.getText()));
+
+        JPanel top = new JPanel(new java.awt.FlowLayout(java.awt.FlowLayout.LEFT));
+        top.add(new JLabel("Filtro:"));
+        top.add(filter);
+        top.add(search);
+
+        JScrollPane scrollPane = new JScrollPane(table);
+        scrollPane.setPreferredSize(new java.awt.Dimension(800, 450));
+
+        JPanel panel = new JPanel(new java.awt.BorderLayout(0, 5));
+        panel.add(top, java.awt.BorderLayout.NORTH);
+        panel.add(scrollPane, java.awt.BorderLayout.CENTER);
+        panel.add(total, java.awt.BorderLayout.SOUTH);
+
+        model.refresh();
+        JOptionPane.showMessageDialog(null, panel, title, JOptionPane.PLAIN_MESSAGE);
+    }
+
     /**
      * Show welcome message
      */
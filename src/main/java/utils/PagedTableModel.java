@@ -0,0 +1,211 @@
+package utils;
+
+import config.LoggerConfig;
+import exceptions.DatabaseException;
+
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Swing TableModel that loads rows lazily in pages as the table asks for them.
+ *
+ * Only the pages the viewport touches are fetched (on a background SwingWorker) and at
+ * most {@code maxPages} are kept in an LRU cache, so memory and render time depend on
+ * what is on screen rather than on the table size. Sorting and filtering are passed
+ * down to the page source (SQL ORDER BY / WHERE) and reset the cache.
+ */
+public class PagedTableModel<T> extends AbstractTableModel {
+
+    /**
+     * Supplies the row count and pages for the current filter and sort
+     */
+    public interface PageSource<T> {
+        int count(String filter) throws DatabaseException;
+
+        List<T> fetch(String filter, String sortColumn, boolean ascending, int offset, int limit)
+                throws DatabaseException;
+    }
+
+    /**
+     * A table column: header, SQL sort column (null if not sortable) and value extractor
+     */
+    public static class Column<T> {
+        private final String name;
+        private final String sortColumn;
+        private final Function<T, Object> value;
+
+        public Column(String name, String sortColumn, Function<T, Object> value) {
+            this.name = name;
+            this.sortColumn = sortColumn;
+            this.value = value;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getSortColumn() {
+            return sortColumn;
+        }
+    }
+
+    private static final String LOADING = "…";
+
+    private final PageSource<T> source;
+    private final List<Column<T>> columns;
+    private final int pageSize;
+    private final Map<Integer, List<T>> pages;
+    private final Set<Integer> loading = new HashSet<>();
+
+    private int rowCount = 0;
+    private int generation = 0;
+    private String filter = "";
+    private String sortColumn;
+    private boolean ascending;
+
+    public PagedTableModel(PageSource<T> source, List<Column<T>> columns, int pageSize, int maxPages,
+                           String sortColumn, boolean ascending) {
+        this.source = source;
+        this.columns = List.copyOf(columns);
+        this.pageSize = pageSize;
+        this.sortColumn = sortColumn;
+        this.ascending = ascending;
+        this.pages = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, List<T>> eldest) {
+                return size() > maxPages;
+            }
+        };
+    }
+
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columns.size();
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        Column<T> col = columns.get(column);
+        if (col.sortColumn != null && col.sortColumn.equals(sortColumn)) {
+            return col.name + (ascending ? " ▲" : " ▼");
+        }
+        return col.name;
+    }
+
+    @Override
+    public Object getValueAt(int rowIndex, int columnIndex) {
+        int page = rowIndex / pageSize;
+        List<T> rows = pages.get(page);
+
+        if (rows == null) {
+            requestPage(page);
+            return LOADING;
+        }
+
+        int offset = rowIndex - page * pageSize;
+        return offset < rows.size() ? columns.get(columnIndex).value.apply(rows.get(offset)) : null;
+    }
+
+    /**
+     * Sort by the given column; clicking the current sort column again flips the direction
+     */
+    public void sortBy(int columnIndex) {
+        String column = columns.get(columnIndex).sortColumn;
+        if (column == null) {
+            return;
+        }
+
+        ascending = !column.equals(sortColumn) || !ascending;
+        sortColumn = column;
+        fireTableStructureChanged();
+        refresh();
+    }
+
+    /**
+     * Apply a new filter (blank shows everything)
+     */
+    public void setFilter(String filter) {
+        this.filter = filter != null ? filter.trim() : "";
+        refresh();
+    }
+
+    /**
+     * Drop cached pages and recount rows in the background
+     */
+    public void refresh() {
+        int current = ++generation;
+        pages.clear();
+        loading.clear();
+
+        String countFilter = filter;
+        new SwingWorker<Integer, Void>() {
+            @Override
+            protected Integer doInBackground() throws DatabaseException {
+                return source.count(countFilter);
+            }
+
+            @Override
+            protected void done() {
+                if (current != generation) {
+                    return;
+                }
+                try {
+                    rowCount = get();
+                } catch (Exception e) {
+                    rowCount = 0;
+                    LoggerConfig.logError("Error counting table rows", e);
+                }
+                fireTableDataChanged();
+            }
+        }.execute();
+    }
+
+    private void requestPage(int page) {
+        if (!loading.add(page)) {
+            return;
+        }
+
+        int current = generation;
+        String pageFilter = filter;
+        String pageSort = sortColumn;
+        boolean pageAscending = ascending;
+
+        new SwingWorker<List<T>, Void>() {
+            @Override
+            protected List<T> doInBackground() throws DatabaseException {
+                return source.fetch(pageFilter, pageSort, pageAscending, page * pageSize, pageSize);
+            }
+
+            @Override
+            protected void done() {
+                if (current != generation) {
+                    return;
+                }
+                loading.remove(page);
+                try {
+                    pages.put(page, get());
+                } catch (Exception e) {
+                    LoggerConfig.logError("Error loading table page " + page, e);
+                    return;
+                }
+
+                int first = page * pageSize;
+                int last = Math.min(rowCount, first + pageSize) - 1;
+                if (last >= first) {
+                    fireTableRowsUpdated(first, last);
+                }
+            }
+        }.execute();
+    }
+}
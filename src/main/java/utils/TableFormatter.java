@@ -1,21 +1,63 @@
 package utils;
 
 import models.Book;
+import models.CirculationReport;
+import models.CirculationStat;
+import models.Hold;
 import models.Loan;
 import models.Member;
 import models.User;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 
 /**
- * Utility class for formatting data as tables for JOptionPane display
+ * Utility class for formatting data as tables for JOptionPane display.
+ *
+ * Each list table also has a write method that streams the same text row by row to any
+ * Appendable (a Writer for reports too long to hold in memory); the format methods
+ * render into a StringBuilder through it. Row layouts are built once per class.
  */
 public class TableFormatter {
 
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
     private static final DateTimeFormatter DATETIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
 
+    private static final TextTableWriter.Layout BOOK_HEADER = TextTableWriter.Layout.builder()
+            .left(18).left(25).left(20).left(6).build();
+    private static final TextTableWriter.Layout BOOK_ROW = TextTableWriter.Layout.builder()
+            .left(1).truncated(18).truncated(25).truncated(20).left(6).build();
+    private static final TextTableWriter.Layout MEMBER_ROW = TextTableWriter.Layout.builder()
+            .left(4).truncated(25).truncated(30).left(8).build();
+    private static final TextTableWriter.Layout USER_ROW = TextTableWriter.Layout.builder()
+            .left(4).truncated(20).left(12).left(10).left(10).build();
+    private static final TextTableWriter.Layout LOAN_ROW = TextTableWriter.Layout.builder()
+            .left(4).truncated(18).left(6).left(12).left(12).left(10).left(8).build();
+    private static final TextTableWriter.Layout FINE_ROW = TextTableWriter.Layout.builder()
+            .left(12).left(25).build();
+    private static final TextTableWriter.Layout HOLD_ROW = TextTableWriter.Layout.builder()
+            .left(5).truncated(18).left(6).left(11).left(12).left(16).build();
+    private static final TextTableWriter.Layout STAT_ROW = TextTableWriter.Layout.builder()
+            .truncated(18).truncated(30).right(8).build();
+    private static final TextTableWriter.Layout MESSAGE_ROW = TextTableWriter.Layout.builder()
+            .left(58).build();
+    private static final TextTableWriter.Layout DETAIL_ROW = TextTableWriter.Layout.builder()
+            .left(17).left(40).build();
+    private static final TextTableWriter.Layout DETAIL_TRUNCATED_ROW = TextTableWriter.Layout.builder()
+            .left(17).truncated(40).build();
+
+    /**
+     * Writes a table into an Appendable
+     */
+    @FunctionalInterface
+    private interface TableWriter {
+        void write(Appendable out) throws IOException;
+    }
+
     /**
      * Format list of books as a table string
      */
@@ -23,28 +65,41 @@ public class TableFormatter {
         if (books == null || books.isEmpty()) {
             return "No books found.";
         }
+        return render(books.size() * BOOK_ROW.getRowLength(), out -> writeBooksTable(books, out));
+    }
 
-        StringBuilder sb = new StringBuilder();
-        sb.append("╔════════════════════════════════════════════════════════════════════════╗\n");
-        sb.append("║                           BOOKS CATALOG                                ║\n");
-        sb.append("╠════════════════════════════════════════════════════════════════════════╣\n");
-        sb.append(String.format("║ %-18s %-25s %-20s %-6s ║\n", "ISBN", "Title", "Author", "Stock"));
-        sb.append("╠════════════════════════════════════════════════════════════════════════╣\n");
-
-        for (Book book : books) {
-            String status = book.getIsActive() ? "✓" : "✗";
-            String title = truncate(book.getTitle(), 25);
-            String author = truncate(book.getAuthor(), 20);
-            String stock = String.format("%d/%d", book.getAvailableCopies(), book.getTotalCopies());
-
-            sb.append(String.format("║ %s %-18s %-25s %-20s %-6s ║\n",
-                    status, truncate(book.getIsbn(), 18), title, author, stock));
+    /**
+     * Write books as a table, one row at a time
+     */
+    public static void writeBooksTable(Iterable<Book> books, Appendable out) throws IOException {
+        Iterator<Book> iterator = books != null ? books.iterator() : null;
+        if (iterator == null || !iterator.hasNext()) {
+            out.append("No books found.");
+            return;
         }
 
-        sb.append("╚════════════════════════════════════════════════════════════════════════╝\n");
-        sb.append(String.format("Total: %d books", books.size()));
+        TextTableWriter table = new TextTableWriter(out);
+        table.text("╔════════════════════════════════════════════════════════════════════════╗\n");
+        table.text("║                           BOOKS CATALOG                                ║\n");
+        table.text("╠════════════════════════════════════════════════════════════════════════╣\n");
+        table.row(BOOK_HEADER).cell("ISBN").cell("Title").cell("Author").cell("Stock").end();
+        table.text("╠════════════════════════════════════════════════════════════════════════╣\n");
+
+        int count = 0;
+        while (iterator.hasNext()) {
+            Book book = iterator.next();
+            table.row(BOOK_ROW)
+                    .cell(book.getIsActive() ? "✓" : "✗")
+                    .cell(book.getIsbn())
+                    .cell(book.getTitle())
+                    .cell(book.getAuthor())
+                    .ratio(book.getAvailableCopies(), book.getTotalCopies())
+                    .end();
+            count++;
+        }
 
-        return sb.toString();
+        table.text("╚════════════════════════════════════════════════════════════════════════╝\n");
+        table.text(String.format("Total: %d books", count));
     }
 
     /**
@@ -54,27 +109,40 @@ public class TableFormatter {
         if (members == null || members.isEmpty()) {
             return "No members found.";
         }
+        return render(members.size() * MEMBER_ROW.getRowLength(), out -> writeMembersTable(members, out));
+    }
 
-        StringBuilder sb = new StringBuilder();
-        sb.append("╔════════════════════════════════════════════════════════════════════════╗\n");
-        sb.append("║                            MEMBERS LIST                                ║\n");
-        sb.append("╠════════════════════════════════════════════════════════════════════════╣\n");
-        sb.append(String.format("║ %-4s %-25s %-30s %-8s ║\n", "ID", "Name", "Email", "Status"));
-        sb.append("╠════════════════════════════════════════════════════════════════════════╣\n");
-
-        for (Member member : members) {
-            String status = member.getIsActive() ? "[ACTIVE]" : "[INACTIVE]";
-            String name = truncate(member.getName(), 25);
-            String email = truncate(member.getEmail(), 30);
-
-            sb.append(String.format("║ %-4d %-25s %-30s %-8s ║\n",
-                    member.getIdMember(), name, email, status));
+    /**
+     * Write members as a table, one row at a time
+     */
+    public static void writeMembersTable(Iterable<Member> members, Appendable out) throws IOException {
+        Iterator<Member> iterator = members != null ? members.iterator() : null;
+        if (iterator == null || !iterator.hasNext()) {
+            out.append("No members found.");
+            return;
         }
 
-        sb.append("╚════════════════════════════════════════════════════════════════════════╝\n");
-        sb.append(String.format("Total: %d members", members.size()));
+        TextTableWriter table = new TextTableWriter(out);
+        table.text("╔════════════════════════════════════════════════════════════════════════╗\n");
+        table.text("║                            MEMBERS LIST                                ║\n");
+        table.text("╠════════════════════════════════════════════════════════════════════════╣\n");
+        table.row(MEMBER_ROW).cell("ID").cell("Name").cell("Email").cell("Status").end();
+        table.text("╠════════════════════════════════════════════════════════════════════════╣\n");
+
+        int count = 0;
+        while (iterator.hasNext()) {
+            Member member = iterator.next();
+            table.row(MEMBER_ROW)
+                    .cell(member.getIdMember())
+                    .cell(member.getName())
+                    .cell(member.getEmail())
+                    .cell(member.getIsActive() ? "[ACTIVE]" : "[INACTIVE]")
+                    .end();
+            count++;
+        }
 
-        return sb.toString();
+        table.text("╚════════════════════════════════════════════════════════════════════════╝\n");
+        table.text(String.format("Total: %d members", count));
     }
 
     /**
@@ -84,29 +152,41 @@ public class TableFormatter {
         if (users == null || users.isEmpty()) {
             return "No users found.";
         }
+        return render(users.size() * USER_ROW.getRowLength(), out -> writeUsersTable(users, out));
+    }
 
-        StringBuilder sb = new StringBuilder();
-        sb.append("╔════════════════════════════════════════════════════════════════╗\n");
-        sb.append("║                        USERS LIST                              ║\n");
-        sb.append("╠════════════════════════════════════════════════════════════════╣\n");
-        sb.append(String.format("║ %-4s %-20s %-12s %-10s %-10s ║\n", "ID", "Username", "Role", "Status", "Created"));
-        sb.append("╠════════════════════════════════════════════════════════════════╣\n");
-
-        for (User user : users) {
-            String createdAt = user.getCreatedAt().format(DATETIME_FORMATTER);
-
-            sb.append(String.format("║ %-4d %-20s %-12s %-10s %-10s ║\n",
-                    user.getIdUser(),
-                    truncate(user.getUsername(), 20),
-                    user.getRole().name(),
-                    user.getStatus().name(),
-                    createdAt));
+    /**
+     * Write users as a table, one row at a time
+     */
+    public static void writeUsersTable(Iterable<User> users, Appendable out) throws IOException {
+        Iterator<User> iterator = users != null ? users.iterator() : null;
+        if (iterator == null || !iterator.hasNext()) {
+            out.append("No users found.");
+            return;
         }
 
-        sb.append("╚════════════════════════════════════════════════════════════════╝\n");
-        sb.append(String.format("Total: %d users", users.size()));
+        TextTableWriter table = new TextTableWriter(out);
+        table.text("╔════════════════════════════════════════════════════════════════╗\n");
+        table.text("║                        USERS LIST                              ║\n");
+        table.text("╠════════════════════════════════════════════════════════════════╣\n");
+        table.row(USER_ROW).cell("ID").cell("Username").cell("Role").cell("Status").cell("Created").end();
+        table.text("╠════════════════════════════════════════════════════════════════╣\n");
+
+        int count = 0;
+        while (iterator.hasNext()) {
+            User user = iterator.next();
+            table.row(USER_ROW)
+                    .cell(user.getIdUser())
+                    .cell(user.getUsername())
+                    .cell(user.getRole().name())
+                    .cell(user.getStatus().name())
+                    .cell(user.getCreatedAt())
+                    .end();
+            count++;
+        }
 
-        return sb.toString();
+        table.text("╚════════════════════════════════════════════════════════════════╝\n");
+        table.text(String.format("Total: %d users", count));
     }
 
     /**
@@ -116,19 +196,30 @@ public class TableFormatter {
         if (loans == null || loans.isEmpty()) {
             return "No loans found.";
         }
+        return render(loans.size() * LOAN_ROW.getRowLength(), out -> writeLoansTable(loans, out));
+    }
 
-        StringBuilder sb = new StringBuilder();
-        sb.append("╔═══════════════════════════════════════════════════════════════════════════╗\n");
-        sb.append("║                              LOANS LIST                                   ║\n");
-        sb.append("╠═══════════════════════════════════════════════════════════════════════════╣\n");
-        sb.append(String.format("║ %-4s %-18s %-6s %-12s %-12s %-10s %-8s ║\n",
-                "ID", "ISBN", "Member", "Loan Date", "Due Date", "Status", "Fine"));
-        sb.append("╠═══════════════════════════════════════════════════════════════════════════╣\n");
+    /**
+     * Write loans as a table, one row at a time
+     */
+    public static void writeLoansTable(Iterable<Loan> loans, Appendable out) throws IOException {
+        Iterator<Loan> iterator = loans != null ? loans.iterator() : null;
+        if (iterator == null || !iterator.hasNext()) {
+            out.append("No loans found.");
+            return;
+        }
 
-        for (Loan loan : loans) {
-            String loanDate = loan.getLoanDate().format(DATE_FORMATTER);
-            String dueDate = loan.getDueDate().format(DATE_FORMATTER);
-            String fine = String.format("$%.2f", loan.getFineAmount());
+        TextTableWriter table = new TextTableWriter(out);
+        table.text("╔═══════════════════════════════════════════════════════════════════════════╗\n");
+        table.text("║                              LOANS LIST                                   ║\n");
+        table.text("╠═══════════════════════════════════════════════════════════════════════════╣\n");
+        table.row(LOAN_ROW).cell("ID").cell("ISBN").cell("Member").cell("Loan Date").cell("Due Date")
+                .cell("Status").cell("Fine").end();
+        table.text("╠═══════════════════════════════════════════════════════════════════════════╣\n");
+
+        int count = 0;
+        while (iterator.hasNext()) {
+            Loan loan = iterator.next();
             String status = loan.getStatus().name();
 
             // Mark overdue loans
@@ -136,107 +227,239 @@ public class TableFormatter {
                 status += " ⚠";
             }
 
-            sb.append(String.format("║ %-4d %-18s %-6d %-12s %-12s %-10s %-8s ║\n",
-                    loan.getIdLoan(),
-                    truncate(loan.getIsbn(), 18),
-                    loan.getIdMember(),
-                    loanDate,
-                    dueDate,
-                    status,
-                    fine));
+            table.row(LOAN_ROW)
+                    .cell(loan.getIdLoan())
+                    .cell(loan.getIsbn())
+                    .cell(loan.getIdMember())
+                    .cell(loan.getLoanDate())
+                    .cell(loan.getDueDate())
+                    .cell(status)
+                    .money(loan.getFineAmount())
+                    .end();
+            count++;
         }
 
-        sb.append("╚═══════════════════════════════════════════════════════════════════════════╝\n");
-        sb.append(String.format("Total: %d loans", loans.size()));
+        table.text("╚═══════════════════════════════════════════════════════════════════════════╝\n");
+        table.text(String.format("Total: %d loans", count));
+    }
 
-        return sb.toString();
+    /**
+     * Format outstanding fines per member as a table string
+     */
+    public static String formatFinesTable(Map<Integer, Double> finesByMember) {
+        if (finesByMember == null || finesByMember.isEmpty()) {
+            return "No outstanding fines.";
+        }
+        return render(finesByMember.size() * FINE_ROW.getRowLength(), out -> writeFinesTable(finesByMember, out));
+    }
+
+    /**
+     * Write outstanding fines per member as a table, one row at a time
+     */
+    public static void writeFinesTable(Map<Integer, Double> finesByMember, Appendable out) throws IOException {
+        if (finesByMember == null || finesByMember.isEmpty()) {
+            out.append("No outstanding fines.");
+            return;
+        }
+
+        double total = 0;
+        TextTableWriter table = new TextTableWriter(out);
+        table.text("╔════════════════════════════════════════╗\n");
+        table.text("║         OUTSTANDING FINES              ║\n");
+        table.text("╠════════════════════════════════════════╣\n");
+        table.row(FINE_ROW).cell("Member ID").cell("Total Fines").end();
+        table.text("╠════════════════════════════════════════╣\n");
+
+        for (Map.Entry<Integer, Double> entry : finesByMember.entrySet()) {
+            table.row(FINE_ROW).cell(entry.getKey()).money(entry.getValue()).end();
+            total += entry.getValue();
+        }
+
+        table.text("╚════════════════════════════════════════╝\n");
+        table.text(String.format("Members: %d - Total: $%.2f", finesByMember.size(), total));
+    }
+
+    /**
+     * Format holds table (queue order)
+     */
+    public static String formatHoldsTable(List<Hold> holds) {
+        if (holds == null || holds.isEmpty()) {
+            return "No holds found.";
+        }
+        return render(holds.size() * HOLD_ROW.getRowLength(), out -> writeHoldsTable(holds, out));
+    }
+
+    /**
+     * Write holds as a table (queue order), one row at a time
+     */
+    public static void writeHoldsTable(Iterable<Hold> holds, Appendable out) throws IOException {
+        Iterator<Hold> iterator = holds != null ? holds.iterator() : null;
+        if (iterator == null || !iterator.hasNext()) {
+            out.append("No holds found.");
+            return;
+        }
+
+        TextTableWriter table = new TextTableWriter(out);
+        table.text("╔═══════════════════════════════════════════════════════════════════════════╗\n");
+        table.text("║                              HOLDS LIST                                   ║\n");
+        table.text("╠═══════════════════════════════════════════════════════════════════════════╣\n");
+        table.row(HOLD_ROW).cell("ID").cell("ISBN").cell("Member").cell("Status").cell("Created")
+                .cell("Pickup Until").end();
+        table.text("╠═══════════════════════════════════════════════════════════════════════════╣\n");
+
+        int count = 0;
+        while (iterator.hasNext()) {
+            Hold hold = iterator.next();
+            table.row(HOLD_ROW)
+                    .cell(hold.getIdHold())
+                    .cell(hold.getIsbn())
+                    .cell(hold.getIdMember())
+                    .cell(hold.getStatus().name())
+                    .cell(hold.getCreatedAt().toLocalDate());
+
+            if (hold.getExpiresAt() != null) {
+                table.cell(hold.getExpiresAt());
+            } else {
+                table.cell("-");
+            }
+
+            table.end();
+            count++;
+        }
+
+        table.text("╚═══════════════════════════════════════════════════════════════════════════╝\n");
+        table.text(String.format("Total: %d holds", count));
+    }
+
+    /**
+     * Format circulation statistics report
+     */
+    public static String formatCirculationReport(CirculationReport report) {
+        return render(0, out -> {
+            String line = "╠════════════════════════════════════════════════════════════╣\n";
+            TextTableWriter table = new TextTableWriter(out);
+            table.text("╔════════════════════════════════════════════════════════════╗\n");
+            table.text("║                 CIRCULATION STATISTICS                     ║\n");
+            table.text(line);
+            table.row(DETAIL_ROW).cell("Period:")
+                    .cell(report.getFrom().format(DATE_FORMATTER) + " - " + report.getTo().format(DATE_FORMATTER))
+                    .end();
+            table.row(DETAIL_ROW).cell("Avg. loan days:").decimal(report.getAverageLoanDays(), 1).end();
+            table.text(line);
+            table.row(STAT_ROW).cell("ISBN").cell("Top Books").cell("Loans").end();
+            table.text(line);
+            writeStats(table, report.getTopBooks());
+            table.text(line);
+            table.row(STAT_ROW).cell("Category").cell("").cell("Loans").end();
+            table.text(line);
+            writeStats(table, report.getLoansByCategory());
+            table.text(line);
+            table.row(STAT_ROW).cell("Member ID").cell("Most Active Members").cell("Loans").end();
+            table.text(line);
+            writeStats(table, report.getMemberActivity());
+            table.text("╚════════════════════════════════════════════════════════════╝\n");
+            table.text("Generated: ").text(report.getGeneratedAt().format(DATETIME_FORMATTER));
+        });
+    }
+
+    private static void writeStats(TextTableWriter table, List<CirculationStat> stats) throws IOException {
+        if (stats.isEmpty()) {
+            table.row(MESSAGE_ROW).cell("No loans in this period").end();
+            return;
+        }
+
+        for (CirculationStat stat : stats) {
+            String label = stat.getKey().equals(stat.getLabel()) ? "" : stat.getLabel();
+            table.row(STAT_ROW).cell(stat.getKey()).cell(label).cell(stat.getLoanCount()).end();
+        }
     }
 
     /**
      * Format single book details
      */
     public static String formatBookDetails(Book book) {
-        StringBuilder sb = new StringBuilder();
-        sb.append("╔════════════════════════════════════════════════════════════╗\n");
-        sb.append("║                    BOOK DETAILS                            ║\n");
-        sb.append("╠════════════════════════════════════════════════════════════╣\n");
-        sb.append(String.format("║ ISBN:             %-40s ║\n", book.getIsbn()));
-        sb.append(String.format("║ Title:            %-40s ║\n", truncate(book.getTitle(), 40)));
-        sb.append(String.format("║ Author:           %-40s ║\n", truncate(book.getAuthor(), 40)));
-        sb.append(String.format("║ Category:         %-40s ║\n", truncate(book.getCategory(), 40)));
-        sb.append(String.format("║ Total Copies:     %-40d ║\n", book.getTotalCopies()));
-        sb.append(String.format("║ Available:        %-40d ║\n", book.getAvailableCopies()));
-        sb.append(String.format("║ Price:            $%-39.2f ║\n", book.getReferencePrice()));
-        sb.append(String.format("║ Status:           %-40s ║\n", book.getIsActive() ? "ACTIVE" : "INACTIVE"));
-        sb.append(String.format("║ Created:          %-40s ║\n", book.getCreatedAt().format(DATETIME_FORMATTER)));
-        sb.append("╚════════════════════════════════════════════════════════════╝\n");
-
-        return sb.toString();
+        return render(0, out -> {
+            TextTableWriter table = new TextTableWriter(out);
+            table.text("╔════════════════════════════════════════════════════════════╗\n");
+            table.text("║                    BOOK DETAILS                            ║\n");
+            table.text("╠════════════════════════════════════════════════════════════╣\n");
+            table.row(DETAIL_ROW).cell("ISBN:").cell(book.getIsbn()).end();
+            table.row(DETAIL_TRUNCATED_ROW).cell("Title:").cell(book.getTitle()).end();
+            table.row(DETAIL_TRUNCATED_ROW).cell("Author:").cell(book.getAuthor()).end();
+            table.row(DETAIL_TRUNCATED_ROW).cell("Category:").cell(book.getCategory()).end();
+            table.row(DETAIL_ROW).cell("Total Copies:").cell(book.getTotalCopies()).end();
+            table.row(DETAIL_ROW).cell("Available:").cell(book.getAvailableCopies()).end();
+            table.row(DETAIL_ROW).cell("Price:").money(book.getReferencePrice()).end();
+            table.row(DETAIL_ROW).cell("Status:").cell(book.getIsActive() ? "ACTIVE" : "INACTIVE").end();
+            table.row(DETAIL_ROW).cell("Created:").cell(book.getCreatedAt()).end();
+            table.text("╚════════════════════════════════════════════════════════════╝\n");
+        });
     }
 
     /**
      * Format single member details
      */
     public static String formatMemberDetails(Member member) {
-        StringBuilder sb = new StringBuilder();
-        sb.append("╔════════════════════════════════════════════════════════════╗\n");
-        sb.append("║                   MEMBER DETAILS                           ║\n");
-        sb.append("╠════════════════════════════════════════════════════════════╣\n");
-        sb.append(String.format("║ ID:               %-40d ║\n", member.getIdMember()));
-        sb.append(String.format("║ Name:             %-40s ║\n", truncate(member.getName(), 40)));
-        sb.append(String.format("║ Email:            %-40s ║\n", truncate(member.getEmail(), 40)));
-        sb.append(String.format("║ Phone:            %-40s ║\n", truncate(member.getPhone(), 40)));
-        sb.append(String.format("║ Address:          %-40s ║\n", truncate(member.getAddress(), 40)));
-        sb.append(String.format("║ Status:           %-40s ║\n", member.getIsActive() ? "ACTIVE" : "INACTIVE"));
-        sb.append(String.format("║ Created:          %-40s ║\n", member.getCreatedAt().format(DATETIME_FORMATTER)));
-        sb.append("╚════════════════════════════════════════════════════════════╝\n");
-
-        return sb.toString();
+        return render(0, out -> {
+            TextTableWriter table = new TextTableWriter(out);
+            table.text("╔════════════════════════════════════════════════════════════╗\n");
+            table.text("║                   MEMBER DETAILS                           ║\n");
+            table.text("╠════════════════════════════════════════════════════════════╣\n");
+            table.row(DETAIL_ROW).cell("ID:").cell(member.getIdMember()).end();
+            table.row(DETAIL_TRUNCATED_ROW).cell("Name:").cell(member.getName()).end();
+            table.row(DETAIL_TRUNCATED_ROW).cell("Email:").cell(member.getEmail()).end();
+            table.row(DETAIL_TRUNCATED_ROW).cell("Phone:").cell(member.getPhone()).end();
+            table.row(DETAIL_TRUNCATED_ROW).cell("Address:").cell(member.getAddress()).end();
+            table.row(DETAIL_ROW).cell("Status:").cell(member.getIsActive() ? "ACTIVE" : "INACTIVE").end();
+            table.row(DETAIL_ROW).cell("Created:").cell(member.getCreatedAt()).end();
+            table.text("╚════════════════════════════════════════════════════════════╝\n");
+        });
     }
 
     /**
      * Format single loan details
      */
     public static String formatLoanDetails(Loan loan) {
-        StringBuilder sb = new StringBuilder();
-        sb.append("╔════════════════════════════════════════════════════════════╗\n");
-        sb.append("║                    LOAN DETAILS                            ║\n");
-        sb.append("╠════════════════════════════════════════════════════════════╣\n");
-        sb.append(String.format("║ Loan ID:          %-40d ║\n", loan.getIdLoan()));
-        sb.append(String.format("║ ISBN:             %-40s ║\n", loan.getIsbn()));
-        sb.append(String.format("║ Member ID:        %-40d ║\n", loan.getIdMember()));
-        sb.append(String.format("║ Loan Date:        %-40s ║\n", loan.getLoanDate().format(DATE_FORMATTER)));
-        sb.append(String.format("║ Due Date:         %-40s ║\n", loan.getDueDate().format(DATE_FORMATTER)));
-
-        if (loan.getReturnDate() != null) {
-            sb.append(String.format("║ Return Date:      %-40s ║\n", loan.getReturnDate().format(DATE_FORMATTER)));
-        } else {
-            sb.append(String.format("║ Return Date:      %-40s ║\n", "Not returned yet"));
-        }
-
-        sb.append(String.format("║ Fine Amount:      $%-39.2f ║\n", loan.getFineAmount()));
-        sb.append(String.format("║ Status:           %-40s ║\n", loan.getStatus().name()));
+        return render(0, out -> {
+            TextTableWriter table = new TextTableWriter(out);
+            table.text("╔════════════════════════════════════════════════════════════╗\n");
+            table.text("║                    LOAN DETAILS                            ║\n");
+            table.text("╠════════════════════════════════════════════════════════════╣\n");
+            table.row(DETAIL_ROW).cell("Loan ID:").cell(loan.getIdLoan()).end();
+            table.row(DETAIL_ROW).cell("ISBN:").cell(loan.getIsbn()).end();
+            table.row(DETAIL_ROW).cell("Member ID:").cell(loan.getIdMember()).end();
+            table.row(DETAIL_ROW).cell("Loan Date:").cell(loan.getLoanDate()).end();
+            table.row(DETAIL_ROW).cell("Due Date:").cell(loan.getDueDate()).end();
+
+            if (loan.getReturnDate() != null) {
+                table.row(DETAIL_ROW).cell("Return Date:").cell(loan.getReturnDate()).end();
+            } else {
+                table.row(DETAIL_ROW).cell("Return Date:").cell("Not returned yet").end();
+            }
 
-        if (loan.isOverdue()) {
-            sb.append(String.format("║ Days Overdue:     %-40d ║\n", loan.getDaysOverdue()));
-            sb.append("║ ⚠ WARNING: This loan is overdue!                         ║\n");
-        }
+            table.row(DETAIL_ROW).cell("Fine Amount:").money(loan.getFineAmount()).end();
+            table.row(DETAIL_ROW).cell("Status:").cell(loan.getStatus().name()).end();
 
-        sb.append("╚════════════════════════════════════════════════════════════╝\n");
+            if (loan.isOverdue()) {
+                table.row(DETAIL_ROW).cell("Days Overdue:").cell(loan.getDaysOverdue()).end();
+                table.text("║ ⚠ WARNING: This loan is overdue!                         ║\n");
+            }
 
-        return sb.toString();
+            table.text("╚════════════════════════════════════════════════════════════╝\n");
+        });
     }
 
     /**
-     * Truncate string to specified length
+     * Render a table into a String; rowsLength is a capacity hint for the rows
      */
-    private static String truncate(String str, int maxLength) {
-        if (str == null) {
-            return "";
+    private static String render(int rowsLength, TableWriter writer) {
+        StringBuilder sb = new StringBuilder(rowsLength + 1024);
+        try {
+            writer.write(sb);
+        } catch (IOException e) {
+            // StringBuilder never throws
+            throw new UncheckedIOException(e);
         }
-        if (str.length() <= maxLength) {
-            return str;
-        }
-        return str.substring(0, maxLength - 3) + "...";
+        return sb.toString();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,420 @@
+package utils;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.CharBuffer;
+import java.text.DecimalFormatSymbols;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Streaming writer for the boxed text tables shown by {@link TableFormatter}.
+ *
+ * A {@link Layout} describes the columns of a row ("║ " + cells separated by one space + " ║")
+ * and is built once. Cells are padded, truncated and right-aligned in place inside one
+ * reusable char buffer, and every finished row goes straight to the target Appendable,
+ * so a table of any length is written in constant memory. The output matches the
+ * equivalent String.format patterns ({@code %-Ns}, {@code %Nd}, {@code %.2f}) including
+ * the default-locale decimal separator; columns that are not truncated overflow their
+ * width instead of being cut, as with String.format.
+ */
+public class TextTableWriter {
+
+    private static final String ROW_START = "║ ";
+    private static final String ROW_END = " ║\n";
+    private static final String ELLIPSIS = "...";
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    private static final DateTimeFormatter DATETIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
+    /**
+     * Precomputed column widths and alignment of one kind of row
+     */
+    public static final class Layout {
+        private final int[] widths;
+        private final boolean[] truncated;
+        private final boolean[] rightAligned;
+        private final int rowLength;
+
+        private Layout(int[] widths, boolean[] truncated, boolean[] rightAligned) {
+            this.widths = widths;
+            this.truncated = truncated;
+            this.rightAligned = rightAligned;
+
+            int length = ROW_START.length() + ROW_END.length() + Math.max(0, widths.length - 1);
+            for (int width : widths) {
+                length += width;
+            }
+            this.rowLength = length;
+        }
+
+        public static Builder builder() {
+            return new Builder();
+        }
+
+        public int getColumnCount() {
+            return widths.length;
+        }
+
+        /**
+         * Length of a row whose cells all fit their width (borders and newline included)
+         */
+        public int getRowLength() {
+            return rowLength;
+        }
+    }
+
+    /**
+     * Builder for {@link Layout}
+     */
+    public static final class Builder {
+        private int[] widths = new int[8];
+        private boolean[] truncated = new boolean[8];
+        private boolean[] rightAligned = new boolean[8];
+        private int count = 0;
+
+        /**
+         * Left-aligned column; longer values overflow (%-Ns)
+         */
+        public Builder left(int width) {
+            return add(width, false, false);
+        }
+
+        /**
+         * Left-aligned column; longer text is cut to width - 3 characters plus "..."
+         */
+        public Builder truncated(int width) {
+            if (width < ELLIPSIS.length()) {
+                throw new IllegalArgumentException("Truncated column width must be at least 3");
+            }
+            return add(width, true, false);
+        }
+
+        /**
+         * Right-aligned column; longer values overflow (%Ns)
+         */
+        public Builder right(int width) {
+            return add(width, false, true);
+        }
+
+        public Layout build() {
+            if (count == 0) {
+                throw new IllegalStateException("Layout must have at least one column");
+            }
+            return new Layout(Arrays.copyOf(widths, count), Arrays.copyOf(truncated, count),
+                    Arrays.copyOf(rightAligned, count));
+        }
+
+        private Builder add(int width, boolean truncate, boolean right) {
+            if (width <= 0) {
+                throw new IllegalArgumentException("Column width must be greater than 0");
+            }
+            if (count == widths.length) {
+                widths = Arrays.copyOf(widths, count * 2);
+                truncated = Arrays.copyOf(truncated, count * 2);
+                rightAligned = Arrays.copyOf(rightAligned, count * 2);
+            }
+            widths[count] = width;
+            truncated[count] = truncate;
+            rightAligned[count] = right;
+            count++;
+            return this;
+        }
+    }
+
+    private final Appendable out;
+    private final char decimalSeparator;
+    private final char zeroDigit;
+    private char[] buffer = new char[128];
+    private int position = 0;
+    private Layout layout;
+    private int column;
+    private int cellStart;
+
+    public TextTableWriter(Appendable out) {
+        this(out, Locale.getDefault(Locale.Category.FORMAT));
+    }
+
+    public TextTableWriter(Appendable out, Locale locale) {
+        DecimalFormatSymbols symbols = DecimalFormatSymbols.getInstance(locale);
+        this.out = out;
+        this.decimalSeparator = symbols.getDecimalSeparator();
+        this.zeroDigit = symbols.getZeroDigit();
+    }
+
+    /**
+     * Write literal text (borders, titles, footers) as is
+     */
+    public TextTableWriter text(String text) throws IOException {
+        out.append(text);
+        return this;
+    }
+
+    /**
+     * Start a row with the given layout; fill it with one cell call per column, then {@link #end()}
+     */
+    public TextTableWriter row(Layout layout) {
+        if (this.layout != null) {
+            throw new IllegalStateException("Previous row was not ended");
+        }
+        this.layout = layout;
+        this.column = 0;
+        this.position = 0;
+        ensureCapacity(layout.rowLength);
+        put(ROW_START);
+        return this;
+    }
+
+    /**
+     * Text cell; null prints as "null" (or empty in a truncated column, as TableFormatter always did)
+     */
+    public TextTableWriter cell(String value) {
+        beginCell();
+        if (value == null) {
+            put(layout.truncated[column] ? "" : "null");
+        } else {
+            put(value);
+        }
+        return endCell();
+    }
+
+    public TextTableWriter cell(long value) {
+        beginCell();
+        putLong(value);
+        return endCell();
+    }
+
+    public TextTableWriter cell(Integer value) {
+        if (value == null) {
+            return cell((String) null);
+        }
+        return cell(value.longValue());
+    }
+
+    /**
+     * Two numbers separated by a slash, e.g. available/total copies
+     */
+    public TextTableWriter ratio(long numerator, long denominator) {
+        beginCell();
+        putLong(numerator);
+        putChar('/');
+        putLong(denominator);
+        return endCell();
+    }
+
+    /**
+     * Fixed-point number with the given decimals (%.Nf, half-up)
+     */
+    public TextTableWriter decimal(double value, int scale) {
+        beginCell();
+        putDecimal(value, scale);
+        return endCell();
+    }
+
+    /**
+     * Amount with a dollar sign and two decimals ($%.2f)
+     */
+    public TextTableWriter money(Double value) {
+        beginCell();
+        if (value == null) {
+            // What $%.2f prints for null: the precision cuts "null" to two characters
+            put("$nu");
+        } else {
+            putChar('$');
+            putDecimal(value, 2);
+        }
+        return endCell();
+    }
+
+    /**
+     * Date as yyyy-MM-dd
+     */
+    public TextTableWriter cell(LocalDate date) {
+        beginCell();
+        if (date == null) {
+            put("null");
+        } else if (date.getYear() < 0 || date.getYear() > 9999) {
+            put(date.format(DATE_FORMATTER));
+        } else {
+            putDate(date.getYear(), date.getMonthValue(), date.getDayOfMonth());
+        }
+        return endCell();
+    }
+
+    /**
+     * Date and time as yyyy-MM-dd HH:mm
+     */
+    public TextTableWriter cell(LocalDateTime dateTime) {
+        beginCell();
+        if (dateTime == null) {
+            put("null");
+        } else if (dateTime.getYear() < 0 || dateTime.getYear() > 9999) {
+            put(dateTime.format(DATETIME_FORMATTER));
+        } else {
+            putDate(dateTime.getYear(), dateTime.getMonthValue(), dateTime.getDayOfMonth());
+            putChar(' ');
+            putDigits(dateTime.getHour(), 2);
+            putChar(':');
+            putDigits(dateTime.getMinute(), 2);
+        }
+        return endCell();
+    }
+
+    /**
+     * Finish the current row and write it to the target
+     */
+    public TextTableWriter end() throws IOException {
+        if (layout == null) {
+            throw new IllegalStateException("No row started");
+        }
+        if (column != layout.widths.length) {
+            throw new IllegalStateException("Row has " + column + " cells, layout expects " + layout.widths.length);
+        }
+        put(ROW_END);
+        layout = null;
+
+        if (out instanceof StringBuilder) {
+            ((StringBuilder) out).append(buffer, 0, position);
+        } else if (out instanceof Writer) {
+            ((Writer) out).write(buffer, 0, position);
+        } else {
+            out.append(CharBuffer.wrap(buffer, 0, position));
+        }
+        return this;
+    }
+
+    private void beginCell() {
+        if (layout == null) {
+            throw new IllegalStateException("No row started");
+        }
+        if (column == layout.widths.length) {
+            throw new IllegalStateException("Row already has " + column + " cells");
+        }
+        if (column > 0) {
+            putChar(' ');
+        }
+        cellStart = position;
+    }
+
+    private TextTableWriter endCell() {
+        int width = layout.widths[column];
+        int length = position - cellStart;
+
+        if (length > width && layout.truncated[column]) {
+            position = cellStart + width - ELLIPSIS.length();
+            put(ELLIPSIS);
+        } else if (length < width) {
+            int padding = width - length;
+            ensureCapacity(padding);
+            if (layout.rightAligned[column]) {
+                System.arraycopy(buffer, cellStart, buffer, cellStart + padding, length);
+                Arrays.fill(buffer, cellStart, cellStart + padding, ' ');
+            } else {
+                Arrays.fill(buffer, position, position + padding, ' ');
+            }
+            position += padding;
+        }
+
+        column++;
+        return this;
+    }
+
+    private void putDecimal(double value, int scale) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            put(Double.isNaN(value) ? "NaN" : value > 0 ? "Infinity" : "-Infinity");
+            return;
+        }
+        // Same rounding as Formatter: half-up on the shortest decimal representation
+        if (Double.compare(value, 0.0) < 0) {
+            putChar('-');
+            value = -value;
+        }
+        BigDecimal rounded = BigDecimal.valueOf(value).setScale(scale, RoundingMode.HALF_UP);
+        String digits = rounded.unscaledValue().toString();
+
+        int integerDigits = digits.length() - scale;
+        if (integerDigits <= 0) {
+            putChar(zeroDigit);
+        } else {
+            putLocalized(digits, 0, integerDigits);
+        }
+        if (scale > 0) {
+            putChar(decimalSeparator);
+            for (int i = integerDigits; i < 0; i++) {
+                putChar(zeroDigit);
+            }
+            putLocalized(digits, Math.max(0, integerDigits), digits.length());
+        }
+    }
+
+    private void putLong(long value) {
+        if (value < 0) {
+            putChar('-');
+            if (value == Long.MIN_VALUE) {
+                putLocalized("9223372036854775808", 0, 19);
+                return;
+            }
+            value = -value;
+        }
+
+        int digits = 1;
+        for (long rest = value / 10; rest > 0; rest /= 10) {
+            digits++;
+        }
+        ensureCapacity(digits);
+        for (int i = position + digits - 1; i >= position; i--) {
+            buffer[i] = (char) (zeroDigit + (int) (value % 10));
+            value /= 10;
+        }
+        position += digits;
+    }
+
+    private void putLocalized(String digits, int from, int to) {
+        ensureCapacity(to - from);
+        for (int i = from; i < to; i++) {
+            buffer[position++] = (char) (zeroDigit + (digits.charAt(i) - '0'));
+        }
+    }
+
+    /**
+     * Dates always use ASCII digits, like DateTimeFormatter with the standard decimal style
+     */
+    private void putDate(int year, int month, int day) {
+        putDigits(year, 4);
+        putChar('-');
+        putDigits(month, 2);
+        putChar('-');
+        putDigits(day, 2);
+    }
+
+    private void putDigits(int value, int count) {
+        ensureCapacity(count);
+        for (int i = position + count - 1; i >= position; i--) {
+            buffer[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        position += count;
+    }
+
+    private void put(String text) {
+        int length = text.length();
+        ensureCapacity(length);
+        text.getChars(0, length, buffer, position);
+        position += length;
+    }
+
+    private void putChar(char c) {
+        ensureCapacity(1);
+        buffer[position++] = c;
+    }
+
+    private void ensureCapacity(int extra) {
+        if (position + extra > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + extra));
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package utils;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Small thread-safe cache whose entries expire after a fixed time-to-live.
+ * An expired entry is recomputed on the next lookup; concurrent lookups of the
+ * same key compute it only once. Each load sweeps out expired entries, and when the
+ * cache is still full the entry closest to expiry is dropped, so keys that are never
+ * asked for again (e.g. arbitrary date ranges) do not accumulate.
+ */
+public class TimedCache<K, V> {
+
+    /**
+     * Computes a missing or expired value
+     */
+    @FunctionalInterface
+    public interface Loader<V, E extends Exception> {
+        V load() throws E;
+    }
+
+    private static class Entry<V> {
+        private final V value;
+        private final long expiresAt;
+
+        Entry(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private final Map<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    // Only held while a key is loading
+    private final Map<K, Object> locks = new ConcurrentHashMap<>();
+    private final long ttlMillis;
+    private final int maxEntries;
+
+    public TimedCache(long ttlMillis, int maxEntries) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("maxEntries must be at least 1");
+        }
+        this.ttlMillis = ttlMillis;
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Return the cached value for the key, loading it if missing or expired
+     */
+    public <E extends Exception> V get(K key, Loader<V, E> loader) throws E {
+        Entry<V> entry = entries.get(key);
+        if (entry != null && entry.expiresAt > System.currentTimeMillis()) {
+            return entry.value;
+        }
+
+        Object lock = locks.computeIfAbsent(key, k -> new Object());
+        try {
+            synchronized (lock) {
+                entry = entries.get(key);
+                if (entry != null && entry.expiresAt > System.currentTimeMillis()) {
+                    return entry.value;
+                }
+
+                V value = loader.load();
+                evict();
+                entries.put(key, new Entry<>(value, System.currentTimeMillis() + ttlMillis));
+                return value;
+            }
+        } finally {
+            // Waiting threads still hold the old lock and find the entry loaded
+            locks.remove(key, lock);
+        }
+    }
+
+    /**
+     * Drop expired entries, then the ones closest to expiry until there is room for one more
+     */
+    private synchronized void evict() {
+        long now = System.currentTimeMillis();
+        entries.values().removeIf(entry -> entry.expiresAt <= now);
+
+        while (entries.size() >= maxEntries) {
+            K oldest = null;
+            long oldestExpiry = Long.MAX_VALUE;
+            for (Map.Entry<K, Entry<V>> candidate : entries.entrySet()) {
+                if (candidate.getValue().expiresAt < oldestExpiry) {
+                    oldest = candidate.getKey();
+                    oldestExpiry = candidate.getValue().expiresAt;
+                }
+            }
+            if (oldest == null) {
+                return;
+            }
+            entries.remove(oldest);
+        }
+    }
+
+    /**
+     * Drop one entry so the next lookup reloads it
+     */
+    public void invalidate(K key) {
+        entries.remove(key);
+    }
+
+    /**
+     * Drop every entry
+     */
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+}
@@ -0,0 +1,46 @@
+package utils;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Errors found while validating one record, keyed by field name in the order they were found.
+ * Only the first error of each field is kept.
+ */
+public class ValidationResult {
+
+    private final Map<String, String> errors = new LinkedHashMap<>();
+
+    public void addError(String field, String message) {
+        errors.putIfAbsent(field, message);
+    }
+
+    public boolean isValid() {
+        return errors.isEmpty();
+    }
+
+    public boolean hasError(String field) {
+        return errors.containsKey(field);
+    }
+
+    public String getError(String field) {
+        return errors.get(field);
+    }
+
+    public Map<String, String> getErrors() {
+        return Collections.unmodifiableMap(errors);
+    }
+
+    /**
+     * All error messages, one per line
+     */
+    public String getMessage() {
+        return String.join("\n", errors.values());
+    }
+
+    @Override
+    public String toString() {
+        return "ValidationResult{errors=" + errors + "}";
+    }
+}
@@ -1,8 +1,10 @@
 package views;
 
 import controllers.BookController;
+import models.Book;
 
 import javax.swing.*;
+import java.util.Optional;
 
 /**
  * View for books (use JOptionPane)
@@ -32,6 +34,7 @@ public class BookView {
                     8. Activar libro
                     9. Desactivar libro
                     10. Eliminar libro
+                    11. Disponibilidad en otras sedes
                     0. Volver al menú principal
                     
                     Seleccione una opción:
@@ -51,6 +54,7 @@ public class BookView {
                 case "8" -> activateBook();
                 case "9" -> deactivateBook();
                 case "10" -> deleteBook();
+                case "11" -> viewBookAcrossBranches();
                 case "0" -> JOptionPane.showMessageDialog(null, "Volviendo al menú principal...");
                 default -> JOptionPane.showMessageDialog(null, "Opción inválida");
             }
@@ -86,22 +90,31 @@ public class BookView {
         if (isbn != null) bookController.viewBookDetails(isbn);
     }
 
+    private void viewBookAcrossBranches() {
+        String isbn = JOptionPane.showInputDialog("Ingrese el ISBN del libro:");
+        if (isbn != null) bookController.viewBookAcrossBranches(isbn);
+    }
+
     private void updateBook() {
         String isbn = JOptionPane.showInputDialog("Ingrese el ISBN del libro a actualizar:");
         if (isbn == null) return;
 
-        String title = JOptionPane.showInputDialog("Nuevo título:");
-        String author = JOptionPane.showInputDialog("Nuevo autor:");
-        String category = JOptionPane.showInputDialog("Nueva categoría:");
-        String totalCopies = JOptionPane.showInputDialog("Total de ejemplares:");
-        String availableCopies = JOptionPane.showInputDialog("Ejemplares disponibles:");
-        String price = JOptionPane.showInputDialog("Nuevo precio de referencia:");
+        Optional<Book> loaded = bookController.loadBookForEdit(isbn);
+        if (loaded.isEmpty()) return;
+        Book book = loaded.get();
+        int onLoan = book.getTotalCopies() - book.getAvailableCopies();
+
+        String title = JOptionPane.showInputDialog("Nuevo título:", book.getTitle());
+        String author = JOptionPane.showInputDialog("Nuevo autor:", book.getAuthor());
+        String category = JOptionPane.showInputDialog("Nueva categoría:", book.getCategory());
+        String totalCopies = JOptionPane.showInputDialog("Total de ejemplares (" + onLoan + " prestados):",
+                book.getTotalCopies());
+        String price = JOptionPane.showInputDialog("Nuevo precio de referencia:", book.getReferencePrice());
 
-        if (title == null || author == null || category == null ||
-                totalCopies == null || availableCopies == null || price == null)
+        if (title == null || author == null || category == null || totalCopies == null || price == null)
             return;
 
-        bookController.updateBook(isbn, title, author, category, totalCopies, availableCopies, price);
+        bookController.updateBook(book, title, author, category, totalCopies, price);
     }
 
     private void activateBook() {
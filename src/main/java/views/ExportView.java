@@ -1,6 +1,7 @@
 package views;
 
 import controllers.ExportController;
+import services.IncrementalExportService.ExportType;
 
 import javax.swing.*;
 
@@ -25,6 +26,9 @@ public class ExportView {
                     1. Exportar catálogo de libros
                     2. Exportar todos los préstamos
                     3. Exportar préstamos vencidos
+                    4. Exportar préstamos (binario columnar)
+                    5. Exportación incremental del catálogo
+                    6. Exportación incremental de préstamos
                     0. Volver al menú principal
                     
                     Seleccione una opción:
@@ -37,6 +41,9 @@ public class ExportView {
                 case "1" -> exportController.exportBooksCatalog();
                 case "2" -> exportController.exportAllLoans();
                 case "3" -> exportController.exportOverdueLoans();
+                case "4" -> exportController.exportAllLoansColumnar();
+                case "5" -> exportController.exportIncremental(ExportType.CATALOG);
+                case "6" -> exportController.exportIncremental(ExportType.LOANS);
                 case "0" -> JOptionPane.showMessageDialog(null, "Volviendo al menú principal...");
                 default -> JOptionPane.showMessageDialog(null, "Opción inválida");
             }
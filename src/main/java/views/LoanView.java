@@ -32,6 +32,15 @@ public class LoanView {
                     5️⃣  Ver préstamos vencidos
                     6️⃣  Ver préstamos por socio
                     7️⃣  Ver detalles de préstamo
+                    8️⃣  Recalcular multas acumuladas
+                    9️⃣  Ver multas por socio
+                    🔟  Ver préstamos por vencer
+                    11  Ver estadísticas de circulación
+                    12  Registrar préstamo de varios libros
+                    13  Devolver varios préstamos
+                    14  Reservar libro
+                    15  Ver reservas de un libro
+                    16  Cancelar reserva
                     0️⃣  Volver al menú principal
                     """,
                     "Menú de Préstamos", JOptionPane.QUESTION_MESSAGE);
@@ -46,6 +55,15 @@ public class LoanView {
                 case "5" -> loanController.viewOverdueLoans();
                 case "6" -> viewLoansByMember();
                 case "7" -> viewLoanDetails();
+                case "8" -> loanController.assessFines();
+                case "9" -> loanController.viewOutstandingFines();
+                case "10" -> viewLoansDueSoon();
+                case "11" -> viewStatistics();
+                case "12" -> createLoans();
+                case "13" -> returnLoans();
+                case "14" -> placeHold();
+                case "15" -> viewHoldsByBook();
+                case "16" -> cancelHold();
                 case "0" -> JOptionPane.showMessageDialog(null, "Regresando al menú principal...");
                 default -> JOptionPane.showMessageDialog(null, "Opción inválida. Intente nuevamente.");
             }
@@ -65,6 +83,17 @@ public class LoanView {
     }
 
 
+    private void createLoans() {
+        String memberId = JOptionPane.showInputDialog("Ingrese el ID del socio:");
+        if (memberId == null) return;
+
+        String isbns = JOptionPane.showInputDialog("Ingrese los ISBN separados por coma:");
+        if (isbns == null) return;
+
+        loanController.createLoans(isbns.trim(), memberId.trim());
+    }
+
+
     private void returnLoan() {
         String loanId = JOptionPane.showInputDialog("Ingrese el ID del préstamo a devolver:");
         if (loanId == null) return;
@@ -73,6 +102,41 @@ public class LoanView {
     }
 
 
+    private void returnLoans() {
+        String loanIds = JOptionPane.showInputDialog("Ingrese los IDs de préstamo separados por coma:");
+        if (loanIds == null) return;
+
+        loanController.returnLoans(loanIds.trim());
+    }
+
+
+    private void placeHold() {
+        String isbn = JOptionPane.showInputDialog("Ingrese el ISBN del libro:");
+        if (isbn == null) return;
+
+        String memberId = JOptionPane.showInputDialog("Ingrese el ID del socio:");
+        if (memberId == null) return;
+
+        loanController.placeHold(isbn.trim(), memberId.trim());
+    }
+
+
+    private void viewHoldsByBook() {
+        String isbn = JOptionPane.showInputDialog("Ingrese el ISBN del libro:");
+        if (isbn == null) return;
+
+        loanController.viewHoldsByBook(isbn.trim());
+    }
+
+
+    private void cancelHold() {
+        String holdId = JOptionPane.showInputDialog("Ingrese el ID de la reserva:");
+        if (holdId == null) return;
+
+        loanController.cancelHold(holdId.trim());
+    }
+
+
     private void viewLoansByMember() {
         String memberId = JOptionPane.showInputDialog("Ingrese el ID del socio:");
         if (memberId == null) return;
@@ -81,6 +145,22 @@ public class LoanView {
     }
 
 
+    private void viewLoansDueSoon() {
+        String days = JOptionPane.showInputDialog("¿Cuántos días hacia adelante?", "7");
+        if (days == null) return;
+
+        loanController.viewLoansDueSoon(days.trim());
+    }
+
+
+    private void viewStatistics() {
+        String days = JOptionPane.showInputDialog("¿Cuántos días hacia atrás?", "30");
+        if (days == null) return;
+
+        loanController.viewStatistics(days.trim());
+    }
+
+
     private void viewLoanDetails() {
         String loanId = JOptionPane.showInputDialog("Ingrese el ID del préstamo:");
         if (loanId == null) return;
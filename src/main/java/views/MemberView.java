@@ -1,8 +1,10 @@
 package views;
 
 import controllers.MemberController;
+import models.Member;
 
 import javax.swing.*;
+import java.util.Optional;
 
 /**
  * View for manage partner (use JOptionPane)
@@ -73,14 +75,18 @@ public class MemberView {
         String memberId = JOptionPane.showInputDialog("Ingrese el ID del socio a actualizar:");
         if (memberId == null) return;
 
-        String name = JOptionPane.showInputDialog("Nuevo nombre:");
-        String email = JOptionPane.showInputDialog("Nuevo email:");
-        String phone = JOptionPane.showInputDialog("Nuevo teléfono:");
-        String address = JOptionPane.showInputDialog("Nueva dirección:");
+        Optional<Member> loaded = memberController.loadMemberForEdit(memberId);
+        if (loaded.isEmpty()) return;
+        Member member = loaded.get();
+
+        String name = JOptionPane.showInputDialog("Nuevo nombre:", member.getName());
+        String email = JOptionPane.showInputDialog("Nuevo email:", member.getEmail());
+        String phone = JOptionPane.showInputDialog("Nuevo teléfono:", member.getPhone());
+        String address = JOptionPane.showInputDialog("Nueva dirección:", member.getAddress());
 
         if (name == null || email == null) return;
 
-        memberController.updateMember(memberId, name, email, phone, address);
+        memberController.updateMember(member, name, email, phone, address);
     }
 
     private void activateMember() {
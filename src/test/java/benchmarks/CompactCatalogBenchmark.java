@@ -0,0 +1,117 @@
+package benchmarks;
+
+import models.Book;
+import models.CompactCatalog;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+
+/**
+ * Compares the heap held by a catalog as a List of Book objects with the same catalog
+ * as a CompactCatalog, and times lookups on both. Not a unit test: run the main method
+ * with the test classpath, optionally passing the title count (default 1,000,000), and
+ * give the JVM enough heap for both (e.g. -Xmx2g).
+ *
+ * Every string of the sample books is a separate object, as rows read through JDBC are.
+ * Heap is measured after a full GC, so the figures are approximate.
+ */
+public class CompactCatalogBenchmark {
+
+    private static final int LOOKUPS = 1_000_000;
+
+    public static void main(String[] args) {
+        int titles = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+
+        long before = usedHeap();
+        List<Book> books = sampleBooks(titles);
+        long bookBytes = usedHeap() - before;
+
+        before = usedHeap();
+        CompactCatalog catalog = CompactCatalog.of(books);
+        long compactBytes = usedHeap() - before;
+
+        check(books, catalog);
+
+        System.out.println("Titles: " + titles + ", authors: " + catalog.getAuthorCount()
+                + ", categories: " + catalog.getCategoryCount());
+        System.out.printf("%-34s %8.1f bytes/title%n", "List<Book> (measured)", (double) bookBytes / titles);
+        System.out.printf("%-34s %8.1f bytes/title%n", "CompactCatalog (measured)", (double) compactBytes / titles);
+        System.out.printf("%-34s %8.1f bytes/title%n", "CompactCatalog.getBytesPerTitle()", catalog.getBytesPerTitle());
+
+        Random random = new Random(7);
+        String[] keys = new String[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            keys[i] = books.get(random.nextInt(titles)).getIsbn();
+        }
+        long start = 0;
+        for (int round = 0; round < 2; round++) { // second round is the warm one
+            start = System.nanoTime();
+            long found = 0;
+            for (String key : keys) {
+                found += catalog.indexOf(key) >= 0 ? 1 : 0;
+            }
+            if (round == 1) {
+                System.out.printf("%-34s %8.1f ns/lookup (%d found)%n", "indexOf(isbn)",
+                        (double) (System.nanoTime() - start) / LOOKUPS, found);
+            }
+        }
+
+        for (int round = 0; round < 2; round++) { // second round is the warm one
+            start = System.nanoTime();
+            long matches = books.stream().filter(book -> "Category 3".equals(book.getCategory())).count();
+            long listNanos = System.nanoTime() - start;
+            start = System.nanoTime();
+            int rows = catalog.rowsByCategory("Category 3").length;
+            long compactNanos = System.nanoTime() - start;
+            if (round == 1) {
+                System.out.printf("%-34s %8.1f ms List<Book>, %.1f ms compact (%d/%d)%n", "category filter",
+                        listNanos / 1e6, compactNanos / 1e6, matches, rows);
+            }
+        }
+    }
+
+    private static void check(List<Book> books, CompactCatalog catalog) {
+        CompactCatalog.BookView view = catalog.view(0);
+        for (int row = 0; row < books.size(); row += 997) {
+            Book book = books.get(row);
+            view.moveTo(row);
+            if (!book.getIsbn().equals(view.getIsbn()) || !book.getTitle().equals(view.getTitle())
+                    || !book.getAuthor().equals(view.getAuthor()) || !book.getCategory().equals(view.getCategory())
+                    || !book.getAvailableCopies().equals(view.getAvailableCopies())
+                    || !book.getReferencePrice().equals(view.getReferencePrice())
+                    || book.isActive() != view.isActive()
+                    || !book.getCreatedAt().equals(view.getCreatedAt())
+                    || !Objects.equals(book.getVersion(), view.getVersion())
+                    || catalog.indexOf(book.getIsbn()) != row) {
+                throw new IllegalStateException("Row " + row + " differs: " + book + " / " + view);
+            }
+        }
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    private static List<Book> sampleBooks(int titles) {
+        Random random = new Random(42);
+        List<Book> books = new ArrayList<>(titles);
+        for (int i = 0; i < titles; i++) {
+            Book book = new Book(String.format("978-%010d", i),
+                    "Title number " + i + (random.nextBoolean() ? " with a rather long subtitle" : ""),
+                    new String("Author " + random.nextInt(titles / 8 + 1)),
+                    new String("Category " + random.nextInt(40)),
+                    5 + random.nextInt(10), random.nextInt(5), (1000 + random.nextInt(9000)) / 100.0,
+                    random.nextInt(10) > 0, LocalDateTime.of(2024, 1, 1, 9, 0).plusMinutes(i));
+            book.setVersion(random.nextInt(3));
+            books.add(book);
+        }
+        return books;
+    }
+}
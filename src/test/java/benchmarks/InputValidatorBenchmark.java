@@ -0,0 +1,136 @@
+package benchmarks;
+
+import utils.InputValidator;
+import utils.ValidationResult;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Compares the String.matches based checks InputValidator used before with the current
+ * scanners, and the old field-by-field member checks with validateMember. Not a unit test:
+ * run the main method with the test classpath, optionally passing the number of records
+ * (default 100000).
+ *
+ * The baseline ISBN check only tests the format; the current one also verifies the check
+ * digit, so the inputs are valid ISBNs and both do their full work.
+ */
+public class InputValidatorBenchmark {
+
+    private static final int WARMUP_ROUNDS = 10;
+    private static final int MEASURED_ROUNDS = 10;
+
+    @FunctionalInterface
+    private interface Check {
+        boolean test(String value);
+    }
+
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        Random random = new Random(42);
+
+        List<String> emails = new ArrayList<>(count);
+        List<String> phones = new ArrayList<>(count);
+        List<String> usernames = new ArrayList<>(count);
+        List<String> isbns = new ArrayList<>(count);
+        List<String> names = new ArrayList<>(count);
+
+        for (int i = 0; i < count; i++) {
+            boolean valid = random.nextInt(10) > 0;
+            emails.add(valid ? "socio." + i + "@biblioteca" + random.nextInt(50) + ".com" : "socio" + i + "@invalido");
+            phones.add(valid ? "+57 (300) " + (1_000_000 + random.nextInt(9_000_000)) : "tel-" + i);
+            usernames.add(valid ? "user_" + i : "user " + i);
+            isbns.add(isbn13(random));
+            names.add(valid ? "Socio " + i : " ");
+        }
+
+        System.out.println("Inputs per check: " + count);
+        measure("email    String.matches", emails, InputValidatorBenchmark::legacyEmail);
+        measure("email    isValidEmail", emails, InputValidator::isValidEmail);
+        measure("phone    String.matches", phones, InputValidatorBenchmark::legacyPhone);
+        measure("phone    isValidPhone", phones, InputValidator::isValidPhone);
+        measure("username String.matches", usernames, InputValidatorBenchmark::legacyUsername);
+        measure("username isValidUsername", usernames, InputValidator::isValidUsername);
+        measure("isbn     replaceAll+matches", isbns, InputValidatorBenchmark::legacyIsbn);
+        measure("isbn     isValidISBN", isbns, InputValidator::isValidISBN);
+
+        List<String> indexes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            indexes.add(String.valueOf(i));
+        }
+        measure("member   field by field", indexes, i -> {
+            int index = Integer.parseInt(i);
+            return legacyMember(names.get(index), emails.get(index), phones.get(index));
+        });
+        measure("member   validateMember", indexes, i -> {
+            int index = Integer.parseInt(i);
+            ValidationResult result = InputValidator.validateMember(names.get(index), emails.get(index), phones.get(index));
+            return result.isValid();
+        });
+    }
+
+    private static void measure(String name, List<String> inputs, Check check) {
+        int valid = 0;
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            for (String input : inputs) {
+                valid += check.test(input) ? 1 : 0;
+            }
+        }
+
+        long start = System.nanoTime();
+        for (int round = 0; round < MEASURED_ROUNDS; round++) {
+            for (String input : inputs) {
+                valid += check.test(input) ? 1 : 0;
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+
+        System.out.printf("%-30s %8.1f ns/check  (%d valid)%n",
+                name, (double) elapsed / ((long) inputs.size() * MEASURED_ROUNDS),
+                valid / (WARMUP_ROUNDS + MEASURED_ROUNDS));
+    }
+
+    private static String isbn13(Random random) {
+        StringBuilder isbn = new StringBuilder("978");
+        for (int i = 0; i < 9; i++) {
+            isbn.append((char) ('0' + random.nextInt(10)));
+        }
+
+        int sum = 0;
+        for (int i = 0; i < 12; i++) {
+            sum += (i % 2 == 0 ? 1 : 3) * (isbn.charAt(i) - '0');
+        }
+        isbn.append((char) ('0' + (10 - sum % 10) % 10));
+        return isbn.insert(3, '-').insert(5, '-').toString();
+    }
+
+    // String.matches versions of the checks before the scanners (baseline)
+
+    private static boolean legacyEmail(String email) {
+        return !InputValidator.isNullOrEmpty(email) && email.matches("^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,}$");
+    }
+
+    private static boolean legacyPhone(String phone) {
+        return !InputValidator.isNullOrEmpty(phone) && phone.matches("^[0-9\\s()+-]{7,20}$");
+    }
+
+    private static boolean legacyUsername(String username) {
+        return !InputValidator.isNullOrEmpty(username) && username.matches("^[a-zA-Z0-9_]{3,20}$");
+    }
+
+    private static boolean legacyIsbn(String isbn) {
+        if (InputValidator.isNullOrEmpty(isbn)) {
+            return false;
+        }
+        String cleanIsbn = isbn.replaceAll("[\\s-]", "");
+        return cleanIsbn.matches("^\\d{10}$") || cleanIsbn.matches("^\\d{13}$");
+    }
+
+    private static boolean legacyMember(String name, String email, String phone) {
+        if (InputValidator.isNullOrEmpty(name) || InputValidator.isNullOrEmpty(email) || !legacyEmail(email)) {
+            return false;
+        }
+        return InputValidator.isNullOrEmpty(phone) || legacyPhone(phone);
+    }
+}
@@ -0,0 +1,111 @@
+package benchmarks;
+
+import audit.LoanJournal;
+import audit.LoanJournalFormat.EventType;
+import audit.LoanJournalReader;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * Writes a loan audit journal into a temporary directory and measures appending, opening
+ * and scanning it: a full scan, a filter on one member, and a time range covering the last
+ * 1% of the records. Not a unit test: run the main method with the test classpath,
+ * optionally passing the record count (default 5,000,000).
+ *
+ * Prints records per second for each step after checking the counts the scans return.
+ */
+public class LoanJournalBenchmark {
+
+    private static final int SEGMENT_RECORDS = 1 << 20;
+    private static final int MEASURED_ROUNDS = 5;
+    private static final long START_MILLIS = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+
+    public static void main(String[] args) throws IOException {
+        int records = args.length > 0 ? Integer.parseInt(args[0]) : 5_000_000;
+        Path directory = Files.createTempDirectory("loan-journal-benchmark");
+        try {
+            run(directory, records);
+        } finally {
+            try (Stream<Path> files = Files.walk(directory)) {
+                for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+    }
+
+    private static void run(Path directory, int records) throws IOException {
+        Random random = new Random(42);
+        int expectedForMember = 0;
+        long start = System.nanoTime();
+        try (LoanJournal journal = new LoanJournal(directory, SEGMENT_RECORDS)) {
+            for (int i = 0; i < records; i++) {
+                int memberId = 1 + random.nextInt(20_000);
+                if (memberId == 7) {
+                    expectedForMember++;
+                }
+                boolean isReturn = (i & 1) == 1;
+                long isbn = (9_780_000_000_000L + random.nextInt(1_000_000_000)) << 1; // packed ISBN-13
+                journal.append(START_MILLIS + i * 50L, isReturn ? EventType.RETURN : EventType.CHECKOUT,
+                        i + 1, isbn, memberId, isReturn ? random.nextInt(2000) : 0, 0, 0);
+            }
+        }
+        report("append (+ force at close)", records, System.nanoTime() - start);
+
+        start = System.nanoTime();
+        LoanJournalReader reader = LoanJournalReader.open(directory);
+        report("open (map + checksum)", records, System.nanoTime() - start);
+        if (reader.size() != records) {
+            throw new IllegalStateException("Journal has " + reader.size() + " records, expected " + records);
+        }
+
+        long[] fines = {0};
+        LoanJournalReader.Filter all = new LoanJournalReader.Filter();
+        measure("scan all (sum fines)", records, () -> {
+            fines[0] = 0;
+            reader.scan(all, record -> fines[0] += record.getFineCents());
+            return records;
+        });
+
+        LoanJournalReader.Filter member = new LoanJournalReader.Filter().member(7);
+        int expected = expectedForMember;
+        measure("filter memberId", records, () -> check(reader.count(member), expected));
+
+        int tail = Math.max(1, records / 100);
+        LoanJournalReader.Filter lastPercent = new LoanJournalReader.Filter()
+                .from(Instant.ofEpochMilli(START_MILLIS + (records - tail) * 50L));
+        measure("time range (last 1%)", records, () -> check(reader.count(lastPercent), tail));
+    }
+
+    @FunctionalInterface
+    private interface Step {
+        long run();
+    }
+
+    private static void measure(String name, int records, Step step) {
+        step.run(); // warm-up
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            step.run();
+        }
+        report(name, records, (System.nanoTime() - start) / MEASURED_ROUNDS);
+    }
+
+    private static long check(long count, long expected) {
+        if (count != expected) {
+            throw new IllegalStateException("Scan returned " + count + " records, expected " + expected);
+        }
+        return count;
+    }
+
+    private static void report(String name, int records, long nanos) {
+        System.out.printf("%-28s %10.1f ms %12.0f records/s%n",
+                name, nanos / 1e6, records / (nanos / 1e9));
+    }
+}
@@ -0,0 +1,87 @@
+package benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Cold-start time of the runtime-image distribution against a plain {@code java -jar}.
+ * Each variant launches {@code App --warmup} (the class-loading path up to the main menu)
+ * in a fresh JVM and the wall time until the process exits is measured. Not a unit test:
+ * build with {@code mvn -P runtime-image package}, then run the main method, optionally
+ * passing the distribution directory (default target/libronova) and the number of runs
+ * (default 10).
+ */
+public class StartupBenchmark {
+
+    private static final int WARMUP_RUNS = 2;
+
+    public static void main(String[] args) throws Exception {
+        File distDir = new File(args.length > 0 ? args[0] : "target/libronova").getAbsoluteFile();
+        int runs = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+
+        File runtimeJava = new File(distDir, "runtime/bin/java");
+        String systemJava = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+
+        if (!new File(distDir, "lib/libronova.jar").isFile() || !runtimeJava.canExecute()) {
+            System.err.println("Distribution not found in " + distDir + " (mvn -P runtime-image package)");
+            System.exit(1);
+        }
+
+        System.out.printf("%d runs of App --warmup from %s%n%n", runs, distDir);
+        System.out.printf("%-36s %10s %10s %10s%n", "variant", "median ms", "mean ms", "min ms");
+
+        measure("java -jar (system JDK)", distDir, runs,
+                systemJava, "-jar", "lib/libronova.jar", "--warmup");
+        measure("java -jar -Xshare:off", distDir, runs,
+                systemJava, "-Xshare:off", "-jar", "lib/libronova.jar", "--warmup");
+        measure("runtime image, default CDS", distDir, runs,
+                runtimeJava.getPath(), "-jar", "lib/libronova.jar", "--warmup");
+
+        if (new File(distDir, "app.jsa").isFile()) {
+            measure("runtime image + app.jsa", distDir, runs,
+                    runtimeJava.getPath(), "-XX:SharedArchiveFile=app.jsa", "-Xshare:auto",
+                    "-jar", "lib/libronova.jar", "--warmup");
+        } else {
+            System.out.println("(no app.jsa, AppCDS variant skipped)");
+        }
+    }
+
+    private static void measure(String label, File dir, int runs, String... command)
+            throws IOException, InterruptedException {
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            run(dir, command);
+        }
+
+        long[] millis = new long[runs];
+        for (int i = 0; i < runs; i++) {
+            millis[i] = run(dir, command);
+        }
+
+        Arrays.sort(millis);
+        long total = 0;
+        for (long value : millis) {
+            total += value;
+        }
+        System.out.printf("%-36s %10d %10.1f %10d%n", label, millis[runs / 2], (double) total / runs, millis[0]);
+    }
+
+    private static long run(File dir, String... command) throws IOException, InterruptedException {
+        List<String> arguments = new ArrayList<>(Arrays.asList(command));
+        ProcessBuilder builder = new ProcessBuilder(arguments)
+                .directory(dir)
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD);
+
+        long start = System.nanoTime();
+        int exitCode = builder.start().waitFor();
+        long elapsed = (System.nanoTime() - start) / 1_000_000;
+
+        if (exitCode != 0) {
+            throw new IllegalStateException(String.join(" ", arguments) + " exited with " + exitCode);
+        }
+        return elapsed;
+    }
+}
@@ -0,0 +1,221 @@
+package benchmarks;
+
+import models.Book;
+import models.Loan;
+import utils.TableFormatter;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Compares the String.format based table formatting that TableFormatter used before
+ * TextTableWriter with the current format methods (into a String) and write methods
+ * (streamed to a discarding Writer). Not a unit test: run the main method with the
+ * test classpath, optionally passing the row count (default 5000).
+ *
+ * Prints time per row and bytes allocated per row for each variant after checking
+ * that all of them produce the same text.
+ */
+public class TableFormatterBenchmark {
+
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    private static final int WARMUP_ROUNDS = 30;
+    private static final int MEASURED_ROUNDS = 30;
+
+    @FunctionalInterface
+    private interface Variant {
+        long run() throws IOException;
+    }
+
+    /**
+     * Writer that only counts characters, so streaming is measured without buffering the output
+     */
+    private static class CountingWriter extends Writer {
+        private long count;
+
+        @Override
+        public void write(char[] buffer, int offset, int length) {
+            count += length;
+        }
+
+        @Override
+        public void write(String text) {
+            count += text.length();
+        }
+
+        @Override
+        public Writer append(CharSequence text) {
+            count += text.length();
+            return this;
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 5000;
+        List<Book> books = sampleBooks(rows);
+        List<Loan> loans = sampleLoans(rows);
+
+        if (!legacyBooksTable(books).equals(TableFormatter.formatBooksTable(books))
+                || !legacyLoansTable(loans).equals(TableFormatter.formatLoansTable(loans))) {
+            throw new IllegalStateException("TableFormatter output differs from the String.format version");
+        }
+
+        System.out.println("Rows per table: " + rows);
+        measure("books  String.format", rows, () -> legacyBooksTable(books).length());
+        measure("books  formatBooksTable", rows, () -> TableFormatter.formatBooksTable(books).length());
+        measure("books  writeBooksTable", rows, () -> {
+            CountingWriter writer = new CountingWriter();
+            TableFormatter.writeBooksTable(books, writer);
+            return writer.count;
+        });
+        measure("loans  String.format", rows, () -> legacyLoansTable(loans).length());
+        measure("loans  formatLoansTable", rows, () -> TableFormatter.formatLoansTable(loans).length());
+        measure("loans  writeLoansTable", rows, () -> {
+            CountingWriter writer = new CountingWriter();
+            TableFormatter.writeLoansTable(loans, writer);
+            return writer.count;
+        });
+    }
+
+    private static void measure(String name, int rows, Variant variant) throws IOException {
+        long sink = 0;
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            sink += variant.run();
+        }
+
+        long allocatedBefore = allocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            sink += variant.run();
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = allocatedBytes() - allocatedBefore;
+
+        long perRound = (long) rows * MEASURED_ROUNDS;
+        System.out.printf("%-26s %8.1f ns/row %8.1f bytes/row  (%d chars)%n",
+                name, (double) elapsed / perRound, (double) allocated / perRound, sink / (WARMUP_ROUNDS + MEASURED_ROUNDS));
+    }
+
+    private static long allocatedBytes() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return 0;
+    }
+
+    private static List<Book> sampleBooks(int rows) {
+        Random random = new Random(42);
+        List<Book> books = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            books.add(new Book(String.format("978-%010d", random.nextInt(1_000_000_000)),
+                    "Title number " + i + (random.nextBoolean() ? " with a rather long subtitle" : ""),
+                    "Author " + random.nextInt(500),
+                    "Category " + random.nextInt(20),
+                    5 + random.nextInt(10), random.nextInt(5), 10 + random.nextInt(9000) / 100.0,
+                    random.nextInt(10) > 0, LocalDateTime.of(2024, 1, 1, 9, 0).plusMinutes(i)));
+        }
+        return books;
+    }
+
+    private static List<Loan> sampleLoans(int rows) {
+        Random random = new Random(42);
+        LocalDate today = LocalDate.now();
+        List<Loan> loans = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            LocalDate loanDate = today.minusDays(random.nextInt(60));
+            boolean returned = random.nextInt(3) == 0;
+            loans.add(new Loan(i + 1, String.format("978-%010d", random.nextInt(1_000_000_000)),
+                    1 + random.nextInt(2000), loanDate, loanDate.plusDays(14),
+                    returned ? loanDate.plusDays(random.nextInt(20)) : null, random.nextInt(2000) / 100.0,
+                    returned ? Loan.LoanStatus.RETURNED : Loan.LoanStatus.ACTIVE, loanDate.atStartOfDay()));
+        }
+        return loans;
+    }
+
+    // String.format versions of formatBooksTable/formatLoansTable before TextTableWriter (baseline)
+
+    private static String legacyBooksTable(List<Book> books) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("╔════════════════════════════════════════════════════════════════════════╗\n");
+        sb.append("║                           BOOKS CATALOG                                ║\n");
+        sb.append("╠════════════════════════════════════════════════════════════════════════╣\n");
+        sb.append(String.format("║ %-18s %-25s %-20s %-6s ║\n", "ISBN", "Title", "Author", "Stock"));
+        sb.append("╠════════════════════════════════════════════════════════════════════════╣\n");
+
+        for (Book book : books) {
+            String status = book.getIsActive() ? "✓" : "✗";
+            String title = truncate(book.getTitle(), 25);
+            String author = truncate(book.getAuthor(), 20);
+            String stock = String.format("%d/%d", book.getAvailableCopies(), book.getTotalCopies());
+
+            sb.append(String.format("║ %s %-18s %-25s %-20s %-6s ║\n",
+                    status, truncate(book.getIsbn(), 18), title, author, stock));
+        }
+
+        sb.append("╚════════════════════════════════════════════════════════════════════════╝\n");
+        sb.append(String.format("Total: %d books", books.size()));
+
+        return sb.toString();
+    }
+
+    private static String legacyLoansTable(List<Loan> loans) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("╔═══════════════════════════════════════════════════════════════════════════╗\n");
+        sb.append("║                              LOANS LIST                                   ║\n");
+        sb.append("╠═══════════════════════════════════════════════════════════════════════════╣\n");
+        sb.append(String.format("║ %-4s %-18s %-6s %-12s %-12s %-10s %-8s ║\n",
+                "ID", "ISBN", "Member", "Loan Date", "Due Date", "Status", "Fine"));
+        sb.append("╠═══════════════════════════════════════════════════════════════════════════╣\n");
+
+        for (Loan loan : loans) {
+            String loanDate = loan.getLoanDate().format(DATE_FORMATTER);
+            String dueDate = loan.getDueDate().format(DATE_FORMATTER);
+            String fine = String.format("$%.2f", loan.getFineAmount());
+            String status = loan.getStatus().name();
+
+            if (loan.isOverdue()) {
+                status += " ⚠";
+            }
+
+            sb.append(String.format("║ %-4d %-18s %-6d %-12s %-12s %-10s %-8s ║\n",
+                    loan.getIdLoan(),
+                    truncate(loan.getIsbn(), 18),
+                    loan.getIdMember(),
+                    loanDate,
+                    dueDate,
+                    status,
+                    fine));
+        }
+
+        sb.append("╚═══════════════════════════════════════════════════════════════════════════╝\n");
+        sb.append(String.format("Total: %d loans", loans.size()));
+
+        return sb.toString();
+    }
+
+    private static String truncate(String str, int maxLength) {
+        if (str == null) {
+            return "";
+        }
+        if (str.length() <= maxLength) {
+            return str;
+        }
+        return str.substring(0, maxLength - 3) + "...";
+    }
+}